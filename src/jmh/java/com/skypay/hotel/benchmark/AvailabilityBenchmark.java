@@ -0,0 +1,67 @@
+package com.skypay.hotel.benchmark;
+
+import com.skypay.hotel.exception.RoomNotAvailableException;
+import com.skypay.hotel.service.Service;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Availability checks at different booking densities. Each room is filled with
+ * back-to-back two-night stays; attempts collide with a random existing stay.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class AvailabilityBenchmark {
+
+    @Param({"1000"})
+    public int rooms;
+
+    /**
+     * Number of committed bookings per room
+     */
+    @Param({"10", "100", "1000"})
+    public int bookingsPerRoom;
+
+    private Service service;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkData.silenceConsole();
+        service = BenchmarkData.populatedService(rooms, 1);
+        for (int stay = 0; stay < bookingsPerRoom; stay++) {
+            for (int roomNumber = 1; roomNumber <= rooms; roomNumber++) {
+                service.bookRoom(1, roomNumber, BenchmarkData.date(stay * 2), BenchmarkData.date(stay * 2 + 2));
+            }
+        }
+    }
+
+    @Benchmark
+    public boolean conflictingStay() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int roomNumber = 1 + random.nextInt(rooms);
+        int day = 1 + 2 * random.nextInt(bookingsPerRoom);
+        try {
+            service.bookRoom(1, roomNumber, BenchmarkData.date(day), BenchmarkData.date(day + 2));
+            return true;
+        } catch (RoomNotAvailableException e) {
+            return false;
+        }
+    }
+}
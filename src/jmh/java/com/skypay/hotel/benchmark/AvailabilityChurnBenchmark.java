@@ -0,0 +1,115 @@
+package com.skypay.hotel.benchmark;
+
+import com.skypay.hotel.model.Booking;
+import com.skypay.hotel.service.BookingCompactor;
+import com.skypay.hotel.service.Service;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Availability checks on a hotel where half of the bookings were cancelled and rebooked.
+ * Each room is filled with back-to-back two-night stays, then every other stay is cancelled
+ * and booked again, leaving as many tombstones as live bookings unless compaction removes them.
+ * {@code cancelAndRebook} keeps churning during the measurement, with or without a background
+ * {@link BookingCompactor}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class AvailabilityChurnBenchmark {
+
+    @Param({"1000"})
+    public int rooms;
+
+    /**
+     * Number of committed bookings per room
+     */
+    @Param({"100"})
+    public int bookingsPerRoom;
+
+    /**
+     * {@code none} keeps the tombstones, {@code background} compacts them every 100 ms
+     */
+    @Param({"none", "background"})
+    public String compaction;
+
+    private Service service;
+    private BookingCompactor compactor;
+    // Live booking ID of each stay, indexed by room and stay
+    private int[] stayBookingIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkData.silenceConsole();
+        service = BenchmarkData.populatedService(rooms, 1);
+        for (int stay = 0; stay < bookingsPerRoom; stay++) {
+            for (int roomNumber = 1; roomNumber <= rooms; roomNumber++) {
+                service.bookRoom(1, roomNumber, BenchmarkData.date(stay * 2), BenchmarkData.date(stay * 2 + 2));
+            }
+        }
+        stayBookingIds = new int[rooms * bookingsPerRoom];
+        List<Booking> bookings = service.getBookings();
+        for (int i = 0; i < bookings.size(); i++) {
+            stayBookingIds[i] = bookings.get(i).getBookingId();
+        }
+        for (int stay = 0; stay < stayBookingIds.length; stay += 2) {
+            rebook(stay);
+        }
+        if (compaction.equals("background")) {
+            service.compactBookings();
+            compactor = BookingCompactor.start(service, 100, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (compactor != null) {
+            compactor.close();
+        }
+    }
+
+    @Benchmark
+    public boolean conflictingStay() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int roomNumber = 1 + random.nextInt(rooms);
+        int day = 1 + 2 * random.nextInt(bookingsPerRoom);
+        return service.tryBookRoom(1, roomNumber, BenchmarkData.date(day), BenchmarkData.date(day + 2)).isSuccess();
+    }
+
+    @Benchmark
+    public int cancelAndRebook() {
+        return rebook(ThreadLocalRandom.current().nextInt(stayBookingIds.length));
+    }
+
+    /**
+     * Cancels the stay's booking and books the same room and nights again
+     */
+    private int rebook(int stay) {
+        // Stays were booked stay by stay across all rooms
+        int roomNumber = 1 + stay % rooms;
+        int day = stay / rooms * 2;
+        service.cancelBooking(stayBookingIds[stay]);
+        Booking booking = service.tryBookRoom(1, roomNumber, BenchmarkData.date(day), BenchmarkData.date(day + 2))
+                .getBooking();
+        stayBookingIds[stay] = booking.getBookingId();
+        return stayBookingIds[stay];
+    }
+}
@@ -0,0 +1,78 @@
+package com.skypay.hotel.benchmark;
+
+import com.skypay.hotel.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Many threads debiting one hot account (e.g. a corporate account).
+ * Compares the compare-and-set debit in {@link User} with a synchronized check-then-deduct.
+ * Override the thread count with {@code -t}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class BalanceContentionBenchmark {
+
+    private User account;
+    private SynchronizedAccount baseline;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        account = new User(1, Integer.MAX_VALUE);
+        baseline = new SynchronizedAccount(Integer.MAX_VALUE);
+    }
+
+    @Benchmark
+    public int atomicDebit() {
+        return account.tryDeductBalance(1);
+    }
+
+    @Benchmark
+    public int synchronizedDebit() {
+        return baseline.tryDeduct(1);
+    }
+
+    @Benchmark
+    public int atomicDebitAndRefund() {
+        int previous = account.tryDeductBalance(1);
+        account.refundBalance(1);
+        return previous;
+    }
+
+    /**
+     * The pre-atomic approach: a monitor around the check and the deduction
+     */
+    static final class SynchronizedAccount {
+        private int balance;
+
+        SynchronizedAccount(int balance) {
+            this.balance = balance;
+        }
+
+        synchronized int tryDeduct(int amount) {
+            if (balance < amount) {
+                return User.INSUFFICIENT_BALANCE;
+            }
+            int previous = balance;
+            balance -= amount;
+            return previous;
+        }
+    }
+}
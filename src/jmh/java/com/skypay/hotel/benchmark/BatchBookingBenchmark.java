@@ -0,0 +1,82 @@
+package com.skypay.hotel.benchmark;
+
+import com.skypay.hotel.model.BatchMode;
+import com.skypay.hotel.model.BookingRequest;
+import com.skypay.hotel.model.BookingResult;
+import com.skypay.hotel.service.Service;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Imports a batch of reservations (100k by default) into a fresh service,
+ * through {@code bookRooms} versus one {@code tryBookRoom} call per request.
+ * Roughly a quarter of the requests conflict with each other.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class BatchBookingBenchmark {
+
+    @Param({"100000"})
+    public int requests;
+
+    @Param({"10000"})
+    public int rooms;
+
+    private List<BookingRequest> batch;
+    private Service service;
+
+    @Setup(Level.Trial)
+    public void createBatch() {
+        BenchmarkData.silenceConsole();
+        SplittableRandom random = new SplittableRandom(42);
+        int horizonDays = Math.max(30, requests / rooms * 4);
+        batch = new ArrayList<>(requests);
+        for (int i = 0; i < requests; i++) {
+            int checkIn = random.nextInt(horizonDays);
+            batch.add(new BookingRequest(1 + random.nextInt(1000), 1 + random.nextInt(rooms),
+                    BenchmarkData.FIRST_DAY.plusDays(checkIn),
+                    BenchmarkData.FIRST_DAY.plusDays(checkIn + 1 + random.nextInt(3))));
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void createService() {
+        service = BenchmarkData.populatedService(rooms, 1000);
+    }
+
+    @Benchmark
+    public List<BookingResult> batchBestEffort() {
+        return service.bookRooms(batch, BatchMode.BEST_EFFORT);
+    }
+
+    @Benchmark
+    public void singleCallLoop(Blackhole blackhole) {
+        for (BookingRequest request : batch) {
+            int checkIn = (int) ChronoUnit.DAYS.between(BenchmarkData.FIRST_DAY, request.getCheckInDate());
+            int checkOut = (int) ChronoUnit.DAYS.between(BenchmarkData.FIRST_DAY, request.getCheckOutDate());
+            blackhole.consume(service.tryBookRoom(request.getUserId(), request.getRoomNumber(),
+                    BenchmarkData.date(checkIn), BenchmarkData.date(checkOut)));
+        }
+    }
+}
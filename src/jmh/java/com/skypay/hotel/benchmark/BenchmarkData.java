@@ -0,0 +1,73 @@
+package com.skypay.hotel.benchmark;
+
+import com.skypay.hotel.model.RoomType;
+import com.skypay.hotel.service.Service;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.LocalDate;
+import java.util.Date;
+
+/**
+ * Shared fixtures for the benchmarks: populated services and pre-built dates,
+ * so measured methods do not pay for data generation.
+ */
+final class BenchmarkData {
+    static final LocalDate FIRST_DAY = LocalDate.of(2030, 1, 1);
+    static final int PRICE_PER_NIGHT = 100;
+
+    private static final int DAYS = 100_000;
+    private static final Date[] DATES = new Date[DAYS];
+
+    static {
+        for (int day = 0; day < DAYS; day++) {
+            DATES[day] = toDate(FIRST_DAY.plusDays(day));
+        }
+    }
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Discards console output so the benchmarks measure the service, not the terminal
+     */
+    static void silenceConsole() {
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        System.setErr(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    /**
+     * Creates a service with rooms 1..rooms cycling through the room types
+     * and users 1..users with a balance that never runs out
+     */
+    static Service populatedService(int rooms, int users) {
+        return populate(new Service(), rooms, users);
+    }
+
+    /**
+     * Adds rooms 1..rooms and users 1..users to the service, as {@link #populatedService} does
+     */
+    static Service populate(Service service, int rooms, int users) {
+        RoomType[] types = RoomType.values();
+        for (int roomNumber = 1; roomNumber <= rooms; roomNumber++) {
+            service.setRoom(roomNumber, types[roomNumber % types.length], PRICE_PER_NIGHT);
+        }
+        for (int userId = 1; userId <= users; userId++) {
+            service.setUser(userId, Integer.MAX_VALUE);
+        }
+        return service;
+    }
+
+    /**
+     * @param day the number of days after {@link #FIRST_DAY}
+     * @return the pre-built Date for that day
+     */
+    static Date date(int day) {
+        return DATES[day % DAYS];
+    }
+
+    @SuppressWarnings("deprecation")
+    private static Date toDate(LocalDate date) {
+        return new Date(date.getYear() - 1900, date.getMonthValue() - 1, date.getDayOfMonth());
+    }
+}
@@ -0,0 +1,100 @@
+package com.skypay.hotel.benchmark;
+
+import com.skypay.hotel.exception.InsufficientBalanceException;
+import com.skypay.hotel.exception.RoomNotAvailableException;
+import com.skypay.hotel.model.RoomType;
+import com.skypay.hotel.service.Service;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The booking hot path: room/user upserts, successful bookings and rejected bookings.
+ * Parameterized by dataset size; run with {@code -t N} to measure N concurrent callers.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class BookingBenchmark {
+
+    /**
+     * Number of rooms and of users in the service
+     */
+    @Param({"1000", "100000"})
+    public int size;
+
+    private Service service;
+    private final AtomicLong nextSlot = new AtomicLong();
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        BenchmarkData.silenceConsole();
+        service = BenchmarkData.populatedService(size, size);
+        // A single booking that every rejected attempt collides with
+        service.bookRoom(1, 1, BenchmarkData.date(0), BenchmarkData.date(1));
+        // A user who cannot afford anything
+        service.setUser(size + 1, 0);
+        nextSlot.set(size);
+    }
+
+    @Benchmark
+    public void setRoomUpdate() {
+        int roomNumber = 1 + ThreadLocalRandom.current().nextInt(size);
+        service.setRoom(roomNumber, RoomType.SUITE, BenchmarkData.PRICE_PER_NIGHT);
+    }
+
+    @Benchmark
+    public void setUserUpdate() {
+        int userId = 1 + ThreadLocalRandom.current().nextInt(size);
+        service.setUser(userId, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Every call books a distinct (room, night) slot, so all bookings succeed
+     */
+    @Benchmark
+    public void bookRoomSuccess() {
+        long slot = nextSlot.getAndIncrement();
+        int roomNumber = 1 + (int) (slot % size);
+        int day = (int) (slot / size);
+        int userId = 1 + ThreadLocalRandom.current().nextInt(size);
+        service.bookRoom(userId, roomNumber, BenchmarkData.date(day), BenchmarkData.date(day + 1));
+    }
+
+    @Benchmark
+    public boolean bookRoomRejectedUnavailable() {
+        try {
+            service.bookRoom(2, 1, BenchmarkData.date(0), BenchmarkData.date(1));
+            return true;
+        } catch (RoomNotAvailableException e) {
+            return false;
+        }
+    }
+
+    @Benchmark
+    public boolean bookRoomRejectedBalance() {
+        int roomNumber = 2 + ThreadLocalRandom.current().nextInt(size - 1);
+        try {
+            service.bookRoom(size + 1, roomNumber, BenchmarkData.date(0), BenchmarkData.date(1));
+            return true;
+        } catch (InsufficientBalanceException e) {
+            return false;
+        }
+    }
+}
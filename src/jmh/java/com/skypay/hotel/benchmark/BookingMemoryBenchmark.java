@@ -0,0 +1,86 @@
+package com.skypay.hotel.benchmark;
+
+import com.skypay.hotel.index.ColumnarBookingStore;
+import com.skypay.hotel.model.Booking;
+import com.skypay.hotel.model.RoomType;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Retained heap per booking at 10M bookings: an {@code ArrayList<Booking>} of full objects
+ * versus the {@link ColumnarBookingStore}. The {@code bytesPerBooking} counter is the heap
+ * in use after a full GC, divided by the number of bookings; the primary score is fill time.
+ * JMH sums event counters over iterations, hence a single measured iteration.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+@State(Scope.Benchmark)
+public class BookingMemoryBenchmark {
+
+    @Param({"10000000"})
+    public int bookings;
+
+    @Param({"arrayList", "columnar"})
+    public String store;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+        public long bytesPerBooking;
+    }
+
+    private List<Booking> retained;
+
+    @Setup(Level.Invocation)
+    public void release() {
+        retained = null;
+        System.gc();
+    }
+
+    @Benchmark
+    public List<Booking> fill(Footprint footprint) {
+        long before = usedHeapAfterGc();
+        List<Booking> list = "columnar".equals(store) ? new ColumnarBookingStore() : new ArrayList<>();
+        RoomType[] types = RoomType.values();
+        LocalDateTime bookedAt = LocalDateTime.of(2030, 1, 1, 0, 0);
+        for (int i = 1; i <= bookings; i++) {
+            // Every booking owns its dates, as bookings made through the service do
+            int day = i % 3650;
+            list.add(Booking.restore(i, 1 + i % 100_000, 1 + i % 10_000,
+                    BenchmarkData.FIRST_DAY.plusDays(day), LocalDate.ofEpochDay(BenchmarkData.FIRST_DAY.toEpochDay() + day + 2),
+                    2 * BenchmarkData.PRICE_PER_NIGHT, bookedAt.plusSeconds(i), 1_000_000,
+                    types[i % types.length], BenchmarkData.PRICE_PER_NIGHT));
+        }
+        retained = list;
+        footprint.bytesPerBooking = (usedHeapAfterGc() - before) / bookings;
+        return list;
+    }
+
+    private static long usedHeapAfterGc() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
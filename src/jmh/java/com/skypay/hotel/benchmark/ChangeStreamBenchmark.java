@@ -0,0 +1,118 @@
+package com.skypay.hotel.benchmark;
+
+import com.skypay.hotel.cdc.ChangeConsumer;
+import com.skypay.hotel.cdc.ChangePublisher;
+import com.skypay.hotel.cdc.WaitStrategy;
+import com.skypay.hotel.log.EventSink;
+import com.skypay.hotel.model.BookingResult;
+import com.skypay.hotel.model.EpochDays;
+import com.skypay.hotel.model.User;
+import com.skypay.hotel.service.MutationListener;
+import com.skypay.hotel.service.Service;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cost of streaming changes to consumers through a {@link ChangePublisher}: {@code bookRoom} is
+ * the booking latency without a listener and with a publisher feeding one consumer, and
+ * {@code publish} the number of events per second a publisher delivers to its consumers.
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChangeStreamBenchmark {
+    private static final int ROOMS = 1_000;
+    private static final int USERS = 1_000;
+    private static final int RING_CAPACITY = 65_536;
+
+    @State(Scope.Benchmark)
+    public static class Hotel {
+        @Param({"none", "publisher"})
+        public String listener;
+
+        Service service;
+        ChangePublisher publisher;
+        AtomicLong consumed = new AtomicLong();
+        int nextRoom;
+        int nextDay;
+
+        @Setup(Level.Iteration)
+        public void load() {
+            BenchmarkData.silenceConsole();
+            MutationListener mutationListener = MutationListener.NONE;
+            if (listener.equals("publisher")) {
+                publisher = ChangePublisher.start(RING_CAPACITY, WaitStrategy.PARKING,
+                        (event, sequence, endOfBatch) -> consumed.lazySet(sequence));
+                mutationListener = publisher;
+            }
+            service = BenchmarkData.populate(new Service(EventSink.DISCARD, mutationListener), ROOMS, USERS);
+            nextRoom = 0;
+            nextDay = EpochDays.of(BenchmarkData.FIRST_DAY);
+        }
+
+        @TearDown(Level.Iteration)
+        public void stop() {
+            if (publisher != null) {
+                publisher.close();
+                publisher = null;
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Stream {
+        @Param({"1", "3"})
+        public int consumers;
+
+        ChangePublisher publisher;
+        User user = new User(1, 1_000);
+
+        @Setup(Level.Iteration)
+        public void start() {
+            ChangeConsumer[] feeds = new ChangeConsumer[consumers];
+            for (int c = 0; c < consumers; c++) {
+                AtomicLong last = new AtomicLong();
+                feeds[c] = (event, sequence, endOfBatch) -> last.lazySet(event.getBalanceStamp());
+            }
+            publisher = ChangePublisher.start(RING_CAPACITY, WaitStrategy.YIELDING, feeds);
+        }
+
+        @TearDown(Level.Iteration)
+        public void stop() {
+            publisher.close();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public BookingResult bookRoom(Hotel hotel) {
+        int room = 1 + hotel.nextRoom;
+        if (++hotel.nextRoom == ROOMS) {
+            hotel.nextRoom = 0;
+            hotel.nextDay++;
+        }
+        return hotel.service.tryBookRoom(1 + room % USERS, room, hotel.nextDay, hotel.nextDay + 1);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void publish(Stream stream) {
+        stream.publisher.userSaved(stream.user, stream.user.getBalanceStamp());
+    }
+}
@@ -0,0 +1,142 @@
+package com.skypay.hotel.benchmark;
+
+import com.skypay.hotel.index.ColdBookingTier;
+import com.skypay.hotel.model.BookingResult;
+import com.skypay.hotel.model.EpochDays;
+import com.skypay.hotel.service.Service;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * A hotel with five years of past stays loaded, every room booked back to back with
+ * three-night stays, kept on the heap or moved to the memory-mapped cold tier by
+ * {@link Service#archivePastStays}. {@code bookRoom} is the latency of booking the coming
+ * nights; {@code loadHistory} is a single shot whose {@code heapBytesPerBooking} counter is the
+ * heap in use after a full GC, divided by the number of past bookings.
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+public class ColdTierBenchmark {
+    private static final int HISTORY_DAYS = 5 * 365;
+    private static final int STAY_NIGHTS = 3;
+    private static final int USERS = 1_000;
+
+    @State(Scope.Benchmark)
+    public static class Hotel {
+        @Param({"1000"})
+        public int rooms;
+
+        @Param({"false", "true"})
+        public boolean archived;
+
+        Service service;
+        Path directory;
+        int today;
+        int nextRoom;
+        int nextDay;
+
+        @Setup(Level.Iteration)
+        public void load() throws IOException {
+            BenchmarkData.silenceConsole();
+            directory = Files.createTempDirectory("cold-tier");
+            service = loadHistory(rooms, archived, directory);
+            today = EpochDays.of(BenchmarkData.FIRST_DAY) + HISTORY_DAYS;
+            nextRoom = 0;
+            nextDay = today;
+        }
+
+        @TearDown(Level.Iteration)
+        public void release() throws IOException {
+            service = null;
+            deleteRecursively(directory);
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+        public long heapBytesPerBooking;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public BookingResult bookRoom(Hotel hotel) {
+        int room = 1 + hotel.nextRoom;
+        if (++hotel.nextRoom == hotel.rooms) {
+            hotel.nextRoom = 0;
+            hotel.nextDay++;
+        }
+        return hotel.service.tryBookRoom(1 + room % USERS, room, hotel.nextDay, hotel.nextDay + 1);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    public Service loadHistory(Hotel hotel, Footprint footprint) throws IOException {
+        hotel.service = null;
+        long before = usedHeapAfterGc();
+        Path directory = Files.createTempDirectory("cold-tier");
+        try {
+            Service service = loadHistory(hotel.rooms, hotel.archived, directory);
+            footprint.heapBytesPerBooking = (usedHeapAfterGc() - before) / service.view().getBookings().size();
+            return service;
+        } finally {
+            deleteRecursively(directory);
+        }
+    }
+
+    /**
+     * Books every room with back-to-back stays over the five years before today, staggered
+     * from room to room, and archives them when asked
+     */
+    private static Service loadHistory(int rooms, boolean archived, Path directory) throws IOException {
+        Service service = BenchmarkData.populatedService(rooms, USERS);
+        int firstDay = EpochDays.of(BenchmarkData.FIRST_DAY);
+        for (int room = 1; room <= rooms; room++) {
+            for (int day = firstDay + room % STAY_NIGHTS; day + STAY_NIGHTS <= firstDay + HISTORY_DAYS; day += STAY_NIGHTS) {
+                service.tryBookRoom(1 + (room + day) % USERS, room, day, day + STAY_NIGHTS);
+            }
+        }
+        if (archived) {
+            service.archivePastStays(ColdBookingTier.open(directory), BenchmarkData.FIRST_DAY.plusDays(HISTORY_DAYS));
+        }
+        return service;
+    }
+
+    private static long usedHeapAfterGc() {
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.skypay.hotel.benchmark;
+
+import com.skypay.hotel.model.BookingResult;
+import com.skypay.hotel.model.EpochDays;
+import com.skypay.hotel.service.Service;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Successful bookings through the three forms of stay dates: {@link java.util.Date}, converted
+ * field by field, {@link LocalDate}, and epoch days passed straight to the booking path. Run with
+ * {@code -prof gc} to compare the bytes allocated per booking; the dates themselves are built
+ * beforehand, as a caller parsing a request would already hold them.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class EpochDayBenchmark {
+    private static final int ROOMS = 10_000;
+    private static final int DAYS = 3_000;
+
+    private final LocalDate[] localDates = new LocalDate[DAYS + 1];
+    private final int firstEpochDay = EpochDays.of(BenchmarkData.FIRST_DAY);
+    private Service service;
+    private int booking;
+
+    @Setup(Level.Trial)
+    public void prepareDates() {
+        for (int day = 0; day <= DAYS; day++) {
+            localDates[day] = BenchmarkData.FIRST_DAY.plusDays(day);
+        }
+    }
+
+    /**
+     * A fresh service each iteration keeps the bookings per room, and so the cost of the
+     * availability check, the same for every form
+     */
+    @Setup(Level.Iteration)
+    public void setUp() {
+        BenchmarkData.silenceConsole();
+        service = BenchmarkData.populatedService(ROOMS, 1);
+        booking = 0;
+    }
+
+    @Benchmark
+    public BookingResult bookWithDate() {
+        int stay = booking++;
+        int day = (stay / ROOMS) % DAYS;
+        return service.tryBookRoom(1, 1 + stay % ROOMS, BenchmarkData.date(day), BenchmarkData.date(day + 1));
+    }
+
+    @Benchmark
+    public BookingResult bookWithLocalDate() {
+        int stay = booking++;
+        int day = (stay / ROOMS) % DAYS;
+        return service.tryBookRoom(1, 1 + stay % ROOMS, localDates[day], localDates[day + 1]);
+    }
+
+    @Benchmark
+    public BookingResult bookWithEpochDays() {
+        int stay = booking++;
+        int day = firstEpochDay + (stay / ROOMS) % DAYS;
+        return service.tryBookRoom(1, 1 + stay % ROOMS, day, day + 1);
+    }
+}
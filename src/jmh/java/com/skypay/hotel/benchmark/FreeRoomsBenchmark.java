@@ -0,0 +1,119 @@
+package com.skypay.hotel.benchmark;
+
+import com.skypay.hotel.model.BatchMode;
+import com.skypay.hotel.model.Booking;
+import com.skypay.hotel.model.BookingRequest;
+import com.skypay.hotel.model.Room;
+import com.skypay.hotel.model.RoomType;
+import com.skypay.hotel.service.Service;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * "Which rooms of this type are free" at 50k rooms booked about half of the nights over a
+ * two-year horizon: the occupancy calendar versus scanning every booking with
+ * {@link Booking#overlaps}. Each query asks for a random type and a stay of 1 to 14 nights.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class FreeRoomsBenchmark {
+    private static final int HORIZON_DAYS = 730;
+    private static final int QUERIES = 1024;
+
+    @Param({"50000"})
+    public int rooms;
+
+    private Service service;
+    private List<Booking> bookings;
+    private List<Room> roomList;
+    private RoomType[] queryTypes;
+    private int[] queryCheckIns;
+    private int[] queryCheckOuts;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkData.silenceConsole();
+        service = BenchmarkData.populatedService(rooms, 1000);
+        SplittableRandom random = new SplittableRandom(42);
+        List<BookingRequest> batch = new ArrayList<>();
+        for (int roomNumber = 1; roomNumber <= rooms; roomNumber++) {
+            // Alternate stays and gaps of 1 to 7 nights, so about half of the nights are booked
+            int day = random.nextInt(7);
+            while (true) {
+                int checkOut = day + 1 + random.nextInt(7);
+                if (checkOut > HORIZON_DAYS) {
+                    break;
+                }
+                batch.add(new BookingRequest(1 + random.nextInt(1000), roomNumber,
+                        BenchmarkData.FIRST_DAY.plusDays(day), BenchmarkData.FIRST_DAY.plusDays(checkOut)));
+                day = checkOut + 1 + random.nextInt(7);
+            }
+            if (batch.size() > 100_000) {
+                service.bookRooms(batch, BatchMode.BEST_EFFORT);
+                batch.clear();
+            }
+        }
+        service.bookRooms(batch, BatchMode.BEST_EFFORT);
+        bookings = service.getBookings();
+        roomList = service.getRooms();
+
+        RoomType[] types = RoomType.values();
+        queryTypes = new RoomType[QUERIES];
+        queryCheckIns = new int[QUERIES];
+        queryCheckOuts = new int[QUERIES];
+        for (int q = 0; q < QUERIES; q++) {
+            queryTypes[q] = types[random.nextInt(types.length)];
+            queryCheckIns[q] = random.nextInt(HORIZON_DAYS - 14);
+            queryCheckOuts[q] = queryCheckIns[q] + 1 + random.nextInt(14);
+        }
+    }
+
+    @Benchmark
+    public List<Room> occupancyCalendar() {
+        int q = cursor++ & (QUERIES - 1);
+        return service.findAvailableRooms(queryTypes[q],
+                BenchmarkData.date(queryCheckIns[q]), BenchmarkData.date(queryCheckOuts[q]));
+    }
+
+    @Benchmark
+    public List<Room> overlapScan() {
+        int q = cursor++ & (QUERIES - 1);
+        LocalDate checkIn = BenchmarkData.FIRST_DAY.plusDays(queryCheckIns[q]);
+        LocalDate checkOut = BenchmarkData.FIRST_DAY.plusDays(queryCheckOuts[q]);
+        BitSet booked = new BitSet(rooms + 1);
+        for (Booking booking : bookings) {
+            if (booking.overlaps(checkIn, checkOut)) {
+                booked.set(booking.getRoomNumber());
+            }
+        }
+        List<Room> available = new ArrayList<>();
+        for (Room room : roomList) {
+            if (room.getRoomType() == queryTypes[q] && !booked.get(room.getRoomNumber())) {
+                available.add(room);
+            }
+        }
+        return available;
+    }
+}
@@ -0,0 +1,149 @@
+package com.skypay.hotel.benchmark;
+
+import com.skypay.hotel.index.TimingWheel;
+import com.skypay.hotel.model.EpochDays;
+import com.skypay.hotel.model.Hold;
+import com.skypay.hotel.service.Service;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds with a million of them live at once, as a flash sale would leave in checkout:
+ * {@code holdRoom} is the latency of taking one more, and {@code expireMillionHolds} the time
+ * for {@link Service#expireHolds()} to drop a million expired holds. {@code wheelMillion} and
+ * {@code executorMillion} compare scheduling a million expiries on the timing wheel with
+ * scheduling one task per hold on a {@link ScheduledThreadPoolExecutor}.
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+public class HoldBenchmark {
+    private static final int ROOMS = 1_000;
+    private static final int NIGHTS = 1_000;
+    private static final int HOLDS = ROOMS * NIGHTS;
+    private static final int USERS = 1_000;
+    private static final Duration CHECKOUT_TIME = Duration.ofMinutes(10);
+
+    @State(Scope.Benchmark)
+    public static class Checkout {
+        Service service;
+        int firstDay;
+        int nextRoom;
+        int nextDay;
+
+        @Setup(Level.Iteration)
+        public void load() {
+            BenchmarkData.silenceConsole();
+            service = BenchmarkData.populatedService(ROOMS, USERS);
+            firstDay = EpochDays.of(BenchmarkData.FIRST_DAY);
+            holdEveryNight(service, firstDay, CHECKOUT_TIME);
+            nextRoom = 0;
+            nextDay = firstDay + NIGHTS;
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Expired {
+        Service service;
+
+        @Setup(Level.Invocation)
+        public void load() throws InterruptedException {
+            BenchmarkData.silenceConsole();
+            service = BenchmarkData.populatedService(ROOMS, USERS);
+            // Long enough for no hold to expire while the others are taken
+            Duration ttl = Duration.ofSeconds(5);
+            long deadline = System.nanoTime() + ttl.toNanos();
+            holdEveryNight(service, EpochDays.of(BenchmarkData.FIRST_DAY), ttl);
+            Thread.sleep(Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())) + 100);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Deadlines {
+        long[] delaysNanos = new long[HOLDS];
+
+        @Setup
+        public void load() {
+            for (int i = 0; i < HOLDS; i++) {
+                // Spread over the ten minutes of a checkout
+                delaysNanos[i] = CHECKOUT_TIME.toNanos() / HOLDS * ((i * 7919L) % HOLDS);
+            }
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Hold holdRoom(Checkout checkout) {
+        int room = 1 + checkout.nextRoom;
+        if (++checkout.nextRoom == ROOMS) {
+            checkout.nextRoom = 0;
+            checkout.nextDay++;
+        }
+        return checkout.service.holdRoom(1 + room % USERS, room, checkout.nextDay, checkout.nextDay + 1, CHECKOUT_TIME);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 3)
+    public int expireMillionHolds(Expired expired) {
+        return expired.service.expireHolds();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public int wheelMillion(Deadlines deadlines) {
+        long now = System.nanoTime();
+        TimingWheel<Integer> wheel = new TimingWheel<>(50, TimeUnit.MILLISECONDS, 8192, now);
+        for (int i = 0; i < HOLDS; i++) {
+            wheel.schedule(i, now + deadlines.delaysNanos[i]);
+        }
+        // Moves every expiry from the pending stack to its bucket
+        wheel.advance(now + TimeUnit.MILLISECONDS.toNanos(50), value -> { });
+        return wheel.size();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public List<Runnable> executorMillion(Deadlines deadlines) {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1);
+        Runnable expiry = () -> { };
+        for (int i = 0; i < HOLDS; i++) {
+            executor.schedule(expiry, deadlines.delaysNanos[i], TimeUnit.NANOSECONDS);
+        }
+        return executor.shutdownNow();
+    }
+
+    /**
+     * Holds every room for each of the first nights, a million holds in all
+     */
+    private static void holdEveryNight(Service service, int firstDay, Duration ttl) {
+        for (int day = firstDay; day < firstDay + NIGHTS; day++) {
+            for (int room = 1; room <= ROOMS; room++) {
+                service.holdRoom(1 + room % USERS, room, day, day + 1, ttl);
+            }
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.skypay.hotel.benchmark;
+
+import com.skypay.hotel.http.HttpFrontEnd;
+import com.skypay.hotel.service.Service;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Closed-loop load generator for {@link HttpFrontEnd}: each connection is a virtual thread that
+ * sends its next request as soon as the previous one is answered. Four requests in five are
+ * availability queries and one in five a booking attempt on a random room and night. After a
+ * warm-up of a fifth of the run it prints the requests per second and the p50, p99 and p99.9
+ * latencies.
+ * <p>
+ * Without a base URL it serves an in-process hotel of 1000 rooms on a loopback port, so
+ * generator and server share the CPU. Not a JMH benchmark; run it with
+ * <pre>{@code
+ * mvn -Pbenchmark test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.skypay.hotel.benchmark.HttpLoadGenerator \
+ *     -Dexec.args="10000 30 [http://host:port]"
+ * }</pre>
+ * Each connection is a socket on both ends, so 10k connections need a file descriptor limit
+ * above 20k when the server runs in-process.
+ */
+public class HttpLoadGenerator {
+    private static final int ROOMS = 1000;
+    private static final int USERS = 1000;
+    private static final int DAYS = 365;
+
+    public static void main(String[] args) throws Exception {
+        int connections = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+        PrintStream console = System.out;
+        HttpFrontEnd frontEnd = null;
+        String baseUrl;
+        if (args.length > 2) {
+            baseUrl = args[2];
+        } else {
+            // Keep every connection open between requests rather than the default 200
+            System.setProperty("sun.net.httpserver.maxIdleConnections", Integer.toString(connections));
+            frontEnd = startServer();
+            baseUrl = "http://localhost:" + frontEnd.getPort();
+        }
+        try {
+            run(baseUrl, connections, seconds, console);
+        } finally {
+            if (frontEnd != null) {
+                frontEnd.close();
+            }
+        }
+    }
+
+    private static HttpFrontEnd startServer() throws IOException {
+        BenchmarkData.silenceConsole();
+        Service service = BenchmarkData.populatedService(ROOMS, USERS);
+        return HttpFrontEnd.start(service, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+    }
+
+    private static void run(String baseUrl, int connections, int seconds, PrintStream console)
+            throws InterruptedException {
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(seconds) / 5;
+        long end = start + TimeUnit.SECONDS.toNanos(seconds);
+        Recorder[] recorders = new Recorder[connections];
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(30)).build();
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < connections; i++) {
+                Recorder recorder = new Recorder();
+                recorders[i] = recorder;
+                workers.execute(() -> recorder.loop(client, baseUrl, measureFrom, end));
+            }
+        }
+        report(recorders, TimeUnit.NANOSECONDS.toSeconds(end - measureFrom), console);
+    }
+
+    private static void report(Recorder[] recorders, long seconds, PrintStream console) {
+        int total = 0;
+        long errors = 0;
+        for (Recorder recorder : recorders) {
+            total += recorder.count;
+            errors += recorder.errors;
+        }
+        long[] latencies = new long[total];
+        int offset = 0;
+        for (Recorder recorder : recorders) {
+            System.arraycopy(recorder.latencies, 0, latencies, offset, recorder.count);
+            offset += recorder.count;
+        }
+        Arrays.sort(latencies);
+        console.printf("connections: %d, requests: %d, errors: %d%n", recorders.length, total, errors);
+        console.printf("throughput: %.0f requests/s%n", (double) total / seconds);
+        console.printf("latency p50: %.2f ms, p99: %.2f ms, p99.9: %.2f ms%n",
+                percentile(latencies, 0.50), percentile(latencies, 0.99), percentile(latencies, 0.999));
+    }
+
+    private static double percentile(long[] sortedNanos, double quantile) {
+        if (sortedNanos.length == 0) {
+            return Double.NaN;
+        }
+        int index = (int) Math.min(sortedNanos.length - 1, Math.ceil(quantile * sortedNanos.length) - 1);
+        return sortedNanos[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    /**
+     * Latencies of one connection, in nanoseconds
+     */
+    private static final class Recorder {
+        long[] latencies = new long[1024];
+        int count;
+        long errors;
+
+        void loop(HttpClient client, String baseUrl, long measureFrom, long end) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long now;
+            while ((now = System.nanoTime()) < end) {
+                HttpRequest request = nextRequest(baseUrl, random);
+                try {
+                    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() >= 500) {
+                        errors++;
+                    }
+                } catch (IOException e) {
+                    errors++;
+                    continue;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                if (now >= measureFrom) {
+                    record(System.nanoTime() - now);
+                }
+            }
+        }
+
+        private void record(long nanos) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count << 1);
+            }
+            latencies[count++] = nanos;
+        }
+
+        private static HttpRequest nextRequest(String baseUrl, ThreadLocalRandom random) {
+            LocalDate checkIn = BenchmarkData.FIRST_DAY.plusDays(random.nextInt(DAYS));
+            LocalDate checkOut = checkIn.plusDays(random.nextInt(1, 4));
+            if (random.nextInt(5) > 0) {
+                return HttpRequest.newBuilder(URI.create(baseUrl + "/availability?roomType=SUITE&checkIn="
+                        + checkIn + "&checkOut=" + checkOut)).GET().build();
+            }
+            String body = "{\"userId\":" + (1 + random.nextInt(USERS)) + ",\"roomNumber\":" + (1 + random.nextInt(ROOMS))
+                    + ",\"checkIn\":\"" + checkIn + "\",\"checkOut\":\"" + checkOut + "\"}";
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/bookings"))
+                    .POST(HttpRequest.BodyPublishers.ofString(body)).build();
+        }
+    }
+}
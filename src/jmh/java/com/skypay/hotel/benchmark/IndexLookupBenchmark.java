@@ -0,0 +1,100 @@
+package com.skypay.hotel.benchmark;
+
+import com.skypay.hotel.index.IntHashIndex;
+import com.skypay.hotel.model.RoomType;
+import com.skypay.hotel.service.Service;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures primary-key lookup cost as the number of indexed entities grows.
+ * The per-lookup time should stay flat from 1k to 10M entries.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class IndexLookupBenchmark {
+
+    private static final int PROBES = 1 << 16;
+
+    @State(Scope.Benchmark)
+    public static class IndexState {
+        @Param({"1000", "100000", "1000000", "10000000"})
+        public int size;
+
+        IntHashIndex<Object> index;
+        int[] probeKeys;
+        int cursor;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            Object value = new Object();
+            index = new IntHashIndex<>();
+            for (int key = 1; key <= size; key++) {
+                index.put(key, value);
+            }
+            probeKeys = randomKeys(size);
+        }
+    }
+
+    @Benchmark
+    public Object indexLookup(IndexState state) {
+        return state.index.get(state.probeKeys[state.cursor++ & (PROBES - 1)]);
+    }
+
+    /**
+     * Room upsert through the Service, which resolves the existing room via its index.
+     * Kept at up to 1M rooms since every Room also carries its creation timestamp.
+     */
+    @State(Scope.Benchmark)
+    public static class ServiceState {
+        @Param({"1000", "100000", "1000000"})
+        public int rooms;
+
+        Service service;
+        int[] probeKeys;
+        int cursor;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            service = new Service();
+            for (int roomNumber = 1; roomNumber <= rooms; roomNumber++) {
+                service.setRoom(roomNumber, RoomType.STANDARD, 1000);
+            }
+            probeKeys = randomKeys(rooms);
+        }
+    }
+
+    @Benchmark
+    public void serviceRoomUpdate(ServiceState state) {
+        int roomNumber = state.probeKeys[state.cursor++ & (PROBES - 1)];
+        state.service.setRoom(roomNumber, RoomType.JUNIOR, 1500);
+    }
+
+    private static int[] randomKeys(int bound) {
+        SplittableRandom random = new SplittableRandom(42);
+        int[] keys = new int[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            keys[i] = 1 + random.nextInt(bound);
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,98 @@
+package com.skypay.hotel.benchmark;
+
+import com.skypay.hotel.log.EventSink;
+import com.skypay.hotel.persistence.Journal;
+import com.skypay.hotel.service.Service;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Durable bookings through the write-ahead journal: per-booking commit latency and
+ * bookings per second for one caller and for 8 callers sharing group commits.
+ * Run with {@code -p fsync=true} to measure only fully synced commits.
+ */
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class JournalBenchmark {
+    private static final int ROOMS = 1000;
+    private static final int USERS = 1000;
+
+    @Param({"true", "false"})
+    public boolean fsync;
+
+    private Path path;
+    private Journal journal;
+    private Service service;
+    private final AtomicLong nextSlot = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        BenchmarkData.silenceConsole();
+        path = Files.createTempFile("hotel-benchmark", ".journal");
+        journal = Journal.open(path, fsync);
+        service = new Service(EventSink.DISCARD, journal);
+        journal.recover(service.recoveryTarget());
+        BenchmarkData.populate(service, ROOMS, USERS);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        System.err.println("Journal flushes: " + journal.getFlushCount() + ", bytes: " + journal.getDurablePosition());
+        journal.close();
+        Files.deleteIfExists(path);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void commitLatency() {
+        bookNextSlot();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void bookingsPerSecond() {
+        bookNextSlot();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Threads(8)
+    public void bookingsPerSecondGrouped() {
+        bookNextSlot();
+    }
+
+    /**
+     * Every call books a distinct (room, night) slot, so all bookings succeed and are journaled
+     */
+    private void bookNextSlot() {
+        long slot = nextSlot.getAndIncrement();
+        int roomNumber = 1 + (int) (slot % ROOMS);
+        int day = (int) (slot / ROOMS);
+        int userId = 1 + ThreadLocalRandom.current().nextInt(USERS);
+        service.bookRoom(userId, roomNumber, BenchmarkData.date(day), BenchmarkData.date(day + 1));
+    }
+}
@@ -0,0 +1,85 @@
+package com.skypay.hotel.benchmark;
+
+import com.skypay.hotel.log.EventSink;
+import com.skypay.hotel.metrics.LatencyHistogram;
+import com.skypay.hotel.metrics.Operation;
+import com.skypay.hotel.metrics.ServiceMetrics;
+import com.skypay.hotel.model.RoomType;
+import com.skypay.hotel.service.MutationListener;
+import com.skypay.hotel.service.Service;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the operation metrics on the booking fast path: successful {@code bookRoom} calls
+ * with metrics recording versus {@link ServiceMetrics#DISABLED}, and the instrumentation alone
+ * (a call counter and one room-type counter, plus two clock reads and a histogram increment for
+ * the sampled calls). {@code clockRead} separates the cost of {@link System#nanoTime()}, which
+ * depends on the platform clock source, from the cost of the counters themselves in {@code countersOnly}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class MetricsOverheadBenchmark {
+    private static final int ROOMS = 10_000;
+
+    @Param({"true", "false"})
+    public boolean metrics;
+
+    private final LatencyHistogram histogram = new LatencyHistogram();
+    private ServiceMetrics recorder;
+    private Service service;
+    private int booking;
+
+    /**
+     * A fresh service each iteration keeps the number of stays per room, and so the cost of
+     * the availability check, the same for both settings
+     */
+    @Setup(Level.Iteration)
+    public void setUp() {
+        BenchmarkData.silenceConsole();
+        recorder = metrics ? new ServiceMetrics() : ServiceMetrics.DISABLED;
+        service = BenchmarkData.populate(new Service(EventSink.DISCARD, MutationListener.NONE, recorder), ROOMS, 1);
+        booking = 0;
+    }
+
+    @Benchmark
+    public void bookRoom() {
+        int stay = booking++;
+        int day = stay / ROOMS;
+        service.bookRoom(1, 1 + stay % ROOMS, BenchmarkData.date(day), BenchmarkData.date(day + 1));
+    }
+
+    @Benchmark
+    public void instrumentationOnly() {
+        long start = recorder.startTimer();
+        recorder.bookingCommitted(RoomType.STANDARD);
+        recorder.record(Operation.BOOK_ROOM, start);
+    }
+
+    @Benchmark
+    public void countersOnly() {
+        recorder.bookingCommitted(RoomType.STANDARD);
+        histogram.record(booking);
+    }
+
+    @Benchmark
+    public long clockRead() {
+        return System.nanoTime();
+    }
+}
@@ -0,0 +1,96 @@
+package com.skypay.hotel.benchmark;
+
+import com.skypay.hotel.model.BatchMode;
+import com.skypay.hotel.model.Booking;
+import com.skypay.hotel.model.BookingRequest;
+import com.skypay.hotel.service.Service;
+import com.skypay.hotel.service.ServiceView;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dashboard-style polling of the service: reading all rooms, users and bookings, and the
+ * bookings of one user, through the copying getters versus a {@link ServiceView}. Run with
+ * {@code -prof gc} to compare allocation per poll.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class ReadApiBenchmark {
+    private static final int USERS = 1000;
+
+    /**
+     * Number of rooms and of bookings in the service
+     */
+    @Param({"100000"})
+    public int size;
+
+    private Service service;
+    private int userId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkData.silenceConsole();
+        service = BenchmarkData.populatedService(size, USERS);
+        List<BookingRequest> batch = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            batch.add(new BookingRequest(1 + i % USERS, 1 + i,
+                    BenchmarkData.FIRST_DAY, BenchmarkData.FIRST_DAY.plusDays(1)));
+        }
+        service.bookRooms(batch, BatchMode.BEST_EFFORT);
+    }
+
+    @Benchmark
+    public int copyingGetters() {
+        return service.getRooms().size() + service.getUsers().size() + service.getBookings().size();
+    }
+
+    @Benchmark
+    public int view() {
+        ServiceView view = service.view();
+        return view.getRooms().size() + view.getUsers().size() + view.getBookings().size();
+    }
+
+    @Benchmark
+    public long userBookingsFromCopy() {
+        int user = nextUser();
+        long total = 0;
+        for (Booking booking : service.getBookings()) {
+            if (booking.getUserId() == user) {
+                total += booking.getTotalAmount();
+            }
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long userBookingsFromView() {
+        long total = 0;
+        for (Booking booking : service.view().getBookingsOfUser(nextUser())) {
+            total += booking.getTotalAmount();
+        }
+        return total;
+    }
+
+    private int nextUser() {
+        userId = userId % USERS + 1;
+        return userId;
+    }
+}
@@ -0,0 +1,82 @@
+package com.skypay.hotel.benchmark;
+
+import com.skypay.hotel.exception.RoomNotAvailableException;
+import com.skypay.hotel.model.BookingResult;
+import com.skypay.hotel.service.Service;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a rejected booking (room already taken) through each API:
+ * the result-returning fast path, the stackless exception path, and a replica of the
+ * former path that formatted the message eagerly and captured a full stack trace.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RejectionBenchmark {
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private Service service;
+    private Date checkIn;
+    private Date checkOut;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkData.silenceConsole();
+        service = BenchmarkData.populatedService(10, 10);
+        checkIn = BenchmarkData.date(0);
+        checkOut = BenchmarkData.date(3);
+        service.bookRoom(1, 1, checkIn, checkOut);
+    }
+
+    @Benchmark
+    public BookingResult resultPath() {
+        return service.tryBookRoom(2, 1, checkIn, checkOut);
+    }
+
+    @Benchmark
+    public Object stacklessExceptionPath() {
+        try {
+            service.bookRoom(2, 1, checkIn, checkOut);
+            return null;
+        } catch (RoomNotAvailableException e) {
+            return e;
+        }
+    }
+
+    /**
+     * Rejection as it was before the result API: result check plus an eagerly
+     * formatted exception with a full stack trace, caught by the caller
+     */
+    @Benchmark
+    public Object formerExceptionPath() {
+        BookingResult result = service.tryBookRoom(2, 1, checkIn, checkOut);
+        try {
+            LocalDate from = result.getCheckInDate();
+            LocalDate to = result.getCheckOutDate();
+            throw new RoomNotAvailableException("Room " + result.getRoomNumber() + " is not available from " +
+                    from.format(DATE_FORMATTER) + " to " + to.format(DATE_FORMATTER));
+        } catch (RoomNotAvailableException e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.skypay.hotel.benchmark;
+
+import com.skypay.hotel.log.EventSink;
+import com.skypay.hotel.model.BookingResult;
+import com.skypay.hotel.model.EpochDays;
+import com.skypay.hotel.persistence.ReplicationFollower;
+import com.skypay.hotel.persistence.ReplicationLeader;
+import com.skypay.hotel.service.MutationListener;
+import com.skypay.hotel.service.Service;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of replicating a service to a follower over loopback: {@code bookRoom} is the booking
+ * latency without replication and with a leader shipping changes to one follower, and
+ * {@code catchUp} the time for a new follower to load a copy of a leader holding 100,000 bookings.
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class ReplicationBenchmark {
+    private static final int ROOMS = 1_000;
+    private static final int USERS = 1_000;
+    private static final int LOG_SIZE = 64 << 20;
+    private static final Duration TIMEOUT = Duration.ofMinutes(1);
+
+    @State(Scope.Benchmark)
+    public static class Hotel {
+        @Param({"none", "leader"})
+        public String replication;
+
+        Service service;
+        ReplicationLeader leader;
+        ReplicationFollower follower;
+        int nextRoom;
+        int nextDay;
+
+        @Setup(Level.Iteration)
+        public void load() throws IOException {
+            BenchmarkData.silenceConsole();
+            MutationListener listener = MutationListener.NONE;
+            if (replication.equals("leader")) {
+                leader = ReplicationLeader.create(LOG_SIZE);
+                listener = leader;
+            }
+            service = BenchmarkData.populate(new Service(EventSink.DISCARD, listener), ROOMS, USERS);
+            if (leader != null) {
+                leader.start(service, loopback(0));
+                follower = ReplicationFollower.start(loopback(leader.getPort()), EventSink.DISCARD);
+            }
+            nextRoom = 0;
+            nextDay = EpochDays.of(BenchmarkData.FIRST_DAY);
+        }
+
+        @TearDown(Level.Iteration)
+        public void stop() {
+            if (leader != null) {
+                follower.close();
+                leader.close();
+                follower = null;
+                leader = null;
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Leader {
+        Service service;
+        ReplicationLeader leader;
+
+        @Setup
+        public void load() throws IOException {
+            BenchmarkData.silenceConsole();
+            leader = ReplicationLeader.create(LOG_SIZE);
+            service = BenchmarkData.populate(new Service(EventSink.DISCARD, leader), ROOMS, USERS);
+            int firstDay = EpochDays.of(BenchmarkData.FIRST_DAY);
+            for (int night = 0; night < 100; night++) {
+                for (int room = 1; room <= ROOMS; room++) {
+                    service.tryBookRoom(1 + room % USERS, room, firstDay + night, firstDay + night + 1);
+                }
+            }
+            leader.start(service, loopback(0));
+        }
+
+        @TearDown
+        public void stop() {
+            leader.close();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public BookingResult bookRoom(Hotel hotel) {
+        int room = 1 + hotel.nextRoom;
+        if (++hotel.nextRoom == ROOMS) {
+            hotel.nextRoom = 0;
+            hotel.nextDay++;
+        }
+        return hotel.service.tryBookRoom(1 + room % USERS, room, hotel.nextDay, hotel.nextDay + 1);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 3)
+    @Measurement(iterations = 5)
+    public long catchUp(Leader leader) throws InterruptedException {
+        try (ReplicationFollower follower = ReplicationFollower.start(loopback(leader.leader.getPort()),
+                EventSink.DISCARD)) {
+            if (!follower.awaitPosition(leader.leader.getPosition(), TIMEOUT)) {
+                throw new IllegalStateException("Follower did not catch up");
+            }
+            return follower.getAppliedPosition();
+        }
+    }
+
+    private static InetSocketAddress loopback(int port) {
+        return new InetSocketAddress(InetAddress.getLoopbackAddress(), port);
+    }
+}
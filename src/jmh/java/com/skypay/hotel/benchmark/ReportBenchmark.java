@@ -0,0 +1,78 @@
+package com.skypay.hotel.benchmark;
+
+import com.skypay.hotel.report.ReportFormat;
+import com.skypay.hotel.report.ReportPage;
+import com.skypay.hotel.report.ReportWriter;
+import com.skypay.hotel.service.Service;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Report generation over datasets of increasing size, written to a discarded stream: the console
+ * reports, a full CSV export of the bookings, and the first page of 50 bookings as JSON.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class ReportBenchmark {
+
+    /**
+     * Number of rooms, users and bookings in the service
+     */
+    @Param({"1000", "100000"})
+    public int size;
+
+    private Service service;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkData.silenceConsole();
+        service = BenchmarkData.populatedService(size, size);
+        for (int i = 0; i < size; i++) {
+            service.bookRoom(1 + i, 1 + i, BenchmarkData.date(i % 365), BenchmarkData.date(i % 365 + 1));
+        }
+    }
+
+    @Benchmark
+    public void printAll() {
+        service.printAll();
+    }
+
+    @Benchmark
+    public void printAllUsers() {
+        service.printAllUsers();
+    }
+
+    @Benchmark
+    public ReportPage exportBookingsCsv() throws IOException {
+        ReportWriter writer = ReportWriter.to(OutputStream.nullOutputStream(), ReportFormat.CSV);
+        ReportPage page = service.exportBookings(writer, ReportPage.NEWEST, Integer.MAX_VALUE);
+        writer.flush();
+        return page;
+    }
+
+    @Benchmark
+    public ReportPage newestBookingsPage() throws IOException {
+        ReportWriter writer = ReportWriter.to(OutputStream.nullOutputStream(), ReportFormat.JSON);
+        ReportPage page = service.exportBookings(writer, ReportPage.NEWEST, 50);
+        writer.flush();
+        return page;
+    }
+}
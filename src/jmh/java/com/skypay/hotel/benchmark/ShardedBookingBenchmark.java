@@ -0,0 +1,112 @@
+package com.skypay.hotel.benchmark;
+
+import com.skypay.hotel.model.BookingResult;
+import com.skypay.hotel.model.RoomType;
+import com.skypay.hotel.service.Service;
+import com.skypay.hotel.service.ShardedService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bookings per second of {@link ShardedService} as the number of shards grows, each shard being
+ * one event-loop thread. Callers queue {@value #PIPELINE} bookings at a time on different rooms
+ * and nights and then wait for all of them, so the shards rather than the callers set the pace.
+ * {@code shards=0} books on a single {@link Service} directly from the calling threads, for
+ * comparison. Scaling needs at least as many cores as shards plus callers.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@Threads(4)
+@State(Scope.Benchmark)
+public class ShardedBookingBenchmark {
+    private static final int ROOMS = 10_000;
+    private static final int USERS = 100;
+    private static final int PIPELINE = 256;
+
+    @Param({"0", "1", "2", "4", "8"})
+    public int shards;
+
+    private Service service;
+    private ShardedService hotels;
+    private final AtomicInteger nextStay = new AtomicInteger();
+
+    /**
+     * A fresh engine each iteration keeps the bookings per room, and so the cost of the
+     * availability check, the same for every shard count
+     */
+    @Setup(Level.Iteration)
+    public void setUp() {
+        BenchmarkData.silenceConsole();
+        nextStay.set(0);
+        if (shards == 0) {
+            service = BenchmarkData.populatedService(ROOMS, USERS);
+            return;
+        }
+        hotels = ShardedService.start(shards, 4 * PIPELINE);
+        RoomType[] types = RoomType.values();
+        for (int roomNumber = 1; roomNumber <= ROOMS; roomNumber++) {
+            hotels.setRoom(roomNumber, types[roomNumber % types.length], BenchmarkData.PRICE_PER_NIGHT);
+        }
+        for (int userId = 1; userId <= USERS; userId++) {
+            hotels.setUser(userId, Integer.MAX_VALUE);
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        if (hotels != null) {
+            hotels.close();
+            hotels = null;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PIPELINE)
+    public int book() {
+        int first = nextStay.getAndAdd(PIPELINE);
+        int committed = 0;
+        if (shards == 0) {
+            for (int i = 0; i < PIPELINE; i++) {
+                int stay = first + i;
+                if (service.tryBookRoom(1 + stay % USERS, 1 + stay % ROOMS,
+                        BenchmarkData.date(stay / ROOMS), BenchmarkData.date(stay / ROOMS + 1)).isSuccess()) {
+                    committed++;
+                }
+            }
+            return committed;
+        }
+        @SuppressWarnings("unchecked")
+        CompletableFuture<BookingResult>[] results = new CompletableFuture[PIPELINE];
+        for (int i = 0; i < PIPELINE; i++) {
+            int stay = first + i;
+            results[i] = hotels.tryBookRoomAsync(1 + stay % USERS, 1 + stay % ROOMS,
+                    BenchmarkData.date(stay / ROOMS), BenchmarkData.date(stay / ROOMS + 1));
+        }
+        for (CompletableFuture<BookingResult> result : results) {
+            if (result.join().isSuccess()) {
+                committed++;
+            }
+        }
+        return committed;
+    }
+}
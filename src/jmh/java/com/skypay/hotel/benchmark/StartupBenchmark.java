@@ -0,0 +1,121 @@
+package com.skypay.hotel.benchmark;
+
+import com.skypay.hotel.log.EventSink;
+import com.skypay.hotel.model.BatchMode;
+import com.skypay.hotel.model.BookingRequest;
+import com.skypay.hotel.persistence.DurableStore;
+import com.skypay.hotel.service.Service;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Restart time of a service holding 10M bookings: replaying the full journal versus
+ * loading the latest snapshot and replaying only the journal tail written after it.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = {"-Xms12g", "-Xmx12g"})
+@State(Scope.Benchmark)
+public class StartupBenchmark {
+    private static final int ROOMS = 10_000;
+    private static final int USERS = 10_000;
+    private static final int BATCH_SIZE = 100_000;
+
+    @Param({"10000000"})
+    public int bookings;
+
+    @Param({"1"})
+    public int tailPercent;
+
+    private Path journalOnly;
+    private Path withSnapshot;
+
+    @Setup(Level.Trial)
+    public void createStores() throws IOException {
+        BenchmarkData.silenceConsole();
+        int tail = (int) ((long) bookings * tailPercent / 100);
+        journalOnly = Files.createTempDirectory("hotel-startup-journal");
+        withSnapshot = Files.createTempDirectory("hotel-startup-snapshot");
+        populate(journalOnly, -1);
+        populate(withSnapshot, bookings - tail);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteStores() throws IOException {
+        delete(journalOnly);
+        delete(withSnapshot);
+    }
+
+    @Benchmark
+    public Service fullReplay() throws IOException {
+        return restart(journalOnly);
+    }
+
+    @Benchmark
+    public Service snapshotPlusTail() throws IOException {
+        return restart(withSnapshot);
+    }
+
+    private static Service restart(Path directory) throws IOException {
+        try (DurableStore store = DurableStore.open(directory, false)) {
+            Service service = new Service(EventSink.DISCARD, store.getJournal());
+            store.recover(service.recoveryTarget());
+            return service;
+        }
+    }
+
+    /**
+     * Journals the bookings in batches of distinct (room, night) slots, taking a snapshot
+     * once snapshotAfter bookings are committed (never if negative)
+     */
+    private void populate(Path directory, int snapshotAfter) throws IOException {
+        try (DurableStore store = DurableStore.open(directory, false)) {
+            Service service = new Service(EventSink.DISCARD, store.getJournal());
+            store.recover(service.recoveryTarget());
+            BenchmarkData.populate(service, ROOMS, USERS);
+            List<BookingRequest> batch = new ArrayList<>(BATCH_SIZE);
+            for (int slot = 0; slot < bookings; slot++) {
+                int day = slot / ROOMS;
+                batch.add(new BookingRequest(1 + slot % USERS, 1 + slot % ROOMS,
+                        BenchmarkData.FIRST_DAY.plusDays(day), BenchmarkData.FIRST_DAY.plusDays(day + 1)));
+                if (batch.size() == BATCH_SIZE || slot == bookings - 1 || slot == snapshotAfter - 1) {
+                    service.bookRooms(batch, BatchMode.BEST_EFFORT);
+                    batch.clear();
+                }
+                if (slot == snapshotAfter - 1) {
+                    store.snapshot(service);
+                }
+            }
+        }
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.skypay.hotel.benchmark;
+
+import com.skypay.hotel.index.RateCalendar;
+import com.skypay.hotel.model.EpochDays;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pricing stays of a given length from ten years of nightly rates: {@code prefixSums} is
+ * {@link RateCalendar#price}, {@code nightByNight} the loop over each night's rate it replaces.
+ * {@code pushMonth} is the cost of revenue management setting 30 nights of rates on that calendar.
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class StayPricingBenchmark {
+    private static final int YEARS = 10;
+    private static final int DAYS = YEARS * 365;
+
+    @Param({"1", "7", "30", "365"})
+    public int nights;
+
+    private RateCalendar calendar;
+    private int[] rates;
+    private int[] month;
+    private int firstDay;
+    private int nextCheckIn;
+    private int nextPush;
+
+    @Setup
+    public void load() {
+        firstDay = EpochDays.of(BenchmarkData.FIRST_DAY);
+        rates = new int[DAYS];
+        for (int day = 0; day < DAYS; day++) {
+            // Weekend and summer rates over the base price
+            rates[day] = BenchmarkData.PRICE_PER_NIGHT + (day % 7 >= 5 ? 40 : 0) + (day % 365 >= 180 ? 60 : 0);
+        }
+        calendar = new RateCalendar();
+        calendar.setRates(firstDay, rates);
+        month = new int[30];
+        Arrays.fill(month, 250);
+    }
+
+    @Benchmark
+    public long prefixSums() {
+        int checkIn = firstDay + nextCheckIn();
+        return calendar.price(checkIn, checkIn + nights, BenchmarkData.PRICE_PER_NIGHT);
+    }
+
+    @Benchmark
+    public long nightByNight() {
+        int checkIn = nextCheckIn();
+        long total = 0;
+        for (int night = checkIn; night < checkIn + nights; night++) {
+            total += rates[night];
+        }
+        return total;
+    }
+
+    @Benchmark
+    public void pushMonth() {
+        nextPush = (nextPush + 97) % (DAYS - month.length);
+        calendar.setRates(firstDay + nextPush, month);
+    }
+
+    private int nextCheckIn() {
+        nextCheckIn = (nextCheckIn + 31) % (DAYS - nights);
+        return nextCheckIn;
+    }
+}
@@ -1,22 +1,32 @@
 package com.skypay.hotel;
 
+import com.skypay.hotel.http.HttpFrontEnd;
+import com.skypay.hotel.log.ConsoleSink;
 import com.skypay.hotel.model.RoomType;
 import com.skypay.hotel.service.Service;
 
+import java.io.IOException;
+import java.net.InetSocketAddress;
 import java.util.Date;
 
 /**
  * Main application class that demonstrates the Hotel Reservation System
- * by executing the provided test case.
+ * by executing the provided test case, or serves it over HTTP when started
+ * with {@code --http [port]}.
  */
 public class HotelReservationApplication {
+    private static final int DEFAULT_HTTP_PORT = 8080;
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length > 0 && args[0].equals("--http")) {
+            serve(args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_HTTP_PORT);
+            return;
+        }
         System.out.println("Starting Hotel Reservation System...");
         System.out.println("Executing Test Case as specified in requirements...\n");
 
-        // Initialize the service
-        Service service = new Service();
+        // Initialize the service, echoing every operation to the console
+        Service service = new Service(new ConsoleSink());
 
         try {
             // Test Case Execution
@@ -27,6 +37,16 @@ public class HotelReservationApplication {
         }
     }
 
+    /**
+     * Serves an empty hotel over HTTP until the process is stopped
+     */
+    private static void serve(int port) throws IOException, InterruptedException {
+        HttpFrontEnd frontEnd = HttpFrontEnd.start(new Service(), new InetSocketAddress(port));
+        Runtime.getRuntime().addShutdownHook(new Thread(frontEnd::close));
+        System.out.println("Hotel Reservation System listening on port " + frontEnd.getPort());
+        Thread.currentThread().join();
+    }
+
     /**
      * Executes the complete test case as specified in the requirements
      */
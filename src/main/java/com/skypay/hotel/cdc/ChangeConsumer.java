@@ -0,0 +1,20 @@
+package com.skypay.hotel.cdc;
+
+/**
+ * Receives the changes published by a {@link ChangePublisher}, on a thread of its own.
+ * Events come in publication order and in batches: all the events published since the
+ * consumer last caught up are delivered back to back, the last one flagged as ending the batch,
+ * which is where a consumer writing to a slower system would flush.
+ */
+@FunctionalInterface
+public interface ChangeConsumer {
+
+    /**
+     * Called for every published change. The event is reused for a later change once this
+     * method returns, so it must be copied to be kept. Exceptions are counted and ignored.
+     * @param event the change
+     * @param sequence the position of the change in the stream, from 0 on
+     * @param endOfBatch true if no further change is available yet
+     */
+    void onEvent(ChangeEvent event, long sequence, boolean endOfBatch);
+}
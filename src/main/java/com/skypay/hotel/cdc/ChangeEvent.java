@@ -0,0 +1,166 @@
+package com.skypay.hotel.cdc;
+
+import com.skypay.hotel.model.Booking;
+import com.skypay.hotel.model.EpochDays;
+import com.skypay.hotel.model.Room;
+import com.skypay.hotel.model.RoomType;
+import com.skypay.hotel.model.User;
+
+import java.time.LocalDate;
+
+/**
+ * One state change, as read by a {@link ChangeConsumer}. Events are pre-allocated in the ring of
+ * a {@link ChangePublisher} and overwritten in place, so publishing a change allocates nothing;
+ * the fields that do not apply to the {@link #getType() type} of a change are left at zero or null.
+ * <ul>
+ *     <li>{@link ChangeType#ROOM_SAVED}: room number, room type and price per night</li>
+ *     <li>{@link ChangeType#USER_SAVED}: user ID and balance</li>
+ *     <li>{@link ChangeType#BOOKING_COMMITTED} and {@link ChangeType#BOOKING_CANCELLED}: booking ID,
+ *     user ID, room number, room type and price per night at booking, stay, total amount, and the
+ *     user's balance after the payment or refund</li>
+ * </ul>
+ */
+public final class ChangeEvent {
+    private ChangeType type;
+    private int roomNumber;
+    private RoomType roomType;
+    private int pricePerNight;
+    private int userId;
+    private long balanceStamp;
+    private int bookingId;
+    private int checkInDay;
+    private int checkOutDay;
+    private int totalAmount;
+
+    ChangeEvent() {
+    }
+
+    void setRoom(Room room) {
+        clear(ChangeType.ROOM_SAVED);
+        roomNumber = room.getRoomNumber();
+        roomType = room.getRoomType();
+        pricePerNight = room.getPricePerNight();
+    }
+
+    void setUser(User user, long balanceStamp) {
+        clear(ChangeType.USER_SAVED);
+        userId = user.getUserId();
+        this.balanceStamp = balanceStamp;
+    }
+
+    void setBooking(ChangeType type, Booking booking, long balanceStamp) {
+        this.type = type;
+        roomNumber = booking.getRoomNumber();
+        roomType = booking.getRoomTypeAtBooking();
+        pricePerNight = booking.getRoomPricePerNightAtBooking();
+        userId = booking.getUserId();
+        this.balanceStamp = balanceStamp;
+        bookingId = booking.getBookingId();
+        checkInDay = booking.getCheckInDay();
+        checkOutDay = booking.getCheckOutDay();
+        totalAmount = booking.getTotalAmount();
+    }
+
+    /**
+     * Marks the event as a change that was abandoned, which consumers never see
+     */
+    void discard() {
+        type = null;
+    }
+
+    boolean isDiscarded() {
+        return type == null;
+    }
+
+    private void clear(ChangeType type) {
+        this.type = type;
+        roomNumber = 0;
+        roomType = null;
+        pricePerNight = 0;
+        userId = 0;
+        balanceStamp = 0;
+        bookingId = 0;
+        checkInDay = 0;
+        checkOutDay = 0;
+        totalAmount = 0;
+    }
+
+    public ChangeType getType() {
+        return type;
+    }
+
+    public int getRoomNumber() {
+        return roomNumber;
+    }
+
+    public RoomType getRoomType() {
+        return roomType;
+    }
+
+    public int getPricePerNight() {
+        return pricePerNight;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    /**
+     * @return the user's balance after the change
+     */
+    public int getBalance() {
+        return User.balanceOf(balanceStamp);
+    }
+
+    /**
+     * @return the user's balance stamp after the change, which orders the balance changes of a user
+     */
+    public long getBalanceStamp() {
+        return balanceStamp;
+    }
+
+    public int getBookingId() {
+        return bookingId;
+    }
+
+    /**
+     * @return the epoch day of check-in
+     */
+    public int getCheckInDay() {
+        return checkInDay;
+    }
+
+    /**
+     * @return the epoch day of check-out
+     */
+    public int getCheckOutDay() {
+        return checkOutDay;
+    }
+
+    public LocalDate getCheckInDate() {
+        return EpochDays.toDate(checkInDay);
+    }
+
+    public LocalDate getCheckOutDate() {
+        return EpochDays.toDate(checkOutDay);
+    }
+
+    public int getTotalAmount() {
+        return totalAmount;
+    }
+
+    @Override
+    public String toString() {
+        switch (type) {
+            case ROOM_SAVED:
+                return String.format("ChangeEvent{type=%s, roomNumber=%d, roomType=%s, pricePerNight=%d}",
+                        type, roomNumber, roomType, pricePerNight);
+            case USER_SAVED:
+                return String.format("ChangeEvent{type=%s, userId=%d, balance=%d}", type, userId, getBalance());
+            default:
+                return String.format("ChangeEvent{type=%s, bookingId=%d, userId=%d, roomNumber=%d, checkIn=%s, " +
+                                "checkOut=%s, totalAmount=%d, balance=%d}", type, bookingId, userId, roomNumber,
+                        getCheckInDate(), getCheckOutDate(), totalAmount, getBalance());
+        }
+    }
+}
@@ -0,0 +1,346 @@
+package com.skypay.hotel.cdc;
+
+import com.skypay.hotel.model.Booking;
+import com.skypay.hotel.model.Room;
+import com.skypay.hotel.model.User;
+import com.skypay.hotel.service.MutationListener;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Change-data-capture stream of a service: every room, user and booking change reported to this
+ * listener is written into a pre-allocated ring of {@link ChangeEvent events} and delivered to
+ * each of its {@link ChangeConsumer consumers}, such as a channel manager, billing or analytics
+ * feed, on a thread per consumer. Publishing a change copies its fields into a slot and allocates
+ * nothing.
+ * <p>
+ * The ring works as the Disruptor's does. Publishers claim a sequence number, fill the slot
+ * it maps to and mark the slot published with the turn of the ring it belongs to. Each consumer
+ * tracks the last sequence it processed, reads every published slot after it in one batch and
+ * only then moves its sequence forward. Since the service reports changes from many booking
+ * threads at once, sequences are claimed with an atomic increment rather than by a single producer.
+ * <p>
+ * Changes are reported while the service holds its locks, before the listeners ahead of this
+ * one, such as a journal, have made them durable. Their slots are claimed and filled then, which
+ * keeps the stream in commit order, but only marked published once {@link #mutationCompleted()}
+ * returns on the reporting thread; consumers wait at the first slot that is not published yet.
+ * When an earlier listener fails to complete the changes, {@link #mutationAbandoned()} publishes
+ * their slots as discarded and consumers skip them, leaving gaps in the sequence numbers.
+ * <p>
+ * Nothing is ever dropped: a publisher that would overwrite a slot the slowest consumer has not
+ * read yet waits for it, which holds up the service call reporting the change. The ring should be
+ * sized to absorb the bursts the consumers cannot keep up with, and to hold every change of a
+ * single service call: a call that reports more changes than that has the oldest of them
+ * delivered before it completes, as waiting for them would never end.
+ *
+ * <pre>{@code
+ * try (ChangePublisher publisher = ChangePublisher.start(65536, WaitStrategy.PARKING, channelManager, billing)) {
+ *     Service service = new Service(sink, journal.andThen(publisher));
+ *     ...
+ * }
+ * }</pre>
+ */
+public final class ChangePublisher implements MutationListener, AutoCloseable {
+    private static final VarHandle PUBLISHED = MethodHandles.arrayElementVarHandle(int[].class);
+    private static final long BACKPRESSURE_PARK_NANOS = 1_000L;
+
+    private final ChangeEvent[] events;
+    private final int mask;
+    private final int turnShift;
+    // Turn of the ring in which each slot was last published
+    private final int[] published;
+    // Next sequence to claim
+    private final AtomicLong claimed = new AtomicLong();
+    private final Consumer[] consumers;
+    // Lowest consumer sequence seen by a publisher, so publishers rarely read every consumer's
+    private volatile long gatingCache = -1;
+    private final AtomicLong backpressureWaits = new AtomicLong();
+    private volatile boolean running = true;
+    // Sequences claimed by each thread whose service call has not completed yet
+    private final ThreadLocal<Pending> pending = ThreadLocal.withInitial(Pending::new);
+
+    /**
+     * Sequences claimed by one thread, in claim order
+     */
+    private static final class Pending {
+        long[] sequences = new long[16];
+        int count;
+
+        void add(long sequence) {
+            if (count == sequences.length) {
+                sequences = Arrays.copyOf(sequences, count << 1);
+            }
+            sequences[count++] = sequence;
+        }
+    }
+
+    /**
+     * A consumer with its thread and the last sequence it processed
+     */
+    private final class Consumer implements Runnable {
+        final ChangeConsumer delegate;
+        final WaitStrategy waitStrategy;
+        final AtomicLong sequence = new AtomicLong(-1);
+        final AtomicLong failures = new AtomicLong();
+        Thread thread;
+
+        Consumer(ChangeConsumer delegate, WaitStrategy waitStrategy) {
+            this.delegate = delegate;
+            this.waitStrategy = waitStrategy;
+        }
+
+        @Override
+        public void run() {
+            int attempt = 0;
+            while (true) {
+                boolean stopping = !running;
+                long next = sequence.get() + 1;
+                long last = highestPublishedFrom(next);
+                if (last < next) {
+                    if (stopping && next == claimed.get()) {
+                        return;
+                    }
+                    waitStrategy.idle(attempt++);
+                    continue;
+                }
+                attempt = 0;
+                long lastKept = last;
+                while (lastKept >= next && events[(int) lastKept & mask].isDiscarded()) {
+                    lastKept--;
+                }
+                for (long s = next; s <= lastKept; s++) {
+                    ChangeEvent event = events[(int) s & mask];
+                    if (event.isDiscarded()) {
+                        continue;
+                    }
+                    try {
+                        delegate.onEvent(event, s, s == lastKept);
+                    } catch (RuntimeException e) {
+                        // A failing consumer must not hold up the others or the service
+                        failures.incrementAndGet();
+                    }
+                }
+                // Frees the slots of the batch for publishers
+                sequence.set(last);
+            }
+        }
+    }
+
+    private ChangePublisher(int capacity, WaitStrategy waitStrategy, ChangeConsumer[] consumers) {
+        this.events = new ChangeEvent[capacity];
+        for (int i = 0; i < capacity; i++) {
+            events[i] = new ChangeEvent();
+        }
+        this.mask = capacity - 1;
+        this.turnShift = Integer.numberOfTrailingZeros(capacity);
+        this.published = new int[capacity];
+        for (int i = 0; i < capacity; i++) {
+            published[i] = -1;
+        }
+        this.consumers = new Consumer[consumers.length];
+        for (int c = 0; c < consumers.length; c++) {
+            this.consumers[c] = new Consumer(consumers[c], waitStrategy);
+        }
+    }
+
+    /**
+     * Creates a publisher and starts a daemon thread for each consumer
+     * @param capacity the number of events in the ring (must be a positive power of two)
+     * @param waitStrategy how consumers wait for changes once they have caught up (cannot be null)
+     * @param consumers the consumers, each receiving every change (cannot be null, empty or contain null)
+     * @return the running publisher
+     * @throws IllegalArgumentException if a parameter is invalid
+     */
+    public static ChangePublisher start(int capacity, WaitStrategy waitStrategy, ChangeConsumer... consumers) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a positive power of two");
+        }
+        if (waitStrategy == null) {
+            throw new IllegalArgumentException("Wait strategy cannot be null");
+        }
+        if (consumers == null || consumers.length == 0) {
+            throw new IllegalArgumentException("Consumers cannot be empty");
+        }
+        for (ChangeConsumer consumer : consumers) {
+            if (consumer == null) {
+                throw new IllegalArgumentException("Consumer cannot be null");
+            }
+        }
+        ChangePublisher publisher = new ChangePublisher(capacity, waitStrategy, consumers.clone());
+        for (int c = 0; c < publisher.consumers.length; c++) {
+            Thread thread = new Thread(publisher.consumers[c], "hotel-cdc-" + c);
+            thread.setDaemon(true);
+            publisher.consumers[c].thread = thread;
+            thread.start();
+        }
+        return publisher;
+    }
+
+    @Override
+    public void roomSaved(Room room) {
+        long sequence = claim();
+        if (sequence >= 0) {
+            events[(int) sequence & mask].setRoom(room);
+            pending.get().add(sequence);
+        }
+    }
+
+    @Override
+    public void userSaved(User user, long balanceStamp) {
+        long sequence = claim();
+        if (sequence >= 0) {
+            events[(int) sequence & mask].setUser(user, balanceStamp);
+            pending.get().add(sequence);
+        }
+    }
+
+    @Override
+    public void bookingCommitted(Booking booking, long balanceStamp) {
+        long sequence = claim();
+        if (sequence >= 0) {
+            events[(int) sequence & mask].setBooking(ChangeType.BOOKING_COMMITTED, booking, balanceStamp);
+            pending.get().add(sequence);
+        }
+    }
+
+    @Override
+    public void bookingCancelled(Booking booking, long balanceStamp) {
+        long sequence = claim();
+        if (sequence >= 0) {
+            events[(int) sequence & mask].setBooking(ChangeType.BOOKING_CANCELLED, booking, balanceStamp);
+            pending.get().add(sequence);
+        }
+    }
+
+    /**
+     * Publishes the changes reported by the calling thread, now that the listeners ahead of this
+     * one have completed them
+     */
+    @Override
+    public void mutationCompleted() {
+        publishPending(false);
+    }
+
+    /**
+     * Publishes the changes reported by the calling thread as discarded, so consumers skip them
+     */
+    @Override
+    public void mutationAbandoned() {
+        publishPending(true);
+    }
+
+    private void publishPending(boolean discarded) {
+        Pending claimedByThread = pending.get();
+        for (int i = 0; i < claimedByThread.count; i++) {
+            long sequence = claimedByThread.sequences[i];
+            if (discarded) {
+                events[(int) sequence & mask].discard();
+            }
+            publish(sequence);
+        }
+        claimedByThread.count = 0;
+    }
+
+    /**
+     * Claims the next sequence, waiting until every consumer has read the slot's previous event
+     * @return the claimed sequence, or -1 once the publisher is closed
+     */
+    private long claim() {
+        if (!running) {
+            return -1;
+        }
+        long sequence = claimed.getAndIncrement();
+        long wrapPoint = sequence - events.length;
+        if (wrapPoint > gatingCache) {
+            long slowest;
+            boolean waited = false;
+            // Consumers run until they have caught up with every claimed sequence, even once closed
+            while (wrapPoint > (slowest = slowestConsumer())) {
+                if (!waited) {
+                    backpressureWaits.incrementAndGet();
+                    waited = true;
+                }
+                Pending claimedByThread = pending.get();
+                if (claimedByThread.count > 0 && claimedByThread.sequences[0] <= wrapPoint) {
+                    // The consumers wait for this thread's own changes: the call fills the ring alone
+                    publishPending(false);
+                }
+                LockSupport.parkNanos(BACKPRESSURE_PARK_NANOS);
+            }
+            gatingCache = slowest;
+        }
+        return sequence;
+    }
+
+    private void publish(long sequence) {
+        PUBLISHED.setRelease(published, (int) sequence & mask, (int) (sequence >>> turnShift));
+    }
+
+    /**
+     * @return the last sequence of the run of published events starting at from, or from - 1 if none is
+     */
+    private long highestPublishedFrom(long from) {
+        long limit = claimed.get();
+        long sequence = from;
+        while (sequence < limit
+                && (int) PUBLISHED.getAcquire(published, (int) sequence & mask) == (int) (sequence >>> turnShift)) {
+            sequence++;
+        }
+        return sequence - 1;
+    }
+
+    private long slowestConsumer() {
+        long slowest = Long.MAX_VALUE;
+        for (Consumer consumer : consumers) {
+            slowest = Math.min(slowest, consumer.sequence.get());
+        }
+        return slowest;
+    }
+
+    /**
+     * @return the number of changes published so far
+     */
+    public long getPublishedCount() {
+        return claimed.get();
+    }
+
+    /**
+     * @return the number of changes whose publication waited for a slow consumer
+     */
+    public long getBackpressureWaitCount() {
+        return backpressureWaits.get();
+    }
+
+    /**
+     * @return the number of events on which a consumer threw, over all consumers
+     */
+    public long getConsumerFailureCount() {
+        long failures = 0;
+        for (Consumer consumer : consumers) {
+            failures += consumer.failures.get();
+        }
+        return failures;
+    }
+
+    /**
+     * Stops accepting changes and waits for the consumers to process every change already
+     * reported, which includes waiting for the service calls reporting them to complete;
+     * changes reported while the publisher closes may be dropped
+     */
+    @Override
+    public void close() {
+        running = false;
+        for (Consumer consumer : consumers) {
+            try {
+                consumer.thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.skypay.hotel.cdc;
+
+/**
+ * Kinds of state change published by a {@link ChangePublisher}, one per {@link com.skypay.hotel.service.MutationListener} method
+ */
+public enum ChangeType {
+    /**
+     * A room was created or its type or price changed
+     */
+    ROOM_SAVED,
+    /**
+     * A user was created, its balance was set, or a payment was given back
+     */
+    USER_SAVED,
+    /**
+     * A booking was paid for and committed
+     */
+    BOOKING_COMMITTED,
+    /**
+     * A booking was refunded and cancelled
+     */
+    BOOKING_CANCELLED
+}
@@ -0,0 +1,57 @@
+package com.skypay.hotel.cdc;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * How a consumer waits for the next change once it has caught up, trading the latency of
+ * delivery against the CPU a waiting consumer uses
+ */
+public enum WaitStrategy {
+    /**
+     * Spins on the CPU: lowest latency, but a waiting consumer keeps a core busy
+     */
+    BUSY_SPIN {
+        @Override
+        void idle(int attempt) {
+            Thread.onSpinWait();
+        }
+    },
+    /**
+     * Spins briefly, then yields the CPU to other threads between checks
+     */
+    YIELDING {
+        @Override
+        void idle(int attempt) {
+            if (attempt < SPIN_ATTEMPTS) {
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+        }
+    },
+    /**
+     * Spins, yields, then sleeps {@value #PARK_NANOS} ns between checks: the least CPU for
+     * the highest latency, as suits consumers feeding batch systems
+     */
+    PARKING {
+        @Override
+        void idle(int attempt) {
+            if (attempt < SPIN_ATTEMPTS) {
+                Thread.onSpinWait();
+            } else if (attempt < 2 * SPIN_ATTEMPTS) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(PARK_NANOS);
+            }
+        }
+    };
+
+    private static final int SPIN_ATTEMPTS = 100;
+    private static final long PARK_NANOS = 100_000L;
+
+    /**
+     * Waits once for a change to be published
+     * @param attempt the number of times the consumer has already waited since its last change
+     */
+    abstract void idle(int attempt);
+}
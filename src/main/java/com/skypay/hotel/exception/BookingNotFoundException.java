@@ -0,0 +1,11 @@
+package com.skypay.hotel.exception;
+
+public class BookingNotFoundException extends RuntimeException {
+  public BookingNotFoundException(String message) {
+    super(message);
+  }
+
+  public BookingNotFoundException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
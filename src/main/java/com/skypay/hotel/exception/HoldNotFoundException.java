@@ -0,0 +1,11 @@
+package com.skypay.hotel.exception;
+
+public class HoldNotFoundException extends RuntimeException {
+  public HoldNotFoundException(String message) {
+    super(message);
+  }
+
+  public HoldNotFoundException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
@@ -8,4 +8,13 @@ public class InsufficientBalanceException extends RuntimeException {
     public InsufficientBalanceException(String message, Throwable cause) {
         super(message, cause);
     }
+
+    /**
+     * Creates an exception for routine control flow, optionally skipping the costly stack trace capture
+     * @param message the detail message
+     * @param writableStackTrace false to skip filling in the stack trace
+     */
+    public InsufficientBalanceException(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
 }
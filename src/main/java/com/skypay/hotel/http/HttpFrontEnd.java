@@ -0,0 +1,479 @@
+package com.skypay.hotel.http;
+
+import com.skypay.hotel.exception.BookingNotFoundException;
+import com.skypay.hotel.log.EventSink;
+import com.skypay.hotel.log.LogLevel;
+import com.skypay.hotel.model.Booking;
+import com.skypay.hotel.model.BookingResult;
+import com.skypay.hotel.model.Room;
+import com.skypay.hotel.model.RoomType;
+import com.skypay.hotel.report.ReportFormat;
+import com.skypay.hotel.report.ReportPage;
+import com.skypay.hotel.report.ReportWriter;
+import com.skypay.hotel.service.Service;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Embedded HTTP/JSON front-end of a {@link Service}, built on the JDK's HTTP server. Every
+ * request runs on its own virtual thread, so thousands of slow clients cost little memory
+ * and never hold up each other. Request and response bodies are read and written by hand,
+ * without a JSON library.
+ * <p>
+ * Endpoints:
+ * <ul>
+ *     <li>{@code POST /rooms} {@code {"roomNumber":1,"roomType":"SUITE","pricePerNight":3000}}: creates
+ *     or updates a room; answers 204</li>
+ *     <li>{@code POST /users} {@code {"userId":1,"balance":5000}}: creates or updates a user; answers 204</li>
+ *     <li>{@code POST /bookings} {@code {"userId":1,"roomNumber":1,"checkIn":"2026-07-07","checkOut":"2026-07-09"}}:
+ *     books a room; answers 201 with the booking, or 404, 409, 402 or 422 with the rejection status</li>
+ *     <li>{@code DELETE /bookings/{id}}: cancels a booking; answers 200 with the booking or 404</li>
+ *     <li>{@code GET /availability?roomType=SUITE&checkIn=2026-07-07&checkOut=2026-07-09}: lists the
+ *     free rooms of a type</li>
+ *     <li>{@code GET /reports/{rooms|users|bookings}?format=csv&cursor=..&limit=..}: one page of a
+ *     report, newest first, with the cursor of the next page in the {@code X-Next-Cursor} header</li>
+ *     <li>{@code GET /metrics}: operation latencies and outcome counters in the Prometheus text format</li>
+ * </ul>
+ * Invalid requests answer 400 with {@code {"error":"..."}}, and request bodies larger than
+ * {@value #MAX_BODY_SIZE} bytes answer 413 without being read further. Unexpected failures answer
+ * 500 and are logged at ERROR to the service's {@link EventSink}.
+ */
+public final class HttpFrontEnd implements AutoCloseable {
+    private static final int BACKLOG = 4096;
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 10_000;
+    private static final int MAX_BODY_SIZE = 16 * 1024;
+    private static final String JSON = "application/json; charset=utf-8";
+
+    static {
+        // The JDK server writes the headers and the body of a response separately; with Nagle's
+        // algorithm on, the body then waits for the client's delayed ACK, about 40 ms
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final Service service;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private HttpFrontEnd(Service service, HttpServer server, ExecutorService executor) {
+        this.service = service;
+        this.server = server;
+        this.executor = executor;
+    }
+
+    /**
+     * Starts serving the service on the given address
+     * @param service the service to expose (cannot be null)
+     * @param address the address to listen on; port 0 picks a free port (cannot be null)
+     * @return the running front-end
+     * @throws IllegalArgumentException if service or address is null
+     * @throws IOException if the server cannot listen on the address
+     */
+    public static HttpFrontEnd start(Service service, InetSocketAddress address) throws IOException {
+        if (service == null) {
+            throw new IllegalArgumentException("Service cannot be null");
+        }
+        if (address == null) {
+            throw new IllegalArgumentException("Address cannot be null");
+        }
+        HttpServer server = HttpServer.create(address, BACKLOG);
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        HttpFrontEnd frontEnd = new HttpFrontEnd(service, server, executor);
+        server.createContext("/", frontEnd::handle);
+        server.setExecutor(executor);
+        server.start();
+        return frontEnd;
+    }
+
+    /**
+     * @return the port the front-end listens on
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stops accepting requests and waits for those in progress to complete
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.close();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String path = exchange.getRequestURI().getPath();
+            String method = exchange.getRequestMethod();
+            try {
+                if (path.equals("/rooms")) {
+                    requireMethod(exchange, "POST");
+                    setRoom(exchange);
+                } else if (path.equals("/users")) {
+                    requireMethod(exchange, "POST");
+                    setUser(exchange);
+                } else if (path.equals("/bookings")) {
+                    requireMethod(exchange, "POST");
+                    bookRoom(exchange);
+                } else if (path.startsWith("/bookings/")) {
+                    requireMethod(exchange, "DELETE");
+                    cancelBooking(exchange, parseInt(path.substring("/bookings/".length()), "booking ID"));
+                } else if (path.equals("/availability")) {
+                    requireMethod(exchange, "GET");
+                    findAvailableRooms(exchange);
+                } else if (path.startsWith("/reports/")) {
+                    requireMethod(exchange, "GET");
+                    report(exchange, path.substring("/reports/".length()));
+                } else if (path.equals("/metrics")) {
+                    requireMethod(exchange, "GET");
+                    metrics(exchange);
+                } else {
+                    sendError(exchange, 404, "No resource at " + path);
+                }
+            } catch (BodyTooLarge e) {
+                sendError(exchange, 413, "Request body exceeds " + MAX_BODY_SIZE + " bytes");
+            } catch (MethodNotAllowed e) {
+                exchange.getResponseHeaders().set("Allow", e.getMessage());
+                sendError(exchange, 405, method + " is not allowed on " + path);
+            } catch (IllegalArgumentException e) {
+                sendError(exchange, 400, e.getMessage());
+            } catch (BookingNotFoundException e) {
+                sendError(exchange, 404, e.getMessage());
+            } catch (RuntimeException e) {
+                EventSink eventSink = service.getEventSink();
+                if (eventSink.isEnabled(LogLevel.ERROR)) {
+                    eventSink.log(LogLevel.ERROR, "Error handling " + method + " " + path + ": " + e);
+                }
+                sendError(exchange, 500, "Internal error");
+            }
+        }
+    }
+
+    private void setRoom(HttpExchange exchange) throws IOException {
+        JsonReader reader = new JsonReader(readBody(exchange));
+        int roomNumber = 0;
+        RoomType roomType = null;
+        int pricePerNight = 0;
+        while (reader.nextField()) {
+            if (reader.isField("roomNumber")) {
+                roomNumber = reader.readInt();
+            } else if (reader.isField("roomType")) {
+                roomType = parseRoomType(reader.readString());
+            } else if (reader.isField("pricePerNight")) {
+                pricePerNight = reader.readInt();
+            } else {
+                reader.skipValue();
+            }
+        }
+        service.setRoom(roomNumber, roomType, pricePerNight);
+        exchange.sendResponseHeaders(204, -1);
+    }
+
+    private void setUser(HttpExchange exchange) throws IOException {
+        JsonReader reader = new JsonReader(readBody(exchange));
+        int userId = 0;
+        int balance = -1;
+        while (reader.nextField()) {
+            if (reader.isField("userId")) {
+                userId = reader.readInt();
+            } else if (reader.isField("balance")) {
+                balance = reader.readInt();
+            } else {
+                reader.skipValue();
+            }
+        }
+        service.setUser(userId, balance);
+        exchange.sendResponseHeaders(204, -1);
+    }
+
+    private void bookRoom(HttpExchange exchange) throws IOException {
+        JsonReader reader = new JsonReader(readBody(exchange));
+        int userId = 0;
+        int roomNumber = 0;
+        LocalDate checkIn = null;
+        LocalDate checkOut = null;
+        while (reader.nextField()) {
+            if (reader.isField("userId")) {
+                userId = reader.readInt();
+            } else if (reader.isField("roomNumber")) {
+                roomNumber = reader.readInt();
+            } else if (reader.isField("checkIn")) {
+                checkIn = reader.readDate();
+            } else if (reader.isField("checkOut")) {
+                checkOut = reader.readDate();
+            } else {
+                reader.skipValue();
+            }
+        }
+        BookingResult result = service.tryBookRoom(userId, roomNumber, required(checkIn, "checkIn"),
+                required(checkOut, "checkOut"));
+        if (result.isSuccess()) {
+            sendJson(exchange, 201, appendBooking(new StringBuilder(160), result.getBooking()));
+            return;
+        }
+        StringBuilder json = new StringBuilder(48).append("{\"status\":\"").append(result.getStatus().name()).append("\"}");
+        switch (result.getStatus()) {
+            case USER_NOT_FOUND:
+            case ROOM_NOT_FOUND:
+                sendJson(exchange, 404, json);
+                break;
+            case ROOM_NOT_AVAILABLE:
+                sendJson(exchange, 409, json);
+                break;
+            case INSUFFICIENT_BALANCE:
+                sendJson(exchange, 402, json);
+                break;
+            default:
+                sendJson(exchange, 422, json);
+                break;
+        }
+    }
+
+    private void cancelBooking(HttpExchange exchange, int bookingId) throws IOException {
+        sendJson(exchange, 200, appendBooking(new StringBuilder(160), service.cancelBooking(bookingId)));
+    }
+
+    private void findAvailableRooms(HttpExchange exchange) throws IOException {
+        String query = exchange.getRequestURI().getRawQuery();
+        String roomType = queryParameter(query, "roomType");
+        List<Room> rooms = service.findAvailableRooms(parseRoomType(roomType),
+                toDate(parseDate(queryParameter(query, "checkIn"), "checkIn"), "checkIn"),
+                toDate(parseDate(queryParameter(query, "checkOut"), "checkOut"), "checkOut"));
+        StringBuilder json = new StringBuilder(16 + rooms.size() * 6).append("{\"rooms\":[");
+        for (int i = 0; i < rooms.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append(rooms.get(i).getRoomNumber());
+        }
+        sendJson(exchange, 200, json.append("]}"));
+    }
+
+    private void report(HttpExchange exchange, String name) throws IOException {
+        String query = exchange.getRequestURI().getRawQuery();
+        String formatName = queryParameter(query, "format");
+        ReportFormat format = formatName == null ? ReportFormat.JSON : parseFormat(formatName);
+        String cursor = queryParameter(query, "cursor");
+        String limit = queryParameter(query, "limit");
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : parseInt(limit, "limit");
+        if (pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit cannot exceed " + MAX_PAGE_SIZE);
+        }
+        int from = cursor == null ? ReportPage.NEWEST : parseInt(cursor, "cursor");
+        // The next cursor is only known once the page is written, so the page is buffered
+        // to send it as a header ahead of the body
+        ByteArrayOutputStream page = new ByteArrayOutputStream(8192);
+        ReportPage written;
+        try (ReportWriter writer = ReportWriter.to(page, format)) {
+            switch (name) {
+                case "rooms":
+                    written = service.exportRooms(writer, from, pageSize);
+                    break;
+                case "users":
+                    written = service.exportUsers(writer, from, pageSize);
+                    break;
+                case "bookings":
+                    written = service.exportBookings(writer, from, pageSize);
+                    break;
+                default:
+                    sendError(exchange, 404, "No report named " + name);
+                    return;
+            }
+        }
+        exchange.getResponseHeaders().set("Content-Type", contentType(format));
+        exchange.getResponseHeaders().set("X-Next-Cursor", Integer.toString(written.getNextCursor()));
+        exchange.sendResponseHeaders(200, page.size());
+        try (OutputStream body = exchange.getResponseBody()) {
+            page.writeTo(body);
+        }
+    }
+
+    private void metrics(HttpExchange exchange) throws IOException {
+        StringBuilder text = new StringBuilder(4096);
+        service.getMetrics().writeText(text);
+        byte[] body = text.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static StringBuilder appendBooking(StringBuilder json, Booking booking) {
+        return json.append("{\"bookingId\":").append(booking.getBookingId())
+                .append(",\"userId\":").append(booking.getUserId())
+                .append(",\"roomNumber\":").append(booking.getRoomNumber())
+                .append(",\"checkIn\":\"").append(booking.getCheckInDate())
+                .append("\",\"checkOut\":\"").append(booking.getCheckOutDate())
+                .append("\",\"nights\":").append(booking.getNumberOfNights())
+                .append(",\"totalAmount\":").append(booking.getTotalAmount())
+                .append('}');
+    }
+
+    private static void sendJson(HttpExchange exchange, int status, CharSequence json) throws IOException {
+        byte[] body = json.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", JSON);
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        StringBuilder json = new StringBuilder(32 + message.length()).append("{\"error\":\"");
+        for (int i = 0; i < message.length(); i++) {
+            char c = message.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20) {
+                json.append(String.format("\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        sendJson(exchange, status, json.append("\"}"));
+    }
+
+    /**
+     * Reads the request body, refusing to buffer more than {@value #MAX_BODY_SIZE} bytes
+     */
+    private static byte[] readBody(HttpExchange exchange) throws IOException {
+        String contentLength = exchange.getRequestHeaders().getFirst("Content-Length");
+        if (contentLength != null) {
+            try {
+                if (Long.parseLong(contentLength.trim()) > MAX_BODY_SIZE) {
+                    throw new BodyTooLarge();
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid Content-Length: " + contentLength);
+            }
+        }
+        byte[] body = exchange.getRequestBody().readNBytes(MAX_BODY_SIZE + 1);
+        if (body.length > MAX_BODY_SIZE) {
+            throw new BodyTooLarge();
+        }
+        return body;
+    }
+
+    private static void requireMethod(HttpExchange exchange, String method) {
+        if (!exchange.getRequestMethod().equals(method)) {
+            throw new MethodNotAllowed(method);
+        }
+    }
+
+    /**
+     * @return the decoded value of the first parameter with that name, or null if absent
+     */
+    private static String queryParameter(String query, String name) {
+        if (query == null) {
+            return null;
+        }
+        int start = 0;
+        while (start <= query.length()) {
+            int end = query.indexOf('&', start);
+            if (end < 0) {
+                end = query.length();
+            }
+            if (query.startsWith(name, start) && start + name.length() < end && query.charAt(start + name.length()) == '=') {
+                return URLDecoder.decode(query.substring(start + name.length() + 1, end), StandardCharsets.UTF_8);
+            }
+            start = end + 1;
+        }
+        return null;
+    }
+
+    private static int parseInt(String value, String name) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + value, e);
+        }
+    }
+
+    private static RoomType parseRoomType(String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Room type cannot be null");
+        }
+        for (RoomType roomType : RoomType.values()) {
+            if (roomType.name().equalsIgnoreCase(value)) {
+                return roomType;
+            }
+        }
+        throw new IllegalArgumentException("Unknown room type: " + value);
+    }
+
+    private static ReportFormat parseFormat(String value) {
+        for (ReportFormat format : ReportFormat.values()) {
+            if (format.name().equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unknown report format: " + value);
+    }
+
+    private static LocalDate parseDate(String value, String name) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + value, e);
+        }
+    }
+
+    private static LocalDate required(LocalDate date, String name) {
+        if (date == null) {
+            throw new IllegalArgumentException(name + " cannot be null");
+        }
+        return date;
+    }
+
+    @SuppressWarnings("deprecation")
+    private static Date toDate(LocalDate date, String name) {
+        required(date, name);
+        // The service reads only the year, month and day of a Date
+        return new Date(date.getYear() - 1900, date.getMonthValue() - 1, date.getDayOfMonth());
+    }
+
+    private static String contentType(ReportFormat format) {
+        switch (format) {
+            case CSV:
+                return "text/csv; charset=utf-8";
+            case JSON:
+                return JSON;
+            default:
+                return "text/plain; charset=utf-8";
+        }
+    }
+
+    /**
+     * Thrown when a resource does not accept the request method; the message is the allowed method
+     */
+    private static final class MethodNotAllowed extends RuntimeException {
+        MethodNotAllowed(String allowed) {
+            super(allowed, null, false, false);
+        }
+    }
+
+    private static final class BodyTooLarge extends RuntimeException {
+        BodyTooLarge() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package com.skypay.hotel.http;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+
+/**
+ * Reads the fields of one flat JSON object straight from the request bytes. Field names are
+ * compared in place and numbers and dates are parsed without building intermediate strings;
+ * nested values of unknown fields are skipped.
+ *
+ * <pre>{@code
+ * JsonReader reader = new JsonReader(body);
+ * while (reader.nextField()) {
+ *     if (reader.isField("userId")) {
+ *         userId = reader.readInt();
+ *     } else {
+ *         reader.skipValue();
+ *     }
+ * }
+ * }</pre>
+ */
+final class JsonReader {
+    private final byte[] json;
+    private int position;
+    private int nameStart;
+    private int nameEnd;
+    private boolean started;
+
+    /**
+     * @param json the UTF-8 encoded object (cannot be null)
+     */
+    JsonReader(byte[] json) {
+        this.json = json;
+    }
+
+    /**
+     * Moves to the next field of the object
+     * @return true if there is a field to read, false at the end of the object
+     * @throws IllegalArgumentException if the JSON is malformed
+     */
+    boolean nextField() {
+        skipWhitespace();
+        if (!started) {
+            expect('{');
+            started = true;
+            skipWhitespace();
+            if (peek() == '}') {
+                position++;
+                return finish();
+            }
+        } else {
+            byte separator = next();
+            if (separator == '}') {
+                return finish();
+            }
+            if (separator != ',') {
+                throw malformed("',' or '}' expected");
+            }
+            skipWhitespace();
+        }
+        expect('"');
+        nameStart = position;
+        while (next() != '"') {
+            if (json[position - 1] == '\\') {
+                throw malformed("escaped field names are not supported");
+            }
+        }
+        nameEnd = position - 1;
+        skipWhitespace();
+        expect(':');
+        skipWhitespace();
+        return true;
+    }
+
+    /**
+     * @param name an ASCII field name
+     * @return true if the current field has that name
+     */
+    boolean isField(String name) {
+        if (nameEnd - nameStart != name.length()) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            if (json[nameStart + i] != name.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the value of the current field as an int
+     * @throws IllegalArgumentException if the value is not an integer within int range
+     */
+    int readInt() {
+        boolean negative = peek() == '-';
+        if (negative) {
+            position++;
+        }
+        int start = position;
+        long value = 0;
+        while (position < json.length && json[position] >= '0' && json[position] <= '9') {
+            value = value * 10 + (json[position++] - '0');
+            if (value > Integer.MAX_VALUE + 1L) {
+                throw malformed("integer out of range");
+            }
+        }
+        if (position == start) {
+            throw malformed("integer expected");
+        }
+        value = negative ? -value : value;
+        if (value > Integer.MAX_VALUE) {
+            throw malformed("integer out of range");
+        }
+        return (int) value;
+    }
+
+    /**
+     * @return the value of the current field as a string
+     * @throws IllegalArgumentException if the value is not a string
+     */
+    String readString() {
+        expect('"');
+        int start = position;
+        StringBuilder unescaped = null;
+        while (true) {
+            byte b = next();
+            if (b == '"') {
+                break;
+            }
+            if (b == '\\') {
+                if (unescaped == null) {
+                    unescaped = new StringBuilder();
+                }
+                unescaped.append(new String(json, start, position - 1 - start, StandardCharsets.UTF_8));
+                unescaped.append(unescape());
+                start = position;
+            }
+        }
+        String tail = new String(json, start, position - 1 - start, StandardCharsets.UTF_8);
+        return unescaped == null ? tail : unescaped.append(tail).toString();
+    }
+
+    /**
+     * @return the value of the current field, an ISO {@code yyyy-MM-dd} string, as a date
+     * @throws IllegalArgumentException if the value is not such a date
+     */
+    LocalDate readDate() {
+        expect('"');
+        if (position + 11 > json.length || json[position + 4] != '-' || json[position + 7] != '-'
+                || json[position + 10] != '"') {
+            throw malformed("date yyyy-MM-dd expected");
+        }
+        int year = digits(position, 4);
+        int month = digits(position + 5, 2);
+        int day = digits(position + 8, 2);
+        position += 11;
+        try {
+            return LocalDate.of(year, month, day);
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("Invalid date: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Skips the value of the current field, whatever its type
+     * @throws IllegalArgumentException if the value is malformed
+     */
+    void skipValue() {
+        int depth = 0;
+        do {
+            byte b = next();
+            if (b == '"') {
+                while ((b = next()) != '"') {
+                    if (b == '\\') {
+                        next();
+                    }
+                }
+            } else if (b == '{' || b == '[') {
+                depth++;
+            } else if (b == '}' || b == ']') {
+                depth--;
+            }
+            skipWhitespace();
+        } while (depth > 0 || (peek() != ',' && peek() != '}'));
+        if (depth < 0) {
+            throw malformed("value expected");
+        }
+    }
+
+    private boolean finish() {
+        skipWhitespace();
+        if (position != json.length) {
+            throw malformed("end of input expected");
+        }
+        return false;
+    }
+
+    private char unescape() {
+        byte escaped = next();
+        switch (escaped) {
+            case '"':
+            case '\\':
+            case '/':
+                return (char) escaped;
+            case 'b':
+                return '\b';
+            case 'f':
+                return '\f';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 't':
+                return '\t';
+            case 'u':
+                if (position + 4 > json.length) {
+                    throw malformed("truncated escape");
+                }
+                int code = 0;
+                for (int i = 0; i < 4; i++) {
+                    int digit = Character.digit(json[position++], 16);
+                    if (digit < 0) {
+                        throw malformed("hexadecimal digit expected");
+                    }
+                    code = code << 4 | digit;
+                }
+                return (char) code;
+            default:
+                throw malformed("unknown escape");
+        }
+    }
+
+    private int digits(int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            if (json[i] < '0' || json[i] > '9') {
+                throw malformed("date yyyy-MM-dd expected");
+            }
+            value = value * 10 + (json[i] - '0');
+        }
+        return value;
+    }
+
+    private void skipWhitespace() {
+        while (position < json.length
+                && (json[position] == ' ' || json[position] == '\n' || json[position] == '\r' || json[position] == '\t')) {
+            position++;
+        }
+    }
+
+    private void expect(char expected) {
+        if (next() != expected) {
+            throw malformed("'" + expected + "' expected");
+        }
+    }
+
+    private byte peek() {
+        if (position == json.length) {
+            throw malformed("unexpected end of input");
+        }
+        return json[position];
+    }
+
+    private byte next() {
+        byte b = peek();
+        position++;
+        return b;
+    }
+
+    private IllegalArgumentException malformed(String reason) {
+        return new IllegalArgumentException("Malformed JSON at offset " + position + ": " + reason);
+    }
+}
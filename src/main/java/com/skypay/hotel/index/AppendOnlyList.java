@@ -0,0 +1,86 @@
+package com.skypay.hotel.index;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * List that only grows at its tail, stored in fixed-size chunks that are never copied.
+ * Appends are serialized internally; reads are lock-free and always see a consistent prefix,
+ * since an element is written before the size that makes it visible is published.
+ * {@link #snapshot()} freezes such a prefix without copying it.
+ *
+ * @param <T> the element type
+ */
+public class AppendOnlyList<T> extends AbstractList<T> implements RandomAccess {
+    private static final int CHUNK_SHIFT = 12;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private volatile Object[][] chunks = new Object[16][];
+    private volatile int size;
+
+    /**
+     * Appends an element at the end of the list
+     * @param element the element to append (cannot be null)
+     * @return always true
+     * @throws IllegalArgumentException if element is null
+     */
+    @Override
+    public synchronized boolean add(T element) {
+        if (element == null) {
+            throw new IllegalArgumentException("Element cannot be null");
+        }
+        int index = size;
+        int chunk = index >>> CHUNK_SHIFT;
+        Object[][] directory = chunks;
+        if (chunk == directory.length) {
+            directory = Arrays.copyOf(directory, directory.length << 1);
+        }
+        if (directory[chunk] == null) {
+            directory[chunk] = new Object[CHUNK_SIZE];
+        }
+        directory[chunk][index & CHUNK_MASK] = element;
+        chunks = directory;
+        size = index + 1;
+        return true;
+    }
+
+    /**
+     * Appends all elements in iteration order while holding the append lock once
+     * @param elements the elements to append (cannot contain null)
+     * @return true if the list changed
+     * @throws IllegalArgumentException if an element is null
+     */
+    @Override
+    public synchronized boolean addAll(Collection<? extends T> elements) {
+        for (T element : elements) {
+            add(element);
+        }
+        return !elements.isEmpty();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return (T) chunks[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Takes a read-only view of the elements appended so far; later appends do not show in it
+     * @return the view, backed by this list
+     */
+    public List<T> snapshot() {
+        return new PrefixView<>(this, size);
+    }
+}
@@ -0,0 +1,55 @@
+package com.skypay.hotel.index;
+
+import com.skypay.hotel.model.Booking;
+import com.skypay.hotel.model.EpochDays;
+
+import java.time.LocalDate;
+
+/**
+ * Answers room availability questions without scanning every booking in the hotel.
+ * Implementations share the semantics of {@link Booking#overlaps(LocalDate, LocalDate)}:
+ * a stay that checks in on the day another checks out does not conflict with it.
+ */
+public interface AvailabilityIndex {
+
+    /**
+     * Checks whether a room has no booking overlapping the given stay
+     * @param roomNumber the room to check
+     * @param checkIn the check-in date of the requested stay
+     * @param checkOut the check-out date of the requested stay (exclusive)
+     * @return true if no indexed booking of the room overlaps the stay, false otherwise
+     */
+    default boolean isAvailable(int roomNumber, LocalDate checkIn, LocalDate checkOut) {
+        return isAvailable(roomNumber, EpochDays.of(checkIn), EpochDays.of(checkOut));
+    }
+
+    /**
+     * Checks whether a room has no booking overlapping the stay given in epoch days
+     * @param roomNumber the room to check
+     * @param checkInDay the epoch day of check-in of the requested stay
+     * @param checkOutDay the epoch day of check-out of the requested stay (exclusive)
+     * @return true if no indexed booking of the room overlaps the stay, false otherwise
+     */
+    boolean isAvailable(int roomNumber, int checkInDay, int checkOutDay);
+
+    /**
+     * Records a committed booking so later availability checks take it into account.
+     * Callers must only add bookings that were found available.
+     * @param booking the committed booking
+     */
+    void add(Booking booking);
+
+    /**
+     * Forgets a cancelled booking so its nights become available again
+     * @param booking a booking previously added
+     */
+    void remove(Booking booking);
+
+    /**
+     * Forgets the stays of a room that check out before the given day, once bookings starting
+     * that early are no longer accepted
+     * @param roomNumber the room
+     * @param day the epoch day before which forgotten stays check out
+     */
+    void removeCheckedOutBefore(int roomNumber, int day);
+}
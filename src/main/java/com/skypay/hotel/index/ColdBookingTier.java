@@ -0,0 +1,179 @@
+package com.skypay.hotel.index;
+
+import com.skypay.hotel.model.Booking;
+import com.skypay.hotel.model.RoomType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Append-only storage for bookings that no longer take part in availability checks, kept off
+ * the heap in memory-mapped segment files. {@link ColumnarBookingStore#archive} moves bookings
+ * here; they stay readable through the store and its views, decoded on each read like the
+ * bookings still in the store's columns.
+ * <p>
+ * A booking is a fixed-size record of {@value #RECORD_SIZE} bytes
+ * {@code [int booking ID][int user ID][int room number][int check-in day][int check-out day]
+ * [int total amount][long booked at, epoch ms UTC][int user balance][int room price][byte room type]}
+ * followed by padding, and a segment file holds {@value #RECORDS_PER_SEGMENT} records. Only the
+ * positions of each user's and each room's bookings stay on the heap, about 8 bytes per booking.
+ * <p>
+ * The tier is an extension of the heap, not a persistent store: the journal and snapshots stay
+ * the source of truth, and opening a tier deletes the segments left in its directory by a
+ * previous run. Records are appended by one archiver at a time and only become visible when the
+ * archive run that wrote them completes; reads are lock-free.
+ */
+public final class ColdBookingTier {
+    static final int RECORD_SIZE = 44;
+    static final int RECORDS_PER_SEGMENT = 1 << 18;
+
+    private static final int SEGMENT_SHIFT = 18;
+    private static final int SEGMENT_MASK = RECORDS_PER_SEGMENT - 1;
+    private static final String SEGMENT_GLOB = "bookings-*.cold";
+    private static final RoomType[] ROOM_TYPES = RoomType.values();
+
+    private final Path directory;
+    private volatile MappedByteBuffer[] segments = new MappedByteBuffer[8];
+    // Records visible to readers; records up to written belong to the archive run in progress
+    private volatile int size;
+    private int written;
+    private final IntHashIndex<Positions> positionsByUser = new IntHashIndex<>();
+    private final IntHashIndex<Positions> positionsByRoom = new IntHashIndex<>();
+
+    private ColdBookingTier(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Opens an empty tier writing its segments to the given directory, which is created if
+     * needed. Segments left there by a previous tier are deleted.
+     * @param directory the directory of the segment files (cannot be null)
+     * @return the empty tier
+     * @throws IllegalArgumentException if directory is null
+     * @throws IOException if the directory cannot be created or cleared
+     */
+    public static ColdBookingTier open(Path directory) throws IOException {
+        if (directory == null) {
+            throw new IllegalArgumentException("Cold tier directory cannot be null");
+        }
+        Files.createDirectories(directory);
+        try (DirectoryStream<Path> stale = Files.newDirectoryStream(directory, SEGMENT_GLOB)) {
+            for (Path segment : stale) {
+                Files.delete(segment);
+            }
+        }
+        return new ColdBookingTier(directory);
+    }
+
+    /**
+     * @return the number of archived bookings
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Writes a booking after the last record without making it visible
+     */
+    void append(int bookingId, int userId, int roomNumber, int checkInDay, int checkOutDay, int totalAmount,
+                long bookedAtMillis, int userBalanceAtBooking, byte roomTypeAtBooking, int roomPricePerNightAtBooking) {
+        int position = written;
+        MappedByteBuffer segment = segmentFor(position);
+        int offset = (position & SEGMENT_MASK) * RECORD_SIZE;
+        segment.putInt(offset, bookingId);
+        segment.putInt(offset + 4, userId);
+        segment.putInt(offset + 8, roomNumber);
+        segment.putInt(offset + 12, checkInDay);
+        segment.putInt(offset + 16, checkOutDay);
+        segment.putInt(offset + 20, totalAmount);
+        segment.putLong(offset + 24, bookedAtMillis);
+        segment.putInt(offset + 32, userBalanceAtBooking);
+        segment.putInt(offset + 36, roomPricePerNightAtBooking);
+        segment.put(offset + 40, roomTypeAtBooking);
+        Positions.of(positionsByUser, userId).add(position);
+        Positions.of(positionsByRoom, roomNumber).add(position);
+        written = position + 1;
+    }
+
+    /**
+     * Makes the records written since the last publish visible
+     * @return the number of visible records
+     */
+    int publish() {
+        size = written;
+        return written;
+    }
+
+    /**
+     * Forgets the records written since the last publish; readers never saw them
+     */
+    void rollback() {
+        int visible = size;
+        for (int position = visible; position < written; position++) {
+            MappedByteBuffer segment = segments[position >>> SEGMENT_SHIFT];
+            int offset = (position & SEGMENT_MASK) * RECORD_SIZE;
+            positionsByUser.get(segment.getInt(offset + 4)).truncate(visible);
+            positionsByRoom.get(segment.getInt(offset + 8)).truncate(visible);
+        }
+        written = visible;
+    }
+
+    Booking decode(int position) {
+        MappedByteBuffer segment = segments[position >>> SEGMENT_SHIFT];
+        int offset = (position & SEGMENT_MASK) * RECORD_SIZE;
+        return Booking.restore(segment.getInt(offset), segment.getInt(offset + 4), segment.getInt(offset + 8),
+                segment.getInt(offset + 12),
+                segment.getInt(offset + 16),
+                segment.getInt(offset + 20),
+                LocalDateTime.ofInstant(Instant.ofEpochMilli(segment.getLong(offset + 24)), ZoneOffset.UTC),
+                segment.getInt(offset + 32),
+                ROOM_TYPES[segment.get(offset + 40)],
+                segment.getInt(offset + 36));
+    }
+
+    int bookingId(int position) {
+        return segments[position >>> SEGMENT_SHIFT].getInt((position & SEGMENT_MASK) * RECORD_SIZE);
+    }
+
+    Positions positionsOfUser(int userId) {
+        return positionsByUser.get(userId);
+    }
+
+    Positions positionsOfRoom(int roomNumber) {
+        return positionsByRoom.get(roomNumber);
+    }
+
+    /**
+     * Maps the segment holding a position, creating its file when the position starts it.
+     * The mapping stays valid after its channel is closed.
+     */
+    private MappedByteBuffer segmentFor(int position) {
+        int index = position >>> SEGMENT_SHIFT;
+        MappedByteBuffer[] directory = segments;
+        if (index < directory.length && directory[index] != null) {
+            return directory[index];
+        }
+        if (index == directory.length) {
+            directory = Arrays.copyOf(directory, directory.length << 1);
+        }
+        Path path = this.directory.resolve(String.format("bookings-%08d.cold", index));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            directory[index] = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) RECORDS_PER_SEGMENT * RECORD_SIZE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        segments = directory;
+        return directory[index];
+    }
+}
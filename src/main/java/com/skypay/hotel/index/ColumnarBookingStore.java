@@ -0,0 +1,621 @@
+package com.skypay.hotel.index;
+
+import com.skypay.hotel.model.Booking;
+import com.skypay.hotel.model.RoomType;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Append-only list of bookings stored column by column in parallel primitive arrays, so a
+ * booking costs about 41 bytes of heap instead of a graph of objects: dates are kept as
+ * epoch days, the booking time as epoch milliseconds (UTC) and the room type as its ordinal.
+ * <p>
+ * Columns grow in fixed-size chunks that are never copied. {@link #get(int)} hands out a new
+ * {@link Booking} decoded from the columns; it is only kept in memory for as long as the caller
+ * holds it. Like {@link AppendOnlyList}, appends are serialized internally and reads are
+ * lock-free, always seeing a consistent prefix.
+ * <p>
+ * The store also records the positions of each user's and each room's bookings, in commit
+ * order, and the position of every booking ID, which adds about 16 bytes per booking.
+ * <p>
+ * A cancelled booking is only marked with a tombstone bit: it stays in the list, and
+ * {@link #isCancelled(int)} tells it apart, until {@link #compact()} rebuilds the columns
+ * without it. Compaction copies the live bookings without holding the append lock and only
+ * takes it to copy the bookings appended meanwhile, so it does not stall bookings; positions
+ * change when it completes. {@link #snapshot()} returns a read-only view of the live bookings
+ * that is unaffected by later appends, cancellations and compactions.
+ * <p>
+ * {@link #archive} moves the bookings of past stays to a {@link ColdBookingTier} off the heap the
+ * same way. Archived bookings come first in the list and its views, in the order they were
+ * archived, followed by the bookings still in the columns; they can no longer be cancelled.
+ */
+public class ColumnarBookingStore extends AbstractList<Booking> implements RandomAccess {
+    private static final int CHUNK_SHIFT = 14;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final RoomType[] ROOM_TYPES = RoomType.values();
+
+    private volatile Columns columns = new Columns();
+    private final Object compactionLock = new Object();
+    // Set once, before the first generation counting archived bookings is published
+    private volatile ColdBookingTier coldTier;
+
+    /**
+     * One chunk of every column
+     */
+    private static final class Chunk {
+        final int[] bookingIds = new int[CHUNK_SIZE];
+        final int[] userIds = new int[CHUNK_SIZE];
+        final int[] roomNumbers = new int[CHUNK_SIZE];
+        final int[] checkInDays = new int[CHUNK_SIZE];
+        final int[] checkOutDays = new int[CHUNK_SIZE];
+        final int[] totalAmounts = new int[CHUNK_SIZE];
+        final long[] bookedAtMillis = new long[CHUNK_SIZE];
+        final int[] userBalancesAtBooking = new int[CHUNK_SIZE];
+        final byte[] roomTypesAtBooking = new byte[CHUNK_SIZE];
+        final int[] roomPricesPerNightAtBooking = new int[CHUNK_SIZE];
+        final long[] tombstones = new long[CHUNK_SIZE >>> 6];
+    }
+
+    /**
+     * One generation of the store: the columns and their indexes. Compaction replaces it with
+     * a new generation; views keep reading the generation they were taken from.
+     * Only written under the store's lock, which keeps every position list sorted.
+     */
+    private static final class Columns {
+        volatile Chunk[] chunks = new Chunk[16];
+        volatile int size;
+        volatile int cancelledCount;
+        // Archived bookings preceding this generation's rows, set before the generation is published
+        int coldSize;
+        // Position + 1 of each booking ID, in chunks indexed by ID; 0 when the ID is not stored
+        volatile int[][] positionsById = new int[16][];
+        final IntHashIndex<Positions> positionsByUser = new IntHashIndex<>();
+        final IntHashIndex<Positions> positionsByRoom = new IntHashIndex<>();
+
+        void append(Booking booking) {
+            int slot = reserve(booking.getBookingId(), booking.getUserId(), booking.getRoomNumber());
+            Chunk chunk = chunks[size >>> CHUNK_SHIFT];
+            chunk.bookingIds[slot] = booking.getBookingId();
+            chunk.userIds[slot] = booking.getUserId();
+            chunk.roomNumbers[slot] = booking.getRoomNumber();
+            chunk.checkInDays[slot] = booking.getCheckInDay();
+            chunk.checkOutDays[slot] = booking.getCheckOutDay();
+            chunk.totalAmounts[slot] = booking.getTotalAmount();
+            chunk.bookedAtMillis[slot] = booking.getBookingDateTime().toInstant(ZoneOffset.UTC).toEpochMilli();
+            chunk.userBalancesAtBooking[slot] = booking.getUserBalanceAtBooking();
+            chunk.roomTypesAtBooking[slot] = (byte) booking.getRoomTypeAtBooking().ordinal();
+            chunk.roomPricesPerNightAtBooking[slot] = booking.getRoomPricePerNightAtBooking();
+            size++;
+        }
+
+        /**
+         * Copies a row of another generation without decoding it
+         */
+        void append(Columns source, int position) {
+            Chunk from = source.chunks[position >>> CHUNK_SHIFT];
+            int fromSlot = position & CHUNK_MASK;
+            int slot = reserve(from.bookingIds[fromSlot], from.userIds[fromSlot], from.roomNumbers[fromSlot]);
+            Chunk chunk = chunks[size >>> CHUNK_SHIFT];
+            chunk.bookingIds[slot] = from.bookingIds[fromSlot];
+            chunk.userIds[slot] = from.userIds[fromSlot];
+            chunk.roomNumbers[slot] = from.roomNumbers[fromSlot];
+            chunk.checkInDays[slot] = from.checkInDays[fromSlot];
+            chunk.checkOutDays[slot] = from.checkOutDays[fromSlot];
+            chunk.totalAmounts[slot] = from.totalAmounts[fromSlot];
+            chunk.bookedAtMillis[slot] = from.bookedAtMillis[fromSlot];
+            chunk.userBalancesAtBooking[slot] = from.userBalancesAtBooking[fromSlot];
+            chunk.roomTypesAtBooking[slot] = from.roomTypesAtBooking[fromSlot];
+            chunk.roomPricesPerNightAtBooking[slot] = from.roomPricesPerNightAtBooking[fromSlot];
+            size++;
+        }
+
+        /**
+         * Makes room for the next row and indexes it; the row becomes visible when size is published
+         * @return the row's slot in its chunk
+         */
+        private int reserve(int bookingId, int userId, int roomNumber) {
+            int index = size;
+            int chunkIndex = index >>> CHUNK_SHIFT;
+            Chunk[] directory = chunks;
+            if (chunkIndex == directory.length) {
+                directory = Arrays.copyOf(directory, directory.length << 1);
+            }
+            if (directory[chunkIndex] == null) {
+                directory[chunkIndex] = new Chunk();
+            }
+            chunks = directory;
+            Positions.of(positionsByUser, userId).add(index);
+            Positions.of(positionsByRoom, roomNumber).add(index);
+            int idChunk = bookingId >>> CHUNK_SHIFT;
+            int[][] ids = positionsById;
+            if (idChunk >= ids.length) {
+                ids = Arrays.copyOf(ids, Math.max(idChunk + 1, ids.length << 1));
+            }
+            if (ids[idChunk] == null) {
+                ids[idChunk] = new int[CHUNK_SIZE];
+            }
+            ids[idChunk][bookingId & CHUNK_MASK] = index + 1;
+            positionsById = ids;
+            return index & CHUNK_MASK;
+        }
+
+        /**
+         * Writes a row to the cold tier without decoding it
+         */
+        void archive(ColdBookingTier tier, int position) {
+            Chunk chunk = chunks[position >>> CHUNK_SHIFT];
+            int slot = position & CHUNK_MASK;
+            tier.append(chunk.bookingIds[slot], chunk.userIds[slot], chunk.roomNumbers[slot],
+                    chunk.checkInDays[slot], chunk.checkOutDays[slot], chunk.totalAmounts[slot],
+                    chunk.bookedAtMillis[slot], chunk.userBalancesAtBooking[slot],
+                    chunk.roomTypesAtBooking[slot], chunk.roomPricesPerNightAtBooking[slot]);
+        }
+
+        int bookingId(int position) {
+            return chunks[position >>> CHUNK_SHIFT].bookingIds[position & CHUNK_MASK];
+        }
+
+        int checkOutDay(int position) {
+            return chunks[position >>> CHUNK_SHIFT].checkOutDays[position & CHUNK_MASK];
+        }
+
+        boolean hasLiveCheckOutBefore(int day) {
+            int rows = size;
+            for (int position = 0; position < rows; position++) {
+                if (checkOutDay(position) < day && !isCancelled(position)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        int positionOf(int bookingId) {
+            if (bookingId <= 0) {
+                return -1;
+            }
+            int[][] ids = positionsById;
+            int idChunk = bookingId >>> CHUNK_SHIFT;
+            if (idChunk >= ids.length || ids[idChunk] == null) {
+                return -1;
+            }
+            int position = ids[idChunk][bookingId & CHUNK_MASK] - 1;
+            return position < size ? position : -1;
+        }
+
+        boolean isCancelled(int position) {
+            long word = (long) WORDS.getAcquire(chunks[position >>> CHUNK_SHIFT].tombstones,
+                    (position & CHUNK_MASK) >>> 6);
+            return (word & (1L << position)) != 0;
+        }
+
+        void cancel(int position) {
+            WORDS.getAndBitwiseOr(chunks[position >>> CHUNK_SHIFT].tombstones, (position & CHUNK_MASK) >>> 6,
+                    1L << position);
+            cancelledCount++;
+        }
+
+        Booking decode(int position) {
+            Chunk chunk = chunks[position >>> CHUNK_SHIFT];
+            int slot = position & CHUNK_MASK;
+            return Booking.restore(chunk.bookingIds[slot], chunk.userIds[slot], chunk.roomNumbers[slot],
+                    chunk.checkInDays[slot],
+                    chunk.checkOutDays[slot],
+                    chunk.totalAmounts[slot],
+                    LocalDateTime.ofInstant(Instant.ofEpochMilli(chunk.bookedAtMillis[slot]), ZoneOffset.UTC),
+                    chunk.userBalancesAtBooking[slot],
+                    ROOM_TYPES[chunk.roomTypesAtBooking[slot]],
+                    chunk.roomPricesPerNightAtBooking[slot]);
+        }
+    }
+
+    /**
+     * Read-only view of the bookings that were live when it was taken: the archived ones first,
+     * then those in the columns, each part in commit order. Reads decode the bookings from the
+     * cold tier or from the columns of the generation the view was taken from.
+     */
+    public static final class View extends AbstractList<Booking> implements RandomAccess {
+        private static final int[] NO_POSITIONS = new int[0];
+
+        private final ColdBookingTier cold;
+        // Positions of the archived bookings in the view, or null when they are the first coldSize ones
+        private final int[] coldPositions;
+        private final int coldSize;
+        private final Columns columns;
+        private final int limit;
+        // Live positions below the limit, or null when none of them was cancelled
+        private final int[] livePositions;
+        private final int liveSize;
+
+        private View(ColdBookingTier cold, int[] coldPositions, int coldSize,
+                     Columns columns, int limit, int[] livePositions, int liveSize) {
+            this.cold = cold;
+            this.coldPositions = coldPositions;
+            this.coldSize = coldSize;
+            this.columns = columns;
+            this.limit = limit;
+            this.livePositions = livePositions;
+            this.liveSize = liveSize;
+        }
+
+        @Override
+        public Booking get(int index) {
+            if (index < 0 || index >= coldSize + liveSize) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + (coldSize + liveSize));
+            }
+            if (index < coldSize) {
+                return cold.decode(coldPositions == null ? index : coldPositions[index]);
+            }
+            int live = index - coldSize;
+            return columns.decode(livePositions == null ? live : livePositions[live]);
+        }
+
+        @Override
+        public int size() {
+            return coldSize + liveSize;
+        }
+
+        /**
+         * @param userId the user
+         * @return the user's bookings in this view, archived ones first; empty for an unknown user
+         */
+        public List<Booking> ofUser(int userId) {
+            return select(cold == null ? null : cold.positionsOfUser(userId), columns.positionsByUser.get(userId));
+        }
+
+        /**
+         * @param roomNumber the room
+         * @return the room's bookings in this view, archived ones first; empty for an unknown room
+         */
+        public List<Booking> ofRoom(int roomNumber) {
+            return select(cold == null ? null : cold.positionsOfRoom(roomNumber), columns.positionsByRoom.get(roomNumber));
+        }
+
+        /**
+         * Selects the bookings below an ID, reading only the ID column: booking IDs never
+         * change, so unlike positions they stay a stable bound across compactions and archiving
+         * @param bookingId the exclusive upper bound of the IDs
+         * @param limit the maximum number of bookings (must be positive)
+         * @return the bookings of this view with an ID below bookingId, highest ID first
+         * @throws IllegalArgumentException if limit is not positive
+         */
+        public List<Booking> below(int bookingId, int limit) {
+            if (limit <= 0) {
+                throw new IllegalArgumentException("Limit must be positive");
+            }
+            // Min-heap of the highest IDs seen, each packed with its index in the view
+            long[] heap = new long[Math.min(limit, size())];
+            int count = 0;
+            for (int index = 0; index < coldSize + liveSize; index++) {
+                int id = index < coldSize
+                        ? cold.bookingId(coldPositions == null ? index : coldPositions[index])
+                        : columns.bookingId(livePositions == null ? index - coldSize : livePositions[index - coldSize]);
+                if (id >= bookingId) {
+                    continue;
+                }
+                long entry = (long) id << 32 | index;
+                if (count < heap.length) {
+                    heap[count] = entry;
+                    siftUp(heap, count++);
+                } else if (entry > heap[0]) {
+                    heap[0] = entry;
+                    siftDown(heap, count);
+                }
+            }
+            Arrays.sort(heap, 0, count);
+            Booking[] selected = new Booking[count];
+            for (int i = 0; i < count; i++) {
+                selected[count - 1 - i] = get((int) heap[i]);
+            }
+            return Arrays.asList(selected);
+        }
+
+        private static void siftUp(long[] heap, int child) {
+            long entry = heap[child];
+            while (child > 0) {
+                int parent = (child - 1) >>> 1;
+                if (heap[parent] <= entry) {
+                    break;
+                }
+                heap[child] = heap[parent];
+                child = parent;
+            }
+            heap[child] = entry;
+        }
+
+        private static void siftDown(long[] heap, int count) {
+            long entry = heap[0];
+            int parent = 0;
+            int child;
+            while ((child = 2 * parent + 1) < count) {
+                if (child + 1 < count && heap[child + 1] < heap[child]) {
+                    child++;
+                }
+                if (entry <= heap[child]) {
+                    break;
+                }
+                heap[parent] = heap[child];
+                parent = child;
+            }
+            heap[parent] = entry;
+        }
+
+        private List<Booking> select(Positions archived, Positions stored) {
+            if (archived == null && stored == null) {
+                return List.of();
+            }
+            // Positions are sorted, so those below the view's bounds form a prefix
+            int coldCount = archived == null ? 0 : archived.countBelow(coldSize);
+            int[] coldValues = archived == null ? NO_POSITIONS : archived.values;
+            int below = stored == null ? 0 : stored.countBelow(limit);
+            int[] values = stored == null ? NO_POSITIONS : stored.values;
+            if (livePositions == null) {
+                return new View(cold, coldValues, coldCount, columns, limit, values, below);
+            }
+            int[] live = new int[below];
+            int liveCount = 0;
+            for (int i = 0; i < below; i++) {
+                if (Arrays.binarySearch(livePositions, 0, liveSize, values[i]) >= 0) {
+                    live[liveCount++] = values[i];
+                }
+            }
+            return new View(cold, coldValues, coldCount, columns, limit, live, liveCount);
+        }
+    }
+
+    /**
+     * Appends a booking at the end of the list; only its field values are kept
+     * @param booking the booking to append (cannot be null)
+     * @return always true
+     * @throws IllegalArgumentException if booking is null or its ID is already stored
+     */
+    @Override
+    public synchronized boolean add(Booking booking) {
+        if (booking == null) {
+            throw new IllegalArgumentException("Booking cannot be null");
+        }
+        Columns current = columns;
+        if (current.positionOf(booking.getBookingId()) >= 0) {
+            throw new IllegalArgumentException("Booking " + booking.getBookingId() + " is already stored");
+        }
+        current.append(booking);
+        return true;
+    }
+
+    /**
+     * Appends all bookings in iteration order while holding the append lock once
+     * @param bookings the bookings to append (cannot contain null)
+     * @return true if the list changed
+     * @throws IllegalArgumentException if a booking is null or its ID is already stored
+     */
+    @Override
+    public synchronized boolean addAll(Collection<? extends Booking> bookings) {
+        for (Booking booking : bookings) {
+            add(booking);
+        }
+        return !bookings.isEmpty();
+    }
+
+    /**
+     * Decodes the booking at the given position into a new object, whether it is cancelled or not
+     */
+    @Override
+    public Booking get(int index) {
+        Columns current = columns;
+        int coldSize = current.coldSize;
+        if (index < 0 || index >= coldSize + current.size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + (coldSize + current.size));
+        }
+        return index < coldSize ? coldTier.decode(index) : current.decode(index - coldSize);
+    }
+
+    /**
+     * @return the number of stored bookings, including archived ones and cancelled ones not yet compacted away
+     */
+    @Override
+    public int size() {
+        Columns current = columns;
+        return current.coldSize + current.size;
+    }
+
+    /**
+     * @param index the position of a booking
+     * @return true if the booking at that position is cancelled; archived bookings never are
+     * @throws IndexOutOfBoundsException if there is no booking at that position
+     */
+    public boolean isCancelled(int index) {
+        Columns current = columns;
+        int coldSize = current.coldSize;
+        if (index < 0 || index >= coldSize + current.size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + (coldSize + current.size));
+        }
+        return index >= coldSize && current.isCancelled(index - coldSize);
+    }
+
+    /**
+     * @return the number of bookings moved to the cold tier
+     */
+    public int getArchivedCount() {
+        return columns.coldSize;
+    }
+
+    /**
+     * @return the number of cancelled bookings waiting for {@link #compact()}
+     */
+    public int getCancelledCount() {
+        return columns.cancelledCount;
+    }
+
+    /**
+     * Looks up a live booking by its ID in constant time
+     * @param bookingId the booking ID
+     * @return the booking, or null if it is not stored, is cancelled or is archived
+     */
+    public Booking findLive(int bookingId) {
+        Columns current = columns;
+        int position = current.positionOf(bookingId);
+        return position < 0 || current.isCancelled(position) ? null : current.decode(position);
+    }
+
+    /**
+     * Marks a live booking as cancelled
+     * @param bookingId the booking ID
+     * @return the cancelled booking, or null if it is not stored, already cancelled or archived
+     */
+    public synchronized Booking cancel(int bookingId) {
+        Columns current = columns;
+        int position = current.positionOf(bookingId);
+        if (position < 0 || current.isCancelled(position)) {
+            return null;
+        }
+        current.cancel(position);
+        return current.decode(position);
+    }
+
+    /**
+     * Rebuilds the columns without the cancelled bookings. The live bookings are copied
+     * without holding the append lock; only those appended or cancelled meanwhile are handled
+     * under it. Concurrent compactions run one after the other.
+     * @return the number of cancelled bookings removed
+     */
+    public int compact() {
+        synchronized (compactionLock) {
+            if (columns.cancelledCount == 0) {
+                return 0;
+            }
+            return rebuild(null, Integer.MIN_VALUE);
+        }
+    }
+
+    /**
+     * Moves the live bookings that check out before the given day to a cold tier, rebuilding
+     * the columns without them and without the cancelled bookings, as {@link #compact()} does
+     * and without holding the append lock for longer. A store archives to a single tier.
+     * If one of the bookings being moved is cancelled meanwhile, the run is abandoned and
+     * nothing is archived; the next run tries again.
+     * @param tier the tier receiving the bookings (cannot be null)
+     * @param beforeDay the epoch day before which archived bookings check out
+     * @return the number of bookings archived
+     * @throws IllegalArgumentException if tier is null or the store already archives to another tier
+     * @throws java.io.UncheckedIOException if a segment file cannot be created
+     */
+    public int archive(ColdBookingTier tier, int beforeDay) {
+        if (tier == null) {
+            throw new IllegalArgumentException("Cold tier cannot be null");
+        }
+        synchronized (compactionLock) {
+            if (coldTier != null && coldTier != tier) {
+                throw new IllegalArgumentException("Bookings are already archived to another tier");
+            }
+            coldTier = tier;
+            if (!columns.hasLiveCheckOutBefore(beforeDay)) {
+                return 0;
+            }
+            int archivedBefore = tier.size();
+            return rebuild(tier, beforeDay) < 0 ? 0 : tier.size() - archivedBefore;
+        }
+    }
+
+    /**
+     * Must be called while holding the compaction lock. Copies the live bookings into a new
+     * generation, or to the tier when given and they check out before the day, and publishes it.
+     * @return the number of cancelled bookings removed, or -1 if the run was abandoned
+     */
+    private int rebuild(ColdBookingTier tier, int beforeDay) {
+        Columns old = columns;
+        Columns fresh = new Columns();
+        int cancelledBeforeCopy = old.cancelledCount;
+        int copied = old.size;
+        BitSet archived = tier == null ? null : new BitSet(copied);
+        for (int position = 0; position < copied; position++) {
+            if (old.isCancelled(position)) {
+                continue;
+            }
+            if (tier != null && old.checkOutDay(position) < beforeDay) {
+                old.archive(tier, position);
+                archived.set(position);
+            } else {
+                fresh.append(old, position);
+            }
+        }
+        synchronized (this) {
+            if (old.cancelledCount != cancelledBeforeCopy && !carryOverCancellations(old, fresh, copied, archived)) {
+                tier.rollback();
+                return -1;
+            }
+            for (int position = copied; position < old.size; position++) {
+                fresh.append(old, position);
+                if (old.isCancelled(position)) {
+                    fresh.cancel(fresh.size - 1);
+                }
+            }
+            fresh.coldSize = tier == null ? old.coldSize : tier.publish();
+            columns = fresh;
+            return old.cancelledCount - fresh.cancelledCount;
+        }
+    }
+
+    /**
+     * Cancels in the new generation the copied bookings that were cancelled during the copy,
+     * walking the tombstones a word at a time
+     * @return false if one of them was archived instead, as the cold tier cannot cancel it
+     */
+    private static boolean carryOverCancellations(Columns old, Columns fresh, int copied, BitSet archived) {
+        for (int word = 0; word << 6 < copied; word++) {
+            long tombstones = (long) WORDS.getAcquire(old.chunks[(word << 6) >>> CHUNK_SHIFT].tombstones,
+                    word & (CHUNK_MASK >>> 6));
+            while (tombstones != 0) {
+                int position = (word << 6) + Long.numberOfTrailingZeros(tombstones);
+                tombstones &= tombstones - 1;
+                if (position >= copied) {
+                    break;
+                }
+                int moved = fresh.positionOf(old.chunks[position >>> CHUNK_SHIFT].bookingIds[position & CHUNK_MASK]);
+                if (moved >= 0) {
+                    if (!fresh.isCancelled(moved)) {
+                        fresh.cancel(moved);
+                    }
+                } else if (archived != null && archived.get(position)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Takes a read-only view of the live bookings; later changes do not show in it. The view
+     * copies nothing unless bookings are cancelled and not yet compacted, in which case it
+     * holds the positions of the live ones.
+     * @return the view
+     */
+    public View snapshot() {
+        Columns current = columns;
+        ColdBookingTier cold = coldTier;
+        int cancelled = current.cancelledCount;
+        int size = current.size;
+        if (cancelled == 0) {
+            return new View(cold, null, current.coldSize, current, size, null, size);
+        }
+        int[] live = new int[size];
+        int liveCount = 0;
+        for (int position = 0; position < size; position++) {
+            if (!current.isCancelled(position)) {
+                live[liveCount++] = position;
+            }
+        }
+        return new View(cold, null, current.coldSize, current, size, live, liveCount);
+    }
+}
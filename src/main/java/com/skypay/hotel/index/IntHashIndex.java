@@ -0,0 +1,204 @@
+package com.skypay.hotel.index;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Primary-key index mapping positive int keys to values without boxing the keys.
+ * Uses open addressing with linear probing over parallel key/value arrays, so a lookup
+ * costs one hash plus a short probe regardless of how many entries are stored.
+ * <p>
+ * The index supports a single writer at a time (callers serialize {@link #put} and
+ * {@link #remove}) with any number of concurrent readers: slots are published with
+ * release/acquire ordering and a resized table only becomes visible once it is fully populated.
+ * A removed key keeps its slot with no value, so probe sequences through it stay intact.
+ *
+ * @param <V> the indexed value type
+ */
+public class IntHashIndex<V> {
+    private static final int EMPTY = 0;
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private static final VarHandle KEYS = MethodHandles.arrayElementVarHandle(int[].class);
+    private static final VarHandle VALUES = MethodHandles.arrayElementVarHandle(Object[].class);
+
+    private volatile Table table;
+    private volatile int size;
+    // Slots holding a key, removed or not; written under the caller's serialization like the table
+    private int usedSlots;
+
+    /**
+     * Creates an empty index with a small default capacity
+     */
+    public IntHashIndex() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty index sized to hold the expected number of entries without resizing
+     * @param expectedSize the number of entries expected to be stored
+     * @throws IllegalArgumentException if expectedSize is negative
+     */
+    public IntHashIndex(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Expected size cannot be negative");
+        }
+        this.table = new Table(tableSizeFor(expectedSize));
+    }
+
+    /**
+     * Looks up the value stored for a key
+     * @param key the key to look up
+     * @return the stored value, or null if the key is not indexed
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        Table table = this.table;
+        int[] keys = table.keys;
+        int mask = table.mask;
+        int slot = hash(key) & mask;
+        int current;
+        while ((current = (int) KEYS.getAcquire(keys, slot)) != EMPTY) {
+            if (current == key) {
+                return (V) VALUES.getAcquire(table.values, slot);
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Checks whether a key is indexed
+     * @param key the key to check
+     * @return true if a value is stored for the key, false otherwise
+     */
+    public boolean containsKey(int key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Stores a value for a key, replacing any previous value.
+     * Concurrent calls must be serialized by the caller.
+     * @param key the key to index (must be positive)
+     * @param value the value to store (cannot be null)
+     * @return the previous value for the key, or null if there was none
+     * @throws IllegalArgumentException if key is not positive or value is null
+     */
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        if (key <= 0) {
+            throw new IllegalArgumentException("Index key must be positive");
+        }
+        if (value == null) {
+            throw new IllegalArgumentException("Indexed value cannot be null");
+        }
+        Table table = this.table;
+        int slot = hash(key) & table.mask;
+        int current;
+        while ((current = table.keys[slot]) != EMPTY) {
+            if (current == key) {
+                V previous = (V) table.values[slot];
+                VALUES.setRelease(table.values, slot, value);
+                if (previous == null) {
+                    size++;
+                }
+                return previous;
+            }
+            slot = (slot + 1) & table.mask;
+        }
+        // Value first: a reader that observes the key is guaranteed to observe its value
+        VALUES.setRelease(table.values, slot, value);
+        KEYS.setRelease(table.keys, slot, key);
+        size++;
+        if (++usedSlots > table.resizeThreshold) {
+            // Removed keys are dropped by the rehash: only grow if the live keys need the room
+            int capacity = size > table.resizeThreshold >>> 1 ? table.keys.length << 1 : table.keys.length;
+            this.table = table.rehash(capacity);
+            usedSlots = size;
+        }
+        return null;
+    }
+
+    /**
+     * Removes the value stored for a key.
+     * Concurrent calls must be serialized by the caller.
+     * @param key the key to remove
+     * @return the removed value, or null if the key was not indexed
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(int key) {
+        Table table = this.table;
+        int slot = hash(key) & table.mask;
+        int current;
+        while ((current = table.keys[slot]) != EMPTY) {
+            if (current == key) {
+                V previous = (V) table.values[slot];
+                if (previous != null) {
+                    VALUES.setRelease(table.values, slot, null);
+                    size--;
+                }
+                return previous;
+            }
+            slot = (slot + 1) & table.mask;
+        }
+        return null;
+    }
+
+    /**
+     * @return the number of indexed keys
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        long required = (long) Math.ceil(Math.max(expectedSize, 1) / (double) LOAD_FACTOR);
+        if (required > (1 << 30)) {
+            throw new IllegalArgumentException("Expected size is too large: " + expectedSize);
+        }
+        return Math.max(DEFAULT_CAPACITY, Integer.highestOneBit((int) required - 1) << 1);
+    }
+
+    /**
+     * Fibonacci hashing spreads sequential room numbers and user IDs across the table
+     */
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static final class Table {
+        final int[] keys;
+        final Object[] values;
+        final int mask;
+        final int resizeThreshold;
+
+        Table(int capacity) {
+            this.keys = new int[capacity];
+            this.values = new Object[capacity];
+            this.mask = capacity - 1;
+            this.resizeThreshold = (int) (capacity * LOAD_FACTOR);
+        }
+
+        Table rehash(int newCapacity) {
+            Table resized = new Table(newCapacity);
+            for (int i = 0; i < keys.length; i++) {
+                int key = keys[i];
+                if (key != EMPTY && values[i] != null) {
+                    int slot = hash(key) & resized.mask;
+                    while (resized.keys[slot] != EMPTY) {
+                        slot = (slot + 1) & resized.mask;
+                    }
+                    resized.keys[slot] = key;
+                    resized.values[slot] = values[i];
+                }
+            }
+            return resized;
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.skypay.hotel.index;
+
+import com.skypay.hotel.model.RoomType;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+/**
+ * Occupancy calendar answering "which rooms of a type are free for these nights" with bitmap
+ * operations instead of overlap checks against bookings.
+ * <p>
+ * Each room gets a dense slot number in registration order. For every night, a bitmap over slots
+ * marks the rooms booked that night; a bitmap per {@link RoomType} marks the rooms of that type.
+ * Day bitmaps are compressed by splitting them into containers of 4096 slots that are only
+ * allocated once a room in them is booked that night, so quiet days and far-future days cost
+ * almost nothing. A query ANDs the type bitmap with the complement of the OR of the requested
+ * nights, one 64-room word at a time.
+ * <p>
+ * Registering rooms and changing their type must be serialized by the caller. Bits are set and
+ * cleared atomically, so bookings of different rooms may be recorded or released concurrently,
+ * and queries are lock-free: they see every change made before they started.
+ */
+public class OccupancyCalendar {
+    private static final int CONTAINER_SHIFT = 12;
+    private static final int CONTAINER_WORDS = (1 << CONTAINER_SHIFT) >>> 6;
+    private static final int WORD_MASK = CONTAINER_WORDS - 1;
+
+    // Keeps epoch days of any realistic date positive, as the day index requires
+    private static final int DAY_KEY_OFFSET = 1 << 30;
+
+    private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final RoomType[] ROOM_TYPES = RoomType.values();
+
+    private final IntHashIndex<Integer> slotsByRoom = new IntHashIndex<>();
+    private final IntHashIndex<DayBitmap> days = new IntHashIndex<>();
+    private volatile int[] roomNumbersBySlot = new int[64];
+    private volatile long[][] typeBitmaps = new long[ROOM_TYPES.length][1];
+    private volatile int slotCount;
+
+    /**
+     * Occupied rooms of one night, split into lazily allocated containers
+     */
+    private static final class DayBitmap {
+        volatile long[][] containers = new long[1][];
+
+        long[] container(int index) {
+            long[][] directory = containers;
+            return index < directory.length ? directory[index] : null;
+        }
+
+        synchronized long[] containerForUpdate(int index) {
+            long[][] directory = containers;
+            if (index >= directory.length) {
+                directory = Arrays.copyOf(directory, Math.max(index + 1, directory.length * 2));
+            }
+            if (directory[index] == null) {
+                directory[index] = new long[CONTAINER_WORDS];
+                containers = directory;
+            }
+            return directory[index];
+        }
+    }
+
+    /**
+     * Registers a new room, or changes the type of a registered one
+     * @param roomNumber the room number (must be positive)
+     * @param roomType the room's type (cannot be null)
+     * @throws IllegalArgumentException if roomNumber is not positive or roomType is null
+     */
+    public void setRoom(int roomNumber, RoomType roomType) {
+        if (roomType == null) {
+            throw new IllegalArgumentException("Room type cannot be null");
+        }
+        Integer existing = slotsByRoom.get(roomNumber);
+        if (existing != null) {
+            for (RoomType type : ROOM_TYPES) {
+                setBit(typeBitmaps[type.ordinal()], existing, type == roomType);
+            }
+            return;
+        }
+
+        int slot = slotCount;
+        int[] roomNumbers = roomNumbersBySlot;
+        if (slot == roomNumbers.length) {
+            roomNumbers = Arrays.copyOf(roomNumbers, roomNumbers.length * 2);
+        }
+        roomNumbers[slot] = roomNumber;
+        long[][] types = typeBitmaps;
+        if ((slot >>> 6) == types[0].length) {
+            types = new long[ROOM_TYPES.length][];
+            for (int t = 0; t < types.length; t++) {
+                types[t] = Arrays.copyOf(typeBitmaps[t], typeBitmaps[t].length * 2);
+            }
+        }
+        setBit(types[roomType.ordinal()], slot, true);
+        slotsByRoom.put(roomNumber, slot);
+        roomNumbersBySlot = roomNumbers;
+        typeBitmaps = types;
+        slotCount = slot + 1;
+    }
+
+    /**
+     * Marks a registered room as booked for the nights from checkInDay up to, but excluding, checkOutDay
+     * @param roomNumber the booked room
+     * @param checkInDay the epoch day of check-in
+     * @param checkOutDay the epoch day of check-out
+     * @throws IllegalArgumentException if the room is not registered
+     */
+    public void occupy(int roomNumber, long checkInDay, long checkOutDay) {
+        int slot = slotOf(roomNumber);
+        for (long day = checkInDay; day < checkOutDay; day++) {
+            DayBitmap bitmap = dayForUpdate(day);
+            long[] container = bitmap.containerForUpdate(slot >>> CONTAINER_SHIFT);
+            WORDS.getAndBitwiseOr(container, (slot >>> 6) & WORD_MASK, 1L << slot);
+        }
+    }
+
+    /**
+     * Marks a registered room as free again for the nights from checkInDay up to, but excluding,
+     * checkOutDay, for example when a booking is cancelled
+     * @param roomNumber the room
+     * @param checkInDay the epoch day of check-in
+     * @param checkOutDay the epoch day of check-out
+     * @throws IllegalArgumentException if the room is not registered
+     */
+    public void release(int roomNumber, long checkInDay, long checkOutDay) {
+        int slot = slotOf(roomNumber);
+        for (long day = checkInDay; day < checkOutDay; day++) {
+            DayBitmap bitmap = days.get(dayKey(day));
+            long[] container = bitmap == null ? null : bitmap.container(slot >>> CONTAINER_SHIFT);
+            if (container != null) {
+                WORDS.getAndBitwiseAnd(container, (slot >>> 6) & WORD_MASK, ~(1L << slot));
+            }
+        }
+    }
+
+    /**
+     * Finds the rooms of a type that are free for every night from checkInDay up to,
+     * but excluding, checkOutDay
+     * @param roomType the requested type (cannot be null)
+     * @param checkInDay the epoch day of check-in
+     * @param checkOutDay the epoch day of check-out (must be after checkInDay)
+     * @return the numbers of the free rooms, in registration order
+     * @throws IllegalArgumentException if roomType is null or the days are not in order
+     */
+    public int[] findAvailable(RoomType roomType, long checkInDay, long checkOutDay) {
+        if (roomType == null) {
+            throw new IllegalArgumentException("Room type cannot be null");
+        }
+        if (checkInDay >= checkOutDay) {
+            throw new IllegalArgumentException("Check-in date must be before check-out date");
+        }
+        int slots = slotCount;
+        long[] typeBitmap = typeBitmaps[roomType.ordinal()];
+        int[] roomNumbers = roomNumbersBySlot;
+
+        // Only nights with at least one booking take part in the OR
+        DayBitmap[] nights = new DayBitmap[Math.toIntExact(checkOutDay - checkInDay)];
+        int nightCount = 0;
+        for (long day = checkInDay; day < checkOutDay; day++) {
+            DayBitmap bitmap = days.get(dayKey(day));
+            if (bitmap != null) {
+                nights[nightCount++] = bitmap;
+            }
+        }
+
+        int[] found = new int[16];
+        int foundCount = 0;
+        long[][] nightContainers = new long[nightCount][];
+        int words = (slots + 63) >>> 6;
+        for (int word = 0; word < words; word++) {
+            if ((word & WORD_MASK) == 0) {
+                for (int n = 0; n < nightCount; n++) {
+                    nightContainers[n] = nights[n].container(word / CONTAINER_WORDS);
+                }
+            }
+            long free = (long) WORDS.getAcquire(typeBitmap, word);
+            for (int n = 0; n < nightCount && free != 0; n++) {
+                if (nightContainers[n] != null) {
+                    free &= ~(long) WORDS.getAcquire(nightContainers[n], word & WORD_MASK);
+                }
+            }
+            while (free != 0) {
+                int slot = (word << 6) + Long.numberOfTrailingZeros(free);
+                free &= free - 1;
+                if (slot >= slots) {
+                    break;
+                }
+                if (foundCount == found.length) {
+                    found = Arrays.copyOf(found, found.length * 2);
+                }
+                found[foundCount++] = roomNumbers[slot];
+            }
+        }
+        return Arrays.copyOf(found, foundCount);
+    }
+
+    private int slotOf(int roomNumber) {
+        Integer slot = slotsByRoom.get(roomNumber);
+        if (slot == null) {
+            throw new IllegalArgumentException("Room " + roomNumber + " is not registered");
+        }
+        return slot;
+    }
+
+    private DayBitmap dayForUpdate(long day) {
+        int key = dayKey(day);
+        DayBitmap bitmap = days.get(key);
+        if (bitmap == null) {
+            // The day index has a single writer; creating a day's bitmap is rare
+            synchronized (days) {
+                bitmap = days.get(key);
+                if (bitmap == null) {
+                    bitmap = new DayBitmap();
+                    days.put(key, bitmap);
+                }
+            }
+        }
+        return bitmap;
+    }
+
+    private static int dayKey(long day) {
+        return Math.toIntExact(day + DAY_KEY_OFFSET);
+    }
+
+    private static void setBit(long[] bitmap, int slot, boolean value) {
+        if (value) {
+            WORDS.getAndBitwiseOr(bitmap, slot >>> 6, 1L << slot);
+        } else {
+            WORDS.getAndBitwiseAnd(bitmap, slot >>> 6, ~(1L << slot));
+        }
+    }
+}
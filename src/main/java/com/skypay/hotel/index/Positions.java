@@ -0,0 +1,53 @@
+package com.skypay.hotel.index;
+
+import java.util.Arrays;
+
+/**
+ * Growing, sorted list of booking positions with a single writer. A reader that reads the
+ * count before the array always finds that many positions in it.
+ */
+final class Positions {
+    volatile int[] values = new int[4];
+    volatile int count;
+
+    void add(int position) {
+        int[] array = values;
+        int index = count;
+        if (index == array.length) {
+            array = Arrays.copyOf(array, index << 1);
+            values = array;
+        }
+        array[index] = position;
+        count = index + 1;
+    }
+
+    /**
+     * Drops the positions from the limit on, which readers bounded by a lower limit never see
+     */
+    void truncate(int limit) {
+        int[] array = values;
+        int index = count;
+        while (index > 0 && array[index - 1] >= limit) {
+            index--;
+        }
+        count = index;
+    }
+
+    /**
+     * @return the number of positions below the limit, which form a prefix of the list
+     */
+    int countBelow(int limit) {
+        int size = count;
+        int below = Arrays.binarySearch(values, 0, size, limit);
+        return below < 0 ? -below - 1 : below;
+    }
+
+    static Positions of(IntHashIndex<Positions> index, int key) {
+        Positions positions = index.get(key);
+        if (positions == null) {
+            positions = new Positions();
+            index.put(key, positions);
+        }
+        return positions;
+    }
+}
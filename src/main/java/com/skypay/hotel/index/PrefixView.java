@@ -0,0 +1,34 @@
+package com.skypay.hotel.index;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Read-only view of the first elements of an append-only list, frozen at the size the list had
+ * when the view was taken. Elements are read from the list itself, nothing is copied.
+ *
+ * @param <T> the element type
+ */
+final class PrefixView<T> extends AbstractList<T> implements RandomAccess {
+    private final List<T> source;
+    private final int size;
+
+    PrefixView(List<T> source, int size) {
+        this.source = source;
+        this.size = size;
+    }
+
+    @Override
+    public T get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return source.get(index);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
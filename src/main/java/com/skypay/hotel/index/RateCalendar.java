@@ -0,0 +1,195 @@
+package com.skypay.hotel.index;
+
+import java.util.Arrays;
+
+/**
+ * Nightly rates of a room or room type by epoch day, pricing any stay in constant time from
+ * prefix sums, however long it is. Nights without a rate are charged a default rate given by
+ * the caller, typically the room's own price.
+ * <p>
+ * Days are grouped in blocks of {@value #BLOCK_SIZE}. Each block holds its rates and the running
+ * sums of its rates and of its rated days; the calendar holds, for every block, the totals of the
+ * blocks before it. A prefix sum is therefore one block total plus one running sum, and the price
+ * of a stay the difference of two of them. Setting the rates of a date range rebuilds the blocks
+ * it touches and the block totals, which are a few hundred values for a decade of rates.
+ * <p>
+ * Updates are serialized and publish a new immutable generation sharing the untouched blocks,
+ * so prices are read lock-free and each stay is priced from one consistent set of rates.
+ */
+public final class RateCalendar {
+    static final int BLOCK_SIZE = 64;
+
+    private static final int BLOCK_SHIFT = 6;
+    private static final int BLOCK_MASK = BLOCK_SIZE - 1;
+
+    private volatile Generation generation = Generation.EMPTY;
+
+    /**
+     * The rates of {@value #BLOCK_SIZE} consecutive days, never changed once built
+     */
+    private static final class Block {
+        // Rate of each day, 0 when the day has none
+        final int[] rates;
+        // sums[i] and ratedDays[i] cover the days before day i of the block
+        final long[] sums = new long[BLOCK_SIZE + 1];
+        final int[] ratedDays = new int[BLOCK_SIZE + 1];
+
+        Block(int[] rates) {
+            this.rates = rates;
+            for (int day = 0; day < BLOCK_SIZE; day++) {
+                sums[day + 1] = sums[day] + rates[day];
+                ratedDays[day + 1] = ratedDays[day] + (rates[day] != 0 ? 1 : 0);
+            }
+        }
+    }
+
+    /**
+     * Blocks from firstBlock on, with the totals of the blocks before each one
+     */
+    private static final class Generation {
+        static final Generation EMPTY = new Generation(0, new Block[0]);
+
+        final int firstBlock;
+        // Null where no day of the block has a rate
+        final Block[] blocks;
+        final long[] sumsBefore;
+        final int[] ratedDaysBefore;
+
+        Generation(int firstBlock, Block[] blocks) {
+            this.firstBlock = firstBlock;
+            this.blocks = blocks;
+            this.sumsBefore = new long[blocks.length + 1];
+            this.ratedDaysBefore = new int[blocks.length + 1];
+            for (int b = 0; b < blocks.length; b++) {
+                Block block = blocks[b];
+                sumsBefore[b + 1] = sumsBefore[b] + (block == null ? 0 : block.sums[BLOCK_SIZE]);
+                ratedDaysBefore[b + 1] = ratedDaysBefore[b] + (block == null ? 0 : block.ratedDays[BLOCK_SIZE]);
+            }
+        }
+
+        long sumBefore(int day) {
+            // Shifting floors negative days too, so blocks are aligned on any epoch day
+            int b = (day >> BLOCK_SHIFT) - firstBlock;
+            if (b < 0) {
+                return 0;
+            }
+            if (b >= blocks.length) {
+                return sumsBefore[blocks.length];
+            }
+            Block block = blocks[b];
+            return sumsBefore[b] + (block == null ? 0 : block.sums[day & BLOCK_MASK]);
+        }
+
+        int ratedDaysBefore(int day) {
+            int b = (day >> BLOCK_SHIFT) - firstBlock;
+            if (b < 0) {
+                return 0;
+            }
+            if (b >= blocks.length) {
+                return ratedDaysBefore[blocks.length];
+            }
+            Block block = blocks[b];
+            return ratedDaysBefore[b] + (block == null ? 0 : block.ratedDays[day & BLOCK_MASK]);
+        }
+
+        int rateOf(int day) {
+            int b = (day >> BLOCK_SHIFT) - firstBlock;
+            Block block = b < 0 || b >= blocks.length ? null : blocks[b];
+            return block == null ? 0 : block.rates[day & BLOCK_MASK];
+        }
+    }
+
+    /**
+     * Prices a stay in constant time
+     * @param checkInDay the epoch day of the first night
+     * @param checkOutDay the epoch day of check-out (must be after checkInDay)
+     * @param defaultRate the rate of the nights without one
+     * @return the sum of the nightly rates of the stay
+     */
+    public long price(int checkInDay, int checkOutDay, int defaultRate) {
+        Generation current = generation;
+        long rated = current.sumBefore(checkOutDay) - current.sumBefore(checkInDay);
+        int ratedNights = current.ratedDaysBefore(checkOutDay) - current.ratedDaysBefore(checkInDay);
+        return rated + (long) (checkOutDay - checkInDay - ratedNights) * defaultRate;
+    }
+
+    /**
+     * Lists the rate of every night of a stay, in time proportional to its length
+     * @param checkInDay the epoch day of the first night
+     * @param checkOutDay the epoch day of check-out (must be after checkInDay)
+     * @param defaultRate the rate of the nights without one
+     * @return the rate of each night, from check-in on
+     */
+    public int[] nightlyRates(int checkInDay, int checkOutDay, int defaultRate) {
+        Generation current = generation;
+        int[] rates = new int[checkOutDay - checkInDay];
+        for (int night = 0; night < rates.length; night++) {
+            int rate = current.rateOf(checkInDay + night);
+            rates[night] = rate != 0 ? rate : defaultRate;
+        }
+        return rates;
+    }
+
+    /**
+     * Sets the rates of consecutive nights, rebuilding only the blocks they fall in
+     * @param firstDay the epoch day of the first night
+     * @param rates the rate of each night from firstDay on, 0 to fall back to the default rate
+     *              (cannot be null or contain negative rates)
+     * @throws IllegalArgumentException if rates is null or contains a negative rate
+     */
+    public synchronized void setRates(int firstDay, int[] rates) {
+        if (rates == null) {
+            throw new IllegalArgumentException("Rates cannot be null");
+        }
+        for (int rate : rates) {
+            if (rate < 0) {
+                throw new IllegalArgumentException("Rates cannot be negative");
+            }
+        }
+        if (rates.length == 0) {
+            return;
+        }
+        Generation current = generation;
+        int lastDay = firstDay + rates.length - 1;
+        int fromBlock = firstDay >> BLOCK_SHIFT;
+        int toBlock = lastDay >> BLOCK_SHIFT;
+        int first = fromBlock;
+        int end = toBlock + 1;
+        Block[] blocks;
+        if (current.blocks.length > 0) {
+            first = Math.min(first, current.firstBlock);
+            end = Math.max(end, current.firstBlock + current.blocks.length);
+            blocks = new Block[end - first];
+            System.arraycopy(current.blocks, 0, blocks, current.firstBlock - first, current.blocks.length);
+        } else {
+            blocks = new Block[end - first];
+        }
+        for (int b = fromBlock; b <= toBlock; b++) {
+            Block old = blocks[b - first];
+            int[] blockRates = old == null ? new int[BLOCK_SIZE] : old.rates.clone();
+            int blockStart = b << BLOCK_SHIFT;
+            int from = Math.max(firstDay, blockStart);
+            int to = Math.min(lastDay, blockStart + BLOCK_MASK);
+            System.arraycopy(rates, from - firstDay, blockRates, from - blockStart, to - from + 1);
+            Block block = new Block(blockRates);
+            blocks[b - first] = block.ratedDays[BLOCK_SIZE] > 0 ? block : null;
+        }
+        generation = new Generation(first, blocks);
+    }
+
+    /**
+     * Sets the same rate for every night of a date range, see {@link #setRates(int, int[])}
+     * @param fromDay the epoch day of the first night
+     * @param toDay the epoch day after the last night (must be after fromDay)
+     * @param rate the rate, 0 to fall back to the default rate (cannot be negative)
+     * @throws IllegalArgumentException if the range is empty or rate is negative
+     */
+    public void setRate(int fromDay, int toDay, int rate) {
+        if (fromDay >= toDay) {
+            throw new IllegalArgumentException("Rate range cannot be empty");
+        }
+        int[] rates = new int[toDay - fromDay];
+        Arrays.fill(rates, rate);
+        setRates(fromDay, rates);
+    }
+}
@@ -0,0 +1,132 @@
+package com.skypay.hotel.index;
+
+import com.skypay.hotel.model.Booking;
+
+import java.util.Arrays;
+
+/**
+ * Availability index keeping, for each room, the stays of its bookings as a sorted array of
+ * packed epoch days, so checks compare primitive ints and allocate nothing. A stay is one
+ * {@code long} holding its check-in day in the high half and its check-out day in the low half,
+ * so sorting the longs sorts the stays by check-in.
+ * <p>
+ * Committed bookings of a room never overlap, so only the latest stay starting before the requested
+ * check-out can conflict with it: a check is one binary search, O(log k) in the number of bookings
+ * k of that room. Adding or removing a stay shifts the later stays of the room, which for the
+ * few hundred stays a room gathers in a year costs less than allocating a tree node.
+ * <p>
+ * Rooms are independent: callers must serialize checks and changes for the same room
+ * (for example with a per-room lock), while different rooms may be used concurrently.
+ */
+public class SortedStayIndex implements AvailabilityIndex {
+    private static final int INITIAL_CAPACITY = 8;
+
+    private final IntHashIndex<Stays> staysByRoom = new IntHashIndex<>();
+
+    @Override
+    public boolean isAvailable(int roomNumber, int checkInDay, int checkOutDay) {
+        Stays stays = staysByRoom.get(roomNumber);
+        if (stays == null) {
+            return true;
+        }
+        // Index of the first stay checking in on or after checkOutDay; the one before is the candidate
+        int candidate = stays.firstCheckingInFrom(checkOutDay) - 1;
+        // The candidate checks in before checkOutDay, so it overlaps the stay if it checks out after checkInDay
+        return candidate < 0 || checkOutOf(stays.packed[candidate]) <= checkInDay;
+    }
+
+    @Override
+    public void add(Booking booking) {
+        if (booking == null) {
+            throw new IllegalArgumentException("Booking cannot be null");
+        }
+        stays(booking.getRoomNumber()).insert(pack(booking.getCheckInDay(), booking.getCheckOutDay()));
+    }
+
+    @Override
+    public void remove(Booking booking) {
+        if (booking == null) {
+            throw new IllegalArgumentException("Booking cannot be null");
+        }
+        Stays stays = staysByRoom.get(booking.getRoomNumber());
+        if (stays != null) {
+            stays.delete(pack(booking.getCheckInDay(), booking.getCheckOutDay()));
+        }
+    }
+
+    @Override
+    public void removeCheckedOutBefore(int roomNumber, int day) {
+        Stays stays = staysByRoom.get(roomNumber);
+        if (stays != null) {
+            stays.deleteCheckedOutBefore(day);
+        }
+    }
+
+    private Stays stays(int roomNumber) {
+        Stays stays = staysByRoom.get(roomNumber);
+        if (stays == null) {
+            // The room index has a single writer; creating a room's array is rare
+            synchronized (staysByRoom) {
+                stays = staysByRoom.get(roomNumber);
+                if (stays == null) {
+                    stays = new Stays();
+                    staysByRoom.put(roomNumber, stays);
+                }
+            }
+        }
+        return stays;
+    }
+
+    private static long pack(int checkInDay, int checkOutDay) {
+        return ((long) checkInDay << 32) | (checkOutDay & 0xFFFFFFFFL);
+    }
+
+    private static int checkOutOf(long stay) {
+        return (int) stay;
+    }
+
+    /**
+     * The stays of one room, sorted by check-in
+     */
+    private static final class Stays {
+        long[] packed = new long[INITIAL_CAPACITY];
+        int size;
+
+        int firstCheckingInFrom(int day) {
+            int position = Arrays.binarySearch(packed, 0, size, pack(day, 0));
+            return position >= 0 ? position : -position - 1;
+        }
+
+        void insert(long stay) {
+            int position = Arrays.binarySearch(packed, 0, size, stay);
+            if (position >= 0) {
+                return;
+            }
+            position = -position - 1;
+            if (size == packed.length) {
+                packed = Arrays.copyOf(packed, size << 1);
+            }
+            System.arraycopy(packed, position, packed, position + 1, size - position);
+            packed[position] = stay;
+            size++;
+        }
+
+        void deleteCheckedOutBefore(int day) {
+            // Stays are disjoint, so their check-outs are sorted too and the past ones form a prefix
+            int past = 0;
+            while (past < size && checkOutOf(packed[past]) < day) {
+                past++;
+            }
+            System.arraycopy(packed, past, packed, 0, size - past);
+            size -= past;
+        }
+
+        void delete(long stay) {
+            int position = Arrays.binarySearch(packed, 0, size, stay);
+            if (position >= 0) {
+                System.arraycopy(packed, position + 1, packed, position, size - position - 1);
+                size--;
+            }
+        }
+    }
+}
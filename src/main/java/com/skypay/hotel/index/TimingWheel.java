@@ -0,0 +1,185 @@
+package com.skypay.hotel.index;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel expiring values at their deadlines, at a cost of O(1) per value whatever
+ * the number of pending ones, instead of a scheduled task or a priority-queue entry per value.
+ * <p>
+ * Time is cut into ticks, and the wheel is a ring of buckets, one per tick: a value goes to the
+ * bucket of its deadline's tick, modulo the size of the ring. Advancing the wheel visits the
+ * buckets of the ticks elapsed since the last advance and expires the values whose deadline
+ * has passed; values due a whole turn or more later stay in their bucket for a later turn.
+ * Deadlines are therefore honoured at tick granularity, and never early.
+ * <p>
+ * Scheduling is lock-free: values are pushed onto a stack that the next advance drains into the
+ * buckets, so any number of threads may schedule concurrently. Advances are serialized, and a
+ * call made while another thread is advancing returns at once, leaving the work to that thread.
+ *
+ * @param <T> the type of the scheduled values
+ */
+public final class TimingWheel<T> {
+    private static final VarHandle PENDING;
+
+    static {
+        try {
+            PENDING = MethodHandles.lookup().findVarHandle(TimingWheel.class, "pending", Timeout.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final long tickNanos;
+    private final long startNanos;
+    private final Timeout<T>[] buckets;
+    private final int mask;
+    private final ReentrantLock advanceLock = new ReentrantLock();
+
+    // Scheduled values not yet moved to their bucket, most recent first
+    @SuppressWarnings("unused")
+    private volatile Timeout<T> pending;
+    // Last tick whose bucket was visited
+    private volatile long currentTick;
+    private volatile int size;
+
+    /**
+     * A scheduled value, linked in a pending stack then in a bucket
+     */
+    private static final class Timeout<T> {
+        final T value;
+        final long deadlineTick;
+        Timeout<T> next;
+
+        Timeout(T value, long deadlineTick) {
+            this.value = value;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+
+    /**
+     * Creates a wheel whose ticks start now
+     * @param tickDuration the duration of a tick (must be positive)
+     * @param unit the unit of the tick duration (cannot be null)
+     * @param ticksPerWheel the number of buckets, rounded up to a power of two (must be positive)
+     * @param startNanos the current {@link System#nanoTime()}
+     * @throws IllegalArgumentException if unit is null, or tickDuration or ticksPerWheel is not positive
+     */
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickDuration, TimeUnit unit, int ticksPerWheel, long startNanos) {
+        if (unit == null) {
+            throw new IllegalArgumentException("Time unit cannot be null");
+        }
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("Tick duration must be positive");
+        }
+        if (ticksPerWheel <= 0 || ticksPerWheel > 1 << 30) {
+            throw new IllegalArgumentException("Ticks per wheel must be positive");
+        }
+        int bucketCount = ticksPerWheel == 1 ? 1 : Integer.highestOneBit(ticksPerWheel - 1) << 1;
+        this.tickNanos = unit.toNanos(tickDuration);
+        this.startNanos = startNanos;
+        this.buckets = (Timeout<T>[]) new Timeout<?>[bucketCount];
+        this.mask = bucketCount - 1;
+    }
+
+    /**
+     * Schedules a value to expire at a deadline; deadlines already passed expire on the next advance
+     * @param value the value to expire (cannot be null)
+     * @param deadlineNanos the {@link System#nanoTime()} at which the value expires
+     * @throws IllegalArgumentException if value is null
+     */
+    public void schedule(T value, long deadlineNanos) {
+        if (value == null) {
+            throw new IllegalArgumentException("Value cannot be null");
+        }
+        // Rounded up so a value never expires before its deadline
+        Timeout<T> timeout = new Timeout<>(value, Math.ceilDiv(deadlineNanos - startNanos, tickNanos));
+        Timeout<T> head;
+        do {
+            head = pending;
+            timeout.next = head;
+        } while (!PENDING.compareAndSet(this, head, timeout));
+    }
+
+    /**
+     * Expires the values whose deadline has passed, visiting only the buckets of the ticks elapsed
+     * since the last advance. Returns at once if no tick has elapsed or another thread is advancing.
+     * @param nowNanos the current {@link System#nanoTime()}
+     * @param expired called with each expired value, in no particular order; it must not throw
+     *                (cannot be null)
+     * @return the number of values expired
+     * @throws IllegalArgumentException if expired is null
+     */
+    @SuppressWarnings("unchecked")
+    public int advance(long nowNanos, Consumer<? super T> expired) {
+        if (expired == null) {
+            throw new IllegalArgumentException("Expiry callback cannot be null");
+        }
+        long nowTick = Math.floorDiv(nowNanos - startNanos, tickNanos);
+        if (nowTick <= currentTick || !advanceLock.tryLock()) {
+            return 0;
+        }
+        try {
+            long fromTick = currentTick;
+            if (nowTick <= fromTick) {
+                return 0;
+            }
+            int count = 0;
+            Timeout<T> timeout = (Timeout<T>) PENDING.getAndSet(this, null);
+            while (timeout != null) {
+                Timeout<T> next = timeout.next;
+                if (timeout.deadlineTick <= nowTick) {
+                    count++;
+                    expired.accept(timeout.value);
+                } else {
+                    int bucket = (int) timeout.deadlineTick & mask;
+                    timeout.next = buckets[bucket];
+                    buckets[bucket] = timeout;
+                    size++;
+                }
+                timeout = next;
+            }
+            // After a full turn every bucket has been visited once
+            long lastTick = Math.min(nowTick, fromTick + buckets.length);
+            for (long tick = fromTick + 1; tick <= lastTick; tick++) {
+                count += expireBucket((int) tick & mask, nowTick, expired);
+            }
+            currentTick = nowTick;
+            return count;
+        } finally {
+            advanceLock.unlock();
+        }
+    }
+
+    private int expireBucket(int bucket, long nowTick, Consumer<? super T> expired) {
+        int count = 0;
+        Timeout<T> kept = null;
+        Timeout<T> timeout = buckets[bucket];
+        while (timeout != null) {
+            Timeout<T> next = timeout.next;
+            if (timeout.deadlineTick <= nowTick) {
+                count++;
+                expired.accept(timeout.value);
+            } else {
+                // Due on a later turn of the wheel
+                timeout.next = kept;
+                kept = timeout;
+            }
+            timeout = next;
+        }
+        buckets[bucket] = kept;
+        size -= count;
+        return count;
+    }
+
+    /**
+     * @return the number of values in the buckets, not counting those scheduled since the last advance
+     */
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,145 @@
+package com.skypay.hotel.log;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Decouples booking threads from slow output: messages are handed to a bounded,
+ * pre-allocated ring buffer and written to a delegate sink by a single background thread.
+ * Producers never block; when the ring is full the message is dropped and counted.
+ * <p>
+ * Each slot carries a sequence number (a multi-producer bounded queue in the style of
+ * Vyukov's), so a slot is only read once its producer has fully published it.
+ */
+public final class AsyncEventSink implements EventSink {
+    private static final long IDLE_PARK_NANOS = 100_000L;
+
+    private final EventSink delegate;
+    private final int mask;
+    private final String[] messages;
+    private final LogLevel[] levels;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    // Set by start before the sink is handed out
+    private Thread writer;
+    private long head;
+    private volatile boolean running = true;
+
+    private AsyncEventSink(EventSink delegate, int capacity) {
+        this.delegate = delegate;
+        this.mask = capacity - 1;
+        this.messages = new String[capacity];
+        this.levels = new LogLevel[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Creates a sink and starts the daemon thread writing to the delegate
+     * @param delegate the sink that performs the actual output (cannot be null)
+     * @param capacity the number of ring slots (must be a positive power of two)
+     * @return the running sink
+     * @throws IllegalArgumentException if delegate is null or capacity is invalid
+     */
+    public static AsyncEventSink start(EventSink delegate, int capacity) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("Delegate sink cannot be null");
+        }
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a positive power of two");
+        }
+        AsyncEventSink sink = new AsyncEventSink(delegate, capacity);
+        sink.writer = new Thread(sink::drainLoop, "hotel-async-log");
+        sink.writer.setDaemon(true);
+        sink.writer.start();
+        return sink;
+    }
+
+    @Override
+    public boolean isEnabled(LogLevel level) {
+        return running && delegate.isEnabled(level);
+    }
+
+    @Override
+    public void log(LogLevel level, String message) {
+        long position;
+        int slot;
+        while (true) {
+            position = tail.get();
+            slot = (int) position & mask;
+            long sequence = sequences.get(slot);
+            if (sequence == position) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+            } else if (sequence < position) {
+                // Ring is full: never block the caller
+                dropped.incrementAndGet();
+                return;
+            }
+        }
+        messages[slot] = message;
+        levels[slot] = level;
+        sequences.set(slot, position + 1);
+    }
+
+    /**
+     * @return the number of messages discarded because the ring was full
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Stops accepting messages, writes out everything already queued and closes the delegate
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        delegate.close();
+    }
+
+    private void drainLoop() {
+        while (true) {
+            boolean stopping = !running;
+            if (drain() == 0) {
+                if (stopping && head == tail.get()) {
+                    return;
+                }
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    private int drain() {
+        int written = 0;
+        while (true) {
+            int slot = (int) head & mask;
+            if (sequences.get(slot) != head + 1) {
+                return written;
+            }
+            String message = messages[slot];
+            LogLevel level = levels[slot];
+            messages[slot] = null;
+            levels[slot] = null;
+            sequences.set(slot, head + mask + 1);
+            head++;
+            try {
+                delegate.log(level, message);
+            } catch (RuntimeException ignored) {
+                // A failing sink must not stop the writer thread
+            }
+            written++;
+        }
+    }
+}
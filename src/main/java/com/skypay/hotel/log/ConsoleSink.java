@@ -0,0 +1,42 @@
+package com.skypay.hotel.log;
+
+/**
+ * Writes messages to the console the way the service always did:
+ * warnings and errors to System.err, everything else to System.out.
+ * Writes are synchronous, which suits the demo application but not a loaded service.
+ */
+public class ConsoleSink implements EventSink {
+    private final LogLevel threshold;
+
+    /**
+     * Creates a console sink emitting INFO and above
+     */
+    public ConsoleSink() {
+        this(LogLevel.INFO);
+    }
+
+    /**
+     * @param threshold the minimum level written to the console (cannot be null)
+     * @throws IllegalArgumentException if threshold is null
+     */
+    public ConsoleSink(LogLevel threshold) {
+        if (threshold == null) {
+            throw new IllegalArgumentException("Log level cannot be null");
+        }
+        this.threshold = threshold;
+    }
+
+    @Override
+    public boolean isEnabled(LogLevel level) {
+        return level.isAtLeast(threshold);
+    }
+
+    @Override
+    public void log(LogLevel level, String message) {
+        if (level.isAtLeast(LogLevel.WARN)) {
+            System.err.println(message);
+        } else {
+            System.out.println(message);
+        }
+    }
+}
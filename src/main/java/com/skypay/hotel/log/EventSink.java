@@ -0,0 +1,43 @@
+package com.skypay.hotel.log;
+
+/**
+ * Destination for the messages the service emits about its operations.
+ * Callers check {@link #isEnabled(LogLevel)} before building a message, so a disabled
+ * level costs a single branch and no string construction on the booking path.
+ */
+public interface EventSink extends AutoCloseable {
+
+    /**
+     * Sink that discards everything; used when no sink is configured
+     */
+    EventSink DISCARD = new EventSink() {
+        @Override
+        public boolean isEnabled(LogLevel level) {
+            return false;
+        }
+
+        @Override
+        public void log(LogLevel level, String message) {
+        }
+    };
+
+    /**
+     * @param level the level of a prospective message
+     * @return true if messages of this level are emitted, false if they can be skipped
+     */
+    boolean isEnabled(LogLevel level);
+
+    /**
+     * Emits a message. Implementations must not throw.
+     * @param level the level of the message
+     * @param message the message text
+     */
+    void log(LogLevel level, String message);
+
+    /**
+     * Flushes pending messages and releases resources held by the sink
+     */
+    @Override
+    default void close() {
+    }
+}
@@ -0,0 +1,21 @@
+package com.skypay.hotel.log;
+
+/**
+ * Severity of a service event, from the most verbose to the most severe.
+ */
+public enum LogLevel {
+    DEBUG,
+    INFO,
+    WARN,
+    ERROR,
+    OFF;
+
+    /**
+     * Checks whether an event of this level passes a threshold
+     * @param threshold the minimum level that is emitted
+     * @return true if this level is at least as severe as the threshold
+     */
+    public boolean isAtLeast(LogLevel threshold) {
+        return this != OFF && ordinal() >= threshold.ordinal();
+    }
+}
@@ -0,0 +1,111 @@
+package com.skypay.hotel.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free histogram of durations in nanoseconds with logarithmic buckets, in the style of
+ * HdrHistogram: each power of two is split into {@value #HALF_BUCKETS} linear sub-buckets, so any
+ * recorded value is known to within about 3% while the whole {@code long} range fits in
+ * under 2000 counters. Recording is one atomic increment; reads scan the counters and may miss
+ * values recorded concurrently.
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int HALF_BUCKETS = SUB_BUCKETS >>> 1;
+    private static final int BUCKET_COUNT = bucketOf(Long.MAX_VALUE) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+    /**
+     * Records one duration; negative durations, from a clock going backwards, count as zero
+     * @param nanos the duration in nanoseconds
+     */
+    public void record(long nanos) {
+        counts.getAndIncrement(bucketOf(Math.max(0, nanos)));
+    }
+
+    /**
+     * @return the number of recorded durations
+     */
+    public long getCount() {
+        long count = 0;
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+            count += counts.get(bucket);
+        }
+        return count;
+    }
+
+    /**
+     * Takes a consistent-enough summary of the histogram in one pass over its counters
+     * @return the count, total, mean, usual percentiles and maximum of the recorded durations
+     */
+    public LatencySummary summarize() {
+        long[] snapshot = new long[BUCKET_COUNT];
+        long count = 0;
+        double total = 0;
+        int highest = 0;
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+            long bucketCount = counts.get(bucket);
+            if (bucketCount != 0) {
+                snapshot[bucket] = bucketCount;
+                count += bucketCount;
+                total += bucketCount * (double) middleOf(bucket);
+                highest = bucket;
+            }
+        }
+        if (count == 0) {
+            return new LatencySummary(0, 0, 0, 0, 0, 0, 0, 0);
+        }
+        return new LatencySummary(count, (long) total, (long) (total / count),
+                valueAt(snapshot, count, 0.5), valueAt(snapshot, count, 0.9), valueAt(snapshot, count, 0.99),
+                valueAt(snapshot, count, 0.999), highestOf(highest));
+    }
+
+    /**
+     * @return the highest value of the bucket holding the given quantile of the durations
+     */
+    private static long valueAt(long[] snapshot, long count, double quantile) {
+        long rank = Math.max(1, (long) Math.ceil(quantile * count));
+        long seen = 0;
+        for (int bucket = 0; bucket < snapshot.length; bucket++) {
+            seen += snapshot[bucket];
+            if (seen >= rank) {
+                return highestOf(bucket);
+            }
+        }
+        return highestOf(snapshot.length - 1);
+    }
+
+    /**
+     * Values below {@link #SUB_BUCKETS} have a bucket each; above, the bucket is the power of
+     * two times {@link #HALF_BUCKETS} plus the top {@link #SUB_BUCKET_BITS} bits of the value
+     */
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - (SUB_BUCKET_BITS - 1);
+        return shift * HALF_BUCKETS + (int) (value >>> shift);
+    }
+
+    static long lowestOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / HALF_BUCKETS - 1;
+        return (long) (bucket % HALF_BUCKETS + HALF_BUCKETS) << shift;
+    }
+
+    static long highestOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        return lowestOf(bucket) + (1L << (bucket / HALF_BUCKETS - 1)) - 1;
+    }
+
+    private static long middleOf(int bucket) {
+        long lowest = lowestOf(bucket);
+        return lowest + ((highestOf(bucket) - lowest) >>> 1);
+    }
+}
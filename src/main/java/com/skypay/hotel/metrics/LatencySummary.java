@@ -0,0 +1,87 @@
+package com.skypay.hotel.metrics;
+
+/**
+ * Summary of a {@link LatencyHistogram} at one point in time. Percentiles and the maximum are
+ * the highest duration of the histogram bucket they fall in, so they overstate by at most about 3%;
+ * the total and mean add up the middle of each bucket. A summary of sampled calls, as kept by
+ * {@link ServiceMetrics}, counts every call but takes the other figures from the timed calls only.
+ * Published over JMX as a composite value.
+ */
+public final class LatencySummary {
+    private final long count;
+    private final long totalNanos;
+    private final long meanNanos;
+    private final long p50Nanos;
+    private final long p90Nanos;
+    private final long p99Nanos;
+    private final long p999Nanos;
+    private final long maxNanos;
+
+    LatencySummary(long count, long totalNanos, long meanNanos, long p50Nanos, long p90Nanos, long p99Nanos,
+                   long p999Nanos, long maxNanos) {
+        this.count = count;
+        this.totalNanos = totalNanos;
+        this.meanNanos = meanNanos;
+        this.p50Nanos = p50Nanos;
+        this.p90Nanos = p90Nanos;
+        this.p99Nanos = p99Nanos;
+        this.p999Nanos = p999Nanos;
+        this.maxNanos = maxNanos;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    public long getMeanNanos() {
+        return meanNanos;
+    }
+
+    public long getP50Nanos() {
+        return p50Nanos;
+    }
+
+    public long getP90Nanos() {
+        return p90Nanos;
+    }
+
+    public long getP99Nanos() {
+        return p99Nanos;
+    }
+
+    public long getP999Nanos() {
+        return p999Nanos;
+    }
+
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    /**
+     * Extends a summary of sampled durations to every call: the distribution stays the same,
+     * and the total grows in proportion to the count. Without samples, only the count is known.
+     * @param calls the number of calls the samples were taken from
+     * @return the summary of that many calls
+     */
+    LatencySummary scaledTo(long calls) {
+        if (calls <= count) {
+            return this;
+        }
+        if (count == 0) {
+            return new LatencySummary(calls, 0, 0, 0, 0, 0, 0, 0);
+        }
+        return new LatencySummary(calls, (long) (totalNanos * ((double) calls / count)), meanNanos,
+                p50Nanos, p90Nanos, p99Nanos, p999Nanos, maxNanos);
+    }
+
+    @Override
+    public String toString() {
+        return "LatencySummary{count=" + count + ", totalNanos=" + totalNanos + ", meanNanos=" + meanNanos + ", p50Nanos=" + p50Nanos +
+                ", p90Nanos=" + p90Nanos + ", p99Nanos=" + p99Nanos + ", p999Nanos=" + p999Nanos +
+                ", maxNanos=" + maxNanos + '}';
+    }
+}
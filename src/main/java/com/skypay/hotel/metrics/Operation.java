@@ -0,0 +1,32 @@
+package com.skypay.hotel.metrics;
+
+/**
+ * Service operations whose latency is measured, named after the service methods
+ */
+public enum Operation {
+    SET_ROOM("setRoom"),
+    SET_USER("setUser"),
+    BOOK_ROOM("bookRoom"),
+    BOOK_ROOMS("bookRooms"),
+    CANCEL_BOOKING("cancelBooking"),
+    HOLD_ROOM("holdRoom"),
+    CONFIRM_HOLD("confirmHold"),
+    RELEASE_HOLD("releaseHold"),
+    FIND_AVAILABLE_ROOMS("findAvailableRooms"),
+    EXPORT_REPORT("exportReport"),
+    PRINT_ALL("printAll"),
+    PRINT_ALL_USERS("printAllUsers");
+
+    private final String methodName;
+
+    Operation(String methodName) {
+        this.methodName = methodName;
+    }
+
+    /**
+     * @return the name of the service method, as used in metric labels
+     */
+    public String getMethodName() {
+        return methodName;
+    }
+}
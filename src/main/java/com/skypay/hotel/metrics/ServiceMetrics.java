@@ -0,0 +1,262 @@
+package com.skypay.hotel.metrics;
+
+import com.skypay.hotel.model.BookingStatus;
+import com.skypay.hotel.model.RoomType;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histograms and outcome counters of a service's operations. Recording takes no lock
+ * and allocates nothing, except the first time an exception class is seen. Every call is
+ * counted, but only one in {@value #SAMPLE_INTERVAL}, picked at random, is timed: the others
+ * cost one counter increment instead of two clock reads. The latency summaries describe the
+ * sampled calls, scaled to the total count, and are published as sampled: a rare slow call is
+ * only seen by the maximum and the highest percentiles if it happens to be timed.
+ * <p>
+ * The figures are published over JMX by {@link #registerMBean(String)} and as plain text, in
+ * the Prometheus exposition format, by {@link #writeText(Appendable)}.
+ */
+public final class ServiceMetrics implements ServiceMetricsMXBean {
+    private static final Operation[] OPERATIONS = Operation.values();
+    private static final BookingStatus[] STATUSES = BookingStatus.values();
+    private static final RoomType[] ROOM_TYPES = RoomType.values();
+    private static final int SAMPLE_INTERVAL = 16;
+    // Start time of a call that is counted but not timed
+    private static final long UNSAMPLED = Long.MIN_VALUE;
+
+    /**
+     * Metrics that record nothing, for services that must not pay for measurement
+     */
+    public static final ServiceMetrics DISABLED = new ServiceMetrics(false);
+
+    private final boolean enabled;
+    private final LatencyHistogram[] latencies = new LatencyHistogram[OPERATIONS.length];
+    private final LongAdder[] calls = new LongAdder[OPERATIONS.length];
+    private final LongAdder[] rejections = new LongAdder[STATUSES.length];
+    private final LongAdder[] bookingsByRoomType = new LongAdder[ROOM_TYPES.length];
+    private final ConcurrentHashMap<Class<?>, LongAdder> exceptions = new ConcurrentHashMap<>();
+
+    /**
+     * Creates empty metrics that record
+     */
+    public ServiceMetrics() {
+        this(true);
+    }
+
+    private ServiceMetrics(boolean enabled) {
+        this.enabled = enabled;
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = new LatencyHistogram();
+            calls[i] = new LongAdder();
+        }
+        for (int i = 0; i < rejections.length; i++) {
+            rejections[i] = new LongAdder();
+        }
+        for (int i = 0; i < bookingsByRoomType.length; i++) {
+            bookingsByRoomType[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * @return the start time to pass to {@link #record}, or a marker if the call is not sampled
+     * or these metrics are disabled
+     */
+    public long startTimer() {
+        if (!enabled || (ThreadLocalRandom.current().nextInt() & (SAMPLE_INTERVAL - 1)) != 0) {
+            return UNSAMPLED;
+        }
+        return System.nanoTime();
+    }
+
+    /**
+     * Counts a call of an operation, and records its latency if the call is sampled
+     * @param operation the operation (cannot be null)
+     * @param startNanos the value returned by {@link #startTimer()} when the operation started
+     */
+    public void record(Operation operation, long startNanos) {
+        if (enabled) {
+            calls[operation.ordinal()].increment();
+            if (startNanos != UNSAMPLED) {
+                latencies[operation.ordinal()].record(System.nanoTime() - startNanos);
+            }
+        }
+    }
+
+    /**
+     * Counts an exception thrown out of a service operation
+     * @param exception the exception (cannot be null)
+     */
+    public void exceptionThrown(Throwable exception) {
+        if (enabled) {
+            LongAdder counter = exceptions.get(exception.getClass());
+            if (counter == null) {
+                counter = exceptions.computeIfAbsent(exception.getClass(), type -> new LongAdder());
+            }
+            counter.increment();
+        }
+    }
+
+    /**
+     * Counts a booking rejected for the given reason
+     * @param status the rejection status (cannot be null)
+     */
+    public void bookingRejected(BookingStatus status) {
+        if (enabled) {
+            rejections[status.ordinal()].increment();
+        }
+    }
+
+    /**
+     * Counts a committed booking of a room of the given type
+     * @param roomType the room type at booking time (cannot be null)
+     */
+    public void bookingCommitted(RoomType roomType) {
+        if (enabled) {
+            bookingsByRoomType[roomType.ordinal()].increment();
+        }
+    }
+
+    /**
+     * @param operation the operation (cannot be null)
+     * @return the latency summary of the sampled calls of the operation, with the exact number of calls
+     */
+    public LatencySummary getLatency(Operation operation) {
+        LatencySummary sampled = latencies[operation.ordinal()].summarize();
+        return sampled.scaledTo(calls[operation.ordinal()].sum());
+    }
+
+    /**
+     * @param type the exception class
+     * @return the number of exceptions of exactly that class thrown by service operations
+     */
+    public long getExceptionCount(Class<? extends Throwable> type) {
+        LongAdder counter = exceptions.get(type);
+        return counter == null ? 0 : counter.sum();
+    }
+
+    /**
+     * @param status the rejection status (cannot be null)
+     * @return the number of bookings rejected for that reason
+     */
+    public long getRejectionCount(BookingStatus status) {
+        return rejections[status.ordinal()].sum();
+    }
+
+    /**
+     * @param roomType the room type (cannot be null)
+     * @return the number of committed bookings of rooms of that type
+     */
+    public long getBookingCount(RoomType roomType) {
+        return bookingsByRoomType[roomType.ordinal()].sum();
+    }
+
+    @Override
+    public Map<String, LatencySummary> getSampledLatencies() {
+        Map<String, LatencySummary> summaries = new LinkedHashMap<>();
+        for (Operation operation : OPERATIONS) {
+            summaries.put(operation.getMethodName(), getLatency(operation));
+        }
+        return summaries;
+    }
+
+    @Override
+    public int getLatencySampleInterval() {
+        return SAMPLE_INTERVAL;
+    }
+
+    @Override
+    public Map<String, Long> getExceptions() {
+        Map<String, Long> counts = new TreeMap<>();
+        exceptions.forEach((type, counter) -> counts.merge(type.getSimpleName(), counter.sum(), Long::sum));
+        return counts;
+    }
+
+    @Override
+    public Map<String, Long> getBookingRejections() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (BookingStatus status : STATUSES) {
+            if (status != BookingStatus.SUCCESS) {
+                counts.put(status.name(), getRejectionCount(status));
+            }
+        }
+        return counts;
+    }
+
+    @Override
+    public Map<String, Long> getBookingsByRoomType() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (RoomType roomType : ROOM_TYPES) {
+            counts.put(roomType.name(), getBookingCount(roomType));
+        }
+        return counts;
+    }
+
+    /**
+     * Registers these metrics with the platform MBean server under
+     * {@code com.skypay.hotel:type=ServiceMetrics,name=<name>}
+     * @param name the name distinguishing this service from others in the same JVM (cannot be null)
+     * @return the name the metrics were registered under
+     * @throws IllegalArgumentException if name is null
+     * @throws JMException if the name is invalid or already registered
+     */
+    public ObjectName registerMBean(String name) throws JMException {
+        if (name == null) {
+            throw new IllegalArgumentException("MBean name cannot be null");
+        }
+        ObjectName objectName = new ObjectName("com.skypay.hotel:type=ServiceMetrics,name=" + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        return objectName;
+    }
+
+    /**
+     * Writes every figure in the Prometheus text exposition format, with sampled latencies in seconds
+     * @param out the destination (cannot be null)
+     * @throws IOException if the destination cannot be written
+     */
+    public void writeText(Appendable out) throws IOException {
+        out.append("# HELP hotel_operation_sampled_latency_seconds Latency of one call in ").append(
+                Integer.toString(SAMPLE_INTERVAL)).append(" picked at random; the count covers every call\n");
+        out.append("# TYPE hotel_operation_sampled_latency_seconds summary\n");
+        for (Operation operation : OPERATIONS) {
+            LatencySummary summary = getLatency(operation);
+            String labels = "{operation=\"" + operation.getMethodName() + "\"";
+            quantile(out, labels, "0.5", summary.getP50Nanos());
+            quantile(out, labels, "0.9", summary.getP90Nanos());
+            quantile(out, labels, "0.99", summary.getP99Nanos());
+            quantile(out, labels, "0.999", summary.getP999Nanos());
+            out.append("hotel_operation_sampled_latency_seconds_sum").append(labels).append("} ")
+                    .append(Double.toString(summary.getTotalNanos() / 1e9)).append('\n');
+            out.append("hotel_operation_sampled_latency_seconds_count").append(labels).append("} ")
+                    .append(Long.toString(summary.getCount())).append('\n');
+        }
+        out.append("# TYPE hotel_exceptions_total counter\n");
+        for (Map.Entry<String, Long> entry : getExceptions().entrySet()) {
+            out.append("hotel_exceptions_total{type=\"").append(entry.getKey()).append("\"} ")
+                    .append(Long.toString(entry.getValue())).append('\n');
+        }
+        out.append("# TYPE hotel_booking_rejections_total counter\n");
+        for (Map.Entry<String, Long> entry : getBookingRejections().entrySet()) {
+            out.append("hotel_booking_rejections_total{reason=\"").append(entry.getKey()).append("\"} ")
+                    .append(Long.toString(entry.getValue())).append('\n');
+        }
+        out.append("# TYPE hotel_bookings_total counter\n");
+        for (Map.Entry<String, Long> entry : getBookingsByRoomType().entrySet()) {
+            out.append("hotel_bookings_total{room_type=\"").append(entry.getKey()).append("\"} ")
+                    .append(Long.toString(entry.getValue())).append('\n');
+        }
+    }
+
+    private static void quantile(Appendable out, String labels, String quantile, long nanos) throws IOException {
+        out.append("hotel_operation_sampled_latency_seconds").append(labels).append(",quantile=\"").append(quantile)
+                .append("\"} ").append(Double.toString(nanos / 1e9)).append('\n');
+    }
+}
@@ -0,0 +1,36 @@
+package com.skypay.hotel.metrics;
+
+import java.util.Map;
+
+/**
+ * Management interface of {@link ServiceMetrics}. Every attribute is computed when read.
+ */
+public interface ServiceMetricsMXBean {
+
+    /**
+     * @return the latency summary of each operation, by service method name. The count covers
+     * every call, the other figures only the calls timed, one in {@link #getLatencySampleInterval()}
+     * picked at random: the maximum and the highest percentiles can miss rare slow calls
+     */
+    Map<String, LatencySummary> getSampledLatencies();
+
+    /**
+     * @return how many calls there are for each call timed, on average
+     */
+    int getLatencySampleInterval();
+
+    /**
+     * @return the number of exceptions thrown by service operations, by simple class name
+     */
+    Map<String, Long> getExceptions();
+
+    /**
+     * @return the number of rejected bookings, by {@link com.skypay.hotel.model.BookingStatus} name
+     */
+    Map<String, Long> getBookingRejections();
+
+    /**
+     * @return the number of committed bookings, by {@link com.skypay.hotel.model.RoomType} name
+     */
+    Map<String, Long> getBookingsByRoomType();
+}
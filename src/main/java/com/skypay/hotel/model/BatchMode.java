@@ -0,0 +1,15 @@
+package com.skypay.hotel.model;
+
+/**
+ * How a batch of booking requests is committed.
+ */
+public enum BatchMode {
+    /**
+     * Either every request is booked, or none is
+     */
+    ALL_OR_NOTHING,
+    /**
+     * Every request that can be booked is booked; the others are rejected individually
+     */
+    BEST_EFFORT
+}
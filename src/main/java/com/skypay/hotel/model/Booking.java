@@ -4,17 +4,22 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Booking entity representing a hotel room reservation with user and room details
  * captured at the time of booking.
+ * <p>
+ * Stay dates are kept as {@link EpochDays epoch days}, so nights and overlaps are computed
+ * with integer arithmetic; {@link #getCheckInDate()} and {@link #getCheckOutDate()} build
+ * dates on demand for display.
  */
 public class Booking {
     private int bookingId;
     private int userId;
     private int roomNumber;
-    private LocalDate checkInDate;
-    private LocalDate checkOutDate;
+    private int checkInDay;
+    private int checkOutDay;
     private int totalAmount;
     private LocalDateTime bookingDateTime;
 
@@ -23,7 +28,7 @@ public class Booking {
     private RoomType roomTypeAtBooking;
     private int roomPricePerNightAtBooking;
 
-    private static int bookingCounter = 1;
+    private static final AtomicInteger bookingCounter = new AtomicInteger(1);
 
     /**
      * Creates a new booking for a hotel room reservation
@@ -34,39 +39,168 @@ public class Booking {
      * @throws IllegalArgumentException if any parameter is null or if dates are invalid
      */
     public Booking(User user, Room room, LocalDate checkInDate, LocalDate checkOutDate) {
+        this(user, room, checkInDate, checkOutDate, user == null ? 0 : user.getBalance());
+    }
+
+    /**
+     * Creates a new booking whose balance snapshot was captured by the caller,
+     * typically the balance observed by the atomic debit paying for the booking
+     * @param user the user making the booking
+     * @param room the room being booked
+     * @param checkInDate the check-in date for the reservation
+     * @param checkOutDate the check-out date for the reservation
+     * @param userBalanceAtBooking the user's balance before paying for this booking
+     * @throws IllegalArgumentException if any parameter is null or if dates are invalid
+     */
+    public Booking(User user, Room room, LocalDate checkInDate, LocalDate checkOutDate, int userBalanceAtBooking) {
+        this(user, room, epochDayOf(checkInDate, "Check-in date"), epochDayOf(checkOutDate, "Check-out date"),
+                userBalanceAtBooking);
+    }
+
+    /**
+     * Creates a new booking for a stay given in epoch days, as booked on the fast path
+     * @param user the user making the booking
+     * @param room the room being booked
+     * @param checkInDay the epoch day of check-in
+     * @param checkOutDay the epoch day of check-out
+     * @param userBalanceAtBooking the user's balance before paying for this booking
+     * @throws IllegalArgumentException if user or room is null or check-in is not before check-out
+     */
+    public Booking(User user, Room room, int checkInDay, int checkOutDay, int userBalanceAtBooking) {
+        this(user, room, checkInDay, checkOutDay,
+                room == null ? 0 : (int) ((long) (checkOutDay - checkInDay) * room.getPricePerNight()),
+                userBalanceAtBooking);
+    }
+
+    /**
+     * Creates a new booking charged the given amount, as priced from nightly rates that may vary
+     * from night to night; the recorded price per night stays the room's own price
+     * @param user the user making the booking
+     * @param room the room being booked
+     * @param checkInDay the epoch day of check-in
+     * @param checkOutDay the epoch day of check-out
+     * @param totalAmount the sum of the nightly rates charged for the stay
+     * @param userBalanceAtBooking the user's balance before paying for this booking
+     * @throws IllegalArgumentException if user or room is null or check-in is not before check-out
+     */
+    public Booking(User user, Room room, int checkInDay, int checkOutDay, int totalAmount, int userBalanceAtBooking) {
         if (user == null) {
             throw new IllegalArgumentException("User cannot be null");
         }
         if (room == null) {
             throw new IllegalArgumentException("Room cannot be null");
         }
-        if (checkInDate == null) {
-            throw new IllegalArgumentException("Check-in date cannot be null");
-        }
-        if (checkOutDate == null) {
-            throw new IllegalArgumentException("Check-out date cannot be null");
-        }
-        if (checkInDate.isAfter(checkOutDate) || checkInDate.isEqual(checkOutDate)) {
+        if (checkInDay >= checkOutDay) {
             throw new IllegalArgumentException("Check-in date must be before check-out date");
         }
 
-        this.bookingId = bookingCounter++;
+        this.bookingId = bookingCounter.getAndIncrement();
         this.userId = user.getUserId();
         this.roomNumber = room.getRoomNumber();
-        this.checkInDate = checkInDate;
-        this.checkOutDate = checkOutDate;
-        this.bookingDateTime = LocalDateTime.now();
+        this.checkInDay = checkInDay;
+        this.checkOutDay = checkOutDay;
+        // Millisecond precision, as kept by the columnar booking store
+        this.bookingDateTime = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
 
-        // Calculate number of nights and total amount
-        long nights = ChronoUnit.DAYS.between(checkInDate, checkOutDate);
-        this.totalAmount = (int) (nights * room.getPricePerNight());
+        this.totalAmount = totalAmount;
 
         // Capture snapshot of user and room details at booking time
-        this.userBalanceAtBooking = user.getBalance();
+        this.userBalanceAtBooking = userBalanceAtBooking;
         this.roomTypeAtBooking = room.getRoomType();
         this.roomPricePerNightAtBooking = room.getPricePerNight();
     }
 
+    private Booking() {
+    }
+
+    private static int epochDayOf(LocalDate date, String name) {
+        if (date == null) {
+            throw new IllegalArgumentException(name + " cannot be null");
+        }
+        return EpochDays.of(date);
+    }
+
+    /**
+     * Recreates a booking exactly as it was persisted or replicated, including its ID and
+     * the snapshot taken at booking time. IDs handed out afterwards continue after the highest restored ID.
+     * @param bookingId the original booking ID (must be positive)
+     * @param userId the ID of the user who made the booking
+     * @param roomNumber the number of the booked room
+     * @param checkInDate the check-in date for the reservation
+     * @param checkOutDate the check-out date for the reservation
+     * @param totalAmount the amount paid for the stay
+     * @param bookingDateTime when the booking was made
+     * @param userBalanceAtBooking the user's balance before paying for this booking
+     * @param roomTypeAtBooking the room type at booking time
+     * @param roomPricePerNightAtBooking the room price per night at booking time
+     * @return the restored booking
+     * @throws IllegalArgumentException if the ID is not positive, an object is null or the dates are invalid
+     */
+    public static Booking restore(int bookingId, int userId, int roomNumber,
+                                  LocalDate checkInDate, LocalDate checkOutDate, int totalAmount,
+                                  LocalDateTime bookingDateTime, int userBalanceAtBooking,
+                                  RoomType roomTypeAtBooking, int roomPricePerNightAtBooking) {
+        if (checkInDate == null || checkOutDate == null) {
+            throw new IllegalArgumentException("Restored booking fields cannot be null");
+        }
+        return restore(bookingId, userId, roomNumber, EpochDays.of(checkInDate), EpochDays.of(checkOutDate),
+                totalAmount, bookingDateTime, userBalanceAtBooking, roomTypeAtBooking, roomPricePerNightAtBooking);
+    }
+
+    /**
+     * Recreates a booking whose stay was stored in epoch days, see
+     * {@link #restore(int, int, int, LocalDate, LocalDate, int, LocalDateTime, int, RoomType, int)}
+     * @param checkInDay the epoch day of check-in
+     * @param checkOutDay the epoch day of check-out
+     * @return the restored booking
+     * @throws IllegalArgumentException if the ID is not positive, an object is null or the days are invalid
+     */
+    public static Booking restore(int bookingId, int userId, int roomNumber,
+                                  int checkInDay, int checkOutDay, int totalAmount,
+                                  LocalDateTime bookingDateTime, int userBalanceAtBooking,
+                                  RoomType roomTypeAtBooking, int roomPricePerNightAtBooking) {
+        if (bookingId <= 0) {
+            throw new IllegalArgumentException("Booking ID must be positive");
+        }
+        if (bookingDateTime == null || roomTypeAtBooking == null) {
+            throw new IllegalArgumentException("Restored booking fields cannot be null");
+        }
+        if (checkInDay >= checkOutDay) {
+            throw new IllegalArgumentException("Check-in date must be before check-out date");
+        }
+        Booking booking = new Booking();
+        booking.bookingId = bookingId;
+        booking.userId = userId;
+        booking.roomNumber = roomNumber;
+        booking.checkInDay = checkInDay;
+        booking.checkOutDay = checkOutDay;
+        booking.totalAmount = totalAmount;
+        booking.bookingDateTime = bookingDateTime;
+        booking.userBalanceAtBooking = userBalanceAtBooking;
+        booking.roomTypeAtBooking = roomTypeAtBooking;
+        booking.roomPricePerNightAtBooking = roomPricePerNightAtBooking;
+        if (bookingCounter.get() <= bookingId) {
+            bookingCounter.accumulateAndGet(bookingId + 1, Math::max);
+        }
+        return booking;
+    }
+
+    /**
+     * @return the ID the next new booking will receive
+     */
+    public static int getNextBookingId() {
+        return bookingCounter.get();
+    }
+
+    /**
+     * Makes sure new bookings receive IDs of at least the given value, for example after
+     * restoring a snapshot taken when IDs had been handed out up to it
+     * @param nextBookingId the lowest ID the next new booking may receive
+     */
+    public static void advanceNextBookingId(int nextBookingId) {
+        bookingCounter.accumulateAndGet(nextBookingId, Math::max);
+    }
+
     // Getters
     public int getBookingId() {
         return bookingId;
@@ -81,11 +215,25 @@ public class Booking {
     }
 
     public LocalDate getCheckInDate() {
-        return checkInDate;
+        return EpochDays.toDate(checkInDay);
     }
 
     public LocalDate getCheckOutDate() {
-        return checkOutDate;
+        return EpochDays.toDate(checkOutDay);
+    }
+
+    /**
+     * @return the epoch day of check-in
+     */
+    public int getCheckInDay() {
+        return checkInDay;
+    }
+
+    /**
+     * @return the epoch day of check-out
+     */
+    public int getCheckOutDay() {
+        return checkOutDay;
     }
 
     public int getTotalAmount() {
@@ -104,16 +252,27 @@ public class Booking {
         return roomTypeAtBooking;
     }
 
+    /**
+     * @return the room's price per night at booking time; nightly rates may have charged other
+     * amounts, see {@link #getAverageRatePerNight()}
+     */
     public int getRoomPricePerNightAtBooking() {
         return roomPricePerNightAtBooking;
     }
 
+    /**
+     * @return the average nightly rate charged, rounded down; the room's price unless nightly rates applied
+     */
+    public int getAverageRatePerNight() {
+        return totalAmount / (checkOutDay - checkInDay);
+    }
+
     /**
      * Calculates the number of nights for this booking
      * @return the number of nights between check-in and check-out dates
      */
     public long getNumberOfNights() {
-        return ChronoUnit.DAYS.between(checkInDate, checkOutDate);
+        return checkOutDay - checkInDay;
     }
 
     /**
@@ -123,8 +282,17 @@ public class Booking {
      * @return true if this booking overlaps with the specified date range, false otherwise
      */
     public boolean overlaps(LocalDate startDate, LocalDate endDate) {
-        return !(checkOutDate.isBefore(startDate) || checkOutDate.isEqual(startDate) ||
-                checkInDate.isAfter(endDate) || checkInDate.isEqual(endDate));
+        return overlaps(EpochDays.of(startDate), EpochDays.of(endDate));
+    }
+
+    /**
+     * Checks if this booking overlaps with the given range of epoch days
+     * @param startDay the epoch day the range starts on
+     * @param endDay the epoch day the range ends on (exclusive)
+     * @return true if this booking overlaps with the specified range, false otherwise
+     */
+    public boolean overlaps(int startDay, int endDay) {
+        return checkInDay < endDay && startDay < checkOutDay;
     }
 
     @Override
@@ -146,7 +314,7 @@ public class Booking {
                 "Booking{bookingId=%d, userId=%d, roomNumber=%d, checkIn=%s, checkOut=%s, " +
                         "nights=%d, totalAmount=%d, userBalanceAtBooking=%d, roomTypeAtBooking=%s, " +
                         "roomPriceAtBooking=%d, bookingDate=%s}",
-                bookingId, userId, roomNumber, checkInDate, checkOutDate,
+                bookingId, userId, roomNumber, getCheckInDate(), getCheckOutDate(),
                 getNumberOfNights(), totalAmount, userBalanceAtBooking,
                 roomTypeAtBooking, roomPricePerNightAtBooking, bookingDateTime
         );
@@ -0,0 +1,56 @@
+package com.skypay.hotel.model;
+
+import java.time.LocalDate;
+
+/**
+ * A single reservation requested as part of a batch import.
+ */
+public class BookingRequest {
+    private final int userId;
+    private final int roomNumber;
+    private final LocalDate checkInDate;
+    private final LocalDate checkOutDate;
+
+    /**
+     * Creates a booking request
+     * @param userId the ID of the user making the booking
+     * @param roomNumber the number of the room to be booked
+     * @param checkInDate the check-in date (cannot be null)
+     * @param checkOutDate the check-out date (cannot be null)
+     * @throws IllegalArgumentException if a date is null
+     */
+    public BookingRequest(int userId, int roomNumber, LocalDate checkInDate, LocalDate checkOutDate) {
+        if (checkInDate == null) {
+            throw new IllegalArgumentException("Check-in date cannot be null");
+        }
+        if (checkOutDate == null) {
+            throw new IllegalArgumentException("Check-out date cannot be null");
+        }
+        this.userId = userId;
+        this.roomNumber = roomNumber;
+        this.checkInDate = checkInDate;
+        this.checkOutDate = checkOutDate;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public int getRoomNumber() {
+        return roomNumber;
+    }
+
+    public LocalDate getCheckInDate() {
+        return checkInDate;
+    }
+
+    public LocalDate getCheckOutDate() {
+        return checkOutDate;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("BookingRequest{userId=%d, roomNumber=%d, checkIn=%s, checkOut=%s}",
+                userId, roomNumber, checkInDate, checkOutDate);
+    }
+}
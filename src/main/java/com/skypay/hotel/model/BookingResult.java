@@ -0,0 +1,142 @@
+package com.skypay.hotel.model;
+
+import java.time.LocalDate;
+
+/**
+ * Result of a booking attempt, returned instead of throwing when a booking is rejected.
+ * Carries the request and, depending on the outcome, the committed booking or the
+ * amounts that explain an insufficient balance.
+ */
+public class BookingResult {
+    private final BookingStatus status;
+    private final int userId;
+    private final int roomNumber;
+    private final int checkInDay;
+    private final int checkOutDay;
+    private final Booking booking;
+    private final int requiredAmount;
+    private final int availableBalance;
+
+    private BookingResult(BookingStatus status, int userId, int roomNumber,
+                          int checkInDay, int checkOutDay,
+                          Booking booking, int requiredAmount, int availableBalance) {
+        this.status = status;
+        this.userId = userId;
+        this.roomNumber = roomNumber;
+        this.checkInDay = checkInDay;
+        this.checkOutDay = checkOutDay;
+        this.booking = booking;
+        this.requiredAmount = requiredAmount;
+        this.availableBalance = availableBalance;
+    }
+
+    /**
+     * @param booking the committed booking (cannot be null)
+     * @return a successful result
+     * @throws IllegalArgumentException if booking is null
+     */
+    public static BookingResult success(Booking booking) {
+        if (booking == null) {
+            throw new IllegalArgumentException("Booking cannot be null");
+        }
+        return new BookingResult(BookingStatus.SUCCESS, booking.getUserId(), booking.getRoomNumber(),
+                booking.getCheckInDay(), booking.getCheckOutDay(), booking,
+                booking.getTotalAmount(), booking.getUserBalanceAtBooking());
+    }
+
+    /**
+     * @param status the rejection reason (cannot be SUCCESS or null)
+     * @return a rejected result for the given request
+     * @throws IllegalArgumentException if status is null or SUCCESS
+     */
+    public static BookingResult rejected(BookingStatus status, int userId, int roomNumber,
+                                         LocalDate checkInDate, LocalDate checkOutDate) {
+        return rejected(status, userId, roomNumber, checkInDate, checkOutDate, 0, 0);
+    }
+
+    /**
+     * @param status the rejection reason (cannot be SUCCESS or null)
+     * @param requiredAmount the cost of the requested stay, when known
+     * @param availableBalance the user's balance when the booking was rejected, when known
+     * @return a rejected result for the given request
+     * @throws IllegalArgumentException if status is null or SUCCESS
+     */
+    public static BookingResult rejected(BookingStatus status, int userId, int roomNumber,
+                                         LocalDate checkInDate, LocalDate checkOutDate,
+                                         int requiredAmount, int availableBalance) {
+        return rejected(status, userId, roomNumber, EpochDays.of(checkInDate), EpochDays.of(checkOutDate),
+                requiredAmount, availableBalance);
+    }
+
+    /**
+     * @param status the rejection reason (cannot be SUCCESS or null)
+     * @param checkInDay the requested check-in as an epoch day
+     * @param checkOutDay the requested check-out as an epoch day
+     * @param requiredAmount the cost of the requested stay, when known
+     * @param availableBalance the user's balance when the booking was rejected, when known
+     * @return a rejected result for the given request
+     * @throws IllegalArgumentException if status is null or SUCCESS
+     */
+    public static BookingResult rejected(BookingStatus status, int userId, int roomNumber,
+                                         int checkInDay, int checkOutDay,
+                                         int requiredAmount, int availableBalance) {
+        if (status == null || status == BookingStatus.SUCCESS) {
+            throw new IllegalArgumentException("Rejection status must be a failure reason");
+        }
+        return new BookingResult(status, userId, roomNumber, checkInDay, checkOutDay,
+                null, requiredAmount, availableBalance);
+    }
+
+    public boolean isSuccess() {
+        return status == BookingStatus.SUCCESS;
+    }
+
+    public BookingStatus getStatus() {
+        return status;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public int getRoomNumber() {
+        return roomNumber;
+    }
+
+    public LocalDate getCheckInDate() {
+        return EpochDays.toDate(checkInDay);
+    }
+
+    public LocalDate getCheckOutDate() {
+        return EpochDays.toDate(checkOutDay);
+    }
+
+    /**
+     * @return the committed booking, or null if the booking was rejected
+     */
+    public Booking getBooking() {
+        return booking;
+    }
+
+    /**
+     * @return the total cost of the stay, or 0 if the booking was rejected before it was priced
+     */
+    public int getRequiredAmount() {
+        return requiredAmount;
+    }
+
+    /**
+     * @return the balance observed when the booking was paid or rejected for insufficient balance, 0 otherwise
+     */
+    public int getAvailableBalance() {
+        return availableBalance;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("BookingResult{status=%s, userId=%d, roomNumber=%d, checkIn=%s, checkOut=%s, " +
+                        "bookingId=%s, requiredAmount=%d, availableBalance=%d}",
+                status, userId, roomNumber, getCheckInDate(), getCheckOutDate(),
+                booking == null ? "none" : booking.getBookingId(), requiredAmount, availableBalance);
+    }
+}
@@ -0,0 +1,22 @@
+package com.skypay.hotel.model;
+
+/**
+ * Outcome of a booking attempt: success, or the reason the booking was rejected.
+ */
+public enum BookingStatus {
+    SUCCESS,
+    INVALID_DATES,
+    USER_NOT_FOUND,
+    ROOM_NOT_FOUND,
+    ROOM_NOT_AVAILABLE,
+    INSUFFICIENT_BALANCE,
+    /**
+     * The stay costs more than the largest amount a balance can hold, so no user can pay for it
+     */
+    AMOUNT_TOO_LARGE,
+    /**
+     * The request was valid but not committed because another request of its
+     * all-or-nothing batch was rejected
+     */
+    BATCH_ABORTED
+}
@@ -0,0 +1,79 @@
+package com.skypay.hotel.model;
+
+import java.time.LocalDate;
+
+/**
+ * Calendar arithmetic on epoch days, the number of days since 1970-01-01 as an {@code int},
+ * which is how stays are stored and compared on the booking path. Conversions use the
+ * proleptic Gregorian calendar of {@link LocalDate} without creating date objects.
+ */
+public final class EpochDays {
+    // Days from 0000-03-01 to 1970-01-01, and in a 400-year cycle
+    private static final int DAYS_0000_TO_1970 = 719_468;
+    private static final int DAYS_PER_CYCLE = 146_097;
+
+    private EpochDays() {
+    }
+
+    /**
+     * @param date the date (cannot be null)
+     * @return the epoch day of the date
+     * @throws IllegalArgumentException if date is null
+     * @throws ArithmeticException if the date is too far from 1970 for an int
+     */
+    public static int of(LocalDate date) {
+        if (date == null) {
+            throw new IllegalArgumentException("Date cannot be null");
+        }
+        return Math.toIntExact(date.toEpochDay());
+    }
+
+    /**
+     * Converts a calendar date that is known to exist, such as the fields of a {@link java.util.Date}
+     * @param year the year
+     * @param month the month, from 1 to 12
+     * @param dayOfMonth the day of the month, from 1 to the length of the month
+     * @return the epoch day of the date
+     */
+    public static int of(int year, int month, int dayOfMonth) {
+        // Years start in March so the leap day ends the year
+        int y = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(y, 400);
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + dayOfMonth - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * DAYS_PER_CYCLE + dayOfEra - DAYS_0000_TO_1970;
+    }
+
+    /**
+     * @param epochDay the epoch day
+     * @return the same day as a date
+     */
+    public static LocalDate toDate(int epochDay) {
+        return LocalDate.ofEpochDay(epochDay);
+    }
+
+    /**
+     * @param epochDay the epoch day
+     * @return the month of the day counted from January of year 0, that is {@code year * 12 + month - 1}
+     */
+    public static int monthIndexOf(int epochDay) {
+        int days = epochDay + DAYS_0000_TO_1970;
+        int era = Math.floorDiv(days, DAYS_PER_CYCLE);
+        int dayOfEra = days - era * DAYS_PER_CYCLE;
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int marchBasedMonth = (5 * dayOfYear + 2) / 153;
+        int month = marchBasedMonth < 10 ? marchBasedMonth + 3 : marchBasedMonth - 9;
+        int year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        return year * 12 + month - 1;
+    }
+
+    /**
+     * @param monthIndex a month as returned by {@link #monthIndexOf(int)}
+     * @return the epoch day of the first day of that month
+     */
+    public static int firstDayOfMonth(int monthIndex) {
+        return of(Math.floorDiv(monthIndex, 12), Math.floorMod(monthIndex, 12) + 1, 1);
+    }
+}
@@ -0,0 +1,116 @@
+package com.skypay.hotel.model;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Time-limited hold of a room for a stay, taken while a user's payment runs. Until it expires or
+ * is released, the held nights count as booked for everyone else; confirming it books the stay.
+ * <p>
+ * Expiry is measured on {@link System#nanoTime()}, so holds are only meaningful in the process
+ * that took them and are never persisted.
+ */
+public class Hold {
+    private static final AtomicInteger holdCounter = new AtomicInteger(1);
+
+    private final int holdId;
+    private final int userId;
+    private final int roomNumber;
+    private final int checkInDay;
+    private final int checkOutDay;
+    private final long deadlineNanos;
+
+    /**
+     * Creates a hold with a new ID
+     * @param userId the user the room is held for
+     * @param roomNumber the held room
+     * @param checkInDay the epoch day of check-in
+     * @param checkOutDay the epoch day of check-out
+     * @param deadlineNanos the {@link System#nanoTime()} at which the hold expires
+     * @throws IllegalArgumentException if check-in is not before check-out
+     */
+    public Hold(int userId, int roomNumber, int checkInDay, int checkOutDay, long deadlineNanos) {
+        if (checkInDay >= checkOutDay) {
+            throw new IllegalArgumentException("Check-in date must be before check-out date");
+        }
+        this.holdId = holdCounter.getAndIncrement();
+        this.userId = userId;
+        this.roomNumber = roomNumber;
+        this.checkInDay = checkInDay;
+        this.checkOutDay = checkOutDay;
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    public int getHoldId() {
+        return holdId;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public int getRoomNumber() {
+        return roomNumber;
+    }
+
+    public LocalDate getCheckInDate() {
+        return EpochDays.toDate(checkInDay);
+    }
+
+    public LocalDate getCheckOutDate() {
+        return EpochDays.toDate(checkOutDay);
+    }
+
+    /**
+     * @return the epoch day of check-in
+     */
+    public int getCheckInDay() {
+        return checkInDay;
+    }
+
+    /**
+     * @return the epoch day of check-out
+     */
+    public int getCheckOutDay() {
+        return checkOutDay;
+    }
+
+    /**
+     * @return the {@link System#nanoTime()} at which the hold expires
+     */
+    public long getDeadlineNanos() {
+        return deadlineNanos;
+    }
+
+    /**
+     * @param nanoTime the current {@link System#nanoTime()}
+     * @return true if the hold has expired at that time
+     */
+    public boolean isExpired(long nanoTime) {
+        return nanoTime - deadlineNanos >= 0;
+    }
+
+    /**
+     * @return the time left before the hold expires, zero once it has
+     */
+    public Duration getRemainingTime() {
+        return Duration.ofNanos(Math.max(0, deadlineNanos - System.nanoTime()));
+    }
+
+    /**
+     * Checks whether the held stay overlaps another stay, as {@link Booking#overlaps} does
+     * @param checkInDay the epoch day of check-in of the other stay
+     * @param checkOutDay the epoch day of check-out of the other stay
+     * @return true if the stays share at least one night
+     */
+    public boolean overlaps(int checkInDay, int checkOutDay) {
+        return this.checkInDay < checkOutDay && checkInDay < this.checkOutDay;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Hold{holdId=%d, userId=%d, roomNumber=%d, checkIn=%s, checkOut=%s}",
+                holdId, userId, roomNumber, getCheckInDate(), getCheckOutDate());
+    }
+}
@@ -8,8 +8,8 @@ import java.util.Objects;
  */
 public class Room {
     private int roomNumber;
-    private RoomType roomType;
-    private int pricePerNight;
+    private volatile RoomType roomType;
+    private volatile int pricePerNight;
     private LocalDateTime createdAt;
 
     /**
@@ -20,6 +20,10 @@ public class Room {
      * @throws IllegalArgumentException if any parameter is invalid
      */
     public Room(int roomNumber, RoomType roomType, int pricePerNight) {
+        this(roomNumber, roomType, pricePerNight, LocalDateTime.now());
+    }
+
+    private Room(int roomNumber, RoomType roomType, int pricePerNight, LocalDateTime createdAt) {
         if (roomNumber <= 0) {
             throw new IllegalArgumentException("Room number must be positive");
         }
@@ -33,7 +37,23 @@ public class Room {
         this.roomNumber = roomNumber;
         this.roomType = roomType;
         this.pricePerNight = pricePerNight;
-        this.createdAt = LocalDateTime.now();
+        this.createdAt = createdAt;
+    }
+
+    /**
+     * Recreates a room exactly as it was persisted or replicated
+     * @param roomNumber the unique room number (must be positive)
+     * @param roomType the type of the room
+     * @param pricePerNight the price per night for this room (must be positive)
+     * @param createdAt the original creation time (cannot be null)
+     * @return the restored room
+     * @throws IllegalArgumentException if any parameter is invalid
+     */
+    public static Room restore(int roomNumber, RoomType roomType, int pricePerNight, LocalDateTime createdAt) {
+        if (createdAt == null) {
+            throw new IllegalArgumentException("Creation time cannot be null");
+        }
+        return new Room(roomNumber, roomType, pricePerNight, createdAt);
     }
 
     // Getters
@@ -0,0 +1,72 @@
+package com.skypay.hotel.model;
+
+import java.time.LocalDate;
+
+/**
+ * Price of a stay in a room, night by night, as a booking made at the same rates would be charged.
+ */
+public class StayQuote {
+    private final int roomNumber;
+    private final int checkInDay;
+    private final int checkOutDay;
+    private final int totalAmount;
+    private final int[] nightlyRates;
+
+    /**
+     * @param roomNumber the quoted room
+     * @param checkInDay the epoch day of check-in
+     * @param nightlyRates the rate of each night from check-in on (cannot be null or empty)
+     * @param totalAmount the amount charged for the stay, the sum of the nightly rates
+     * @throws IllegalArgumentException if nightlyRates is null or empty
+     */
+    public StayQuote(int roomNumber, int checkInDay, int[] nightlyRates, int totalAmount) {
+        if (nightlyRates == null || nightlyRates.length == 0) {
+            throw new IllegalArgumentException("Nightly rates cannot be empty");
+        }
+        this.roomNumber = roomNumber;
+        this.checkInDay = checkInDay;
+        this.checkOutDay = checkInDay + nightlyRates.length;
+        this.nightlyRates = nightlyRates.clone();
+        this.totalAmount = totalAmount;
+    }
+
+    public int getRoomNumber() {
+        return roomNumber;
+    }
+
+    public LocalDate getCheckInDate() {
+        return EpochDays.toDate(checkInDay);
+    }
+
+    public LocalDate getCheckOutDate() {
+        return EpochDays.toDate(checkOutDay);
+    }
+
+    public int getNumberOfNights() {
+        return nightlyRates.length;
+    }
+
+    public int getTotalAmount() {
+        return totalAmount;
+    }
+
+    /**
+     * @return a copy of the rate of each night, from check-in on
+     */
+    public int[] getNightlyRates() {
+        return nightlyRates.clone();
+    }
+
+    /**
+     * @return the average nightly rate, rounded down, as reported by a booking of this stay
+     */
+    public int getAverageRatePerNight() {
+        return totalAmount / nightlyRates.length;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("StayQuote{roomNumber=%d, checkIn=%s, checkOut=%s, nights=%d, totalAmount=%d}",
+                roomNumber, getCheckInDate(), getCheckOutDate(), nightlyRates.length, totalAmount);
+    }
+}
@@ -1,14 +1,51 @@
 package com.skypay.hotel.model;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.time.LocalDateTime;
 import java.util.Objects;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * User entity representing a hotel customer with balance for booking rooms.
+ * Balance changes are lock-free: debits and refunds are single compare-and-set
+ * operations, so concurrent bookings can never overdraw an account.
+ * <p>
+ * The balance is stored together with a revision that every change increments, packed
+ * into one {@code long} "balance stamp". A stamp read with {@link #getBalanceStamp()} is
+ * a consistent (revision, balance) pair, which lets journals and replicas order balance
+ * changes made concurrently by bookings of different rooms.
+ * <p>
+ * A change that must be reported before it becomes visible, such as a refund, is made in two
+ * steps: {@link #beginRefund} or {@link #beginBalanceChange} marks a change as pending and
+ * returns the stamp it will produce, then {@link #completeBalanceChange} applies it or
+ * {@link #abortBalanceChange} drops it. Other changes wait meanwhile, so the reported stamp is
+ * exactly the one applied; reads do not wait and see the balance from before the change.
  */
 public class User {
+    /**
+     * Returned by {@link #tryDeductBalance(int)} when the balance does not cover the amount
+     */
+    public static final int INSUFFICIENT_BALANCE = -1;
+
+    private static final VarHandle BALANCE_STAMP;
+    // Set in the stored stamp while a change is pending; free since balances are never negative
+    private static final long CHANGE_PENDING = 1L << 31;
+    // Waiting for a pending change: spin briefly, then park for ever longer up to a millisecond
+    private static final int SPINS_BEFORE_PARKING = 100;
+    private static final long FIRST_PARK_NANOS = 1_000;
+    private static final long MAX_PARK_NANOS = 1_000_000;
+
+    static {
+        try {
+            BALANCE_STAMP = MethodHandles.lookup().findVarHandle(User.class, "balanceStamp", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
     private int userId;
-    private int balance;
+    private volatile long balanceStamp;
     private LocalDateTime createdAt;
 
     /**
@@ -18,16 +55,35 @@ public class User {
      * @throws IllegalArgumentException if userId is not positive or balance is negative
      */
     public User(int userId, int balance) {
+        this(userId, stamp(0, balance), LocalDateTime.now());
+    }
+
+    private User(int userId, long balanceStamp, LocalDateTime createdAt) {
         if (userId <= 0) {
             throw new IllegalArgumentException("User ID must be positive");
         }
-        if (balance < 0) {
+        if (balanceOf(balanceStamp) < 0) {
             throw new IllegalArgumentException("User balance cannot be negative");
         }
 
         this.userId = userId;
-        this.balance = balance;
-        this.createdAt = LocalDateTime.now();
+        this.balanceStamp = balanceStamp;
+        this.createdAt = createdAt;
+    }
+
+    /**
+     * Recreates a user exactly as it was persisted or replicated
+     * @param userId the unique user identifier (must be positive)
+     * @param balanceStamp the persisted balance stamp (balance cannot be negative)
+     * @param createdAt the original creation time (cannot be null)
+     * @return the restored user
+     * @throws IllegalArgumentException if any parameter is invalid
+     */
+    public static User restore(int userId, long balanceStamp, LocalDateTime createdAt) {
+        if (createdAt == null) {
+            throw new IllegalArgumentException("Creation time cannot be null");
+        }
+        return new User(userId, balanceStamp, createdAt);
     }
 
     // Getters
@@ -36,13 +92,40 @@ public class User {
     }
 
     public int getBalance() {
-        return balance;
+        return balanceOf(getBalanceStamp());
     }
 
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
 
+    /**
+     * @return the current balance and its revision, read atomically
+     */
+    public long getBalanceStamp() {
+        return balanceStamp & ~CHANGE_PENDING;
+    }
+
+    /**
+     * @param balanceStamp a stamp returned by {@link #getBalanceStamp()}
+     * @return the balance part of the stamp
+     */
+    public static int balanceOf(long balanceStamp) {
+        return (int) balanceStamp;
+    }
+
+    /**
+     * @param balanceStamp a stamp returned by {@link #getBalanceStamp()}
+     * @return the revision part of the stamp
+     */
+    public static int revisionOf(long balanceStamp) {
+        return (int) (balanceStamp >>> 32);
+    }
+
+    private static long stamp(int revision, int balance) {
+        return ((long) revision << 32) | (balance & 0xFFFFFFFFL);
+    }
+
     // Setters
     /**
      * Updates the user's balance
@@ -53,7 +136,32 @@ public class User {
         if (balance < 0) {
             throw new IllegalArgumentException("User balance cannot be negative");
         }
-        this.balance = balance;
+        long current;
+        do {
+            current = settledStamp();
+        } while (!BALANCE_STAMP.weakCompareAndSet(this, current, stamp(revisionOf(current) + 1, balance)));
+    }
+
+    /**
+     * Applies a persisted or replicated balance stamp unless this user already holds the same
+     * or a later revision, so stamps can be applied in any order and more than once
+     * @param balanceStamp the stamp to apply (balance cannot be negative)
+     * @return true if the balance changed, false if the stamp was stale
+     * @throws IllegalArgumentException if the stamped balance is negative
+     */
+    public boolean applyBalanceStamp(long balanceStamp) {
+        if (balanceOf(balanceStamp) < 0) {
+            throw new IllegalArgumentException("User balance cannot be negative");
+        }
+        long current;
+        do {
+            current = settledStamp();
+            // Serial-number comparison keeps ordering correct across revision wrap-around
+            if (revisionOf(balanceStamp) - revisionOf(current) <= 0) {
+                return false;
+            }
+        } while (!BALANCE_STAMP.weakCompareAndSet(this, current, balanceStamp));
+        return true;
     }
 
     /**
@@ -62,14 +170,137 @@ public class User {
      * @throws IllegalArgumentException if amount is negative or exceeds current balance
      */
     public void deductBalance(int amount) {
+        if (tryDeductBalance(amount) == INSUFFICIENT_BALANCE) {
+            throw new IllegalArgumentException("Insufficient balance. Current balance: " +
+                    getBalance() + ", Required: " + amount);
+        }
+    }
+
+    /**
+     * Atomically checks the balance and deducts the amount in one compare-and-set,
+     * so the check cannot be invalidated by a concurrent debit.
+     * @param amount the amount to deduct (cannot be negative)
+     * @return the balance before the deduction, or {@link #INSUFFICIENT_BALANCE} if it does not cover the amount
+     * @throws IllegalArgumentException if amount is negative
+     */
+    public int tryDeductBalance(int amount) {
         if (amount < 0) {
             throw new IllegalArgumentException("Amount to deduct cannot be negative");
         }
-        if (this.balance < amount) {
-            throw new IllegalArgumentException("Insufficient balance. Current balance: " +
-                    this.balance + ", Required: " + amount);
+        long current;
+        int balance;
+        do {
+            current = settledStamp();
+            balance = balanceOf(current);
+            if (balance < amount) {
+                return INSUFFICIENT_BALANCE;
+            }
+        } while (!BALANCE_STAMP.weakCompareAndSet(this, current, stamp(revisionOf(current) + 1, balance - amount)));
+        return balance;
+    }
+
+    /**
+     * Atomically gives back an amount previously deducted, for example when a booking is rolled back
+     * @param amount the amount to refund (cannot be negative)
+     * @throws IllegalArgumentException if amount is negative or the refund would overflow the balance
+     */
+    public void refundBalance(int amount) {
+        if (amount < 0) {
+            throw new IllegalArgumentException("Amount to refund cannot be negative");
+        }
+        long current;
+        int balance;
+        do {
+            current = settledStamp();
+            balance = balanceOf(current);
+            if (balance > Integer.MAX_VALUE - amount) {
+                throw new IllegalArgumentException("Refund would overflow balance. Current balance: " +
+                        balance + ", Refund: " + amount);
+            }
+        } while (!BALANCE_STAMP.weakCompareAndSet(this, current, stamp(revisionOf(current) + 1, balance + amount)));
+    }
+
+    /**
+     * Starts giving back an amount; the refund becomes visible with {@link #completeBalanceChange}.
+     * Every other balance change waits until the calling thread completes or aborts it.
+     * @param amount the amount to refund (cannot be negative)
+     * @return the stamp the user holds once the refund completes
+     * @throws IllegalArgumentException if amount is negative or the refund would overflow the balance
+     */
+    public long beginRefund(int amount) {
+        if (amount < 0) {
+            throw new IllegalArgumentException("Amount to refund cannot be negative");
+        }
+        long current = markChangePending();
+        int balance = balanceOf(current);
+        if (balance > Integer.MAX_VALUE - amount) {
+            balanceStamp = current;
+            throw new IllegalArgumentException("Refund would overflow balance. Current balance: " +
+                    balance + ", Refund: " + amount);
+        }
+        return stamp(revisionOf(current) + 1, balance + amount);
+    }
+
+    /**
+     * Starts replacing the balance; the new balance becomes visible with {@link #completeBalanceChange}.
+     * Every other balance change waits until the calling thread completes or aborts it.
+     * @param balance the new balance (cannot be negative)
+     * @return the stamp the user holds once the change completes
+     * @throws IllegalArgumentException if balance is negative
+     */
+    public long beginBalanceChange(int balance) {
+        if (balance < 0) {
+            throw new IllegalArgumentException("User balance cannot be negative");
+        }
+        return stamp(revisionOf(markChangePending()) + 1, balance);
+    }
+
+    /**
+     * Applies the change started by the calling thread
+     * @param balanceStamp the stamp returned when the change was started
+     */
+    public void completeBalanceChange(long balanceStamp) {
+        this.balanceStamp = balanceStamp;
+    }
+
+    /**
+     * Drops the change started by the calling thread, leaving the balance as it was
+     */
+    public void abortBalanceChange() {
+        balanceStamp &= ~CHANGE_PENDING;
+    }
+
+    /**
+     * @return the stamp before the change now pending
+     */
+    private long markChangePending() {
+        long current;
+        do {
+            current = settledStamp();
+        } while (!BALANCE_STAMP.weakCompareAndSet(this, current, current | CHANGE_PENDING));
+        return current;
+    }
+
+    /**
+     * Waits until no change is pending. A change stays pending while it is reported, which can
+     * take a journal write, so after a short spin the caller parks with a growing backoff
+     * instead of keeping a core busy.
+     * @return the current stamp
+     */
+    private long settledStamp() {
+        long current;
+        int spins = 0;
+        long parkNanos = FIRST_PARK_NANOS;
+        while (((current = balanceStamp) & CHANGE_PENDING) != 0) {
+            if (spins < SPINS_BEFORE_PARKING) {
+                spins++;
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(parkNanos);
+                parkNanos = Math.min(parkNanos << 1, MAX_PARK_NANOS);
+            }
         }
-        this.balance -= amount;
+        return current;
     }
 
     /**
@@ -78,7 +309,7 @@ public class User {
      * @return true if balance is sufficient, false otherwise
      */
     public boolean hasSufficientBalance(int amount) {
-        return this.balance >= amount;
+        return getBalance() >= amount;
     }
 
     @Override
@@ -97,6 +328,6 @@ public class User {
     @Override
     public String toString() {
         return String.format("User{userId=%d, balance=%d, createdAt=%s}",
-                userId, balance, createdAt);
+                userId, getBalance(), createdAt);
     }
-}
\ No newline at end of file
+}
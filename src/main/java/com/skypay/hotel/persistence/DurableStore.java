@@ -0,0 +1,275 @@
+package com.skypay.hotel.persistence;
+
+import com.skypay.hotel.log.EventSink;
+import com.skypay.hotel.log.LogLevel;
+import com.skypay.hotel.service.MutationListener;
+import com.skypay.hotel.service.Service;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the state of a {@link Service} durable in a directory of journal segments and snapshots,
+ * so a restart loads the latest snapshot and replays only the changes made after it.
+ * <p>
+ * The journal is split into numbered segments {@code journal-N.log}. Taking a snapshot first
+ * rotates the journal into a new segment N, then writes {@code snapshot-N.snap} while bookings
+ * continue, and finally deletes the segments and snapshots before N, whose changes the snapshot
+ * already holds. Changes made during the export land in segment N and may also be in the
+ * snapshot; replaying them again is harmless (see {@link Service#recoveryTarget()}).
+ * <p>
+ * Usage:
+ * <pre>{@code
+ * DurableStore store = DurableStore.open(directory, true);
+ * Service service = new Service(sink, store.getJournal());
+ * store.recover(service.recoveryTarget());
+ * store.startSnapshots(service, 10, TimeUnit.MINUTES);
+ * }</pre>
+ */
+public class DurableStore implements AutoCloseable {
+    private static final String JOURNAL_PREFIX = "journal-";
+    private static final String JOURNAL_SUFFIX = ".log";
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".snap";
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+
+    private final Path directory;
+    private final Journal journal;
+
+    // Guarded by this
+    private long segment;
+    private long snapshotSegment;
+    private long snapshotPosition = -1;
+    private ScheduledExecutorService scheduler;
+
+    private DurableStore(Path directory, Journal journal, long segment) {
+        this.directory = directory;
+        this.journal = journal;
+        this.segment = segment;
+    }
+
+    /**
+     * Opens the store in the given directory, creating the directory and a first journal
+     * segment if needed. {@link #recover(MutationListener)} must be called before any change is made.
+     * @param directory the directory holding journal segments and snapshots (cannot be null)
+     * @param fsync true to force every journal flush to the storage device (see {@link Journal#open})
+     * @return the opened store
+     * @throws IllegalArgumentException if directory is null
+     * @throws IOException if the directory or the latest journal segment cannot be opened
+     */
+    public static DurableStore open(Path directory, boolean fsync) throws IOException {
+        if (directory == null) {
+            throw new IllegalArgumentException("Store directory cannot be null");
+        }
+        Files.createDirectories(directory);
+        List<Long> segments = list(directory, JOURNAL_PREFIX, JOURNAL_SUFFIX);
+        long segment = segments.isEmpty() ? 1 : segments.get(segments.size() - 1);
+        Journal journal = Journal.open(directory.resolve(journalName(segment)), fsync);
+        return new DurableStore(directory, journal, segment);
+    }
+
+    /**
+     * @return the journal to pass to the service as its mutation listener
+     */
+    public Journal getJournal() {
+        return journal;
+    }
+
+    /**
+     * Rebuilds the state: loads the latest snapshot, if any, then replays every journal segment
+     * written since, and removes files left behind by an interrupted snapshot.
+     * @param target the receiver of the changes, typically {@code service.recoveryTarget()} (cannot be null)
+     * @return the number of records loaded and replayed
+     * @throws IllegalArgumentException if target is null
+     * @throws IllegalStateException if the store was already recovered or is closed
+     * @throws IOException if a file cannot be read or is damaged
+     */
+    public synchronized long recover(MutationListener target) throws IOException {
+        if (target == null) {
+            throw new IllegalArgumentException("Recovery target cannot be null");
+        }
+        List<Long> snapshots = list(directory, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+        long records = 0;
+        if (!snapshots.isEmpty()) {
+            snapshotSegment = snapshots.get(snapshots.size() - 1);
+            records += Snapshot.load(directory.resolve(snapshotName(snapshotSegment)), target);
+        }
+        for (long older : list(directory, JOURNAL_PREFIX, JOURNAL_SUFFIX)) {
+            if (older >= snapshotSegment && older < segment) {
+                records += Journal.replay(directory.resolve(journalName(older)), target);
+            }
+        }
+        records += journal.recover(target);
+        deleteBefore(snapshotSegment);
+        try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(directory, "*" + TEMPORARY_SUFFIX)) {
+            for (Path leftover : leftovers) {
+                Files.delete(leftover);
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Takes a snapshot of the service and drops the journal segments it covers.
+     * Bookings are not paused: the journal moves to a new segment and keeps accepting
+     * changes while the state is written.
+     * @param service the service whose changes this store journals (cannot be null)
+     * @return the number of records written to the snapshot
+     * @throws IllegalArgumentException if service is null
+     * @throws IllegalStateException if the store was not recovered or is closed
+     * @throws IOException if a file cannot be written
+     */
+    public synchronized long snapshot(Service service) throws IOException {
+        if (service == null) {
+            throw new IllegalArgumentException("Service cannot be null");
+        }
+        long next = segment + 1;
+        journal.rotate(directory.resolve(journalName(next)));
+        segment = next;
+        // Only recorded once the snapshot is written, so a failed one is retried
+        long position = journal.getDurablePosition();
+        forceDirectory();
+
+        Path temporary = directory.resolve(snapshotName(next) + TEMPORARY_SUFFIX);
+        Files.deleteIfExists(temporary);
+        long records = Snapshot.write(temporary, service);
+        Files.move(temporary, directory.resolve(snapshotName(next)), StandardCopyOption.ATOMIC_MOVE);
+        forceDirectory();
+
+        snapshotSegment = next;
+        snapshotPosition = position;
+        deleteBefore(next);
+        return records;
+    }
+
+    /**
+     * Takes a snapshot at a fixed interval on a background thread, skipping intervals in
+     * which nothing was journaled. Failures are logged at ERROR to the service's event sink,
+     * counted in its metrics' exceptions and left for the next interval to retry.
+     * @param service the service whose changes this store journals (cannot be null)
+     * @param interval the time between snapshots (must be positive)
+     * @param unit the unit of the interval (cannot be null)
+     * @throws IllegalArgumentException if service or unit is null or interval is not positive
+     * @throws IllegalStateException if snapshots were already started
+     */
+    public synchronized void startSnapshots(Service service, long interval, TimeUnit unit) {
+        if (service == null) {
+            throw new IllegalArgumentException("Service cannot be null");
+        }
+        if (unit == null) {
+            throw new IllegalArgumentException("Time unit cannot be null");
+        }
+        if (interval <= 0) {
+            throw new IllegalArgumentException("Snapshot interval must be positive");
+        }
+        if (scheduler != null) {
+            throw new IllegalStateException("Snapshots were already started");
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "hotel-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                synchronized (this) {
+                    if (journal.getDurablePosition() != snapshotPosition) {
+                        snapshot(service);
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                // Keep the schedule alive; the journal still holds every change
+                service.getMetrics().exceptionThrown(e);
+                EventSink eventSink = service.getEventSink();
+                if (eventSink.isEnabled(LogLevel.ERROR)) {
+                    eventSink.log(LogLevel.ERROR, "Snapshot failed, retrying at the next interval: " + e);
+                }
+            }
+        }, interval, interval, unit);
+    }
+
+    /**
+     * Stops taking snapshots and closes the journal
+     * @throws IOException if the journal cannot be flushed or closed
+     */
+    @Override
+    public void close() throws IOException {
+        ScheduledExecutorService stopping;
+        synchronized (this) {
+            stopping = scheduler;
+            scheduler = null;
+        }
+        if (stopping != null) {
+            stopping.shutdown();
+            try {
+                stopping.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        journal.close();
+    }
+
+    /**
+     * Deletes the snapshots and journal segments older than the given segment
+     */
+    private void deleteBefore(long firstKept) throws IOException {
+        for (long older : list(directory, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX)) {
+            if (older < firstKept) {
+                Files.delete(directory.resolve(snapshotName(older)));
+            }
+        }
+        for (long older : list(directory, JOURNAL_PREFIX, JOURNAL_SUFFIX)) {
+            if (older < firstKept) {
+                Files.delete(directory.resolve(journalName(older)));
+            }
+        }
+    }
+
+    /**
+     * Makes created, renamed and deleted entries of the directory durable
+     */
+    private void forceDirectory() throws IOException {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+
+    /**
+     * @return the sorted sequence numbers of the files named prefix + number + suffix
+     */
+    private static List<Long> list(Path directory, String prefix, String suffix) throws IOException {
+        List<Long> numbers = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, prefix + "*" + suffix)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    numbers.add(Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length())));
+                } catch (NumberFormatException e) {
+                    // Not one of ours
+                }
+            }
+        }
+        Collections.sort(numbers);
+        return numbers;
+    }
+
+    private static String journalName(long segment) {
+        return String.format("%s%09d%s", JOURNAL_PREFIX, segment, JOURNAL_SUFFIX);
+    }
+
+    private static String snapshotName(long segment) {
+        return String.format("%s%09d%s", SNAPSHOT_PREFIX, segment, SNAPSHOT_SUFFIX);
+    }
+}
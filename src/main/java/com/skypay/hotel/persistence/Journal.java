@@ -0,0 +1,450 @@
+package com.skypay.hotel.persistence;
+
+import com.skypay.hotel.model.Booking;
+import com.skypay.hotel.model.Room;
+import com.skypay.hotel.model.User;
+import com.skypay.hotel.service.MutationListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32C;
+
+/**
+ * Write-ahead journal making the state of a {@link com.skypay.hotel.service.Service} durable
+ * on the local filesystem.
+ * <p>
+ * Each room, user and booking change, including cancellations, is appended as a compact binary record
+ * (see {@link RecordCodec}) to an in-memory buffer while the service
+ * holds the entity's lock. The service call then waits in {@link #mutationCompleted()} until its
+ * record is on disk. Waiting writers share flushes (group commit): the first one in writes and
+ * syncs everything appended so far, so concurrent bookings pay for one {@code fsync} together.
+ * <p>
+ * Usage: open the journal, build the service around it, then replay the journal into the
+ * service before serving requests:
+ * <pre>{@code
+ * Journal journal = Journal.open(path, true);
+ * Service service = new Service(sink, journal);
+ * journal.recover(service.recoveryTarget());
+ * }</pre>
+ * {@link #rotate(Path)} continues the journal in a new file, which lets older files be
+ * dropped once a snapshot covers them; {@link DurableStore} manages this.
+ */
+public class Journal implements MutationListener, AutoCloseable {
+    private static final int MAGIC = 0x484A524E;
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+
+    private static final int INITIAL_BUFFER_SIZE = 1 << 16;
+    private static final int READ_BUFFER_SIZE = 1 << 20;
+
+    private final boolean fsync;
+
+    // Appends: guarded by appendLock. Positions are logical: they keep growing across rotations.
+    private final Object appendLock = new Object();
+    private final CRC32C appendChecksum = new CRC32C();
+    private ByteBuffer pending = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+    private long appendedPosition;
+    private boolean recovered;
+    private boolean closed;
+
+    // Flushes and the current file: guarded by flushLock
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private ByteBuffer flushing = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+    private Path path;
+    private FileChannel channel;
+    private long fileBase;
+    private volatile long durablePosition;
+    private volatile long flushCount;
+    private volatile IOException failure;
+
+    // End position of the last record appended by each thread
+    private final ThreadLocal<long[]> lastAppended = ThreadLocal.withInitial(() -> new long[1]);
+
+    private Journal(Path path, FileChannel channel, boolean fsync) {
+        this.path = path;
+        this.channel = channel;
+        this.fsync = fsync;
+    }
+
+    /**
+     * Opens the journal at the given path, creating it if it does not exist.
+     * {@link #recover(MutationListener)} must be called before any change is appended.
+     * @param path the journal file (cannot be null)
+     * @param fsync true to force every flush to the storage device, false to leave
+     *              flushed records in the OS page cache (they then survive a process crash only)
+     * @return the opened journal
+     * @throws IllegalArgumentException if path is null
+     * @throws IOException if the file cannot be opened or is not a journal
+     */
+    public static Journal open(Path path, boolean fsync) throws IOException {
+        if (path == null) {
+            throw new IllegalArgumentException("Journal path cannot be null");
+        }
+        return new Journal(path, openFile(path), fsync);
+    }
+
+    private static FileChannel openFile(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            if (channel.size() < HEADER_SIZE) {
+                // New file, or a crash before its header was complete
+                header.putInt(MAGIC).putInt(FORMAT_VERSION).flip();
+                channel.truncate(0);
+                while (header.hasRemaining()) {
+                    channel.write(header, header.position());
+                }
+                channel.force(true);
+            } else {
+                while (header.hasRemaining() && channel.read(header, header.position()) > 0) {
+                    // Read the whole header
+                }
+                header.flip();
+                if (header.getInt() != MAGIC) {
+                    throw new IOException("Not a journal file: " + path);
+                }
+                int version = header.getInt();
+                if (version != FORMAT_VERSION) {
+                    throw new IOException("Unsupported journal format version " + version + ": " + path);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        return channel;
+    }
+
+    /**
+     * Replays every complete record into the target, then discards a torn or corrupt tail
+     * left by a crash so new records are appended after the last valid one.
+     * @param target the receiver of the replayed changes, typically {@code service.recoveryTarget()}
+     * @return the number of records replayed
+     * @throws IllegalArgumentException if target is null
+     * @throws IllegalStateException if the journal was already recovered or is closed
+     * @throws IOException if the file cannot be read or holds an unknown record type
+     */
+    public long recover(MutationListener target) throws IOException {
+        if (target == null) {
+            throw new IllegalArgumentException("Recovery target cannot be null");
+        }
+        synchronized (appendLock) {
+            if (closed) {
+                throw new IllegalStateException("Journal is closed");
+            }
+            if (recovered) {
+                throw new IllegalStateException("Journal was already recovered");
+            }
+        }
+
+        flushLock.lock();
+        try {
+            long[] scan = scan(channel, target);
+            long validEnd = scan[0];
+            if (channel.size() > validEnd) {
+                channel.truncate(validEnd);
+                channel.force(true);
+            }
+            synchronized (appendLock) {
+                appendedPosition = validEnd;
+                durablePosition = validEnd;
+                recovered = true;
+            }
+            return scan[1];
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Replays every complete record of a journal file that is no longer written to, such as
+     * a file left behind by {@link #rotate(Path)}
+     * @param path the journal file (cannot be null)
+     * @param target the receiver of the replayed changes (cannot be null)
+     * @return the number of records replayed
+     * @throws IllegalArgumentException if path or target is null
+     * @throws IOException if the file cannot be read or is not a journal
+     */
+    public static long replay(Path path, MutationListener target) throws IOException {
+        if (path == null) {
+            throw new IllegalArgumentException("Journal path cannot be null");
+        }
+        if (target == null) {
+            throw new IllegalArgumentException("Recovery target cannot be null");
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining() && channel.read(header, header.position()) > 0) {
+                // Read the whole header
+            }
+            header.flip();
+            if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC || header.getInt() != FORMAT_VERSION) {
+                throw new IOException("Not a journal file: " + path);
+            }
+            return scan(channel, target)[1];
+        }
+    }
+
+    /**
+     * Reports every intact record after the header to the target
+     * @return the position after the last intact record and the number of records
+     */
+    private static long[] scan(FileChannel channel, MutationListener target) throws IOException {
+        CRC32C checksum = new CRC32C();
+        ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE).flip();
+        long readPosition = HEADER_SIZE;
+        long validEnd = HEADER_SIZE;
+        long records = 0;
+        while (true) {
+            int size;
+            while ((size = RecordCodec.validRecordSize(buffer, checksum)) > 0) {
+                RecordCodec.apply(buffer, target, validEnd);
+                validEnd += size;
+                records++;
+            }
+            if (size == RecordCodec.CORRUPT) {
+                break;
+            }
+            // Refill: the next record is incomplete in the buffer
+            buffer.compact();
+            int read = channel.read(buffer, readPosition);
+            buffer.flip();
+            if (read <= 0) {
+                break;
+            }
+            readPosition += read;
+        }
+        return new long[]{validEnd, records};
+    }
+
+    /**
+     * Continues the journal in a new file. Every record appended before the call ends up in the
+     * previous file, which is flushed, synced and closed; every later record goes to the new one.
+     * Appends are not blocked while the previous file is completed.
+     * @param next the new journal file (cannot be null or exist already)
+     * @throws IllegalArgumentException if next is null
+     * @throws IllegalStateException if the journal was not recovered or is closed
+     * @throws IOException if a file cannot be written
+     */
+    public void rotate(Path next) throws IOException {
+        if (next == null) {
+            throw new IllegalArgumentException("Journal path cannot be null");
+        }
+        flushLock.lock();
+        try {
+            checkFailure();
+            FileChannel nextChannel = FileChannel.open(next, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            FileChannel previous = channel;
+            ByteBuffer batch;
+            long end;
+            try {
+                nextChannel.write(ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(FORMAT_VERSION).flip(), 0);
+                nextChannel.force(true);
+                synchronized (appendLock) {
+                    checkWritable();
+                    batch = pending;
+                    pending = flushing;
+                    flushing = batch;
+                    end = appendedPosition;
+                }
+            } catch (IOException | RuntimeException e) {
+                nextChannel.close();
+                throw e;
+            }
+            write(batch);
+            previous.force(true);
+            previous.close();
+            flushCount++;
+            durablePosition = end;
+            path = next;
+            channel = nextChannel;
+            fileBase = end - HEADER_SIZE;
+        } catch (IOException e) {
+            failure = e;
+            throw e;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Override
+    public void roomSaved(Room room) {
+        long end;
+        synchronized (appendLock) {
+            RecordCodec.putRoom(reserve(RecordCodec.ROOM_RECORD_SIZE), room, appendChecksum);
+            end = appendedPosition += RecordCodec.ROOM_RECORD_SIZE;
+        }
+        lastAppended.get()[0] = end;
+    }
+
+    @Override
+    public void userSaved(User user, long balanceStamp) {
+        long end;
+        synchronized (appendLock) {
+            RecordCodec.putUser(reserve(RecordCodec.USER_RECORD_SIZE), user, balanceStamp, appendChecksum);
+            end = appendedPosition += RecordCodec.USER_RECORD_SIZE;
+        }
+        lastAppended.get()[0] = end;
+    }
+
+    @Override
+    public void bookingCommitted(Booking booking, long balanceStamp) {
+        long end;
+        synchronized (appendLock) {
+            RecordCodec.putBooking(reserve(RecordCodec.BOOKING_RECORD_SIZE), booking, balanceStamp, appendChecksum);
+            end = appendedPosition += RecordCodec.BOOKING_RECORD_SIZE;
+        }
+        lastAppended.get()[0] = end;
+    }
+
+    @Override
+    public void bookingCancelled(Booking booking, long balanceStamp) {
+        long end;
+        synchronized (appendLock) {
+            RecordCodec.putCancellation(reserve(RecordCodec.CANCELLATION_RECORD_SIZE), booking, balanceStamp,
+                    appendChecksum);
+            end = appendedPosition += RecordCodec.CANCELLATION_RECORD_SIZE;
+        }
+        lastAppended.get()[0] = end;
+    }
+
+    /**
+     * Blocks until every record appended by the calling thread is durable
+     * @throws UncheckedIOException if the journal could not be written
+     */
+    @Override
+    public void mutationCompleted() {
+        awaitDurable(lastAppended.get()[0]);
+    }
+
+    /**
+     * Must be called while holding appendLock. Returns the pending buffer with room for a record.
+     */
+    private ByteBuffer reserve(int recordSize) {
+        checkWritable();
+        if (pending.remaining() < recordSize) {
+            ByteBuffer grown = ByteBuffer.allocate(Math.max(pending.capacity() * 2, pending.position() + recordSize));
+            pending.flip();
+            grown.put(pending);
+            pending = grown;
+        }
+        return pending;
+    }
+
+    /**
+     * Must be called while holding appendLock
+     */
+    private void checkWritable() {
+        if (closed) {
+            throw new IllegalStateException("Journal is closed");
+        }
+        if (!recovered) {
+            throw new IllegalStateException("Journal must be recovered before changes are appended");
+        }
+        checkFailure();
+    }
+
+    private void checkFailure() {
+        if (failure != null) {
+            throw new UncheckedIOException("Journal is unusable after a write failure", failure);
+        }
+    }
+
+    /**
+     * Waits until the journal is durable up to the given position. The first waiter becomes the
+     * leader and flushes every record appended so far; waiters covered by that flush return
+     * as soon as it completes.
+     */
+    private void awaitDurable(long position) {
+        if (position <= durablePosition) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            if (position <= durablePosition) {
+                return;
+            }
+            checkFailure();
+            ByteBuffer batch;
+            long end;
+            synchronized (appendLock) {
+                batch = pending;
+                pending = flushing;
+                flushing = batch;
+                end = appendedPosition;
+            }
+            write(batch);
+            if (fsync) {
+                channel.force(false);
+            }
+            flushCount++;
+            durablePosition = end;
+        } catch (IOException e) {
+            failure = e;
+            throw new UncheckedIOException("Failed to write journal " + path, e);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Must be called while holding flushLock. Writes a swapped-out batch after the durable records.
+     */
+    private void write(ByteBuffer batch) throws IOException {
+        batch.flip();
+        long writePosition = durablePosition - fileBase;
+        while (batch.hasRemaining()) {
+            writePosition += channel.write(batch, writePosition);
+        }
+        batch.clear();
+    }
+
+    /**
+     * @return the logical journal size, across rotations, up to which records are known to be written
+     */
+    public long getDurablePosition() {
+        return durablePosition;
+    }
+
+    /**
+     * @return how many flushes were performed; fewer than committed changes means writes were grouped
+     */
+    public long getFlushCount() {
+        return flushCount;
+    }
+
+    /**
+     * Flushes every appended record and closes the file
+     * @throws IOException if the file cannot be written or closed
+     */
+    @Override
+    public void close() throws IOException {
+        long end;
+        synchronized (appendLock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            end = appendedPosition;
+        }
+        flushLock.lock();
+        try {
+            if (recovered && failure == null) {
+                awaitDurable(end);
+                channel.force(true);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            channel.close();
+            flushLock.unlock();
+        }
+    }
+}
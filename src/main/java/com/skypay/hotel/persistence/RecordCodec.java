@@ -0,0 +1,204 @@
+package com.skypay.hotel.persistence;
+
+import com.skypay.hotel.model.Booking;
+import com.skypay.hotel.model.Room;
+import com.skypay.hotel.model.RoomType;
+import com.skypay.hotel.model.User;
+import com.skypay.hotel.service.MutationListener;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.zip.CRC32C;
+
+/**
+ * Binary encoding of room, user, booking and cancellation records shared by journals, snapshots
+ * and the replication stream.
+ * Each record is framed as {@code [int length][byte type][payload][int CRC32C]}, where the
+ * length and checksum cover the type and payload. A LocalDate is stored as an int epoch day,
+ * a LocalDateTime as an int epoch day plus a long nano of day.
+ */
+final class RecordCodec {
+    /**
+     * Returned by {@link #validRecordSize} when the buffer ends inside the next record
+     */
+    static final int INCOMPLETE = -1;
+    /**
+     * Returned by {@link #validRecordSize} when the next record is damaged
+     */
+    static final int CORRUPT = -2;
+
+    private static final byte ROOM = 1;
+    private static final byte USER = 2;
+    private static final byte BOOKING = 3;
+    private static final byte CANCELLATION = 4;
+
+    private static final int DATE_TIME_SIZE = 12;
+    private static final int ROOM_SIZE = 4 + 1 + 4 + DATE_TIME_SIZE;
+    private static final int USER_SIZE = 4 + 8 + DATE_TIME_SIZE;
+    private static final int BOOKING_SIZE = 4 + 4 + 4 + 4 + 4 + 4 + DATE_TIME_SIZE + 4 + 1 + 4 + 8;
+    private static final int FRAME_SIZE = 4 + 4;
+    private static final int MAX_RECORD_LENGTH = 1 << 10;
+
+    static final int ROOM_RECORD_SIZE = FRAME_SIZE + 1 + ROOM_SIZE;
+    static final int USER_RECORD_SIZE = FRAME_SIZE + 1 + USER_SIZE;
+    static final int BOOKING_RECORD_SIZE = FRAME_SIZE + 1 + BOOKING_SIZE;
+    static final int CANCELLATION_RECORD_SIZE = BOOKING_RECORD_SIZE;
+
+    private static final RoomType[] ROOM_TYPES = RoomType.values();
+
+    private RecordCodec() {
+    }
+
+    /**
+     * Writes a framed room record; the buffer must have {@link #ROOM_RECORD_SIZE} bytes remaining
+     */
+    static void putRoom(ByteBuffer buffer, Room room, CRC32C checksum) {
+        buffer.putInt(1 + ROOM_SIZE).put(ROOM)
+                .putInt(room.getRoomNumber())
+                .put((byte) room.getRoomType().ordinal())
+                .putInt(room.getPricePerNight());
+        putDateTime(buffer, room.getCreatedAt());
+        putChecksum(buffer, ROOM_SIZE, checksum);
+    }
+
+    /**
+     * Writes a framed user record; the buffer must have {@link #USER_RECORD_SIZE} bytes remaining
+     */
+    static void putUser(ByteBuffer buffer, User user, long balanceStamp, CRC32C checksum) {
+        buffer.putInt(1 + USER_SIZE).put(USER)
+                .putInt(user.getUserId())
+                .putLong(balanceStamp);
+        putDateTime(buffer, user.getCreatedAt());
+        putChecksum(buffer, USER_SIZE, checksum);
+    }
+
+    /**
+     * Writes a framed booking record; the buffer must have {@link #BOOKING_RECORD_SIZE} bytes remaining
+     */
+    static void putBooking(ByteBuffer buffer, Booking booking, long balanceStamp, CRC32C checksum) {
+        putBooking(buffer, BOOKING, booking, balanceStamp, checksum);
+    }
+
+    /**
+     * Writes a framed cancellation record, which holds the cancelled booking and the refunded
+     * balance stamp; the buffer must have {@link #CANCELLATION_RECORD_SIZE} bytes remaining
+     */
+    static void putCancellation(ByteBuffer buffer, Booking booking, long balanceStamp, CRC32C checksum) {
+        putBooking(buffer, CANCELLATION, booking, balanceStamp, checksum);
+    }
+
+    private static void putBooking(ByteBuffer buffer, byte type, Booking booking, long balanceStamp,
+                                   CRC32C checksum) {
+        buffer.putInt(1 + BOOKING_SIZE).put(type)
+                .putInt(booking.getBookingId())
+                .putInt(booking.getUserId())
+                .putInt(booking.getRoomNumber())
+                .putInt(booking.getCheckInDay())
+                .putInt(booking.getCheckOutDay())
+                .putInt(booking.getTotalAmount());
+        putDateTime(buffer, booking.getBookingDateTime());
+        buffer.putInt(booking.getUserBalanceAtBooking())
+                .put((byte) booking.getRoomTypeAtBooking().ordinal())
+                .putInt(booking.getRoomPricePerNightAtBooking())
+                .putLong(balanceStamp);
+        putChecksum(buffer, BOOKING_SIZE, checksum);
+    }
+
+    private static void putChecksum(ByteBuffer buffer, int payloadSize, CRC32C checksum) {
+        int length = 1 + payloadSize;
+        checksum.reset();
+        checksum.update(buffer.slice(buffer.position() - length, length));
+        buffer.putInt((int) checksum.getValue());
+    }
+
+    /**
+     * Checks the record starting at the buffer's position without consuming it
+     * @return the framed size of a complete, intact record, {@link #INCOMPLETE} or {@link #CORRUPT}
+     */
+    static int validRecordSize(ByteBuffer buffer, CRC32C checksum) {
+        int available = buffer.remaining();
+        if (available < 4) {
+            return INCOMPLETE;
+        }
+        int start = buffer.position();
+        int length = buffer.getInt(start);
+        if (length <= 0 || length > MAX_RECORD_LENGTH) {
+            return CORRUPT;
+        }
+        if (available < FRAME_SIZE + length) {
+            return INCOMPLETE;
+        }
+        checksum.reset();
+        checksum.update(buffer.slice(start + 4, length));
+        if ((int) checksum.getValue() != buffer.getInt(start + 4 + length)) {
+            return CORRUPT;
+        }
+        return FRAME_SIZE + length;
+    }
+
+    /**
+     * Decodes the record at the buffer's position, which must have passed {@link #validRecordSize},
+     * and reports it to the target
+     * @param position the record's position in its file, for error messages
+     * @throws IOException if the record type is unknown
+     */
+    static void apply(ByteBuffer buffer, MutationListener target, long position) throws IOException {
+        int length = buffer.getInt();
+        int end = buffer.position() + length + 4;
+        byte type = buffer.get();
+        switch (type) {
+            case ROOM: {
+                int roomNumber = buffer.getInt();
+                RoomType roomType = ROOM_TYPES[buffer.get()];
+                int pricePerNight = buffer.getInt();
+                target.roomSaved(Room.restore(roomNumber, roomType, pricePerNight, getDateTime(buffer)));
+                break;
+            }
+            case USER: {
+                int userId = buffer.getInt();
+                long balanceStamp = buffer.getLong();
+                target.userSaved(User.restore(userId, balanceStamp, getDateTime(buffer)), balanceStamp);
+                break;
+            }
+            case BOOKING:
+            case CANCELLATION: {
+                int bookingId = buffer.getInt();
+                int userId = buffer.getInt();
+                int roomNumber = buffer.getInt();
+                int checkIn = buffer.getInt();
+                int checkOut = buffer.getInt();
+                int totalAmount = buffer.getInt();
+                LocalDateTime bookingDateTime = getDateTime(buffer);
+                int userBalanceAtBooking = buffer.getInt();
+                RoomType roomTypeAtBooking = ROOM_TYPES[buffer.get()];
+                int roomPricePerNightAtBooking = buffer.getInt();
+                long balanceStamp = buffer.getLong();
+                Booking booking = Booking.restore(bookingId, userId, roomNumber, checkIn, checkOut,
+                        totalAmount, bookingDateTime, userBalanceAtBooking,
+                        roomTypeAtBooking, roomPricePerNightAtBooking);
+                if (type == BOOKING) {
+                    target.bookingCommitted(booking, balanceStamp);
+                } else {
+                    target.bookingCancelled(booking, balanceStamp);
+                }
+                break;
+            }
+            default:
+                throw new IOException("Unknown record type " + type + " at position " + position);
+        }
+        buffer.position(end);
+    }
+
+    private static void putDateTime(ByteBuffer buffer, LocalDateTime dateTime) {
+        buffer.putInt(Math.toIntExact(dateTime.toLocalDate().toEpochDay()))
+                .putLong(dateTime.toLocalTime().toNanoOfDay());
+    }
+
+    private static LocalDateTime getDateTime(ByteBuffer buffer) {
+        LocalDate date = LocalDate.ofEpochDay(buffer.getInt());
+        return LocalDateTime.of(date, LocalTime.ofNanoOfDay(buffer.getLong()));
+    }
+}
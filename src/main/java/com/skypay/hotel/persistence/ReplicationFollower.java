@@ -0,0 +1,293 @@
+package com.skypay.hotel.persistence;
+
+import com.skypay.hotel.log.EventSink;
+import com.skypay.hotel.model.Booking;
+import com.skypay.hotel.service.MutationListener;
+import com.skypay.hotel.service.Service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.zip.CRC32C;
+
+/**
+ * Read replica of a {@link ReplicationLeader}'s service. A background thread applies the
+ * leader's stream of changes to a local {@link Service}, which answers read-only queries such
+ * as {@link Service#view()}, {@link Service#getBookings()} or {@link Service#printAll()}
+ * without touching the leader. The replica must not be changed through its own methods.
+ * <p>
+ * When the connection is lost, the follower reconnects and catches up from the last change it
+ * applied. When the leader sends a full copy of its state instead, the copy is loaded into a new
+ * service that replaces the current one once complete, so readers never see a partial state;
+ * callers should fetch {@link #getService()} for each query rather than keep it.
+ * <p>
+ * Replication is asynchronous: the replica trails the leader by {@link #getLagBytes()} of changes,
+ * and {@link #awaitPosition(long, Duration)} waits for it to reach a change known to the leader.
+ */
+public final class ReplicationFollower implements AutoCloseable {
+    private static final int CONNECT_TIMEOUT_MILLIS = 1_000;
+    // The leader sends a heartbeat every 100 ms; a longer silence means the connection is lost
+    private static final int READ_TIMEOUT_MILLIS = 2_000;
+    private static final long RECONNECT_DELAY_MILLIS = 100;
+
+    private final InetSocketAddress leader;
+    private final EventSink eventSink;
+    private final Thread thread;
+    private volatile boolean running = true;
+    private volatile Socket socket;
+
+    // Written by the follower thread only
+    private volatile Service service;
+    private MutationListener target;
+    private volatile long leaderId;
+    private volatile long appliedPosition = -1;
+    private volatile long leaderPosition = -1;
+    private volatile long replicationDelayMillis;
+    private volatile boolean connected;
+    private volatile long connectionCount;
+    private volatile long snapshotCount;
+
+    private ReplicationFollower(InetSocketAddress leader, EventSink eventSink) {
+        this.leader = leader;
+        this.eventSink = eventSink;
+        this.service = new Service(eventSink);
+        this.thread = new Thread(this::run, "hotel-replication-follower");
+        thread.setDaemon(true);
+    }
+
+    /**
+     * Starts following a leader; the replica is empty until the first copy of the leader's state arrives
+     * @param leader the address the leader listens on (cannot be null)
+     * @param eventSink the destination for the replica's operation messages, such as those of
+     *                  {@link Service#printAll()} (cannot be null)
+     * @return the running follower
+     * @throws IllegalArgumentException if leader or eventSink is null
+     */
+    public static ReplicationFollower start(InetSocketAddress leader, EventSink eventSink) {
+        if (leader == null) {
+            throw new IllegalArgumentException("Leader address cannot be null");
+        }
+        if (eventSink == null) {
+            throw new IllegalArgumentException("Event sink cannot be null");
+        }
+        ReplicationFollower follower = new ReplicationFollower(leader, eventSink);
+        follower.thread.start();
+        return follower;
+    }
+
+    private void run() {
+        while (running) {
+            try (Socket connection = new Socket()) {
+                socket = connection;
+                if (!running) {
+                    break;
+                }
+                connection.setTcpNoDelay(true);
+                connection.connect(leader, CONNECT_TIMEOUT_MILLIS);
+                connection.setSoTimeout(READ_TIMEOUT_MILLIS);
+                DataInputStream in = new DataInputStream(new BufferedInputStream(connection.getInputStream(),
+                        4 + ReplicationProtocol.MAX_FRAME_LENGTH));
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(connection.getOutputStream()));
+                out.writeInt(ReplicationProtocol.MAGIC);
+                out.writeInt(ReplicationProtocol.VERSION);
+                out.writeLong(leaderId);
+                out.writeLong(appliedPosition);
+                out.flush();
+                connected = true;
+                connectionCount++;
+                follow(in, out);
+            } catch (IOException e) {
+                // Leader unreachable or connection lost: reconnect and catch up
+            } catch (RuntimeException e) {
+                // A change could not be applied: start over from a copy of the leader's state
+                leaderId = 0;
+                appliedPosition = -1;
+            } finally {
+                connected = false;
+            }
+            if (running) {
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MILLIS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Applies frames until the connection fails
+     */
+    private void follow(DataInputStream in, DataOutputStream out) throws IOException {
+        byte[] bytes = new byte[ReplicationProtocol.MAX_FRAME_LENGTH];
+        ByteBuffer frame = ByteBuffer.wrap(bytes);
+        CRC32C checksum = new CRC32C();
+        Service loading = null;
+        MutationListener loadingTarget = null;
+        long loadingLeaderId = 0;
+        long loadingPosition = 0;
+        long loadedBytes = 0;
+        while (running) {
+            int length = in.readInt();
+            if (length <= 0 || length > ReplicationProtocol.MAX_FRAME_LENGTH) {
+                throw new IOException("Damaged replication frame of " + length + " bytes");
+            }
+            in.readFully(bytes, 0, length);
+            frame.clear().limit(length);
+            byte kind = frame.get();
+            switch (kind) {
+                case ReplicationProtocol.SNAPSHOT_START:
+                    loading = new Service(eventSink);
+                    loadingTarget = loading.recoveryTarget();
+                    loadingLeaderId = frame.getLong();
+                    loadingPosition = frame.getLong();
+                    loadedBytes = 0;
+                    break;
+                case ReplicationProtocol.SNAPSHOT_RECORDS:
+                    if (loading == null) {
+                        throw new IOException("State records outside of a copy of the state");
+                    }
+                    loadedBytes = ReplicationProtocol.apply(frame, loadingTarget, loadedBytes, checksum);
+                    break;
+                case ReplicationProtocol.SNAPSHOT_END:
+                    if (loading == null) {
+                        throw new IOException("End of a copy of the state that never started");
+                    }
+                    Booking.advanceNextBookingId(frame.getInt());
+                    service = loading;
+                    target = loadingTarget;
+                    leaderId = loadingLeaderId;
+                    appliedPosition = loadingPosition;
+                    snapshotCount++;
+                    loading = null;
+                    loadingTarget = null;
+                    acknowledge(out);
+                    break;
+                case ReplicationProtocol.CHANGES: {
+                    long position = frame.getLong();
+                    leaderPosition = frame.getLong();
+                    long sentAt = frame.getLong();
+                    if (target == null || position != appliedPosition) {
+                        throw new IOException("Replication stream resumed at " + position +
+                                " instead of " + appliedPosition);
+                    }
+                    boolean empty = !frame.hasRemaining();
+                    appliedPosition = ReplicationProtocol.apply(frame, target, position, checksum);
+                    replicationDelayMillis = Math.max(0, System.currentTimeMillis() - sentAt);
+                    if (!empty) {
+                        acknowledge(out);
+                    }
+                    break;
+                }
+                default:
+                    throw new IOException("Unknown replication frame kind " + kind);
+            }
+        }
+    }
+
+    private void acknowledge(DataOutputStream out) throws IOException {
+        out.writeLong(appliedPosition);
+        out.flush();
+    }
+
+    /**
+     * @return the replica; replaced by a new one each time a copy of the leader's state is loaded
+     */
+    public Service getService() {
+        return service;
+    }
+
+    /**
+     * @return the position in the leader's replication log up to which changes are applied, -1 before the first copy of the state
+     */
+    public long getAppliedPosition() {
+        return appliedPosition;
+    }
+
+    /**
+     * @return how many bytes of changes the leader had recorded, as of its last frame, that are not applied yet
+     */
+    public long getLagBytes() {
+        return Math.max(0, leaderPosition - Math.max(appliedPosition, 0));
+    }
+
+    /**
+     * @return the time between the leader sending the last frame and the follower applying it
+     */
+    public long getReplicationDelayMillis() {
+        return replicationDelayMillis;
+    }
+
+    /**
+     * @return true while connected to the leader
+     */
+    public boolean isConnected() {
+        return connected;
+    }
+
+    /**
+     * @return the number of times the follower connected to the leader
+     */
+    public long getConnectionCount() {
+        return connectionCount;
+    }
+
+    /**
+     * @return the number of copies of the leader's state loaded; one, plus one per catch-up the
+     * leader's replication log could not serve
+     */
+    public long getSnapshotCount() {
+        return snapshotCount;
+    }
+
+    /**
+     * Waits until the replica has applied the leader's changes up to a position, such as
+     * {@link ReplicationLeader#getPosition()} read after a change, so it can be read back
+     * @param position the position in the leader's replication log
+     * @param timeout the longest time to wait (cannot be null)
+     * @return true if the position was reached, false on timeout
+     * @throws IllegalArgumentException if timeout is null
+     * @throws InterruptedException if the calling thread is interrupted
+     */
+    public boolean awaitPosition(long position, Duration timeout) throws InterruptedException {
+        if (timeout == null) {
+            throw new IllegalArgumentException("Timeout cannot be null");
+        }
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (appliedPosition < position) {
+            if (System.nanoTime() - deadline >= 0) {
+                return false;
+            }
+            Thread.sleep(1);
+        }
+        return true;
+    }
+
+    /**
+     * Disconnects from the leader and stops applying changes; the replica keeps answering queries
+     */
+    @Override
+    public void close() {
+        running = false;
+        Socket connection = socket;
+        if (connection != null) {
+            try {
+                connection.close();
+            } catch (IOException e) {
+                // Closed anyway
+            }
+        }
+        thread.interrupt();
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
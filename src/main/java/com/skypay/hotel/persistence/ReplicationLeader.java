@@ -0,0 +1,461 @@
+package com.skypay.hotel.persistence;
+
+import com.skypay.hotel.model.Booking;
+import com.skypay.hotel.model.Room;
+import com.skypay.hotel.model.User;
+import com.skypay.hotel.service.MutationListener;
+import com.skypay.hotel.service.Service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32C;
+
+/**
+ * Ships every change of a leader {@link Service} to {@link ReplicationFollower read replicas} over
+ * TCP, so reports and listings can be served by followers instead of competing with bookings.
+ * <p>
+ * As a mutation listener, the leader encodes each change as a journal record into its replication
+ * log, an in-memory ring holding the latest changes, and returns: replication is asynchronous and
+ * never holds up a booking. Each connected follower has a sender thread that copies every record
+ * appended since its last frame into the next one, so changes are batched by how fast they
+ * arrive, and a heartbeat frame is sent when nothing changed for {@value #HEARTBEAT_MILLIS} ms.
+ * <p>
+ * A follower that reconnects names the last position it applied and catches up from the log.
+ * If the log no longer holds that position, because the follower is new, was away too long or
+ * fell a whole log behind, the leader sends a copy of its full state first (see
+ * {@link Service#exportState(MutationListener)}) and streams the changes made since.
+ * <p>
+ * Usage:
+ * <pre>{@code
+ * ReplicationLeader leader = ReplicationLeader.create(64 << 20);
+ * Service service = new Service(sink, journal.andThen(leader));
+ * journal.recover(service.recoveryTarget());
+ * leader.start(service, new InetSocketAddress(InetAddress.getLoopbackAddress(), 7400));
+ * }</pre>
+ */
+public final class ReplicationLeader implements MutationListener, AutoCloseable {
+    private static final int MIN_LOG_SIZE = 1 << 12;
+    private static final long HEARTBEAT_MILLIS = 100;
+    private static final int ACCEPT_BACKLOG = 50;
+
+    private final long leaderId;
+
+    // Replication log: guarded by appendLock. The ring holds the bytes of the positions
+    // from appendedPosition - log.length to appendedPosition.
+    private final Object appendLock = new Object();
+    private final byte[] log;
+    private final ByteBuffer record = ByteBuffer.allocate(ReplicationProtocol.MAX_RECORD_SIZE);
+    private final CRC32C appendChecksum = new CRC32C();
+    private long appendedPosition;
+    private int waitingSenders;
+
+    private final List<FollowerLink> followers = new CopyOnWriteArrayList<>();
+    private final AtomicLong snapshotsSent = new AtomicLong();
+    private volatile boolean closed;
+
+    // Guarded by this
+    private Service service;
+    private ServerSocket server;
+    private Thread acceptor;
+
+    /**
+     * A connected follower, with the thread sending it frames and the thread reading its acknowledgements
+     */
+    private final class FollowerLink implements Runnable {
+        final Socket socket;
+        final ByteBuffer frame = ByteBuffer.allocate(4 + ReplicationProtocol.MAX_FRAME_LENGTH);
+        final CRC32C checksum = new CRC32C();
+        volatile long acknowledgedPosition;
+        Thread sender;
+        Thread acknowledgementReader;
+        DataOutputStream out;
+
+        FollowerLink(Socket socket) {
+            this.socket = socket;
+        }
+
+        @Override
+        public void run() {
+            try {
+                socket.setTcpNoDelay(true);
+                DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+                out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), frame.capacity()));
+                if (in.readInt() != ReplicationProtocol.MAGIC || in.readInt() != ReplicationProtocol.VERSION) {
+                    return;
+                }
+                long followerLeaderId = in.readLong();
+                long followerPosition = in.readLong();
+                // Positions are only meaningful to the leader that handed them out
+                long next = followerLeaderId == leaderId && followerPosition >= 0 ? followerPosition : -1;
+                acknowledgedPosition = Math.max(next, 0);
+                acknowledgementReader = new Thread(() -> readAcknowledgements(in),
+                        sender.getName() + "-acks");
+                acknowledgementReader.setDaemon(true);
+                acknowledgementReader.start();
+
+                while (!closed) {
+                    if (next < 0) {
+                        next = sendSnapshot();
+                    }
+                    frame.clear().position(4 + ReplicationProtocol.CHANGES_HEADER_LENGTH);
+                    long end = read(next, frame);
+                    if (end < 0) {
+                        // The log moved past the follower: it starts over from a snapshot
+                        next = -1;
+                        continue;
+                    }
+                    frame.putInt(0, frame.position() - 4)
+                            .put(4, ReplicationProtocol.CHANGES)
+                            .putLong(5, next)
+                            .putLong(13, getPosition())
+                            .putLong(21, System.currentTimeMillis());
+                    out.write(frame.array(), 0, frame.position());
+                    out.flush();
+                    next = end;
+                }
+            } catch (IOException | UncheckedIOException e) {
+                // The follower is gone; it reconnects and catches up from its last position
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                disconnect();
+                followers.remove(this);
+            }
+        }
+
+        private void readAcknowledgements(DataInputStream in) {
+            try {
+                while (true) {
+                    acknowledgedPosition = in.readLong();
+                }
+            } catch (IOException e) {
+                disconnect();
+            }
+        }
+
+        /**
+         * Sends a copy of the leader's state
+         * @return the position from which the changes made since must be streamed
+         */
+        private long sendSnapshot() throws IOException {
+            long position = getPosition();
+            frame.clear();
+            frame.putInt(1 + 8 + 8).put(ReplicationProtocol.SNAPSHOT_START).putLong(leaderId).putLong(position);
+            out.write(frame.array(), 0, frame.position());
+
+            frame.clear().position(4 + ReplicationProtocol.SNAPSHOT_HEADER_LENGTH);
+            try {
+                currentService().exportState(new MutationListener() {
+                    @Override
+                    public void roomSaved(Room room) {
+                        RecordCodec.putRoom(reserve(RecordCodec.ROOM_RECORD_SIZE), room, checksum);
+                    }
+
+                    @Override
+                    public void userSaved(User user, long balanceStamp) {
+                        RecordCodec.putUser(reserve(RecordCodec.USER_RECORD_SIZE), user, balanceStamp, checksum);
+                    }
+
+                    @Override
+                    public void bookingCommitted(Booking booking, long balanceStamp) {
+                        RecordCodec.putBooking(reserve(RecordCodec.BOOKING_RECORD_SIZE), booking, balanceStamp,
+                                checksum);
+                    }
+
+                    @Override
+                    public void bookingCancelled(Booking booking, long balanceStamp) {
+                        RecordCodec.putCancellation(reserve(RecordCodec.CANCELLATION_RECORD_SIZE), booking,
+                                balanceStamp, checksum);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            writeSnapshotRecords();
+
+            // Read after the export, so it also covers bookings made while it ran
+            frame.clear();
+            frame.putInt(1 + 4).put(ReplicationProtocol.SNAPSHOT_END).putInt(Booking.getNextBookingId());
+            out.write(frame.array(), 0, frame.position());
+            out.flush();
+            snapshotsSent.incrementAndGet();
+            return position;
+        }
+
+        private ByteBuffer reserve(int recordSize) {
+            if (frame.remaining() < recordSize) {
+                try {
+                    writeSnapshotRecords();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return frame;
+        }
+
+        private void writeSnapshotRecords() throws IOException {
+            if (frame.position() > 4 + ReplicationProtocol.SNAPSHOT_HEADER_LENGTH) {
+                frame.putInt(0, frame.position() - 4).put(4, ReplicationProtocol.SNAPSHOT_RECORDS);
+                out.write(frame.array(), 0, frame.position());
+            }
+            frame.clear().position(4 + ReplicationProtocol.SNAPSHOT_HEADER_LENGTH);
+        }
+
+        void disconnect() {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // Already unusable
+            }
+        }
+    }
+
+    private ReplicationLeader(int logSize) {
+        this.log = new byte[logSize];
+        long id;
+        do {
+            id = ThreadLocalRandom.current().nextLong();
+        } while (id == 0);
+        this.leaderId = id;
+    }
+
+    /**
+     * Creates a leader that records changes from now on; followers are served once {@link #start} is called
+     * @param logSize the number of bytes of changes kept for followers to catch up from
+     *                (must be at least 4096; a change takes 30 to 62 bytes)
+     * @return the new leader
+     * @throws IllegalArgumentException if logSize is too small
+     */
+    public static ReplicationLeader create(int logSize) {
+        if (logSize < MIN_LOG_SIZE) {
+            throw new IllegalArgumentException("Replication log size must be at least " + MIN_LOG_SIZE + " bytes");
+        }
+        return new ReplicationLeader(logSize);
+    }
+
+    /**
+     * Starts accepting followers
+     * @param service the service whose changes this leader receives (cannot be null)
+     * @param address the address to listen on; port 0 picks a free port (cannot be null)
+     * @throws IllegalArgumentException if service or address is null
+     * @throws IllegalStateException if the leader was already started or is closed
+     * @throws IOException if the leader cannot listen on the address
+     */
+    public synchronized void start(Service service, InetSocketAddress address) throws IOException {
+        if (service == null) {
+            throw new IllegalArgumentException("Service cannot be null");
+        }
+        if (address == null) {
+            throw new IllegalArgumentException("Address cannot be null");
+        }
+        if (closed) {
+            throw new IllegalStateException("Replication leader is closed");
+        }
+        if (server != null) {
+            throw new IllegalStateException("Replication leader was already started");
+        }
+        ServerSocket listening = new ServerSocket();
+        try {
+            listening.bind(address, ACCEPT_BACKLOG);
+        } catch (IOException e) {
+            listening.close();
+            throw e;
+        }
+        this.service = service;
+        this.server = listening;
+        acceptor = new Thread(this::accept, "hotel-replication-leader");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    private void accept() {
+        int connections = 0;
+        while (!closed) {
+            try {
+                FollowerLink follower = new FollowerLink(server.accept());
+                follower.sender = new Thread(follower, "hotel-replication-follower-" + connections++);
+                follower.sender.setDaemon(true);
+                followers.add(follower);
+                if (closed) {
+                    follower.disconnect();
+                }
+                follower.sender.start();
+            } catch (IOException e) {
+                // The server socket was closed, or one connection failed
+            }
+        }
+    }
+
+    private synchronized Service currentService() {
+        return service;
+    }
+
+    @Override
+    public void roomSaved(Room room) {
+        synchronized (appendLock) {
+            RecordCodec.putRoom(record.clear(), room, appendChecksum);
+            append();
+        }
+    }
+
+    @Override
+    public void userSaved(User user, long balanceStamp) {
+        synchronized (appendLock) {
+            RecordCodec.putUser(record.clear(), user, balanceStamp, appendChecksum);
+            append();
+        }
+    }
+
+    @Override
+    public void bookingCommitted(Booking booking, long balanceStamp) {
+        synchronized (appendLock) {
+            RecordCodec.putBooking(record.clear(), booking, balanceStamp, appendChecksum);
+            append();
+        }
+    }
+
+    @Override
+    public void bookingCancelled(Booking booking, long balanceStamp) {
+        synchronized (appendLock) {
+            RecordCodec.putCancellation(record.clear(), booking, balanceStamp, appendChecksum);
+            append();
+        }
+    }
+
+    /**
+     * Must be called while holding appendLock. Copies the encoded record into the log.
+     */
+    private void append() {
+        record.flip();
+        int size = record.remaining();
+        int offset = (int) (appendedPosition % log.length);
+        int untilWrap = Math.min(size, log.length - offset);
+        record.get(log, offset, untilWrap);
+        record.get(log, 0, size - untilWrap);
+        appendedPosition += size;
+        if (waitingSenders > 0) {
+            appendLock.notifyAll();
+        }
+    }
+
+    /**
+     * Copies as many whole records from the position on as fit into the buffer, waiting up to
+     * a heartbeat interval for one to be appended if there is none
+     * @return the position after the copied records, or -1 if the log no longer holds the position
+     */
+    private long read(long from, ByteBuffer into) throws InterruptedException {
+        int start = into.position();
+        synchronized (appendLock) {
+            if (from == appendedPosition && !closed) {
+                waitingSenders++;
+                try {
+                    appendLock.wait(HEARTBEAT_MILLIS);
+                } finally {
+                    waitingSenders--;
+                }
+            }
+            if (from > appendedPosition || from < appendedPosition - log.length) {
+                return -1;
+            }
+            int size = (int) Math.min(appendedPosition - from, into.remaining());
+            int offset = (int) (from % log.length);
+            int untilWrap = Math.min(size, log.length - offset);
+            into.put(log, offset, untilWrap);
+            into.put(log, 0, size - untilWrap);
+        }
+        int end = ReplicationProtocol.wholeRecordsEnd(into, start, into.position());
+        into.position(end);
+        return from + (end - start);
+    }
+
+    /**
+     * @return the port the leader listens on, or -1 if it was not started
+     */
+    public synchronized int getPort() {
+        return server == null ? -1 : server.getLocalPort();
+    }
+
+    /**
+     * @return the end of the replication log: the number of bytes of changes recorded so far
+     */
+    public long getPosition() {
+        synchronized (appendLock) {
+            return appendedPosition;
+        }
+    }
+
+    /**
+     * @return the number of followers connected
+     */
+    public int getFollowerCount() {
+        return followers.size();
+    }
+
+    /**
+     * @return how many bytes of changes the furthest behind follower has yet to acknowledge, 0 without followers
+     */
+    public long getMaxLagBytes() {
+        long position = getPosition();
+        long lag = 0;
+        for (FollowerLink follower : followers) {
+            lag = Math.max(lag, position - follower.acknowledgedPosition);
+        }
+        return lag;
+    }
+
+    /**
+     * @return the number of full copies of the state sent to new or lagging followers
+     */
+    public long getSnapshotCount() {
+        return snapshotsSent.get();
+    }
+
+    /**
+     * Disconnects every follower and stops accepting new ones. Changes reported afterwards
+     * are still recorded but no longer shipped.
+     */
+    @Override
+    public void close() {
+        Thread stopping;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            stopping = acceptor;
+            if (server != null) {
+                try {
+                    server.close();
+                } catch (IOException e) {
+                    // Closed anyway
+                }
+            }
+        }
+        synchronized (appendLock) {
+            appendLock.notifyAll();
+        }
+        try {
+            if (stopping != null) {
+                stopping.join();
+            }
+            for (FollowerLink follower : followers) {
+                follower.disconnect();
+                follower.sender.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.skypay.hotel.persistence;
+
+import com.skypay.hotel.service.MutationListener;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32C;
+
+/**
+ * Wire format of the stream between a {@link ReplicationLeader} and its followers.
+ * <p>
+ * A follower opens the connection with {@code [int magic][int version][long leader ID][long position]},
+ * naming the leader and the position of the last change it applied, or 0 and -1 if it has none,
+ * then acknowledges each change frame it applies with {@code [long position]}. The leader sends
+ * frames {@code [int length][byte kind][payload]}, where the length covers the kind and payload:
+ * <ul>
+ *     <li>{@link #SNAPSHOT_START} {@code [long leader ID][long position]}: a full copy of the state
+ *     follows, after which the changes resume at the position</li>
+ *     <li>{@link #SNAPSHOT_RECORDS} {@code [records]}: part of the state</li>
+ *     <li>{@link #SNAPSHOT_END} {@code [int next booking ID]}</li>
+ *     <li>{@link #CHANGES} {@code [long position][long leader position][long send time][records]}:
+ *     the changes found at the position of the leader's replication log, none for a heartbeat,
+ *     with the end of the log and the leader's clock in milliseconds when the frame was sent</li>
+ * </ul>
+ * Records are journal records (see {@link RecordCodec}), each with its own checksum, and are
+ * never split across frames. Positions count the bytes of records since the leader started.
+ */
+final class ReplicationProtocol {
+    static final int MAGIC = 0x48525050;
+    static final int VERSION = 1;
+
+    static final byte SNAPSHOT_START = 1;
+    static final byte SNAPSHOT_RECORDS = 2;
+    static final byte SNAPSHOT_END = 3;
+    static final byte CHANGES = 4;
+
+    /**
+     * Largest frame length; the buffers of both ends hold the length prefix and one such frame
+     */
+    static final int MAX_FRAME_LENGTH = 1 << 16;
+    static final int CHANGES_HEADER_LENGTH = 1 + 8 + 8 + 8;
+    static final int SNAPSHOT_HEADER_LENGTH = 1;
+
+    /**
+     * Size of the largest record, a booking or cancellation
+     */
+    static final int MAX_RECORD_SIZE = RecordCodec.BOOKING_RECORD_SIZE;
+
+    private ReplicationProtocol() {
+    }
+
+    /**
+     * Finds where the last whole record ends among the records copied into the buffer
+     * @param start the buffer index of the first record
+     * @param end the buffer index after the copied bytes
+     * @return the buffer index after the last record that ends before end
+     */
+    static int wholeRecordsEnd(ByteBuffer buffer, int start, int end) {
+        int position = start;
+        while (end - position >= 4) {
+            int recordEnd = position + 4 + buffer.getInt(position) + 4;
+            if (recordEnd > end) {
+                break;
+            }
+            position = recordEnd;
+        }
+        return position;
+    }
+
+    /**
+     * Checks and reports every record from the buffer's position to its limit to the target
+     * @param position the stream position of the first record, for error messages
+     * @param checksum the checksum to verify records with
+     * @return the position after the last record
+     * @throws IOException if a record is damaged or cut short
+     */
+    static long apply(ByteBuffer buffer, MutationListener target, long position, CRC32C checksum) throws IOException {
+        while (buffer.hasRemaining()) {
+            int size = RecordCodec.validRecordSize(buffer, checksum);
+            if (size < 0) {
+                throw new IOException("Damaged replication record at position " + position);
+            }
+            RecordCodec.apply(buffer, target, position);
+            position += size;
+        }
+        return position;
+    }
+}
@@ -0,0 +1,199 @@
+package com.skypay.hotel.persistence;
+
+import com.skypay.hotel.model.Booking;
+import com.skypay.hotel.model.Room;
+import com.skypay.hotel.model.User;
+import com.skypay.hotel.service.MutationListener;
+import com.skypay.hotel.service.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * Point-in-time image of the full state of a {@link Service}, written and read through
+ * memory-mapped regions of a single file.
+ * <p>
+ * The file holds a header {@code [int magic][int version][int next booking ID][long record count]}
+ * followed by every room, then every user, then every booking, encoded as journal records
+ * (see {@link RecordCodec}). Loading it reports the records to a recovery target exactly as a
+ * journal replay would, so a snapshot and the journal written after it can be applied in turn.
+ */
+public final class Snapshot {
+    private static final int MAGIC = 0x48534E50;
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 4 + 4 + 4 + 8;
+
+    // Size of each mapped region; records never straddle two regions
+    private static final long REGION_SIZE = 1L << 26;
+
+    private Snapshot() {
+    }
+
+    /**
+     * Writes the current state of the service to a new file and syncs it. The service keeps
+     * serving calls meanwhile: see {@link Service#exportState(MutationListener)} for which
+     * concurrent changes are included.
+     * @param path the snapshot file (cannot be null or exist already)
+     * @param service the service to capture (cannot be null)
+     * @return the number of records written
+     * @throws IllegalArgumentException if path or service is null
+     * @throws IOException if the file cannot be written
+     */
+    public static long write(Path path, Service service) throws IOException {
+        if (path == null) {
+            throw new IllegalArgumentException("Snapshot path cannot be null");
+        }
+        if (service == null) {
+            throw new IllegalArgumentException("Service cannot be null");
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedWriter writer = new MappedWriter(channel);
+            try {
+                service.exportState(writer);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            // Read after the export, so it also covers bookings made while it ran
+            int nextBookingId = Booking.getNextBookingId();
+            long end = writer.finish();
+            channel.truncate(end);
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                    .putInt(MAGIC).putInt(FORMAT_VERSION).putInt(nextBookingId).putLong(writer.records)
+                    .flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+            channel.force(true);
+            return writer.records;
+        }
+    }
+
+    /**
+     * Reports every record of a snapshot to the target, then makes sure new bookings receive
+     * IDs after every ID handed out when the snapshot was taken
+     * @param path the snapshot file (cannot be null)
+     * @param target the receiver of the state, typically {@code service.recoveryTarget()} (cannot be null)
+     * @return the number of records loaded
+     * @throws IllegalArgumentException if path or target is null
+     * @throws IOException if the file cannot be read, is not a snapshot or is damaged
+     */
+    public static long load(Path path, MutationListener target) throws IOException {
+        if (path == null) {
+            throw new IllegalArgumentException("Snapshot path cannot be null");
+        }
+        if (target == null) {
+            throw new IllegalArgumentException("Recovery target cannot be null");
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE) {
+                throw new IOException("Not a snapshot file: " + path);
+            }
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+            if (header.getInt() != MAGIC) {
+                throw new IOException("Not a snapshot file: " + path);
+            }
+            int version = header.getInt();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Unsupported snapshot format version " + version + ": " + path);
+            }
+            int nextBookingId = header.getInt();
+            long expectedRecords = header.getLong();
+
+            CRC32C checksum = new CRC32C();
+            long records = 0;
+            long position = HEADER_SIZE;
+            while (position < size) {
+                MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY,
+                        position, Math.min(REGION_SIZE, size - position));
+                int recordSize;
+                while ((recordSize = RecordCodec.validRecordSize(region, checksum)) > 0) {
+                    RecordCodec.apply(region, target, position);
+                    position += recordSize;
+                    records++;
+                }
+                if (recordSize == RecordCodec.CORRUPT || region.position() == 0) {
+                    throw new IOException("Damaged snapshot record at position " + position + ": " + path);
+                }
+            }
+            if (records != expectedRecords) {
+                throw new IOException("Snapshot holds " + records + " records instead of " + expectedRecords + ": " + path);
+            }
+            Booking.advanceNextBookingId(nextBookingId);
+            return records;
+        }
+    }
+
+    /**
+     * Appends exported records to the file through successive mapped regions
+     */
+    private static final class MappedWriter implements MutationListener {
+        private final FileChannel channel;
+        private final CRC32C checksum = new CRC32C();
+        private MappedByteBuffer region;
+        private long regionStart = HEADER_SIZE;
+        private long records;
+
+        MappedWriter(FileChannel channel) throws IOException {
+            this.channel = channel;
+            this.region = channel.map(FileChannel.MapMode.READ_WRITE, regionStart, REGION_SIZE);
+        }
+
+        @Override
+        public void roomSaved(Room room) {
+            RecordCodec.putRoom(reserve(RecordCodec.ROOM_RECORD_SIZE), room, checksum);
+            records++;
+        }
+
+        @Override
+        public void userSaved(User user, long balanceStamp) {
+            RecordCodec.putUser(reserve(RecordCodec.USER_RECORD_SIZE), user, balanceStamp, checksum);
+            records++;
+        }
+
+        @Override
+        public void bookingCommitted(Booking booking, long balanceStamp) {
+            RecordCodec.putBooking(reserve(RecordCodec.BOOKING_RECORD_SIZE), booking, balanceStamp, checksum);
+            records++;
+        }
+
+        @Override
+        public void bookingCancelled(Booking booking, long balanceStamp) {
+            RecordCodec.putCancellation(reserve(RecordCodec.CANCELLATION_RECORD_SIZE), booking, balanceStamp,
+                    checksum);
+            records++;
+        }
+
+        private ByteBuffer reserve(int recordSize) {
+            if (region.remaining() < recordSize) {
+                region.force();
+                regionStart += region.position();
+                try {
+                    region = channel.map(FileChannel.MapMode.READ_WRITE, regionStart, REGION_SIZE);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return region;
+        }
+
+        /**
+         * Syncs the last region
+         * @return the file position after the last record
+         */
+        long finish() {
+            region.force();
+            long end = regionStart + region.position();
+            region = null;
+            return end;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.skypay.hotel.report;
+
+/**
+ * Layout of the rows written by a {@link ReportWriter}.
+ */
+public enum ReportFormat {
+    /**
+     * Aligned, human-readable lines as printed to the console
+     */
+    TEXT,
+    /**
+     * A header line followed by one comma-separated line per row; dates are ISO-8601 and
+     * room types their constant names
+     */
+    CSV,
+    /**
+     * A JSON array with one object per row; dates are ISO-8601 strings and room
+     * types their constant names
+     */
+    JSON
+}
@@ -0,0 +1,47 @@
+package com.skypay.hotel.report;
+
+/**
+ * Outcome of writing one page of a report: how many rows were written and where the next,
+ * older page starts.
+ * <p>
+ * For rooms and users, a cursor is the creation position just past the newest row of a page;
+ * both lists are only ever appended, so it stays valid however many rows are created after it
+ * was returned. For bookings, which compaction and archiving move, a cursor is the lowest booking
+ * ID of the page, and the next page holds the bookings with a lower ID. Either way, rows created
+ * after a cursor was returned only show up again from {@link #NEWEST}.
+ */
+public final class ReportPage {
+    /**
+     * Cursor of the first page, which starts at the newest row
+     */
+    public static final int NEWEST = Integer.MAX_VALUE;
+
+    private final int rowCount;
+    private final int nextCursor;
+
+    ReportPage(int rowCount, int nextCursor) {
+        this.rowCount = rowCount;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * @return the number of rows written
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * @return the cursor of the next, older page; 0 once the oldest row has been written
+     */
+    public int getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * @return true if older rows remain after this page
+     */
+    public boolean hasMore() {
+        return nextCursor > 0;
+    }
+}
@@ -0,0 +1,441 @@
+package com.skypay.hotel.report;
+
+import com.skypay.hotel.model.Booking;
+import com.skypay.hotel.model.Room;
+import com.skypay.hotel.model.User;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Streams rooms, users and bookings to a character sink, newest first, one page at a time.
+ * <p>
+ * The service keeps rooms and users in creation order, so their reports walk the list backwards
+ * from the cursor instead of sorting it. Bookings are paged by booking ID, as compaction and
+ * archiving move them; the service hands over only the candidates of the page. Rows are formatted into a reused buffer by hand, without
+ * formatters or per-row strings, and handed to the sink in blocks of {@value #BLOCK_SIZE}
+ * characters. Nothing reaches the sink before a block fills up or {@link #flush()} is called.
+ * <p>
+ * Each call writes a self-contained page in the writer's {@link ReportFormat}: a header line
+ * for CSV, an array for JSON and bare rows for TEXT, which {@link #line(String)} can frame with
+ * titles. A writer is not thread-safe.
+ */
+public class ReportWriter implements Closeable, Flushable {
+    private static final int BLOCK_SIZE = 8192;
+    private static final String TEXT_INDENT = "                ";
+
+    private final Writer out;
+    private final ReportFormat format;
+    private final String lineSeparator;
+    private final StringBuilder buffer = new StringBuilder(BLOCK_SIZE + 512);
+    private final char[] block = new char[BLOCK_SIZE + 512];
+
+    /**
+     * Creates a report writer
+     * @param out the destination of the report (cannot be null)
+     * @param format the layout of the rows (cannot be null)
+     * @throws IllegalArgumentException if out or format is null
+     */
+    public ReportWriter(Writer out, ReportFormat format) {
+        if (out == null) {
+            throw new IllegalArgumentException("Report output cannot be null");
+        }
+        if (format == null) {
+            throw new IllegalArgumentException("Report format cannot be null");
+        }
+        this.out = out;
+        this.format = format;
+        // Console reports keep the platform line ending, machine formats use a plain newline
+        this.lineSeparator = format == ReportFormat.TEXT ? System.lineSeparator() : "\n";
+    }
+
+    /**
+     * Creates a report writer encoding UTF-8 onto a byte stream
+     * @param out the destination of the report (cannot be null)
+     * @param format the layout of the rows (cannot be null)
+     * @return the report writer; closing it closes the stream
+     * @throws IllegalArgumentException if out or format is null
+     */
+    public static ReportWriter to(OutputStream out, ReportFormat format) {
+        if (out == null) {
+            throw new IllegalArgumentException("Report output cannot be null");
+        }
+        return new ReportWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), format);
+    }
+
+    /**
+     * Creates a report writer encoding UTF-8 onto a channel, such as a {@link java.nio.channels.FileChannel}
+     * @param channel the destination of the report (cannot be null)
+     * @param format the layout of the rows (cannot be null)
+     * @return the report writer; closing it closes the channel
+     * @throws IllegalArgumentException if channel or format is null
+     */
+    public static ReportWriter to(WritableByteChannel channel, ReportFormat format) {
+        if (channel == null) {
+            throw new IllegalArgumentException("Report channel cannot be null");
+        }
+        return new ReportWriter(Channels.newWriter(channel, StandardCharsets.UTF_8), format);
+    }
+
+    /**
+     * @return the layout of the rows
+     */
+    public ReportFormat getFormat() {
+        return format;
+    }
+
+    /**
+     * Writes a line of free text, such as a title around TEXT pages
+     * @param text the line without its line ending (cannot be null)
+     * @return this writer
+     * @throws IllegalArgumentException if text is null
+     * @throws IOException if the sink fails
+     */
+    public ReportWriter line(String text) throws IOException {
+        if (text == null) {
+            throw new IllegalArgumentException("Text cannot be null");
+        }
+        buffer.append(text).append(lineSeparator);
+        drainIfFull();
+        return this;
+    }
+
+    /**
+     * Writes one page of rooms, newest first
+     * @param rooms the rooms in creation order (cannot be null)
+     * @param cursor {@link ReportPage#NEWEST} or the cursor returned for the previous page
+     * @param limit the maximum number of rows (must be positive)
+     * @return the page written
+     * @throws IllegalArgumentException if rooms is null, cursor is negative or limit is not positive
+     * @throws IOException if the sink fails
+     */
+    public ReportPage writeRooms(List<Room> rooms, int cursor, int limit) throws IOException {
+        int start = start(rooms, cursor, limit);
+        int end = Math.max(0, start - limit);
+        header("roomNumber,roomType,pricePerNight,createdAt");
+        for (int i = start - 1; i >= end; i--) {
+            Room room = rooms.get(i);
+            switch (format) {
+                case TEXT -> {
+                    buffer.append("Room ").append(room.getRoomNumber());
+                    padded(" | Type: ", room.getRoomType().toString(), 8);
+                    padded(" | Price/Night: ", room.getPricePerNight(), 6);
+                    buffer.append(" | Created: ");
+                    textDateTime(room.getCreatedAt());
+                }
+                case CSV -> {
+                    buffer.append(room.getRoomNumber()).append(',').append(room.getRoomType().name())
+                            .append(',').append(room.getPricePerNight()).append(',');
+                    isoDateTime(room.getCreatedAt());
+                }
+                case JSON -> {
+                    separator(i == start - 1);
+                    buffer.append("{\"roomNumber\":").append(room.getRoomNumber())
+                            .append(",\"roomType\":\"").append(room.getRoomType().name())
+                            .append("\",\"pricePerNight\":").append(room.getPricePerNight())
+                            .append(",\"createdAt\":\"");
+                    isoDateTime(room.getCreatedAt());
+                    buffer.append("\"}");
+                }
+            }
+            endRow();
+        }
+        footer();
+        return new ReportPage(start - end, end);
+    }
+
+    /**
+     * Writes one page of users, newest first
+     * @param users the users in creation order (cannot be null)
+     * @param cursor {@link ReportPage#NEWEST} or the cursor returned for the previous page
+     * @param limit the maximum number of rows (must be positive)
+     * @return the page written
+     * @throws IllegalArgumentException if users is null, cursor is negative or limit is not positive
+     * @throws IOException if the sink fails
+     */
+    public ReportPage writeUsers(List<User> users, int cursor, int limit) throws IOException {
+        int start = start(users, cursor, limit);
+        int end = Math.max(0, start - limit);
+        header("userId,balance,createdAt");
+        for (int i = start - 1; i >= end; i--) {
+            User user = users.get(i);
+            switch (format) {
+                case TEXT -> {
+                    padded("User ID: ", user.getUserId(), 3);
+                    padded(" | Balance: ", user.getBalance(), 8);
+                    buffer.append(" | Created: ");
+                    textDateTime(user.getCreatedAt());
+                }
+                case CSV -> {
+                    buffer.append(user.getUserId()).append(',').append(user.getBalance()).append(',');
+                    isoDateTime(user.getCreatedAt());
+                }
+                case JSON -> {
+                    separator(i == start - 1);
+                    buffer.append("{\"userId\":").append(user.getUserId())
+                            .append(",\"balance\":").append(user.getBalance())
+                            .append(",\"createdAt\":\"");
+                    isoDateTime(user.getCreatedAt());
+                    buffer.append("\"}");
+                }
+            }
+            endRow();
+        }
+        footer();
+        return new ReportPage(start - end, end);
+    }
+
+    /**
+     * Writes one page of bookings, highest booking ID first. The cursor is a booking ID rather
+     * than a position: the page holds the bookings with an ID below it.
+     * @param bookings the bookings, in any order (cannot be null)
+     * @param cursor {@link ReportPage#NEWEST} or the cursor returned for the previous page
+     * @param limit the maximum number of rows (must be positive)
+     * @return the page written
+     * @throws IllegalArgumentException if bookings is null, cursor is negative or limit is not positive
+     * @throws IOException if the sink fails
+     */
+    public ReportPage writeBookings(List<Booking> bookings, int cursor, int limit) throws IOException {
+        start(bookings, cursor, limit);
+        List<Booking> older = new ArrayList<>();
+        for (Booking booking : bookings) {
+            if (booking.getBookingId() < cursor) {
+                older.add(booking);
+            }
+        }
+        older.sort(Comparator.comparingInt(Booking::getBookingId).reversed());
+        int rows = Math.min(limit, older.size());
+        header("bookingId,userId,roomNumber,checkIn,checkOut,nights,roomType,pricePerNight,totalAmount,"
+                + "userBalance,bookedAt");
+        for (int i = 0; i < rows; i++) {
+            Booking booking = older.get(i);
+            switch (format) {
+                case TEXT -> {
+                    padded("Booking ID: ", booking.getBookingId(), 3);
+                    padded(" | User: ", booking.getUserId(), 3);
+                    padded(" | Room: ", booking.getRoomNumber(), 3);
+                    buffer.append(" | ");
+                    textDate(booking.getCheckInDate());
+                    buffer.append(" to ");
+                    textDate(booking.getCheckOutDate());
+                    buffer.append(" (").append(booking.getNumberOfNights()).append(" nights)").append(lineSeparator);
+                    padded(TEXT_INDENT + "Room Type at Booking: ", booking.getRoomTypeAtBooking().toString(), 8);
+                    padded(" | Price/Night at Booking: ", booking.getRoomPricePerNightAtBooking(), 6);
+                    padded(" | Total: ", booking.getTotalAmount(), 6);
+                    buffer.append(lineSeparator);
+                    padded(TEXT_INDENT + "User Balance at Booking: ", booking.getUserBalanceAtBooking(), 6);
+                    buffer.append(" | Booking Date: ");
+                    textDateTime(booking.getBookingDateTime());
+                    buffer.append(lineSeparator);
+                }
+                case CSV -> {
+                    buffer.append(booking.getBookingId()).append(',').append(booking.getUserId())
+                            .append(',').append(booking.getRoomNumber()).append(',');
+                    isoDate(booking.getCheckInDate());
+                    buffer.append(',');
+                    isoDate(booking.getCheckOutDate());
+                    buffer.append(',').append(booking.getNumberOfNights())
+                            .append(',').append(booking.getRoomTypeAtBooking().name())
+                            .append(',').append(booking.getRoomPricePerNightAtBooking())
+                            .append(',').append(booking.getTotalAmount())
+                            .append(',').append(booking.getUserBalanceAtBooking()).append(',');
+                    isoDateTime(booking.getBookingDateTime());
+                }
+                case JSON -> {
+                    separator(i == 0);
+                    buffer.append("{\"bookingId\":").append(booking.getBookingId())
+                            .append(",\"userId\":").append(booking.getUserId())
+                            .append(",\"roomNumber\":").append(booking.getRoomNumber())
+                            .append(",\"checkIn\":\"");
+                    isoDate(booking.getCheckInDate());
+                    buffer.append("\",\"checkOut\":\"");
+                    isoDate(booking.getCheckOutDate());
+                    buffer.append("\",\"nights\":").append(booking.getNumberOfNights())
+                            .append(",\"roomType\":\"").append(booking.getRoomTypeAtBooking().name())
+                            .append("\",\"pricePerNight\":").append(booking.getRoomPricePerNightAtBooking())
+                            .append(",\"totalAmount\":").append(booking.getTotalAmount())
+                            .append(",\"userBalance\":").append(booking.getUserBalanceAtBooking())
+                            .append(",\"bookedAt\":\"");
+                    isoDateTime(booking.getBookingDateTime());
+                    buffer.append("\"}");
+                }
+            }
+            endRow();
+        }
+        footer();
+        return new ReportPage(rows, rows < older.size() ? older.get(rows - 1).getBookingId() : 0);
+    }
+
+    /**
+     * Hands the buffered rows to the sink and flushes it
+     * @throws IOException if the sink fails
+     */
+    @Override
+    public void flush() throws IOException {
+        drain();
+        out.flush();
+    }
+
+    /**
+     * Flushes the buffered rows and closes the sink
+     * @throws IOException if the sink fails
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            drain();
+        } finally {
+            out.close();
+        }
+    }
+
+    private static int start(List<?> rows, int cursor, int limit) {
+        if (rows == null) {
+            throw new IllegalArgumentException("Rows cannot be null");
+        }
+        if (cursor < 0) {
+            throw new IllegalArgumentException("Cursor cannot be negative");
+        }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        // Rows appended after the first page keep their place above the cursor
+        return Math.min(cursor, rows.size());
+    }
+
+    private void header(String csvHeader) {
+        if (format == ReportFormat.CSV) {
+            buffer.append(csvHeader).append(lineSeparator);
+        } else if (format == ReportFormat.JSON) {
+            buffer.append('[');
+        }
+    }
+
+    private void separator(boolean first) {
+        buffer.append(first ? "" : ",").append(lineSeparator).append("  ");
+    }
+
+    private void endRow() throws IOException {
+        if (format != ReportFormat.JSON) {
+            buffer.append(lineSeparator);
+        }
+        drainIfFull();
+    }
+
+    private void footer() throws IOException {
+        if (format == ReportFormat.JSON) {
+            buffer.append(lineSeparator).append(']').append(lineSeparator);
+        }
+        drainIfFull();
+    }
+
+    private void drainIfFull() throws IOException {
+        if (buffer.length() >= BLOCK_SIZE) {
+            drain();
+        }
+    }
+
+    private void drain() throws IOException {
+        int length = buffer.length();
+        int offset = 0;
+        while (offset < length) {
+            int count = Math.min(block.length, length - offset);
+            buffer.getChars(offset, offset + count, block, 0);
+            out.write(block, 0, count);
+            offset += count;
+        }
+        buffer.setLength(0);
+    }
+
+    /**
+     * Appends a label and a value left-aligned in a field of the given width, like {@code %-<width>s}
+     */
+    private void padded(String label, String value, int width) {
+        buffer.append(label).append(value);
+        pad(width - value.length());
+    }
+
+    private void padded(String label, int value, int width) {
+        buffer.append(label);
+        int before = buffer.length();
+        buffer.append(value);
+        pad(width - (buffer.length() - before));
+    }
+
+    private void pad(int count) {
+        for (int i = 0; i < count; i++) {
+            buffer.append(' ');
+        }
+    }
+
+    /**
+     * dd/MM/yyyy
+     */
+    private void textDate(LocalDate date) {
+        twoDigits(date.getDayOfMonth());
+        buffer.append('/');
+        twoDigits(date.getMonthValue());
+        buffer.append('/');
+        year(date.getYear());
+    }
+
+    /**
+     * dd/MM/yyyy HH:mm:ss
+     */
+    private void textDateTime(LocalDateTime dateTime) {
+        textDate(dateTime.toLocalDate());
+        buffer.append(' ');
+        time(dateTime);
+    }
+
+    /**
+     * yyyy-MM-dd
+     */
+    private void isoDate(LocalDate date) {
+        year(date.getYear());
+        buffer.append('-');
+        twoDigits(date.getMonthValue());
+        buffer.append('-');
+        twoDigits(date.getDayOfMonth());
+    }
+
+    /**
+     * yyyy-MM-ddTHH:mm:ss
+     */
+    private void isoDateTime(LocalDateTime dateTime) {
+        isoDate(dateTime.toLocalDate());
+        buffer.append('T');
+        time(dateTime);
+    }
+
+    private void time(LocalDateTime dateTime) {
+        twoDigits(dateTime.getHour());
+        buffer.append(':');
+        twoDigits(dateTime.getMinute());
+        buffer.append(':');
+        twoDigits(dateTime.getSecond());
+    }
+
+    private void year(int year) {
+        if (year >= 0 && year < 1000) {
+            buffer.append(year < 10 ? "000" : year < 100 ? "00" : "0");
+        }
+        buffer.append(year);
+    }
+
+    private void twoDigits(int value) {
+        buffer.append((char) ('0' + value / 10)).append((char) ('0' + value % 10));
+    }
+}
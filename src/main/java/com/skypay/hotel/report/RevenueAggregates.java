@@ -0,0 +1,290 @@
+package com.skypay.hotel.report;
+
+import com.skypay.hotel.index.AppendOnlyList;
+import com.skypay.hotel.index.IntHashIndex;
+import com.skypay.hotel.model.Booking;
+import com.skypay.hotel.model.EpochDays;
+import com.skypay.hotel.model.RoomType;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Revenue and occupancy figures kept up to date as bookings are committed, so finance queries
+ * answer in constant time instead of walking every booking.
+ * <p>
+ * Each committed booking adds its total amount to its room type (at booking time), its room and
+ * the months its nights fall in; a stay spanning two months is split by nights. Booked nights are
+ * counted per month to give the occupancy rate. {@link #remove(Booking)} reverses a booking.
+ * <p>
+ * Counters are {@link LongAdder}s, so bookings of different rooms update them concurrently
+ * without contending; a query made while bookings are committed may see part of a booking.
+ * {@link #rebuild} recomputes the figures from scratch and {@link #differences} compares two
+ * sets of figures, which together check the maintained values.
+ */
+public class RevenueAggregates {
+    private static final RoomType[] ROOM_TYPES = RoomType.values();
+
+    private final LongAdder totalRevenue = new LongAdder();
+    private final LongAdder bookingCount = new LongAdder();
+    private final LongAdder roomCount = new LongAdder();
+    private final LongAdder[] revenueByType = new LongAdder[ROOM_TYPES.length];
+    private final IntHashIndex<Totals> byRoom = new IntHashIndex<>();
+    private final IntHashIndex<Totals> byMonth = new IntHashIndex<>();
+    private final AppendOnlyList<Totals> rooms = new AppendOnlyList<>();
+    private final AppendOnlyList<Totals> months = new AppendOnlyList<>();
+
+    /**
+     * Revenue, bookings and booked nights of one room or one month
+     */
+    private static final class Totals {
+        final int key;
+        final LongAdder revenue = new LongAdder();
+        final LongAdder bookings = new LongAdder();
+        final LongAdder nights = new LongAdder();
+
+        Totals(int key) {
+            this.key = key;
+        }
+    }
+
+    public RevenueAggregates() {
+        for (int t = 0; t < revenueByType.length; t++) {
+            revenueByType[t] = new LongAdder();
+        }
+    }
+
+    /**
+     * Computes the figures of the given bookings from scratch
+     * @param bookings the committed bookings (cannot be null)
+     * @param roomCount the number of rooms of the hotel
+     * @return the recomputed figures
+     * @throws IllegalArgumentException if bookings is null or roomCount is negative
+     */
+    public static RevenueAggregates rebuild(Iterable<Booking> bookings, int roomCount) {
+        if (bookings == null) {
+            throw new IllegalArgumentException("Bookings cannot be null");
+        }
+        if (roomCount < 0) {
+            throw new IllegalArgumentException("Room count cannot be negative");
+        }
+        RevenueAggregates aggregates = new RevenueAggregates();
+        aggregates.roomCount.add(roomCount);
+        for (Booking booking : bookings) {
+            aggregates.add(booking);
+        }
+        return aggregates;
+    }
+
+    /**
+     * Counts a newly created room towards the occupancy rate
+     */
+    public void roomCreated() {
+        roomCount.increment();
+    }
+
+    /**
+     * Adds a committed booking to the figures
+     * @param booking the committed booking (cannot be null)
+     * @throws IllegalArgumentException if booking is null
+     */
+    public void add(Booking booking) {
+        apply(booking, 1);
+    }
+
+    /**
+     * Takes a booking back out of the figures, for example when it is cancelled
+     * @param booking a booking previously added (cannot be null)
+     * @throws IllegalArgumentException if booking is null
+     */
+    public void remove(Booking booking) {
+        apply(booking, -1);
+    }
+
+    private void apply(Booking booking, int sign) {
+        if (booking == null) {
+            throw new IllegalArgumentException("Booking cannot be null");
+        }
+        long amount = sign * (long) booking.getTotalAmount();
+        totalRevenue.add(amount);
+        bookingCount.add(sign);
+        revenueByType[booking.getRoomTypeAtBooking().ordinal()].add(amount);
+        Totals room = totals(byRoom, rooms, booking.getRoomNumber());
+        room.revenue.add(amount);
+        room.bookings.add(sign);
+        room.nights.add(sign * booking.getNumberOfNights());
+
+        // Split the amount by nights over the months of the stay; the last month takes the rounding
+        int checkOut = booking.getCheckOutDay();
+        long nights = booking.getNumberOfNights();
+        long nightsBefore = 0;
+        long amountBefore = 0;
+        for (int start = booking.getCheckInDay(); start < checkOut; ) {
+            int monthIndex = EpochDays.monthIndexOf(start);
+            int end = Math.min(EpochDays.firstDayOfMonth(monthIndex + 1), checkOut);
+            long monthNights = end - start;
+            nightsBefore += monthNights;
+            long amountUpTo = booking.getTotalAmount() * nightsBefore / nights;
+            // The month index counts from 0, the key from 1
+            Totals month = totals(byMonth, months, monthIndex + 1);
+            month.revenue.add(sign * (amountUpTo - amountBefore));
+            month.bookings.add(sign);
+            month.nights.add(sign * monthNights);
+            amountBefore = amountUpTo;
+            start = end;
+        }
+    }
+
+    private static Totals totals(IntHashIndex<Totals> index, AppendOnlyList<Totals> list, int key) {
+        Totals totals = index.get(key);
+        if (totals == null) {
+            // The index has a single writer; a new room or month is rare
+            synchronized (index) {
+                totals = index.get(key);
+                if (totals == null) {
+                    totals = new Totals(key);
+                    list.add(totals);
+                    index.put(key, totals);
+                }
+            }
+        }
+        return totals;
+    }
+
+    /**
+     * @return the revenue of every booking
+     */
+    public long getTotalRevenue() {
+        return totalRevenue.sum();
+    }
+
+    /**
+     * @return the number of bookings
+     */
+    public long getBookingCount() {
+        return bookingCount.sum();
+    }
+
+    /**
+     * @param roomType the room type at booking time (cannot be null)
+     * @return the revenue of bookings made for rooms of that type
+     * @throws IllegalArgumentException if roomType is null
+     */
+    public long getRevenue(RoomType roomType) {
+        if (roomType == null) {
+            throw new IllegalArgumentException("Room type cannot be null");
+        }
+        return revenueByType[roomType.ordinal()].sum();
+    }
+
+    /**
+     * @param roomNumber the room
+     * @return the revenue of the room's bookings
+     */
+    public long getRoomRevenue(int roomNumber) {
+        Totals totals = byRoom.get(roomNumber);
+        return totals == null ? 0 : totals.revenue.sum();
+    }
+
+    /**
+     * @param month the month (cannot be null)
+     * @return the revenue of the nights spent in that month
+     * @throws IllegalArgumentException if month is null
+     */
+    public long getMonthRevenue(YearMonth month) {
+        Totals totals = monthTotals(month);
+        return totals == null ? 0 : totals.revenue.sum();
+    }
+
+    /**
+     * @param month the month (cannot be null)
+     * @return the number of room-nights booked in that month
+     * @throws IllegalArgumentException if month is null
+     */
+    public long getBookedNights(YearMonth month) {
+        Totals totals = monthTotals(month);
+        return totals == null ? 0 : totals.nights.sum();
+    }
+
+    /**
+     * @param month the month (cannot be null)
+     * @return the share of the hotel's room-nights of that month that are booked, between 0 and 1
+     * @throws IllegalArgumentException if month is null
+     */
+    public double getOccupancyRate(YearMonth month) {
+        long bookedNights = getBookedNights(month);
+        long available = roomCount.sum() * month.lengthOfMonth();
+        return available == 0 ? 0 : (double) bookedNights / available;
+    }
+
+    private Totals monthTotals(YearMonth month) {
+        if (month == null) {
+            throw new IllegalArgumentException("Month cannot be null");
+        }
+        return byMonth.get(monthKey(month));
+    }
+
+    /**
+     * Compares every figure with another set of figures, typically the result of {@link #rebuild}
+     * @param other the figures to compare with (cannot be null)
+     * @return a description of each figure that differs; empty if they all match
+     * @throws IllegalArgumentException if other is null
+     */
+    public List<String> differences(RevenueAggregates other) {
+        if (other == null) {
+            throw new IllegalArgumentException("Aggregates to compare cannot be null");
+        }
+        List<String> differences = new ArrayList<>();
+        compare(differences, "total revenue", getTotalRevenue(), other.getTotalRevenue());
+        compare(differences, "booking count", getBookingCount(), other.getBookingCount());
+        compare(differences, "room count", roomCount.sum(), other.roomCount.sum());
+        for (RoomType type : ROOM_TYPES) {
+            compare(differences, "revenue of " + type, getRevenue(type), other.getRevenue(type));
+        }
+        compareAll(differences, "room", byRoom, rooms, other.byRoom, other.rooms);
+        compareAll(differences, "month", byMonth, months, other.byMonth, other.months);
+        return differences;
+    }
+
+    /**
+     * Compares the totals of every key present on either side; a missing key counts as zero
+     */
+    private static void compareAll(List<String> differences, String kind,
+                                   IntHashIndex<Totals> maintainedIndex, List<Totals> maintainedList,
+                                   IntHashIndex<Totals> expectedIndex, List<Totals> expectedList) {
+        for (Totals maintained : maintainedList) {
+            compare(differences, kind + " " + maintained.key, maintained, expectedIndex.get(maintained.key));
+        }
+        for (Totals expected : expectedList) {
+            if (!maintainedIndex.containsKey(expected.key)) {
+                compare(differences, kind + " " + expected.key, null, expected);
+            }
+        }
+    }
+
+    private static void compare(List<String> differences, String name, Totals maintained, Totals expected) {
+        compare(differences, "revenue of " + name, sum(maintained == null ? null : maintained.revenue),
+                sum(expected == null ? null : expected.revenue));
+        compare(differences, "bookings of " + name, sum(maintained == null ? null : maintained.bookings),
+                sum(expected == null ? null : expected.bookings));
+        compare(differences, "nights of " + name, sum(maintained == null ? null : maintained.nights),
+                sum(expected == null ? null : expected.nights));
+    }
+
+    private static long sum(LongAdder adder) {
+        return adder == null ? 0 : adder.sum();
+    }
+
+    private static void compare(List<String> differences, String figure, long maintained, long expected) {
+        if (maintained != expected) {
+            differences.add(figure + ": " + maintained + " instead of " + expected);
+        }
+    }
+
+    private static int monthKey(YearMonth month) {
+        // Positive for any year from 1 on, as the month index requires
+        return month.getYear() * 12 + month.getMonthValue();
+    }
+}
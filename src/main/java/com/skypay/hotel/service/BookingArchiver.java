@@ -0,0 +1,90 @@
+package com.skypay.hotel.service;
+
+import com.skypay.hotel.index.ColdBookingTier;
+import com.skypay.hotel.log.EventSink;
+import com.skypay.hotel.log.LogLevel;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background task moving the bookings of stays checked out before today from a service's heap
+ * to memory-mapped segment files, see {@link Service#archivePastStays}. It runs once at start,
+ * which archives the history loaded at startup, then at a fixed delay. A failed run is logged
+ * at ERROR to the service's event sink and counted in its metrics' exceptions.
+ * <p>
+ * The segment files are only an extension of the heap and are cleared when an archiver starts
+ * on their directory; the service keeps reading them after the archiver is closed.
+ *
+ * <pre>{@code
+ * try (BookingArchiver archiver = BookingArchiver.start(service, Path.of("cold"), 1, TimeUnit.HOURS)) {
+ *     ...
+ * }
+ * }</pre>
+ */
+public final class BookingArchiver implements AutoCloseable {
+    private final ScheduledExecutorService scheduler;
+
+    private BookingArchiver(ScheduledExecutorService scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Starts archiving the service's past stays on a daemon thread
+     * @param service the service to archive (cannot be null)
+     * @param directory the directory of the segment files (cannot be null)
+     * @param interval the delay between the end of a run and the start of the next one (must be positive)
+     * @param unit the unit of the interval (cannot be null)
+     * @return the running archiver
+     * @throws IllegalArgumentException if service, directory or unit is null or interval is not positive
+     * @throws IOException if the directory cannot be created or cleared
+     */
+    public static BookingArchiver start(Service service, Path directory, long interval, TimeUnit unit)
+            throws IOException {
+        if (service == null) {
+            throw new IllegalArgumentException("Service cannot be null");
+        }
+        if (unit == null) {
+            throw new IllegalArgumentException("Time unit cannot be null");
+        }
+        if (interval <= 0) {
+            throw new IllegalArgumentException("Archive interval must be positive");
+        }
+        ColdBookingTier tier = ColdBookingTier.open(directory);
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "hotel-archiver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                service.archivePastStays(tier, LocalDate.now());
+            } catch (RuntimeException e) {
+                // Keep the schedule alive; past stays only cost heap until the next run
+                service.getMetrics().exceptionThrown(e);
+                EventSink eventSink = service.getEventSink();
+                if (eventSink.isEnabled(LogLevel.ERROR)) {
+                    eventSink.log(LogLevel.ERROR, "Booking archiving failed, retrying at the next run: " + e);
+                }
+            }
+        }, 0, interval, unit);
+        return new BookingArchiver(scheduler);
+    }
+
+    /**
+     * Stops archiving, waiting for a run in progress to finish
+     */
+    @Override
+    public void close() {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.skypay.hotel.service;
+
+import com.skypay.hotel.log.EventSink;
+import com.skypay.hotel.log.LogLevel;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background task removing cancelled bookings from a service's storage at a fixed delay.
+ * Runs with nothing to remove are skipped, and compaction never holds up bookings for longer
+ * than it takes to carry over the bookings made while it copied the live ones. A failed run is
+ * logged at ERROR to the service's event sink and counted in its metrics' exceptions.
+ *
+ * <pre>{@code
+ * try (BookingCompactor compactor = BookingCompactor.start(service, 30, TimeUnit.SECONDS)) {
+ *     ...
+ * }
+ * }</pre>
+ */
+public final class BookingCompactor implements AutoCloseable {
+    private final ScheduledExecutorService scheduler;
+
+    private BookingCompactor(ScheduledExecutorService scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Starts compacting the service's bookings on a daemon thread
+     * @param service the service to compact (cannot be null)
+     * @param interval the delay between the end of a run and the start of the next one (must be positive)
+     * @param unit the unit of the interval (cannot be null)
+     * @return the running compactor
+     * @throws IllegalArgumentException if service or unit is null or interval is not positive
+     */
+    public static BookingCompactor start(Service service, long interval, TimeUnit unit) {
+        if (service == null) {
+            throw new IllegalArgumentException("Service cannot be null");
+        }
+        if (unit == null) {
+            throw new IllegalArgumentException("Time unit cannot be null");
+        }
+        if (interval <= 0) {
+            throw new IllegalArgumentException("Compaction interval must be positive");
+        }
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "hotel-compaction");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                if (service.getCancelledBookingCount() > 0) {
+                    service.compactBookings();
+                }
+            } catch (RuntimeException e) {
+                // Keep the schedule alive; tombstones only cost memory until the next run
+                service.getMetrics().exceptionThrown(e);
+                EventSink eventSink = service.getEventSink();
+                if (eventSink.isEnabled(LogLevel.ERROR)) {
+                    eventSink.log(LogLevel.ERROR, "Booking compaction failed, retrying at the next run: " + e);
+                }
+            }
+        }, interval, interval, unit);
+        return new BookingCompactor(scheduler);
+    }
+
+    /**
+     * Stops compacting, waiting for a run in progress to finish
+     */
+    @Override
+    public void close() {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
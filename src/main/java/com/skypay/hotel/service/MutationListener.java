@@ -0,0 +1,158 @@
+package com.skypay.hotel.service;
+
+import com.skypay.hotel.model.Booking;
+import com.skypay.hotel.model.Room;
+import com.skypay.hotel.model.User;
+
+/**
+ * Receives every state change made by the {@link Service}, for example to persist or replicate it.
+ * <p>
+ * The mutation methods are called while the service still holds the locks of the entity
+ * involved and before the change becomes visible to other callers, so for any one room the
+ * calls arrive in commit order, and a room or user is always reported before the first booking
+ * that refers to it. They must be fast and must not call back into the service; throwing
+ * fails the service call and rolls back a booking being reported. {@link #mutationCompleted()} is called afterwards, on the same thread
+ * and without any lock held, and is where a listener may block, e.g. until the change is durable.
+ */
+public interface MutationListener {
+
+    /**
+     * Listener that ignores every mutation; used when none is configured
+     */
+    MutationListener NONE = new MutationListener() {
+        @Override
+        public void roomSaved(Room room) {
+        }
+
+        @Override
+        public void userSaved(User user, long balanceStamp) {
+        }
+
+        @Override
+        public void bookingCommitted(Booking booking, long balanceStamp) {
+        }
+
+        @Override
+        public void bookingCancelled(Booking booking, long balanceStamp) {
+        }
+    };
+
+    /**
+     * Called when a room is created or its type or price changes
+     * @param room the room in its new state
+     */
+    void roomSaved(Room room);
+
+    /**
+     * Called when a user is created, its balance is set, or a payment is given back
+     * @param user the user
+     * @param balanceStamp the user's balance stamp after the change
+     */
+    void userSaved(User user, long balanceStamp);
+
+    /**
+     * Called when a booking has been paid for and is about to be committed
+     * @param booking the new booking
+     * @param balanceStamp the paying user's balance stamp after the payment
+     */
+    void bookingCommitted(Booking booking, long balanceStamp);
+
+    /**
+     * Called when a booking has been refunded and is about to be cancelled
+     * @param booking the booking being cancelled
+     * @param balanceStamp the user's balance stamp after the refund
+     */
+    void bookingCancelled(Booking booking, long balanceStamp);
+
+    /**
+     * Called once the mutations of a service call have been reported and its locks released
+     */
+    default void mutationCompleted() {
+    }
+
+    /**
+     * Called by a combined listener instead of {@link #mutationCompleted()} when the listener
+     * ahead of this one could not complete the mutations reported by the calling thread, for
+     * example because they could not be made durable; they must then be dropped, not passed on
+     */
+    default void mutationAbandoned() {
+    }
+
+    /**
+     * Returns a listener reporting every mutation to this listener, then to the next one, for
+     * example to a journal, then to a change stream that must only hear of journaled changes.
+     * If this listener throws, the next one is not called. Once this listener has accepted a
+     * mutation, the service call can no longer fail because of it: the next listener must not
+     * throw from its mutation methods, and an exception it throws anyway is dropped rather than
+     * left to fail a call whose change this listener already recorded. If this listener's
+     * {@link #mutationCompleted()} throws, the next listener's {@link #mutationAbandoned()} is
+     * called instead of its own.
+     * @param next the listener called second (cannot be null)
+     * @return the combined listener
+     * @throws IllegalArgumentException if next is null
+     */
+    default MutationListener andThen(MutationListener next) {
+        if (next == null) {
+            throw new IllegalArgumentException("Next listener cannot be null");
+        }
+        MutationListener first = this;
+        return new MutationListener() {
+            @Override
+            public void roomSaved(Room room) {
+                first.roomSaved(room);
+                try {
+                    next.roomSaved(room);
+                } catch (RuntimeException e) {
+                    // The first listener recorded the change, which must now go ahead
+                }
+            }
+
+            @Override
+            public void userSaved(User user, long balanceStamp) {
+                first.userSaved(user, balanceStamp);
+                try {
+                    next.userSaved(user, balanceStamp);
+                } catch (RuntimeException e) {
+                    // The first listener recorded the change, which must now go ahead
+                }
+            }
+
+            @Override
+            public void bookingCommitted(Booking booking, long balanceStamp) {
+                first.bookingCommitted(booking, balanceStamp);
+                try {
+                    next.bookingCommitted(booking, balanceStamp);
+                } catch (RuntimeException e) {
+                    // The first listener recorded the change, which must now go ahead
+                }
+            }
+
+            @Override
+            public void bookingCancelled(Booking booking, long balanceStamp) {
+                first.bookingCancelled(booking, balanceStamp);
+                try {
+                    next.bookingCancelled(booking, balanceStamp);
+                } catch (RuntimeException e) {
+                    // The first listener recorded the change, which must now go ahead
+                }
+            }
+
+            @Override
+            public void mutationCompleted() {
+                try {
+                    first.mutationCompleted();
+                } catch (RuntimeException e) {
+                    next.mutationAbandoned();
+                    throw e;
+                }
+                next.mutationCompleted();
+            }
+
+            @Override
+            public void mutationAbandoned() {
+                first.mutationAbandoned();
+                next.mutationAbandoned();
+            }
+        };
+    }
+}
@@ -0,0 +1,132 @@
+package com.skypay.hotel.service;
+
+import com.skypay.hotel.index.IntHashIndex;
+import com.skypay.hotel.model.Hold;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The live holds of a service, by room and by ID. The holds of a room are changed and checked
+ * under that room's lock, so they need no synchronization of their own; lookups by ID are
+ * lock-free.
+ * <p>
+ * A hold is only taken when no other hold of the room overlaps its stay, so the holds of a room
+ * are disjoint and kept sorted by check-in, and finding the one in the way of a stay is a binary
+ * search, as in {@link com.skypay.hotel.index.SortedStayIndex}.
+ */
+class RoomHolds {
+    private final IntHashIndex<Held> holdsByRoom = new IntHashIndex<>();
+    private final ConcurrentHashMap<Integer, Hold> holdsById = new ConcurrentHashMap<>();
+
+    /**
+     * The holds of one room, sorted by check-in
+     */
+    private static final class Held {
+        Hold[] holds = new Hold[4];
+        int size;
+
+        /**
+         * @return the index of the first hold checking in on or after the day
+         */
+        int firstCheckingInFrom(int day) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (holds[middle].getCheckInDay() < day) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+
+    /**
+     * @param holdId the hold ID
+     * @return the hold with that ID, or null if it was never taken or is no longer live
+     */
+    Hold find(int holdId) {
+        return holdsById.get(holdId);
+    }
+
+    /**
+     * Must be called while holding the room's lock
+     * @param roomNumber the room
+     * @param checkInDay the epoch day of check-in of the stay
+     * @param checkOutDay the epoch day of check-out of the stay
+     * @return a live or expired hold of the room overlapping the stay, or null if none does
+     */
+    Hold findOverlapping(int roomNumber, int checkInDay, int checkOutDay) {
+        Held held = holdsByRoom.get(roomNumber);
+        if (held == null) {
+            return null;
+        }
+        // Only the last hold checking in before checkOutDay can overlap the stay
+        int candidate = held.firstCheckingInFrom(checkOutDay) - 1;
+        if (candidate < 0 || held.holds[candidate].getCheckOutDay() <= checkInDay) {
+            return null;
+        }
+        return held.holds[candidate];
+    }
+
+    /**
+     * Must be called while holding the room's lock, once no hold of the room overlaps the new one
+     * @param hold the hold to add
+     */
+    void add(Hold hold) {
+        Held held = heldOf(hold.getRoomNumber());
+        int position = held.firstCheckingInFrom(hold.getCheckInDay());
+        if (held.size == held.holds.length) {
+            held.holds = Arrays.copyOf(held.holds, held.size << 1);
+        }
+        System.arraycopy(held.holds, position, held.holds, position + 1, held.size - position);
+        held.holds[position] = hold;
+        held.size++;
+        holdsById.put(hold.getHoldId(), hold);
+    }
+
+    /**
+     * Must be called while holding the room's lock
+     * @param hold the hold to remove
+     * @return true if the hold was live, false if it had already been removed
+     */
+    boolean remove(Hold hold) {
+        Held held = holdsByRoom.get(hold.getRoomNumber());
+        if (held == null) {
+            return false;
+        }
+        int position = held.firstCheckingInFrom(hold.getCheckInDay());
+        if (position == held.size || held.holds[position] != hold) {
+            return false;
+        }
+        System.arraycopy(held.holds, position + 1, held.holds, position, held.size - position - 1);
+        held.holds[--held.size] = null;
+        holdsById.remove(hold.getHoldId());
+        return true;
+    }
+
+    /**
+     * @return the number of live holds, including expired ones not yet removed
+     */
+    int size() {
+        return holdsById.size();
+    }
+
+    private Held heldOf(int roomNumber) {
+        Held held = holdsByRoom.get(roomNumber);
+        if (held == null) {
+            // Rooms are held under their own locks; creating a room's array is rare
+            synchronized (holdsByRoom) {
+                held = holdsByRoom.get(roomNumber);
+                if (held == null) {
+                    held = new Held();
+                    holdsByRoom.put(roomNumber, held);
+                }
+            }
+        }
+        return held;
+    }
+}
@@ -1,33 +1,162 @@
 package com.skypay.hotel.service;
 
 import com.skypay.hotel.exception.*;
+import com.skypay.hotel.index.AppendOnlyList;
+import com.skypay.hotel.index.AvailabilityIndex;
+import com.skypay.hotel.index.ColdBookingTier;
+import com.skypay.hotel.index.ColumnarBookingStore;
+import com.skypay.hotel.index.IntHashIndex;
+import com.skypay.hotel.index.OccupancyCalendar;
+import com.skypay.hotel.index.RateCalendar;
+import com.skypay.hotel.index.SortedStayIndex;
+import com.skypay.hotel.index.TimingWheel;
+import com.skypay.hotel.log.EventSink;
+import com.skypay.hotel.log.LogLevel;
+import com.skypay.hotel.metrics.Operation;
+import com.skypay.hotel.metrics.ServiceMetrics;
 import com.skypay.hotel.model.*;
+import com.skypay.hotel.report.ReportFormat;
+import com.skypay.hotel.report.ReportPage;
+import com.skypay.hotel.report.ReportWriter;
+import com.skypay.hotel.report.RevenueAggregates;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Date;
-import java.util.Optional;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Service class that handles hotel reservation operations.
- * Manages rooms, users, and bookings using ArrayLists as specified.
+ * Manages rooms, users, and bookings in creation-ordered, append-only lists; bookings are
+ * kept column by column so years of history stay compact on the heap.
+ * Rooms and users are additionally indexed by their primary key so lookups
+ * stay constant-time while the lists keep creation order for reporting.
+ * <p>
+ * The service is thread-safe. Bookings lock only the stripe of the room involved and pay
+ * with a lock-free atomic debit of the user's balance, so requests for different rooms run
+ * in parallel and an account can never be overdrawn. Creating rooms and users is serialized
+ * per catalog. Cancelling a booking refunds it and frees its nights at once under the same room
+ * lock; the cancelled booking is removed from storage later by {@link #compactBookings()}.
+ * Bookings of past stays can be moved off the heap by {@link #archivePastStays}, after which
+ * stays checking in before the archived period are no longer accepted.
+ * <p>
+ * Every change is reported to a {@link MutationListener}, such as a write-ahead journal, before
+ * it becomes visible; {@link #recoveryTarget()} applies reported changes back when rebuilding state.
+ * The latency of every operation and the outcome of every booking are recorded in
+ * {@link ServiceMetrics}.
+ * <p>
+ * A stay is charged the sum of its nightly rates, taken from the rate calendar of the room or
+ * of its type and defaulting to the room's price, in constant time whatever the stay's length.
+ * <p>
+ * A room can be held for a stay while a payment runs, see {@link #holdRoom}. Held nights count
+ * as booked until the hold is confirmed, released or expires; expiry runs on a hashed timing wheel
+ * advanced by {@link #expireHolds()}, and expired holds standing in the way of a booking are
+ * dropped on the spot, so a hold never outlives its deadline however rarely the wheel turns.
  */
 public class Service {
-    private ArrayList<Room> rooms;
-    private ArrayList<User> users;
-    private ArrayList<Booking> bookings;
+    private static final int LOCK_STRIPES = 1024;
+    // A turn of the hold expiry wheel lasts about seven minutes, longer than a payment takes
+    private static final long HOLD_TICK_MILLIS = 50;
+    private static final int HOLD_WHEEL_TICKS = 8192;
 
+    private AppendOnlyList<Room> rooms;
+    private AppendOnlyList<User> users;
+    private ColumnarBookingStore bookings;
+
+    // Primary-key indexes, always updated together with the lists above
+    private IntHashIndex<Room> roomsByNumber;
+    private IntHashIndex<User> usersById;
+    private AvailabilityIndex availability;
+    private OccupancyCalendar occupancy;
+    private final RevenueAggregates aggregates = new RevenueAggregates();
+    // Nightly rates of rooms that have their own, and of every room type
+    private final IntHashIndex<RateCalendar> ratesByRoom = new IntHashIndex<>();
+    private final RateCalendar[] ratesByType = new RateCalendar[RoomType.values().length];
+    private final RoomHolds holds = new RoomHolds();
+    private final TimingWheel<Hold> holdExpiry =
+            new TimingWheel<>(HOLD_TICK_MILLIS, TimeUnit.MILLISECONDS, HOLD_WHEEL_TICKS, System.nanoTime());
+    // Epoch day before which stays are archived: earlier check-ins are refused, earlier stays kept
+    private volatile int archiveHorizon = Integer.MIN_VALUE;
+
+    private final Object roomCatalogLock = new Object();
+    private final Object userCatalogLock = new Object();
+    private final Object archiveLock = new Object();
+    private final StripedLocks roomLocks = new StripedLocks(LOCK_STRIPES);
+    private final EventSink eventSink;
+    private final MutationListener mutationListener;
+    private final ServiceMetrics metrics;
+
+    // Price of a stay exceeding the largest balance, which no booking can be charged
+    private static final int AMOUNT_TOO_LARGE = -1;
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
 
     /**
-     * Default constructor that initializes empty ArrayLists for rooms, users, and bookings.
+     * Default constructor that initializes empty lists for rooms, users, and bookings.
+     * Operation messages are discarded.
      */
     public Service() {
-        this.rooms = new ArrayList<>();
-        this.users = new ArrayList<>();
-        this.bookings = new ArrayList<>();
+        this(EventSink.DISCARD);
+    }
+
+    /**
+     * Creates an empty service reporting its operations to the given sink.
+     * @param eventSink the destination for operation messages (cannot be null)
+     * @throws IllegalArgumentException if eventSink is null
+     */
+    public Service(EventSink eventSink) {
+        this(eventSink, MutationListener.NONE);
+    }
+
+    /**
+     * Creates an empty service reporting its operations to the given sink and every
+     * state change to the given listener.
+     * @param eventSink the destination for operation messages (cannot be null)
+     * @param mutationListener the receiver of state changes (cannot be null)
+     * @throws IllegalArgumentException if eventSink or mutationListener is null
+     */
+    public Service(EventSink eventSink, MutationListener mutationListener) {
+        this(eventSink, mutationListener, new ServiceMetrics());
+    }
+
+    /**
+     * Creates an empty service reporting its operations to the given sink, every state change
+     * to the given listener and the latency and outcome of its operations to the given metrics.
+     * @param eventSink the destination for operation messages (cannot be null)
+     * @param mutationListener the receiver of state changes (cannot be null)
+     * @param metrics the recorder of latencies and outcomes, or {@link ServiceMetrics#DISABLED} (cannot be null)
+     * @throws IllegalArgumentException if eventSink, mutationListener or metrics is null
+     */
+    public Service(EventSink eventSink, MutationListener mutationListener, ServiceMetrics metrics) {
+        if (eventSink == null) {
+            throw new IllegalArgumentException("Event sink cannot be null");
+        }
+        if (mutationListener == null) {
+            throw new IllegalArgumentException("Mutation listener cannot be null");
+        }
+        if (metrics == null) {
+            throw new IllegalArgumentException("Metrics cannot be null");
+        }
+        this.eventSink = eventSink;
+        this.mutationListener = mutationListener;
+        this.metrics = metrics;
+        this.rooms = new AppendOnlyList<>();
+        this.users = new AppendOnlyList<>();
+        this.bookings = new ColumnarBookingStore();
+        this.roomsByNumber = new IntHashIndex<>();
+        this.usersById = new IntHashIndex<>();
+        this.availability = new SortedStayIndex();
+        this.occupancy = new OccupancyCalendar();
+        for (int type = 0; type < ratesByType.length; type++) {
+            ratesByType[type] = new RateCalendar();
+        }
     }
 
     /**
@@ -41,6 +170,7 @@ public class Service {
      * @throws IllegalArgumentException if any parameter is invalid
      */
     public void setRoom(int roomNumber, RoomType roomType, int roomPricePerNight) {
+        long start = metrics.startTimer();
         try {
             if (roomNumber <= 0) {
                 throw new IllegalArgumentException("Room number must be positive");
@@ -52,27 +182,49 @@ public class Service {
                 throw new IllegalArgumentException("Room price per night must be positive");
             }
 
-            Optional<Room> existingRoom = rooms.stream()
-                    .filter(room -> room.getRoomNumber() == roomNumber)
-                    .findFirst();
+            synchronized (roomCatalogLock) {
+                ReentrantLock roomLock = roomLocks.lockFor(roomNumber);
+                roomLock.lock();
+                try {
+                    Room room = roomsByNumber.get(roomNumber);
 
-            if (existingRoom.isPresent()) {
-                // Update existing room
-                Room room = existingRoom.get();
-                room.setRoomType(roomType);
-                room.setPricePerNight(roomPricePerNight);
-                System.out.println("Updated room " + roomNumber + " - Type: " + roomType +
-                        ", Price: " + roomPricePerNight);
-            } else {
-                // Create new room
-                Room newRoom = new Room(roomNumber, roomType, roomPricePerNight);
-                rooms.add(newRoom);
-                System.out.println("Created new room " + roomNumber + " - Type: " + roomType +
-                        ", Price: " + roomPricePerNight);
+                    if (room != null) {
+                        // Update existing room, reporting the new state before applying it
+                        mutationListener.roomSaved(Room.restore(roomNumber, roomType, roomPricePerNight,
+                                room.getCreatedAt()));
+                        room.setRoomType(roomType);
+                        room.setPricePerNight(roomPricePerNight);
+                        occupancy.setRoom(roomNumber, roomType);
+                        if (eventSink.isEnabled(LogLevel.INFO)) {
+                            eventSink.log(LogLevel.INFO, "Updated room " + roomNumber + " - Type: " + roomType +
+                                    ", Price: " + roomPricePerNight);
+                        }
+                    } else {
+                        // Create new room
+                        Room newRoom = new Room(roomNumber, roomType, roomPricePerNight);
+                        mutationListener.roomSaved(newRoom);
+                        occupancy.setRoom(roomNumber, roomType);
+                        rooms.add(newRoom);
+                        roomsByNumber.put(roomNumber, newRoom);
+                        aggregates.roomCreated();
+                        if (eventSink.isEnabled(LogLevel.INFO)) {
+                            eventSink.log(LogLevel.INFO, "Created new room " + roomNumber + " - Type: " + roomType +
+                                    ", Price: " + roomPricePerNight);
+                        }
+                    }
+                } finally {
+                    roomLock.unlock();
+                }
             }
+            mutationListener.mutationCompleted();
         } catch (Exception e) {
-            System.err.println("Error setting room: " + e.getMessage());
+            metrics.exceptionThrown(e);
+            if (eventSink.isEnabled(LogLevel.ERROR)) {
+                eventSink.log(LogLevel.ERROR, "Error setting room: " + e.getMessage());
+            }
             throw e;
+        } finally {
+            metrics.record(Operation.SET_ROOM, start);
         }
     }
 
@@ -84,6 +236,7 @@ public class Service {
      * @throws IllegalArgumentException if userId is not positive or balance is negative
      */
     public void setUser(int userId, int balance) {
+        long start = metrics.startTimer();
         try {
             if (userId <= 0) {
                 throw new IllegalArgumentException("User ID must be positive");
@@ -92,30 +245,117 @@ public class Service {
                 throw new IllegalArgumentException("User balance cannot be negative");
             }
 
-            Optional<User> existingUser = users.stream()
-                    .filter(user -> user.getUserId() == userId)
-                    .findFirst();
+            synchronized (userCatalogLock) {
+                User user = usersById.get(userId);
 
-            if (existingUser.isPresent()) {
-                // Update existing user balance
-                User user = existingUser.get();
-                user.setBalance(balance);
-                System.out.println("Updated user " + userId + " balance to: " + balance);
-            } else {
-                // Create new user
-                User newUser = new User(userId, balance);
-                users.add(newUser);
-                System.out.println("Created new user " + userId + " with balance: " + balance);
+                if (user != null) {
+                    // Update existing user balance, reporting the new stamp before applying it
+                    long updated = user.beginBalanceChange(balance);
+                    try {
+                        mutationListener.userSaved(user, updated);
+                    } catch (RuntimeException e) {
+                        user.abortBalanceChange();
+                        throw e;
+                    }
+                    user.completeBalanceChange(updated);
+                    if (eventSink.isEnabled(LogLevel.INFO)) {
+                        eventSink.log(LogLevel.INFO, "Updated user " + userId + " balance to: " + balance);
+                    }
+                } else {
+                    // Create new user
+                    addUser(new User(userId, balance));
+                }
+            }
+            mutationListener.mutationCompleted();
+        } catch (Exception e) {
+            metrics.exceptionThrown(e);
+            if (eventSink.isEnabled(LogLevel.ERROR)) {
+                eventSink.log(LogLevel.ERROR, "Error setting user: " + e.getMessage());
+            }
+            throw e;
+        } finally {
+            metrics.record(Operation.SET_USER, start);
+        }
+    }
+
+    /**
+     * Makes an account shared with other services bookable here, so they all debit the same
+     * balance; used by {@link ShardedService} to register each user in every shard. The account
+     * is only indexed by ID: its owner lists and reports it, so {@link #getUsers()} leaves it out.
+     * Later updates go through {@link #setUser} as usual.
+     *
+     * @param account the account to register (cannot be null)
+     * @throws IllegalArgumentException if account is null or a user with the same ID exists
+     */
+    void registerUser(User account) {
+        long start = metrics.startTimer();
+        try {
+            if (account == null) {
+                throw new IllegalArgumentException("User cannot be null");
+            }
+
+            synchronized (userCatalogLock) {
+                if (usersById.containsKey(account.getUserId())) {
+                    throw new IllegalArgumentException("User " + account.getUserId() + " already exists");
+                }
+                usersById.put(account.getUserId(), account);
+            }
+            if (eventSink.isEnabled(LogLevel.INFO)) {
+                eventSink.log(LogLevel.INFO, "Registered user " + account.getUserId() + " with balance: " +
+                        account.getBalance());
             }
         } catch (Exception e) {
-            System.err.println("Error setting user: " + e.getMessage());
+            metrics.exceptionThrown(e);
+            if (eventSink.isEnabled(LogLevel.ERROR)) {
+                eventSink.log(LogLevel.ERROR, "Error setting user: " + e.getMessage());
+            }
             throw e;
+        } finally {
+            metrics.record(Operation.SET_USER, start);
+        }
+    }
+
+    /**
+     * Undoes {@link #registerUser}, for a registration that failed in another service
+     *
+     * @param account the registered account (cannot be null)
+     * @return true if the account was registered here
+     * @throws IllegalArgumentException if account is null
+     */
+    boolean unregisterUser(User account) {
+        if (account == null) {
+            throw new IllegalArgumentException("User cannot be null");
+        }
+        synchronized (userCatalogLock) {
+            if (usersById.get(account.getUserId()) != account) {
+                return false;
+            }
+            usersById.remove(account.getUserId());
+        }
+        if (eventSink.isEnabled(LogLevel.INFO)) {
+            eventSink.log(LogLevel.INFO, "Unregistered user " + account.getUserId());
+        }
+        return true;
+    }
+
+    /**
+     * Reports and publishes a new user; the caller holds the user catalog lock
+     */
+    private void addUser(User user) {
+        mutationListener.userSaved(user, user.getBalanceStamp());
+        users.add(user);
+        usersById.put(user.getUserId(), user);
+        if (eventSink.isEnabled(LogLevel.INFO)) {
+            eventSink.log(LogLevel.INFO, "Created new user " + user.getUserId() + " with balance: " + user.getBalance());
         }
     }
 
     /**
      * Books a room for a user for the specified period.
      * Validates user balance, room availability, and date constraints.
+     * Rejections are thrown as exceptions without a stack trace, since they are
+     * routine outcomes rather than programming errors; use {@link #tryBookRoom}
+     * to receive them as a {@link BookingResult} instead.
      * 
      * @param userId the ID of the user making the booking
      * @param roomNumber the number of the room to be booked
@@ -128,167 +368,1374 @@ public class Service {
      * @throws InsufficientBalanceException if the user doesn't have enough balance
      */
     public void bookRoom(int userId, int roomNumber, Date checkIn, Date checkOut) {
+        BookingResult result;
+        try {
+            result = tryBookRoom(userId, roomNumber, checkIn, checkOut);
+        } catch (Exception e) {
+            throw unexpectedBookingFailure(e);
+        }
+        throwIfRejected(result);
+    }
+
+    /**
+     * Books a room for a stay given as dates, without going through {@link Date}, see
+     * {@link #bookRoom(int, int, Date, Date)}
+     */
+    public void bookRoom(int userId, int roomNumber, LocalDate checkIn, LocalDate checkOut) {
+        BookingResult result;
         try {
-            // Convert Date objects to LocalDate (considering only year, month, day)
-            LocalDate checkInDate = convertToLocalDate(checkIn);
-            LocalDate checkOutDate = convertToLocalDate(checkOut);
-
-            // Validate booking dates
-            if (checkInDate.isAfter(checkOutDate) || checkInDate.isEqual(checkOutDate)) {
-                throw new InvalidBookingDateException(
-                        "Check-in date (" + checkInDate.format(DATE_FORMATTER) +
-                                ") must be before check-out date (" + checkOutDate.format(DATE_FORMATTER) + ")");
-            }
-
-            // Find and validate user existence
-            User user = users.stream()
-                    .filter(u -> u.getUserId() == userId)
-                    .findFirst()
-                    .orElseThrow(() -> new UserNotFoundException("User with ID " + userId + " not found"));
-
-            // Find and validate room existence
-            Room room = rooms.stream()
-                    .filter(r -> r.getRoomNumber() == roomNumber)
-                    .findFirst()
-                    .orElseThrow(() -> new RoomNotFoundException("Room with number " + roomNumber + " not found"));
-
-            // Verify room availability for the specified period
-            boolean isRoomAvailable = bookings.stream()
-                    .filter(booking -> booking.getRoomNumber() == roomNumber)
-                    .noneMatch(booking -> booking.overlaps(checkInDate, checkOutDate));
-
-            if (!isRoomAvailable) {
-                throw new RoomNotAvailableException(
-                        "Room " + roomNumber + " is not available from " +
-                                checkInDate.format(DATE_FORMATTER) + " to " + checkOutDate.format(DATE_FORMATTER));
-            }
-
-            // Calculate total booking cost
-            long nights = java.time.temporal.ChronoUnit.DAYS.between(checkInDate, checkOutDate);
-            int totalCost = (int) (nights * room.getPricePerNight());
-
-            // Verify user has sufficient balance
-            if (!user.hasSufficientBalance(totalCost)) {
-                throw new InsufficientBalanceException(
-                        "User " + userId + " has insufficient balance. Required: " + totalCost +
-                                ", Available: " + user.getBalance());
-            }
-
-            // Create booking and process payment
-            Booking booking = new Booking(user, room, checkInDate, checkOutDate);
-            user.deductBalance(totalCost);
+            result = tryBookRoom(userId, roomNumber, checkIn, checkOut);
+        } catch (Exception e) {
+            throw unexpectedBookingFailure(e);
+        }
+        throwIfRejected(result);
+    }
+
+    /**
+     * Books a room for a stay given in {@link EpochDays epoch days}, the cheapest form to book
+     * with, see {@link #bookRoom(int, int, Date, Date)}
+     */
+    public void bookRoom(int userId, int roomNumber, int checkInDay, int checkOutDay) {
+        BookingResult result;
+        try {
+            result = tryBookRoom(userId, roomNumber, checkInDay, checkOutDay);
+        } catch (Exception e) {
+            throw unexpectedBookingFailure(e);
+        }
+        throwIfRejected(result);
+    }
+
+    private RuntimeException unexpectedBookingFailure(Exception e) {
+        if (eventSink.isEnabled(LogLevel.ERROR)) {
+            eventSink.log(LogLevel.ERROR, "Unexpected error during booking: " + e.getMessage());
+        }
+        // Already counted by tryBookRoom
+        return new RuntimeException("Booking failed due to unexpected error", e);
+    }
+
+    private void throwIfRejected(BookingResult result) {
+        if (!result.isSuccess()) {
+            RuntimeException rejection = toException(result);
+            metrics.exceptionThrown(rejection);
+            throw rejection;
+        }
+    }
+
+    /**
+     * Books a room for a user for the specified period, reporting rejections as a result
+     * instead of an exception. This is the fast path for callers expecting rejections.
+     *
+     * @param userId the ID of the user making the booking
+     * @param roomNumber the number of the room to be booked
+     * @param checkIn the check-in date
+     * @param checkOut the check-out date
+     * @return the committed booking, or the reason the booking was rejected
+     * @throws IllegalArgumentException if a date is null
+     */
+    public BookingResult tryBookRoom(int userId, int roomNumber, Date checkIn, Date checkOut) {
+        long start = metrics.startTimer();
+        try {
+            return bookAndReport(userId, roomNumber, toEpochDay(checkIn), toEpochDay(checkOut));
+        } catch (RuntimeException e) {
+            metrics.exceptionThrown(e);
+            throw e;
+        } finally {
+            metrics.record(Operation.BOOK_ROOM, start);
+        }
+    }
+
+    /**
+     * Books a room for a stay given as dates, reporting rejections as a result, see
+     * {@link #tryBookRoom(int, int, Date, Date)}
+     * @throws IllegalArgumentException if a date is null
+     */
+    public BookingResult tryBookRoom(int userId, int roomNumber, LocalDate checkIn, LocalDate checkOut) {
+        long start = metrics.startTimer();
+        try {
+            return bookAndReport(userId, roomNumber, EpochDays.of(checkIn), EpochDays.of(checkOut));
+        } catch (RuntimeException e) {
+            metrics.exceptionThrown(e);
+            throw e;
+        } finally {
+            metrics.record(Operation.BOOK_ROOM, start);
+        }
+    }
+
+    /**
+     * Books a room for a stay given in {@link EpochDays epoch days}, reporting rejections as a
+     * result. Nothing is converted and no date object is created on the way, see
+     * {@link #tryBookRoom(int, int, Date, Date)}
+     */
+    public BookingResult tryBookRoom(int userId, int roomNumber, int checkInDay, int checkOutDay) {
+        long start = metrics.startTimer();
+        try {
+            return bookAndReport(userId, roomNumber, checkInDay, checkOutDay);
+        } catch (RuntimeException e) {
+            metrics.exceptionThrown(e);
+            throw e;
+        } finally {
+            metrics.record(Operation.BOOK_ROOM, start);
+        }
+    }
+
+    private BookingResult bookAndReport(int userId, int roomNumber, int checkInDay, int checkOutDay) {
+        BookingResult result = book(userId, roomNumber, checkInDay, checkOutDay);
+        countOutcome(result);
+        if (result.isSuccess()) {
+            mutationListener.mutationCompleted();
+            if (eventSink.isEnabled(LogLevel.INFO)) {
+                Booking booking = result.getBooking();
+                eventSink.log(LogLevel.INFO, "Successfully booked Room " + roomNumber + " for User " + userId +
+                        " from " + booking.getCheckInDate().format(DATE_FORMATTER) +
+                        " to " + booking.getCheckOutDate().format(DATE_FORMATTER) +
+                        " (" + booking.getNumberOfNights() + " nights) - Total: " + booking.getTotalAmount());
+            }
+        } else if (eventSink.isEnabled(LogLevel.WARN)) {
+            eventSink.log(LogLevel.WARN, "Booking failed: " + describeRejection(result));
+        }
+        return result;
+    }
+
+    private BookingResult book(int userId, int roomNumber, int checkInDay, int checkOutDay) {
+        // Validate booking dates
+        if (checkInDay >= checkOutDay) {
+            return BookingResult.rejected(BookingStatus.INVALID_DATES, userId, roomNumber, checkInDay, checkOutDay, 0, 0);
+        }
+
+        // Find and validate user existence
+        User user = usersById.get(userId);
+        if (user == null) {
+            return BookingResult.rejected(BookingStatus.USER_NOT_FOUND, userId, roomNumber, checkInDay, checkOutDay, 0, 0);
+        }
+
+        // Find and validate room existence
+        Room room = roomsByNumber.get(roomNumber);
+        if (room == null) {
+            return BookingResult.rejected(BookingStatus.ROOM_NOT_FOUND, userId, roomNumber, checkInDay, checkOutDay, 0, 0);
+        }
+
+        // Only the room is locked: the balance is checked and debited in one atomic step
+        ReentrantLock roomLock = roomLocks.lockFor(roomNumber);
+        roomLock.lock();
+        try {
+            // Verify room availability for the specified period; archived stays are no longer indexed
+            if (checkInDay < archiveHorizon || !availability.isAvailable(roomNumber, checkInDay, checkOutDay)
+                    || isHeld(roomNumber, checkInDay, checkOutDay)) {
+                return BookingResult.rejected(BookingStatus.ROOM_NOT_AVAILABLE,
+                        userId, roomNumber, checkInDay, checkOutDay, 0, 0);
+            }
+
+            // Calculate total booking cost from the nightly rates
+            int totalCost = totalCost(ratesFor(room), room, checkInDay, checkOutDay);
+            if (totalCost == AMOUNT_TOO_LARGE) {
+                return BookingResult.rejected(BookingStatus.AMOUNT_TOO_LARGE,
+                        userId, roomNumber, checkInDay, checkOutDay, 0, user.getBalance());
+            }
+
+            // Verify user has sufficient balance and process payment
+            int balanceBeforePayment = user.tryDeductBalance(totalCost);
+            if (balanceBeforePayment == User.INSUFFICIENT_BALANCE) {
+                return BookingResult.rejected(BookingStatus.INSUFFICIENT_BALANCE,
+                        userId, roomNumber, checkInDay, checkOutDay, totalCost, user.getBalance());
+            }
+
+            // Create booking
+            Booking booking = new Booking(user, room, checkInDay, checkOutDay, totalCost, balanceBeforePayment);
+            try {
+                mutationListener.bookingCommitted(booking, user.getBalanceStamp());
+            } catch (RuntimeException e) {
+                user.refundBalance(totalCost);
+                throw e;
+            }
             bookings.add(booking);
+            recordStay(booking);
+            return BookingResult.success(booking);
+        } finally {
+            roomLock.unlock();
+        }
+    }
+
+    /**
+     * Books many rooms in one pass, as sent by group and tour-operator imports.
+     * Requests are grouped by room and sorted by check-in date, so conflicts inside the
+     * batch and with existing bookings are found in a single sweep per room while the
+     * rooms' locks are held, and all accepted bookings are committed together.
+     *
+     * @param requests the booking requests (cannot be null or contain null)
+     * @param mode whether the batch is committed all-or-nothing or best-effort (cannot be null)
+     * @return one result per request, in request order
+     * @throws IllegalArgumentException if requests or mode is null, or if a request is null
+     */
+    public List<BookingResult> bookRooms(List<BookingRequest> requests, BatchMode mode) {
+        long start = metrics.startTimer();
+        try {
+            return bookBatch(requests, mode);
+        } catch (RuntimeException e) {
+            metrics.exceptionThrown(e);
+            throw e;
+        } finally {
+            metrics.record(Operation.BOOK_ROOMS, start);
+        }
+    }
+
+    private List<BookingResult> bookBatch(List<BookingRequest> requests, BatchMode mode) {
+        if (requests == null) {
+            throw new IllegalArgumentException("Booking requests cannot be null");
+        }
+        if (mode == null) {
+            throw new IllegalArgumentException("Batch mode cannot be null");
+        }
+        int count = requests.size();
+        BookingResult[] results = new BookingResult[count];
+        User[] requestUsers = new User[count];
+        Room[] requestRooms = new Room[count];
+        int[] pending = new int[count];
+        int pendingCount = 0;
+
+        // Reject requests that can never succeed before taking any lock
+        boolean anyRejected = false;
+        for (int i = 0; i < count; i++) {
+            BookingRequest request = requests.get(i);
+            if (request == null) {
+                throw new IllegalArgumentException("Booking request cannot be null");
+            }
+            BookingStatus status = null;
+            if (!request.getCheckInDate().isBefore(request.getCheckOutDate())) {
+                status = BookingStatus.INVALID_DATES;
+            } else if ((requestUsers[i] = usersById.get(request.getUserId())) == null) {
+                status = BookingStatus.USER_NOT_FOUND;
+            } else if ((requestRooms[i] = roomsByNumber.get(request.getRoomNumber())) == null) {
+                status = BookingStatus.ROOM_NOT_FOUND;
+            }
+            if (status != null) {
+                results[i] = rejected(status, request);
+                anyRejected = true;
+            } else {
+                pending[pendingCount++] = i;
+            }
+        }
+
+        if (!(anyRejected && mode == BatchMode.ALL_OR_NOTHING)) {
+            try {
+                sweepAndCommit(requests, Arrays.copyOf(pending, pendingCount), requestUsers, requestRooms, results, mode);
+            } catch (RuntimeException e) {
+                mutationListener.mutationAbandoned();
+                throw e;
+            }
+            mutationListener.mutationCompleted();
+        }
+
+        int committed = 0;
+        for (int i = 0; i < count; i++) {
+            if (results[i] == null) {
+                results[i] = rejected(BookingStatus.BATCH_ABORTED, requests.get(i));
+            } else if (results[i].isSuccess()) {
+                committed++;
+            }
+            countOutcome(results[i]);
+        }
+        if (eventSink.isEnabled(LogLevel.INFO)) {
+            eventSink.log(LogLevel.INFO, "Batch booked " + committed + " of " + count + " requests (" + mode + ")");
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Checks and pays for the pending requests of a batch room by room, then commits the accepted ones.
+     * Leaves the result of requests that were neither accepted nor rejected unset.
+     */
+    private void sweepAndCommit(List<BookingRequest> requests, int[] pending,
+                                User[] requestUsers, Room[] requestRooms,
+                                BookingResult[] results, BatchMode mode) {
+        sortByRoomAndCheckIn(requests, pending);
+
+        // Lock every room of the batch in ascending stripe order
+        boolean[] stripeNeeded = new boolean[LOCK_STRIPES];
+        int stripeCount = 0;
+        for (int i : pending) {
+            int stripe = roomLocks.stripeFor(requests.get(i).getRoomNumber());
+            if (!stripeNeeded[stripe]) {
+                stripeNeeded[stripe] = true;
+                stripeCount++;
+            }
+        }
+        int[] stripes = new int[stripeCount];
+        for (int stripe = 0, next = 0; stripe < LOCK_STRIPES; stripe++) {
+            if (stripeNeeded[stripe]) {
+                stripes[next++] = stripe;
+            }
+        }
+        for (int stripe : stripes) {
+            roomLocks.lockAt(stripe).lock();
+        }
+        try {
+            int[] costs = new int[requests.size()];
+            int[] balancesBeforePayment = new int[requests.size()];
+            int[] accepted = new int[pending.length];
+            int acceptedCount = 0;
+            boolean aborted = false;
+
+            int currentRoom = 0;
+            LocalDate lastAcceptedCheckOut = null;
+            for (int i : pending) {
+                BookingRequest request = requests.get(i);
+                if (request.getRoomNumber() != currentRoom) {
+                    currentRoom = request.getRoomNumber();
+                    lastAcceptedCheckOut = null;
+                }
+
+                // Accepted stays of a room are sorted and disjoint: only the last one can overlap
+                if ((lastAcceptedCheckOut != null && request.getCheckInDate().isBefore(lastAcceptedCheckOut))
+                        || EpochDays.of(request.getCheckInDate()) < archiveHorizon
+                        || !availability.isAvailable(currentRoom, request.getCheckInDate(), request.getCheckOutDate())
+                        || isHeld(currentRoom, EpochDays.of(request.getCheckInDate()), EpochDays.of(request.getCheckOutDate()))) {
+                    results[i] = rejected(BookingStatus.ROOM_NOT_AVAILABLE, request);
+                } else {
+                    int totalCost = totalCost(ratesFor(requestRooms[i]), requestRooms[i],
+                            EpochDays.of(request.getCheckInDate()), EpochDays.of(request.getCheckOutDate()));
+                    int balanceBeforePayment;
+                    if (totalCost == AMOUNT_TOO_LARGE) {
+                        results[i] = rejected(BookingStatus.AMOUNT_TOO_LARGE, request);
+                    } else if ((balanceBeforePayment = requestUsers[i].tryDeductBalance(totalCost))
+                            == User.INSUFFICIENT_BALANCE) {
+                        results[i] = BookingResult.rejected(BookingStatus.INSUFFICIENT_BALANCE,
+                                request.getUserId(), currentRoom, request.getCheckInDate(), request.getCheckOutDate(),
+                                totalCost, requestUsers[i].getBalance());
+                    } else {
+                        costs[i] = totalCost;
+                        balancesBeforePayment[i] = balanceBeforePayment;
+                        accepted[acceptedCount++] = i;
+                        lastAcceptedCheckOut = request.getCheckOutDate();
+                    }
+                }
+
+                if (results[i] != null && mode == BatchMode.ALL_OR_NOTHING) {
+                    aborted = true;
+                    break;
+                }
+            }
+
+            if (aborted) {
+                // Balances seen by concurrent bookings may include these debits, so report the refunds
+                for (int a = 0; a < acceptedCount; a++) {
+                    User user = requestUsers[accepted[a]];
+                    user.refundBalance(costs[accepted[a]]);
+                    mutationListener.userSaved(user, user.getBalanceStamp());
+                }
+                return;
+            }
+
+            // Commit in request order so booking IDs follow the order of the import
+            Arrays.sort(accepted, 0, acceptedCount);
+            Booking[] committed = new Booking[acceptedCount];
+            int reported = 0;
+            try {
+                for (int a = 0; a < acceptedCount; a++) {
+                    int i = accepted[a];
+                    BookingRequest request = requests.get(i);
+                    committed[a] = new Booking(requestUsers[i], requestRooms[i],
+                            EpochDays.of(request.getCheckInDate()), EpochDays.of(request.getCheckOutDate()),
+                            costs[i], balancesBeforePayment[i]);
+                    mutationListener.bookingCommitted(committed[a], requestUsers[i].getBalanceStamp());
+                    reported++;
+                }
+            } catch (RuntimeException e) {
+                rollBackCommits(committed, reported, accepted, acceptedCount, requestUsers, costs, e);
+                throw e;
+            }
+            for (int a = 0; a < acceptedCount; a++) {
+                recordStay(committed[a]);
+                results[accepted[a]] = BookingResult.success(committed[a]);
+            }
+            bookings.addAll(Arrays.asList(committed));
+        } finally {
+            for (int s = stripes.length - 1; s >= 0; s--) {
+                roomLocks.lockAt(stripes[s]).unlock();
+            }
+        }
+    }
 
-            System.out.println("Successfully booked Room " + roomNumber + " for User " + userId +
-                    " from " + checkInDate.format(DATE_FORMATTER) + " to " + checkOutDate.format(DATE_FORMATTER) +
-                    " (" + nights + " nights) - Total: " + totalCost);
+    /**
+     * Undoes a batch whose commit failed after {@code reported} bookings were reported: those
+     * are cancelled, so a journal replays them as cancelled, and the debits of the others are
+     * refunded and reported. Failures to report are added to the commit failure.
+     */
+    private void rollBackCommits(Booking[] committed, int reported, int[] accepted, int acceptedCount,
+                                 User[] requestUsers, int[] costs, RuntimeException failure) {
+        for (int a = 0; a < acceptedCount; a++) {
+            User user = requestUsers[accepted[a]];
+            long refunded = user.beginRefund(costs[accepted[a]]);
+            try {
+                if (a < reported) {
+                    mutationListener.bookingCancelled(committed[a], refunded);
+                } else {
+                    mutationListener.userSaved(user, refunded);
+                }
+            } catch (RuntimeException e) {
+                failure.addSuppressed(e);
+            } finally {
+                user.completeBalanceChange(refunded);
+            }
+        }
+    }
 
-        } catch (InvalidBookingDateException | UserNotFoundException |
-                 RoomNotFoundException | RoomNotAvailableException |
-                 InsufficientBalanceException e) {
-            System.err.println("Booking failed: " + e.getMessage());
+    /**
+     * Orders request indexes by room number, then check-in date, using two primitive sorts
+     * of packed keys instead of a boxed comparator
+     */
+    private static void sortByRoomAndCheckIn(List<BookingRequest> requests, int[] indexes) {
+        long firstDay = Long.MAX_VALUE;
+        for (int i : indexes) {
+            firstDay = Math.min(firstDay, requests.get(i).getCheckInDate().toEpochDay());
+        }
+        long[] keys = new long[indexes.length];
+        for (int k = 0; k < indexes.length; k++) {
+            int day = Math.toIntExact(requests.get(indexes[k]).getCheckInDate().toEpochDay() - firstDay);
+            keys[k] = ((long) day << 32) | indexes[k];
+        }
+        Arrays.sort(keys);
+        int[] byCheckIn = new int[indexes.length];
+        for (int rank = 0; rank < keys.length; rank++) {
+            byCheckIn[rank] = (int) keys[rank];
+            keys[rank] = ((long) requests.get(byCheckIn[rank]).getRoomNumber() << 32) | rank;
+        }
+        Arrays.sort(keys);
+        for (int k = 0; k < keys.length; k++) {
+            indexes[k] = byCheckIn[(int) keys[k]];
+        }
+    }
+
+    /**
+     * Must be called while holding the room's lock. Makes a committed stay count in availability
+     * checks, free-room queries and revenue figures.
+     */
+    private void recordStay(Booking booking) {
+        availability.add(booking);
+        occupancy.occupy(booking.getRoomNumber(), booking.getCheckInDay(), booking.getCheckOutDay());
+        aggregates.add(booking);
+    }
+
+    /**
+     * Must be called while holding the room's lock. Undoes {@link #recordStay} for a cancelled booking.
+     */
+    private void releaseStay(Booking booking) {
+        availability.remove(booking);
+        occupancy.release(booking.getRoomNumber(), booking.getCheckInDay(), booking.getCheckOutDay());
+        aggregates.remove(booking);
+    }
+
+    /**
+     * Cancels a booking: its total amount is given back to the user atomically and the room's
+     * nights are free for new bookings as soon as the call returns. The booking is found by ID
+     * in constant time and kept as a tombstone until {@link #compactBookings()} removes it.
+     *
+     * @param bookingId the ID of the booking to cancel
+     * @return the cancelled booking
+     * @throws BookingNotFoundException if no booking with that ID exists or it is already cancelled
+     */
+    public Booking cancelBooking(int bookingId) {
+        long start = metrics.startTimer();
+        try {
+            return cancel(bookingId);
+        } catch (RuntimeException e) {
+            metrics.exceptionThrown(e);
             throw e;
-        } catch (Exception e) {
-            System.err.println("Unexpected error during booking: " + e.getMessage());
-            throw new RuntimeException("Booking failed due to unexpected error", e);
+        } finally {
+            metrics.record(Operation.CANCEL_BOOKING, start);
+        }
+    }
+
+    private Booking cancel(int bookingId) {
+        Booking booking = bookings.findLive(bookingId);
+        if (booking == null) {
+            throw bookingNotFound(bookingId);
+        }
+        ReentrantLock roomLock = roomLocks.lockFor(booking.getRoomNumber());
+        roomLock.lock();
+        try {
+            // A concurrent call may have cancelled it before the lock was taken, and archived stays are final
+            if (bookings.findLive(bookingId) == null || booking.getCheckOutDay() < archiveHorizon) {
+                throw bookingNotFound(bookingId);
+            }
+            User user = usersById.get(booking.getUserId());
+            // The refund is reported before it can be spent, and dropped if reporting fails
+            long refunded = user.beginRefund(booking.getTotalAmount());
+            try {
+                mutationListener.bookingCancelled(booking, refunded);
+            } catch (RuntimeException e) {
+                user.abortBalanceChange();
+                throw e;
+            }
+            user.completeBalanceChange(refunded);
+            bookings.cancel(bookingId);
+            releaseStay(booking);
+        } finally {
+            roomLock.unlock();
+        }
+        mutationListener.mutationCompleted();
+        if (eventSink.isEnabled(LogLevel.INFO)) {
+            eventSink.log(LogLevel.INFO, "Cancelled booking " + bookingId + " of Room " + booking.getRoomNumber() +
+                    " - Refunded " + booking.getTotalAmount() + " to User " + booking.getUserId());
+        }
+        return booking;
+    }
+
+    private BookingNotFoundException bookingNotFound(int bookingId) {
+        if (eventSink.isEnabled(LogLevel.WARN)) {
+            eventSink.log(LogLevel.WARN, "Cancellation failed: booking " + bookingId + " not found");
+        }
+        return new BookingNotFoundException("Booking with ID " + bookingId + " not found");
+    }
+
+    /**
+     * Holds a room for a user while their payment runs, so nobody else can book the nights of the
+     * stay until the hold is confirmed with {@link #confirmHold}, released with {@link #releaseHold}
+     * or expires. The user's balance is only checked and charged on confirmation.
+     * Holds are transient: they are not reported to the mutation listener and do not survive a restart.
+     *
+     * @param userId the ID of the user the room is held for
+     * @param roomNumber the number of the room to hold
+     * @param checkIn the check-in date (cannot be null)
+     * @param checkOut the check-out date (must be after check-in date)
+     * @param ttl how long the room is held (must be positive)
+     * @return the hold, whose ID confirms or releases it
+     * @throws IllegalArgumentException if a date or ttl is null, or ttl is not positive
+     * @throws InvalidBookingDateException if check-in date is not before check-out date
+     * @throws UserNotFoundException if the user with given ID doesn't exist
+     * @throws RoomNotFoundException if the room with given number doesn't exist
+     * @throws RoomNotAvailableException if the room is booked or held for any night of the stay
+     */
+    public Hold holdRoom(int userId, int roomNumber, LocalDate checkIn, LocalDate checkOut, Duration ttl) {
+        return holdRoom(userId, roomNumber, EpochDays.of(checkIn), EpochDays.of(checkOut), ttl);
+    }
+
+    /**
+     * Holds a room for a stay given in {@link EpochDays epoch days}, see
+     * {@link #holdRoom(int, int, LocalDate, LocalDate, Duration)}
+     */
+    public Hold holdRoom(int userId, int roomNumber, int checkInDay, int checkOutDay, Duration ttl) {
+        long start = metrics.startTimer();
+        try {
+            return hold(userId, roomNumber, checkInDay, checkOutDay, ttl);
+        } catch (RuntimeException e) {
+            metrics.exceptionThrown(e);
+            throw e;
+        } finally {
+            metrics.record(Operation.HOLD_ROOM, start);
+        }
+    }
+
+    private Hold hold(int userId, int roomNumber, int checkInDay, int checkOutDay, Duration ttl) {
+        if (ttl == null || ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("Hold duration must be positive");
+        }
+        // Taking holds turns the wheel, so expired ones are dropped without a timer thread
+        expireHolds();
+
+        BookingStatus rejection = null;
+        if (checkInDay >= checkOutDay) {
+            rejection = BookingStatus.INVALID_DATES;
+        } else if (!usersById.containsKey(userId)) {
+            rejection = BookingStatus.USER_NOT_FOUND;
+        } else if (!roomsByNumber.containsKey(roomNumber)) {
+            rejection = BookingStatus.ROOM_NOT_FOUND;
+        }
+        Hold hold = null;
+        if (rejection == null) {
+            ReentrantLock roomLock = roomLocks.lockFor(roomNumber);
+            roomLock.lock();
+            try {
+                if (checkInDay < archiveHorizon || !availability.isAvailable(roomNumber, checkInDay, checkOutDay)
+                        || isHeld(roomNumber, checkInDay, checkOutDay)) {
+                    rejection = BookingStatus.ROOM_NOT_AVAILABLE;
+                } else {
+                    hold = new Hold(userId, roomNumber, checkInDay, checkOutDay, System.nanoTime() + ttl.toNanos());
+                    holds.add(hold);
+                    occupancy.occupy(roomNumber, checkInDay, checkOutDay);
+                    holdExpiry.schedule(hold, hold.getDeadlineNanos());
+                }
+            } finally {
+                roomLock.unlock();
+            }
+        }
+        if (rejection != null) {
+            BookingResult result = BookingResult.rejected(rejection, userId, roomNumber, checkInDay, checkOutDay, 0, 0);
+            if (eventSink.isEnabled(LogLevel.WARN)) {
+                eventSink.log(LogLevel.WARN, "Hold failed: " + describeRejection(result));
+            }
+            throw toException(result);
         }
+        if (eventSink.isEnabled(LogLevel.INFO)) {
+            eventSink.log(LogLevel.INFO, "Held Room " + roomNumber + " for User " + userId +
+                    " from " + hold.getCheckInDate().format(DATE_FORMATTER) +
+                    " to " + hold.getCheckOutDate().format(DATE_FORMATTER) + " - Hold " + hold.getHoldId());
+        }
+        return hold;
+    }
+
+    /**
+     * Books the stay of a live hold for its user, charged at the current rates, and ends the hold.
+     * If the user's balance is short the hold is kept, so the payment can be retried until it expires.
+     *
+     * @param holdId the ID of the hold
+     * @return the committed booking
+     * @throws HoldNotFoundException if no live hold has that ID, because it expired, was released or confirmed
+     * @throws InsufficientBalanceException if the user doesn't have enough balance
+     */
+    public Booking confirmHold(int holdId) {
+        long start = metrics.startTimer();
+        try {
+            return confirm(holdId);
+        } catch (RuntimeException e) {
+            metrics.exceptionThrown(e);
+            throw e;
+        } finally {
+            metrics.record(Operation.CONFIRM_HOLD, start);
+        }
+    }
+
+    private Booking confirm(int holdId) {
+        Hold hold = holds.find(holdId);
+        if (hold == null) {
+            throw holdNotFound(holdId);
+        }
+        User user = usersById.get(hold.getUserId());
+        Room room = roomsByNumber.get(hold.getRoomNumber());
+        int checkInDay = hold.getCheckInDay();
+        int checkOutDay = hold.getCheckOutDay();
+        Booking booking;
+        ReentrantLock roomLock = roomLocks.lockFor(hold.getRoomNumber());
+        roomLock.lock();
+        try {
+            // A concurrent call may have confirmed or released it before the lock was taken
+            if (holds.find(holdId) != hold) {
+                throw holdNotFound(holdId);
+            }
+            if (hold.isExpired(System.nanoTime())) {
+                dropHold(hold);
+                throw holdNotFound(holdId);
+            }
+            int totalCost = totalCost(ratesFor(room), room, checkInDay, checkOutDay);
+            if (totalCost == AMOUNT_TOO_LARGE) {
+                BookingResult result = BookingResult.rejected(BookingStatus.AMOUNT_TOO_LARGE, user.getUserId(),
+                        room.getRoomNumber(), checkInDay, checkOutDay, 0, user.getBalance());
+                countOutcome(result);
+                throw toException(result);
+            }
+            int balanceBeforePayment = user.tryDeductBalance(totalCost);
+            if (balanceBeforePayment == User.INSUFFICIENT_BALANCE) {
+                BookingResult result = BookingResult.rejected(BookingStatus.INSUFFICIENT_BALANCE, user.getUserId(),
+                        room.getRoomNumber(), checkInDay, checkOutDay, totalCost, user.getBalance());
+                countOutcome(result);
+                throw toException(result);
+            }
+            booking = new Booking(user, room, checkInDay, checkOutDay, totalCost, balanceBeforePayment);
+            try {
+                mutationListener.bookingCommitted(booking, user.getBalanceStamp());
+            } catch (RuntimeException e) {
+                user.refundBalance(totalCost);
+                throw e;
+            }
+            // The held nights are already marked as occupied and now stay so for the booking
+            holds.remove(hold);
+            bookings.add(booking);
+            recordStay(booking);
+        } finally {
+            roomLock.unlock();
+        }
+        mutationListener.mutationCompleted();
+        countOutcome(BookingResult.success(booking));
+        if (eventSink.isEnabled(LogLevel.INFO)) {
+            eventSink.log(LogLevel.INFO, "Confirmed hold " + holdId + " as booking " + booking.getBookingId() +
+                    " of Room " + booking.getRoomNumber() + " - Total: " + booking.getTotalAmount());
+        }
+        return booking;
+    }
+
+    /**
+     * Releases a live hold, making the nights of its stay available again, for example when
+     * the payment failed or the user left the checkout
+     * @param holdId the ID of the hold
+     * @return true if the hold was released, false if no live hold has that ID
+     */
+    public boolean releaseHold(int holdId) {
+        long start = metrics.startTimer();
+        try {
+            Hold hold = holds.find(holdId);
+            if (hold == null) {
+                return false;
+            }
+            ReentrantLock roomLock = roomLocks.lockFor(hold.getRoomNumber());
+            roomLock.lock();
+            try {
+                return dropHold(hold);
+            } finally {
+                roomLock.unlock();
+            }
+        } finally {
+            metrics.record(Operation.RELEASE_HOLD, start);
+        }
+    }
+
+    /**
+     * Turns the hold expiry wheel to now and drops the holds whose deadline has passed, visiting
+     * only the wheel's buckets for the time elapsed since it last turned. Taking holds and searching
+     * for free rooms turn the wheel already; callers may turn it periodically when neither happens.
+     * @return the number of holds expired by this call, not counting those already dropped
+     */
+    public int expireHolds() {
+        int[] expired = new int[1];
+        holdExpiry.advance(System.nanoTime(), hold -> {
+            if (expireHold(hold)) {
+                expired[0]++;
+            }
+        });
+        return expired[0];
+    }
+
+    /**
+     * @return the number of live holds, including expired holds the wheel has not reached yet
+     */
+    public int getHoldCount() {
+        return holds.size();
+    }
+
+    private boolean expireHold(Hold hold) {
+        ReentrantLock roomLock = roomLocks.lockFor(hold.getRoomNumber());
+        roomLock.lock();
+        try {
+            // Confirmed, released and blocking holds are gone already
+            return dropHold(hold);
+        } finally {
+            roomLock.unlock();
+        }
+    }
+
+    /**
+     * Must be called while holding the room's lock. Checks whether a live hold covers a night of
+     * the stay, dropping the expired holds in its way before the wheel reaches them.
+     */
+    private boolean isHeld(int roomNumber, int checkInDay, int checkOutDay) {
+        Hold hold;
+        while ((hold = holds.findOverlapping(roomNumber, checkInDay, checkOutDay)) != null) {
+            if (!hold.isExpired(System.nanoTime())) {
+                return true;
+            }
+            dropHold(hold);
+        }
+        return false;
+    }
+
+    /**
+     * Must be called while holding the room's lock. Ends a hold that was not confirmed.
+     * @return true if the hold was live, false if it had already ended
+     */
+    private boolean dropHold(Hold hold) {
+        if (!holds.remove(hold)) {
+            return false;
+        }
+        occupancy.release(hold.getRoomNumber(), hold.getCheckInDay(), hold.getCheckOutDay());
+        return true;
+    }
+
+    private HoldNotFoundException holdNotFound(int holdId) {
+        if (eventSink.isEnabled(LogLevel.WARN)) {
+            eventSink.log(LogLevel.WARN, "Confirmation failed: hold " + holdId + " not found");
+        }
+        return new HoldNotFoundException("Hold with ID " + holdId + " not found");
+    }
+
+    /**
+     * Removes cancelled bookings from storage. Live bookings are copied without blocking
+     * bookings and cancellations, which only wait while the bookings made during the copy are
+     * carried over. Usually run in the background by a {@link BookingCompactor}.
+     * @return the number of cancelled bookings removed
+     */
+    public int compactBookings() {
+        int removed = bookings.compact();
+        if (removed > 0 && eventSink.isEnabled(LogLevel.INFO)) {
+            eventSink.log(LogLevel.INFO, "Compacted " + removed + " cancelled bookings");
+        }
+        return removed;
+    }
+
+    /**
+     * Moves the bookings of stays that checked out before the given day to a cold tier of
+     * memory-mapped files, and forgets those stays in the availability index, so years of past
+     * stays cost neither heap nor availability checks. Archived bookings stay readable through
+     * the getters, views and reports, but can no longer be cancelled, and stays checking in
+     * before that day are refused as unavailable from then on. Usually run in the background by
+     * a {@link BookingArchiver}.
+     * @param tier the tier receiving the bookings, the same one on every call (cannot be null)
+     * @param today the first day whose stays are kept on the heap (cannot be null)
+     * @return the number of bookings archived
+     * @throws IllegalArgumentException if tier or today is null, or bookings were archived to another tier
+     * @throws UncheckedIOException if a segment file cannot be created
+     */
+    public int archivePastStays(ColdBookingTier tier, LocalDate today) {
+        if (tier == null) {
+            throw new IllegalArgumentException("Cold tier cannot be null");
+        }
+        int horizon;
+        int archived;
+        synchronized (archiveLock) {
+            horizon = Math.max(archiveHorizon, EpochDays.of(today));
+            archiveHorizon = horizon;
+            // Bookings and cancellations read the horizon under their room's lock, so passing through
+            // every lock waits for those that read the previous one
+            for (int stripe = 0; stripe < LOCK_STRIPES; stripe++) {
+                ReentrantLock lock = roomLocks.lockAt(stripe);
+                lock.lock();
+                lock.unlock();
+            }
+            archived = bookings.archive(tier, horizon);
+            for (Room room : rooms) {
+                ReentrantLock roomLock = roomLocks.lockFor(room.getRoomNumber());
+                roomLock.lock();
+                try {
+                    availability.removeCheckedOutBefore(room.getRoomNumber(), horizon);
+                } finally {
+                    roomLock.unlock();
+                }
+            }
+        }
+        if (archived > 0 && eventSink.isEnabled(LogLevel.INFO)) {
+            eventSink.log(LogLevel.INFO, "Archived " + archived + " bookings of stays before "
+                    + EpochDays.toDate(horizon).format(DATE_FORMATTER));
+        }
+        return archived;
+    }
+
+    /**
+     * @return the number of bookings moved to the cold tier
+     */
+    public int getArchivedBookingCount() {
+        return bookings.getArchivedCount();
+    }
+
+    /**
+     * @return the number of cancelled bookings waiting to be compacted
+     */
+    public int getCancelledBookingCount() {
+        return bookings.getCancelledCount();
+    }
+
+    /**
+     * @return the latency histograms and outcome counters of this service's operations
+     */
+    public ServiceMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * @return the destination of this service's operation messages, which components built
+     * around the service share
+     */
+    public EventSink getEventSink() {
+        return eventSink;
+    }
+
+    /**
+     * Returns the revenue and occupancy figures, maintained as bookings are committed and cancelled,
+     * which answer finance queries in constant time
+     * @return the live figures of this service
+     */
+    public RevenueAggregates getRevenueAggregates() {
+        return aggregates;
+    }
+
+    /**
+     * Recomputes the revenue and occupancy figures from every booking and compares them with
+     * the maintained ones. Bookings committed while the check runs may be reported as differences.
+     * @return a description of each figure that differs; empty if the figures are consistent
+     */
+    public List<String> checkRevenueAggregates() {
+        return aggregates.differences(RevenueAggregates.rebuild(bookings.snapshot(), rooms.size()));
+    }
+
+    /**
+     * Finds the rooms of a type that are free for the whole period, answered from the
+     * occupancy calendar with bitmap operations rather than by checking bookings.
+     * Bookings committed while the query runs may or may not be taken into account.
+     *
+     * @param roomType the requested room type (cannot be null)
+     * @param checkIn the check-in date
+     * @param checkOut the check-out date (must be after check-in date)
+     * @return the free rooms of that type, in creation order
+     * @throws IllegalArgumentException if roomType or a date is null, or check-in is not before check-out
+     */
+    public List<Room> findAvailableRooms(RoomType roomType, Date checkIn, Date checkOut) {
+        long start = metrics.startTimer();
+        try {
+            // Held nights are marked as occupied until their hold is dropped
+            expireHolds();
+            int[] roomNumbers = occupancy.findAvailable(roomType, toEpochDay(checkIn), toEpochDay(checkOut));
+            List<Room> available = new ArrayList<>(roomNumbers.length);
+            for (int roomNumber : roomNumbers) {
+                available.add(roomsByNumber.get(roomNumber));
+            }
+            return available;
+        } catch (RuntimeException e) {
+            metrics.exceptionThrown(e);
+            throw e;
+        } finally {
+            metrics.record(Operation.FIND_AVAILABLE_ROOMS, start);
+        }
+    }
+
+    /**
+     * Sets the nightly rates of every room of a type for consecutive nights, as pushed by revenue
+     * management for seasons or days of the week; only the affected blocks of the rate calendar
+     * are rebuilt. Rooms with rates of their own are priced from those alone, and nights without
+     * a rate are charged the room's price. Bookings already made keep the amount they were charged.
+     * Rates are pricing configuration rather than booking state, so they are not reported to the
+     * mutation listener and must be pushed again after a restart.
+     * @param roomType the room type (cannot be null)
+     * @param firstNight the date of the first night (cannot be null)
+     * @param nightlyRates the rate of each night from firstNight on, 0 to charge the room's price
+     *                     (cannot be null or contain negative rates)
+     * @throws IllegalArgumentException if a parameter is null or a rate is negative
+     */
+    public void setRoomTypeRates(RoomType roomType, LocalDate firstNight, int[] nightlyRates) {
+        if (roomType == null) {
+            throw new IllegalArgumentException("Room type cannot be null");
+        }
+        ratesByType[roomType.ordinal()].setRates(EpochDays.of(firstNight), nightlyRates);
+    }
+
+    /**
+     * Sets the nightly rates of one room for consecutive nights, see {@link #setRoomTypeRates}.
+     * From then on the room is priced from its own rates, and those of its type no longer apply to it.
+     * @param roomNumber the room number
+     * @param firstNight the date of the first night (cannot be null)
+     * @param nightlyRates the rate of each night from firstNight on, 0 to charge the room's price
+     *                     (cannot be null or contain negative rates)
+     * @throws IllegalArgumentException if a date or the rates are null, or a rate is negative
+     * @throws RoomNotFoundException if no room with that number exists
+     */
+    public void setRoomRates(int roomNumber, LocalDate firstNight, int[] nightlyRates) {
+        int firstDay = EpochDays.of(firstNight);
+        RateCalendar rates;
+        synchronized (roomCatalogLock) {
+            if (!roomsByNumber.containsKey(roomNumber)) {
+                throw new RoomNotFoundException("Room with number " + roomNumber + " not found");
+            }
+            rates = ratesByRoom.get(roomNumber);
+            if (rates == null) {
+                rates = new RateCalendar();
+                rates.setRates(firstDay, nightlyRates);
+                ratesByRoom.put(roomNumber, rates);
+                return;
+            }
+        }
+        rates.setRates(firstDay, nightlyRates);
+    }
+
+    /**
+     * Prices a stay night by night at the current rates, as a booking made now would be charged
+     * @param roomNumber the room number
+     * @param checkIn the check-in date (cannot be null)
+     * @param checkOut the check-out date (must be after check-in date)
+     * @return the nightly rates and total amount of the stay
+     * @throws IllegalArgumentException if a date is null, check-in is not before check-out or the
+     * stay costs more than the largest balance
+     * @throws RoomNotFoundException if no room with that number exists
+     */
+    public StayQuote quote(int roomNumber, LocalDate checkIn, LocalDate checkOut) {
+        int checkInDay = EpochDays.of(checkIn);
+        int checkOutDay = EpochDays.of(checkOut);
+        if (checkInDay >= checkOutDay) {
+            throw new IllegalArgumentException("Check-in date must be before check-out date");
+        }
+        Room room = roomsByNumber.get(roomNumber);
+        if (room == null) {
+            throw new RoomNotFoundException("Room with number " + roomNumber + " not found");
+        }
+        RateCalendar rates = ratesFor(room);
+        int totalAmount = totalCost(rates, room, checkInDay, checkOutDay);
+        if (totalAmount == AMOUNT_TOO_LARGE) {
+            throw new IllegalArgumentException("Stay costs more than " + Integer.MAX_VALUE + ", the largest balance");
+        }
+        return new StayQuote(roomNumber, checkInDay,
+                rates.nightlyRates(checkInDay, checkOutDay, room.getPricePerNight()), totalAmount);
+    }
+
+    /**
+     * @return the price of a stay at the given rates, or {@link #AMOUNT_TOO_LARGE} if it exceeds
+     * the largest amount a balance can hold
+     */
+    private static int totalCost(RateCalendar rates, Room room, int checkInDay, int checkOutDay) {
+        long price = rates.price(checkInDay, checkOutDay, room.getPricePerNight());
+        return price > Integer.MAX_VALUE ? AMOUNT_TOO_LARGE : (int) price;
+    }
+
+    private RateCalendar ratesFor(Room room) {
+        RateCalendar rates = ratesByRoom.get(room.getRoomNumber());
+        return rates != null ? rates : ratesByType[room.getRoomType().ordinal()];
+    }
+
+    private void countOutcome(BookingResult result) {
+        if (result.isSuccess()) {
+            metrics.bookingCommitted(result.getBooking().getRoomTypeAtBooking());
+        } else {
+            metrics.bookingRejected(result.getStatus());
+        }
+    }
+
+    private static BookingResult rejected(BookingStatus status, BookingRequest request) {
+        return BookingResult.rejected(status, request.getUserId(), request.getRoomNumber(),
+                request.getCheckInDate(), request.getCheckOutDate());
+    }
+
+    /**
+     * Builds the message explaining why a booking was rejected
+     */
+    private String describeRejection(BookingResult result) {
+        switch (result.getStatus()) {
+            case INVALID_DATES:
+                return "Check-in date (" + result.getCheckInDate().format(DATE_FORMATTER) +
+                        ") must be before check-out date (" + result.getCheckOutDate().format(DATE_FORMATTER) + ")";
+            case USER_NOT_FOUND:
+                return "User with ID " + result.getUserId() + " not found";
+            case ROOM_NOT_FOUND:
+                return "Room with number " + result.getRoomNumber() + " not found";
+            case ROOM_NOT_AVAILABLE:
+                return "Room " + result.getRoomNumber() + " is not available from " +
+                        result.getCheckInDate().format(DATE_FORMATTER) + " to " +
+                        result.getCheckOutDate().format(DATE_FORMATTER);
+            case INSUFFICIENT_BALANCE:
+                return "User " + result.getUserId() + " has insufficient balance. Required: " +
+                        result.getRequiredAmount() + ", Available: " + result.getAvailableBalance();
+            case AMOUNT_TOO_LARGE:
+                return "Stay in Room " + result.getRoomNumber() + " from " +
+                        result.getCheckInDate().format(DATE_FORMATTER) + " to " +
+                        result.getCheckOutDate().format(DATE_FORMATTER) + " costs more than " + Integer.MAX_VALUE +
+                        ", the largest balance";
+            case BATCH_ABORTED:
+                return "Booking of Room " + result.getRoomNumber() + " for User " + result.getUserId() +
+                        " was not committed because its batch was rejected";
+            default:
+                throw new IllegalArgumentException("Booking was not rejected: " + result);
+        }
+    }
+
+    /**
+     * Converts a rejected result into the matching stackless business exception
+     */
+    private RuntimeException toException(BookingResult result) {
+        String message = describeRejection(result);
+        switch (result.getStatus()) {
+            case INVALID_DATES:
+                return new InvalidBookingDateException(message, false);
+            case USER_NOT_FOUND:
+                return new UserNotFoundException(message, false);
+            case ROOM_NOT_FOUND:
+                return new RoomNotFoundException(message, false);
+            case ROOM_NOT_AVAILABLE:
+                return new RoomNotAvailableException(message, false);
+            case INSUFFICIENT_BALANCE:
+            case AMOUNT_TOO_LARGE:
+                return new InsufficientBalanceException(message, false);
+            default:
+                return new IllegalStateException(message);
+        }
+    }
+
+    /**
+     * Returns a listener that applies reported changes directly to this service without
+     * reporting them again, used to rebuild state from a journal or a replication stream.
+     * Changes may be applied more than once: rooms and users are upserted, balances only
+     * move forward to a later revision and bookings already applied through the same target
+     * are skipped. It must be fed while no other calls are made.
+     * @return the listener applying changes to this service
+     */
+    public MutationListener recoveryTarget() {
+        return new RecoveryTarget();
+    }
+
+    /**
+     * Reports the current state to the listener as if it had been created from scratch: every
+     * room, then every user with its balance stamp, then every booking in commit order.
+     * Calls keep being served meanwhile, so changes made during the export may or may not be
+     * included, but every change whose listener call returned before the export started is.
+     * @param target the receiver of the state (cannot be null)
+     * @throws IllegalArgumentException if target is null
+     */
+    public void exportState(MutationListener target) {
+        if (target == null) {
+            throw new IllegalArgumentException("Export target cannot be null");
+        }
+        // Changes are reported while their locks are held and published before the locks are
+        // released, so passing through every lock once waits for reported changes to be visible
+        synchronized (roomCatalogLock) {
+        }
+        synchronized (userCatalogLock) {
+        }
+        for (int stripe = 0; stripe < LOCK_STRIPES; stripe++) {
+            ReentrantLock lock = roomLocks.lockAt(stripe);
+            lock.lock();
+            lock.unlock();
+        }
+
+        // Bookings are captured first: a booking is only added once its room and user are in the
+        // catalogs, so every booking captured refers to a room and a user exported after it
+        List<Booking> exportedBookings = bookings.snapshot();
+        for (Room room : rooms) {
+            target.roomSaved(room);
+        }
+        for (User user : users) {
+            target.userSaved(user, user.getBalanceStamp());
+        }
+        for (Booking booking : exportedBookings) {
+            User user = usersById.get(booking.getUserId());
+            target.bookingCommitted(booking, user.getBalanceStamp());
+        }
+    }
+
+    private final class RecoveryTarget implements MutationListener {
+        private final BitSet appliedBookings = new BitSet();
+
+        @Override
+        public void roomSaved(Room room) {
+            synchronized (roomCatalogLock) {
+                Room existing = roomsByNumber.get(room.getRoomNumber());
+                if (existing != null) {
+                    existing.setRoomType(room.getRoomType());
+                    existing.setPricePerNight(room.getPricePerNight());
+                } else {
+                    rooms.add(room);
+                    roomsByNumber.put(room.getRoomNumber(), room);
+                    aggregates.roomCreated();
+                }
+                occupancy.setRoom(room.getRoomNumber(), room.getRoomType());
+            }
+        }
+
+        @Override
+        public void userSaved(User user, long balanceStamp) {
+            synchronized (userCatalogLock) {
+                User existing = usersById.get(user.getUserId());
+                if (existing != null) {
+                    existing.applyBalanceStamp(balanceStamp);
+                } else {
+                    user.applyBalanceStamp(balanceStamp);
+                    users.add(user);
+                    usersById.put(user.getUserId(), user);
+                }
+            }
+        }
+
+        @Override
+        public void bookingCommitted(Booking booking, long balanceStamp) {
+            User user = usersById.get(booking.getUserId());
+            if (user == null) {
+                throw new IllegalStateException("Booking " + booking.getBookingId() +
+                        " refers to unknown user " + booking.getUserId());
+            }
+            if (!roomsByNumber.containsKey(booking.getRoomNumber())) {
+                throw new IllegalStateException("Booking " + booking.getBookingId() +
+                        " refers to unknown room " + booking.getRoomNumber());
+            }
+            user.applyBalanceStamp(balanceStamp);
+            if (appliedBookings.get(booking.getBookingId())) {
+                return;
+            }
+            appliedBookings.set(booking.getBookingId());
+            ReentrantLock roomLock = roomLocks.lockFor(booking.getRoomNumber());
+            roomLock.lock();
+            try {
+                bookings.add(booking);
+                recordStay(booking);
+            } finally {
+                roomLock.unlock();
+            }
+        }
+
+        @Override
+        public void bookingCancelled(Booking booking, long balanceStamp) {
+            User user = usersById.get(booking.getUserId());
+            if (user == null) {
+                throw new IllegalStateException("Cancelled booking " + booking.getBookingId() +
+                        " refers to unknown user " + booking.getUserId());
+            }
+            user.applyBalanceStamp(balanceStamp);
+            // A booking cancelled before a snapshot is neither in the snapshot nor committed again
+            appliedBookings.set(booking.getBookingId());
+            ReentrantLock roomLock = roomLocks.lockFor(booking.getRoomNumber());
+            roomLock.lock();
+            try {
+                Booking cancelled = bookings.cancel(booking.getBookingId());
+                if (cancelled != null) {
+                    releaseStay(cancelled);
+                }
+            } finally {
+                roomLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Writes one page of rooms, from the most recently created to the oldest
+     * @param writer the report destination and format (cannot be null)
+     * @param cursor {@link ReportPage#NEWEST} or the cursor returned for the previous page
+     * @param limit the maximum number of rooms (must be positive)
+     * @return the page written, with the cursor of the next page
+     * @throws IllegalArgumentException if writer is null, cursor is negative or limit is not positive
+     * @throws IOException if the report cannot be written
+     */
+    public ReportPage exportRooms(ReportWriter writer, int cursor, int limit) throws IOException {
+        long start = metrics.startTimer();
+        try {
+            return checkWriter(writer).writeRooms(rooms, cursor, limit);
+        } catch (IOException | RuntimeException e) {
+            metrics.exceptionThrown(e);
+            throw e;
+        } finally {
+            metrics.record(Operation.EXPORT_REPORT, start);
+        }
+    }
+
+    /**
+     * Writes one page of users, from the most recently created to the oldest
+     * @param writer the report destination and format (cannot be null)
+     * @param cursor {@link ReportPage#NEWEST} or the cursor returned for the previous page
+     * @param limit the maximum number of users (must be positive)
+     * @return the page written, with the cursor of the next page
+     * @throws IllegalArgumentException if writer is null, cursor is negative or limit is not positive
+     * @throws IOException if the report cannot be written
+     */
+    public ReportPage exportUsers(ReportWriter writer, int cursor, int limit) throws IOException {
+        long start = metrics.startTimer();
+        try {
+            return checkWriter(writer).writeUsers(users, cursor, limit);
+        } catch (IOException | RuntimeException e) {
+            metrics.exceptionThrown(e);
+            throw e;
+        } finally {
+            metrics.record(Operation.EXPORT_REPORT, start);
+        }
+    }
+
+    /**
+     * Writes one page of bookings, from the highest booking ID to the lowest. Booking IDs are
+     * handed out in increasing order and never change, so paging neither skips nor repeats a
+     * booking when bookings are cancelled, compacted or archived between two pages.
+     * @param writer the report destination and format (cannot be null)
+     * @param cursor {@link ReportPage#NEWEST} or the cursor returned for the previous page
+     * @param limit the maximum number of bookings (must be positive)
+     * @return the page written, with the cursor of the next page
+     * @throws IllegalArgumentException if writer is null, cursor is negative or limit is not positive
+     * @throws IOException if the report cannot be written
+     */
+    public ReportPage exportBookings(ReportWriter writer, int cursor, int limit) throws IOException {
+        long start = metrics.startTimer();
+        try {
+            checkWriter(writer);
+            // One booking past the page tells the writer whether older ones remain
+            List<Booking> candidates = bookings.snapshot().below(cursor, limit == Integer.MAX_VALUE ? limit : limit + 1);
+            return writer.writeBookings(candidates, cursor, limit);
+        } catch (IOException | RuntimeException e) {
+            metrics.exceptionThrown(e);
+            throw e;
+        } finally {
+            metrics.record(Operation.EXPORT_REPORT, start);
+        }
+    }
+
+    private static ReportWriter checkWriter(ReportWriter writer) {
+        if (writer == null) {
+            throw new IllegalArgumentException("Report writer cannot be null");
+        }
+        return writer;
     }
 
     /**
      * Prints all rooms and bookings data from latest created to oldest created.
      */
     public void printAll() {
-        System.out.println("\n" + "=".repeat(80));
-        System.out.println("HOTEL RESERVATION SYSTEM - ALL DATA");
-        System.out.println("=".repeat(80));
-
-        // Print rooms (latest to oldest)
-        System.out.println("\nROOMS (Latest to Oldest):");
-        System.out.println("-".repeat(50));
-        if (rooms.isEmpty()) {
-            System.out.println("No rooms available.");
-        } else {
-            rooms.stream()
-                    .sorted(Comparator.comparing(Room::getCreatedAt).reversed())
-                    .forEach(room -> {
-                        System.out.printf("Room %d | Type: %-8s | Price/Night: %-6d | Created: %s%n",
-                                room.getRoomNumber(),
-                                room.getRoomType().toString(),
-                                room.getPricePerNight(),
-                                room.getCreatedAt().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss"))
-                        );
-                    });
-        }
-
-        // Print bookings (latest to oldest)
-        System.out.println("\nBOOKINGS (Latest to Oldest):");
-        System.out.println("-".repeat(50));
-        if (bookings.isEmpty()) {
-            System.out.println("No bookings available.");
-        } else {
-            bookings.stream()
-                    .sorted(Comparator.comparing(Booking::getBookingDateTime).reversed())
-                    .forEach(booking -> {
-                        System.out.printf("Booking ID: %-3d | User: %-3d | Room: %-3d | %s to %s (%d nights)%n",
-                                booking.getBookingId(),
-                                booking.getUserId(),
-                                booking.getRoomNumber(),
-                                booking.getCheckInDate().format(DATE_FORMATTER),
-                                booking.getCheckOutDate().format(DATE_FORMATTER),
-                                booking.getNumberOfNights()
-                        );
-                        System.out.printf("                Room Type at Booking: %-8s | Price/Night at Booking: %-6d | Total: %-6d%n",
-                                booking.getRoomTypeAtBooking().toString(),
-                                booking.getRoomPricePerNightAtBooking(),
-                                booking.getTotalAmount()
-                        );
-                        System.out.printf("                User Balance at Booking: %-6d | Booking Date: %s%n",
-                                booking.getUserBalanceAtBooking(),
-                                booking.getBookingDateTime().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss"))
-                        );
-                        System.out.println();
-                    });
-        }
-        System.out.println("=".repeat(80));
+        long start = metrics.startTimer();
+        ReportWriter writer = ReportWriter.to(System.out, ReportFormat.TEXT);
+        try {
+            writer.line("").line("=".repeat(80))
+                    .line("HOTEL RESERVATION SYSTEM - ALL DATA")
+                    .line("=".repeat(80));
+
+            writer.line("").line("ROOMS (Latest to Oldest):").line("-".repeat(50));
+            if (rooms.isEmpty()) {
+                writer.line("No rooms available.");
+            } else {
+                writer.writeRooms(rooms, ReportPage.NEWEST, Integer.MAX_VALUE);
+            }
+
+            writer.line("").line("BOOKINGS (Latest to Oldest):").line("-".repeat(50));
+            List<Booking> liveBookings = bookings.snapshot();
+            if (liveBookings.isEmpty()) {
+                writer.line("No bookings available.");
+            } else {
+                writer.writeBookings(liveBookings, ReportPage.NEWEST, Integer.MAX_VALUE);
+            }
+            writer.line("=".repeat(80));
+            // Flush only: the writer must not close System.out
+            writer.flush();
+        } catch (IOException e) {
+            metrics.exceptionThrown(e);
+            throw new UncheckedIOException(e);
+        } finally {
+            metrics.record(Operation.PRINT_ALL, start);
+        }
     }
 
     /**
      * Prints all users data from latest created to oldest created.
      */
     public void printAllUsers() {
-        System.out.println("\n" + "=".repeat(60));
-        System.out.println("ALL USERS DATA (Latest to Oldest)");
-        System.out.println("=".repeat(60));
-
-        if (users.isEmpty()) {
-            System.out.println("No users available.");
-        } else {
-            users.stream()
-                    .sorted(Comparator.comparing(User::getCreatedAt).reversed())
-                    .forEach(user -> {
-                        System.out.printf("User ID: %-3d | Balance: %-8d | Created: %s%n",
-                                user.getUserId(),
-                                user.getBalance(),
-                                user.getCreatedAt().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss"))
-                        );
-                    });
+        long start = metrics.startTimer();
+        ReportWriter writer = ReportWriter.to(System.out, ReportFormat.TEXT);
+        try {
+            writer.line("").line("=".repeat(60))
+                    .line("ALL USERS DATA (Latest to Oldest)")
+                    .line("=".repeat(60));
+            if (users.isEmpty()) {
+                writer.line("No users available.");
+            } else {
+                writer.writeUsers(users, ReportPage.NEWEST, Integer.MAX_VALUE);
+            }
+            writer.line("=".repeat(60));
+            writer.flush();
+        } catch (IOException e) {
+            metrics.exceptionThrown(e);
+            throw new UncheckedIOException(e);
+        } finally {
+            metrics.record(Operation.PRINT_ALL_USERS, start);
         }
-        System.out.println("=".repeat(60));
     }
 
     /**
-     * Helper method to convert Date to LocalDate
+     * Helper method to convert Date to an epoch day
      */
     @SuppressWarnings("deprecation")
-    private LocalDate convertToLocalDate(Date date) {
+    private static int toEpochDay(Date date) {
         if (date == null) {
             throw new IllegalArgumentException("Date cannot be null");
         }
         // Using deprecated methods as requested to consider only year, month, day
-        return LocalDate.of(date.getYear() + 1900, date.getMonth() + 1, date.getDate());
+        return EpochDays.of(date.getYear() + 1900, date.getMonth() + 1, date.getDate());
+    }
+
+    /**
+     * Takes a read-only view of the current rooms, users and bookings without copying them.
+     * Prefer it to the getters below, which copy every element on each call.
+     * @return the view
+     */
+    public ServiceView view() {
+        // Bookings first: the rooms and users they refer to were created before them
+        ColumnarBookingStore.View bookingSnapshot = bookings.snapshot();
+        List<User> userSnapshot = users.snapshot();
+        List<Room> roomSnapshot = rooms.snapshot();
+        return new ServiceView(roomSnapshot, userSnapshot, bookingSnapshot);
     }
 
-    // Getter methods for testing purposes
+    // Getter methods for testing purposes; each returns a mutable copy, see view()
     public ArrayList<Room> getRooms() {
         return new ArrayList<>(rooms);
     }
@@ -298,6 +1745,6 @@ public class Service {
     }
 
     public ArrayList<Booking> getBookings() {
-        return new ArrayList<>(bookings);
+        return new ArrayList<>(bookings.snapshot());
     }
 }
\ No newline at end of file
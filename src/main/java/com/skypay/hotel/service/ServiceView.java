@@ -0,0 +1,94 @@
+package com.skypay.hotel.service;
+
+import com.skypay.hotel.index.ColumnarBookingStore;
+import com.skypay.hotel.model.Booking;
+import com.skypay.hotel.model.Room;
+import com.skypay.hotel.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Read-only view of the rooms, users and bookings that existed when {@link Service#view()} was
+ * called. Taking a view copies nothing: each list is a frozen prefix of the service's
+ * append-only storage, so a view costs a few objects however large the hotel is, and rooms,
+ * users and bookings created afterwards never show in it. While cancelled bookings wait for
+ * compaction, the view holds the positions of the live ones.
+ * <p>
+ * The view is consistent across lists: every booking in it has its user and room in it too.
+ * Bookings cancelled after the view was taken still show in it. Bookings never change once
+ * committed; rooms and users are the live objects, so their type, price and balance are read
+ * when accessed.
+ */
+public final class ServiceView {
+    private final List<Room> rooms;
+    private final List<User> users;
+    private final ColumnarBookingStore.View bookings;
+
+    ServiceView(List<Room> rooms, List<User> users, ColumnarBookingStore.View bookings) {
+        this.rooms = rooms;
+        this.users = users;
+        this.bookings = bookings;
+    }
+
+    /**
+     * @return the rooms in creation order
+     */
+    public List<Room> getRooms() {
+        return rooms;
+    }
+
+    /**
+     * @return the users in creation order
+     */
+    public List<User> getUsers() {
+        return users;
+    }
+
+    /**
+     * @return the live bookings in commit order; each access decodes a new {@link Booking}
+     */
+    public List<Booking> getBookings() {
+        return bookings;
+    }
+
+    /**
+     * @param userId the user
+     * @return the user's bookings in commit order; empty for an unknown user
+     */
+    public List<Booking> getBookingsOfUser(int userId) {
+        return bookings.ofUser(userId);
+    }
+
+    /**
+     * @param roomNumber the room
+     * @return the room's bookings in commit order; empty for an unknown room
+     */
+    public List<Booking> getBookingsOfRoom(int roomNumber) {
+        return bookings.ofRoom(roomNumber);
+    }
+
+    /**
+     * Lists the users created strictly after the given time. Users are created in the order of
+     * their creation time, so the answer is a tail of {@link #getUsers()} found by binary search.
+     * @param time the exclusive lower bound (cannot be null)
+     * @return the users created after the time, in creation order
+     * @throws IllegalArgumentException if time is null
+     */
+    public List<User> getUsersCreatedAfter(LocalDateTime time) {
+        if (time == null) {
+            throw new IllegalArgumentException("Time cannot be null");
+        }
+        int low = 0;
+        int high = users.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (users.get(middle).getCreatedAt().isAfter(time)) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return users.subList(low, users.size());
+    }
+}
@@ -0,0 +1,411 @@
+package com.skypay.hotel.service;
+
+import com.skypay.hotel.index.IntHashIndex;
+import com.skypay.hotel.log.EventSink;
+import com.skypay.hotel.metrics.ServiceMetrics;
+import com.skypay.hotel.model.Booking;
+import com.skypay.hotel.model.BookingResult;
+import com.skypay.hotel.model.Room;
+import com.skypay.hotel.model.RoomType;
+import com.skypay.hotel.model.User;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Booking engine for a hotel chain, with rooms split across partitions by room number. Each
+ * partition, or shard, is a {@link Service} owned by one event-loop thread: requests reach it
+ * through a bounded queue and run one after the other, so the locks inside the shard are never
+ * contended and shards share no room state. A full queue makes callers wait, which keeps a
+ * shard that falls behind from buffering without limit.
+ * <p>
+ * A user can book rooms in every shard, so users are not partitioned: each user is a single
+ * account registered in every shard, and all shards debit the same balance. Balances therefore
+ * have no single writer: each shard pays for a booking with one compare-and-set debit of the
+ * shared account, which fails rather than overdraws when other shards debit it at the same time,
+ * and refunds the debit if the booking cannot be committed. Balance updates through
+ * {@link #setUser} run in the user's home shard.
+ * <p>
+ * Every shard records its own {@link ServiceMetrics}, so shards do not contend on counters either.
+ *
+ * <pre>{@code
+ * try (ShardedService hotels = ShardedService.start(8, 1024)) {
+ *     ...
+ * }
+ * }</pre>
+ */
+public final class ShardedService implements AutoCloseable {
+    private final Shard[] shards;
+
+    // Every account, registered in all shards, and the accounts being registered; guarded by the monitor of the index
+    private final IntHashIndex<User> usersById = new IntHashIndex<>();
+    private final List<User> users = new ArrayList<>();
+    private final Map<Integer, CompletableFuture<Void>> registrations = new HashMap<>();
+
+    private ShardedService(Shard[] shards) {
+        this.shards = shards;
+    }
+
+    /**
+     * Starts a sharded engine whose operation messages are discarded
+     * @param shardCount the number of partitions, each with its own thread (must be positive)
+     * @param queueCapacity the number of requests a shard holds before callers wait (must be positive)
+     * @return the running engine
+     * @throws IllegalArgumentException if shardCount or queueCapacity is not positive
+     */
+    public static ShardedService start(int shardCount, int queueCapacity) {
+        return start(shardCount, queueCapacity, EventSink.DISCARD);
+    }
+
+    /**
+     * Starts a sharded engine reporting the operations of every shard to the given sink
+     * @param shardCount the number of partitions, each with its own thread (must be positive)
+     * @param queueCapacity the number of requests a shard holds before callers wait (must be positive)
+     * @param eventSink the destination for operation messages, shared by all shards (cannot be null)
+     * @return the running engine
+     * @throws IllegalArgumentException if shardCount or queueCapacity is not positive, or eventSink is null
+     */
+    public static ShardedService start(int shardCount, int queueCapacity, EventSink eventSink) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("Shard count must be positive");
+        }
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("Queue capacity must be positive");
+        }
+        if (eventSink == null) {
+            throw new IllegalArgumentException("Event sink cannot be null");
+        }
+        Shard[] shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(i, queueCapacity, eventSink);
+        }
+        return new ShardedService(shards);
+    }
+
+    /**
+     * @return the number of partitions
+     */
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    /**
+     * @param roomNumber the room number
+     * @return the index of the shard owning the room
+     */
+    public int shardOf(int roomNumber) {
+        return Math.floorMod(roomNumber, shards.length);
+    }
+
+    /**
+     * Creates or updates a room in the shard that owns it, see {@link Service#setRoom}
+     * @param roomNumber the unique identifier for the room (must be positive)
+     * @param roomType the type of the room (cannot be null)
+     * @param roomPricePerNight the price per night for the room (must be positive)
+     * @throws IllegalArgumentException if any parameter is invalid
+     */
+    public void setRoom(int roomNumber, RoomType roomType, int roomPricePerNight) {
+        await(shardFor(roomNumber).submit(service -> {
+            service.setRoom(roomNumber, roomType, roomPricePerNight);
+            return null;
+        }));
+    }
+
+    /**
+     * Creates a user if it doesn't exist, or updates the balance if it exists. A new user is
+     * registered in every shard before the call returns, so it can book any room afterwards;
+     * the balance of an existing user is updated by the shard at {@code userId} modulo the
+     * shard count, which records it like any other {@link Service#setUser} call.
+     * @param userId the unique identifier for the user (must be positive)
+     * @param balance the initial or updated balance for the user (cannot be negative)
+     * @throws IllegalArgumentException if userId is not positive or balance is negative
+     */
+    public void setUser(int userId, int balance) {
+        while (true) {
+            User created = null;
+            CompletableFuture<Void> registration;
+            synchronized (usersById) {
+                if (usersById.containsKey(userId)) {
+                    registration = null;
+                } else if ((registration = registrations.get(userId)) == null) {
+                    created = new User(userId, balance);
+                    registration = new CompletableFuture<>();
+                    registrations.put(userId, registration);
+                }
+            }
+
+            if (created != null) {
+                register(created, registration);
+                return;
+            }
+            if (registration == null) {
+                // The account is shared, so one update is seen by every shard
+                await(shards[Math.floorMod(userId, shards.length)].submit(service -> {
+                    service.setUser(userId, balance);
+                    return null;
+                }));
+                return;
+            }
+            // Another call is creating the user: update it once registered, or create it if that failed
+            registration.handle((ignored, failure) -> null).join();
+        }
+    }
+
+    /**
+     * Registers a new account in every shard, then publishes it; other calls for the same user
+     * wait on the registration meanwhile. If a shard cannot take the registration, the shards
+     * that did take it unregister the account again, so a later call starts from scratch.
+     */
+    private void register(User created, CompletableFuture<Void> registration) {
+        List<CompletableFuture<Object>> registered = new ArrayList<>(shards.length);
+        try {
+            for (Shard shard : shards) {
+                registered.add(shard.submit(service -> {
+                    service.registerUser(created);
+                    return null;
+                }));
+            }
+            for (CompletableFuture<Object> shardRegistration : registered) {
+                await(shardRegistration);
+            }
+        } catch (RuntimeException e) {
+            unregister(created, registered.size(), e);
+            synchronized (usersById) {
+                registrations.remove(created.getUserId());
+            }
+            registration.completeExceptionally(e);
+            throw e;
+        }
+        synchronized (usersById) {
+            registrations.remove(created.getUserId());
+            users.add(created);
+            usersById.put(created.getUserId(), created);
+        }
+        registration.complete(null);
+    }
+
+    /**
+     * Unregisters an account from the first shards, which accepted its registration. The
+     * caller may have been interrupted while waiting for a full queue, so the interrupt is
+     * held back until the shards are done.
+     */
+    private void unregister(User created, int shardCount, RuntimeException failure) {
+        boolean interrupted = Thread.interrupted();
+        List<CompletableFuture<Boolean>> removals = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            try {
+                removals.add(shards[i].submit(service -> service.unregisterUser(created)));
+            } catch (RejectedExecutionException e) {
+                // A closed shard runs no more requests, so the account can no longer be booked there
+                failure.addSuppressed(e);
+            }
+        }
+        for (CompletableFuture<Boolean> removal : removals) {
+            try {
+                await(removal);
+            } catch (RuntimeException e) {
+                failure.addSuppressed(e);
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Books a room in the shard that owns it, see {@link Service#bookRoom}
+     * @param userId the ID of the user making the booking
+     * @param roomNumber the number of the room to be booked
+     * @param checkIn the check-in date
+     * @param checkOut the check-out date (must be after check-in date)
+     * @throws RuntimeException the business exception of {@link Service#bookRoom} if the booking is rejected
+     */
+    public void bookRoom(int userId, int roomNumber, Date checkIn, Date checkOut) {
+        await(shardFor(roomNumber).submit(service -> {
+            service.bookRoom(userId, roomNumber, checkIn, checkOut);
+            return null;
+        }));
+    }
+
+    /**
+     * Books a room in the shard that owns it, reporting rejections as a result, see {@link Service#tryBookRoom}
+     * @param userId the ID of the user making the booking
+     * @param roomNumber the number of the room to be booked
+     * @param checkIn the check-in date
+     * @param checkOut the check-out date
+     * @return the committed booking, or the reason the booking was rejected
+     * @throws IllegalArgumentException if a date is null
+     */
+    public BookingResult tryBookRoom(int userId, int roomNumber, Date checkIn, Date checkOut) {
+        return await(tryBookRoomAsync(userId, roomNumber, checkIn, checkOut));
+    }
+
+    /**
+     * Queues a booking on the shard that owns the room without waiting for it, so one caller
+     * can keep every shard busy. Waits only while the shard's queue is full.
+     * @param userId the ID of the user making the booking
+     * @param roomNumber the number of the room to be booked
+     * @param checkIn the check-in date
+     * @param checkOut the check-out date
+     * @return the future result of {@link Service#tryBookRoom}
+     * @throws RejectedExecutionException if the engine is closed
+     */
+    public CompletableFuture<BookingResult> tryBookRoomAsync(int userId, int roomNumber, Date checkIn, Date checkOut) {
+        return shardFor(roomNumber).submit(service -> service.tryBookRoom(userId, roomNumber, checkIn, checkOut));
+    }
+
+    /**
+     * Finds the free rooms of a type in every shard at once, see {@link Service#findAvailableRooms}
+     * @param roomType the requested room type (cannot be null)
+     * @param checkIn the check-in date
+     * @param checkOut the check-out date (must be after check-in date)
+     * @return the free rooms of that type, shard by shard and in creation order within a shard
+     * @throws IllegalArgumentException if roomType or a date is null, or check-in is not before check-out
+     */
+    public List<Room> findAvailableRooms(RoomType roomType, Date checkIn, Date checkOut) {
+        List<CompletableFuture<List<Room>>> parts = new ArrayList<>(shards.length);
+        for (Shard shard : shards) {
+            parts.add(shard.submit(service -> service.findAvailableRooms(roomType, checkIn, checkOut)));
+        }
+        List<Room> available = new ArrayList<>();
+        for (CompletableFuture<List<Room>> part : parts) {
+            available.addAll(await(part));
+        }
+        return available;
+    }
+
+    /**
+     * @param shard the index of a shard
+     * @return the latency histograms and outcome counters of that shard
+     * @throws IndexOutOfBoundsException if there is no such shard
+     */
+    public ServiceMetrics getMetrics(int shard) {
+        return shards[shard].service.getMetrics();
+    }
+
+    /**
+     * @return a copy of every room, shard by shard
+     */
+    public List<Room> getRooms() {
+        List<Room> rooms = new ArrayList<>();
+        for (Shard shard : shards) {
+            rooms.addAll(shard.service.view().getRooms());
+        }
+        return rooms;
+    }
+
+    /**
+     * @return a copy of every user, in creation order
+     */
+    public List<User> getUsers() {
+        synchronized (usersById) {
+            return new ArrayList<>(users);
+        }
+    }
+
+    /**
+     * @return a copy of every live booking, shard by shard
+     */
+    public List<Booking> getBookings() {
+        List<Booking> bookings = new ArrayList<>();
+        for (Shard shard : shards) {
+            bookings.addAll(shard.service.view().getBookings());
+        }
+        return bookings;
+    }
+
+    /**
+     * Stops every shard after the requests already queued have run
+     */
+    @Override
+    public void close() {
+        for (Shard shard : shards) {
+            shard.loop.shutdown();
+        }
+        try {
+            for (Shard shard : shards) {
+                shard.loop.awaitTermination(1, TimeUnit.MINUTES);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Shard shardFor(int roomNumber) {
+        return shards[shardOf(roomNumber)];
+    }
+
+    /**
+     * Waits for a shard's answer, rethrowing the exception the shard's service threw
+     */
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * One partition: a service only ever called from its own thread
+     */
+    private static final class Shard {
+        final Service service;
+        final ThreadPoolExecutor loop;
+
+        Shard(int index, int queueCapacity, EventSink eventSink) {
+            this.service = new Service(eventSink, MutationListener.NONE, new ServiceMetrics());
+            this.loop = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity),
+                    task -> {
+                        Thread thread = new Thread(task, "hotel-shard-" + index);
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    Shard::waitForRoom);
+            loop.prestartCoreThread();
+        }
+
+        <T> CompletableFuture<T> submit(Command<T> command) {
+            Supplier<T> task = () -> command.apply(service);
+            return CompletableFuture.supplyAsync(task, loop);
+        }
+
+        /**
+         * Makes the caller wait for room in a full queue instead of failing the request
+         */
+        private static void waitForRoom(Runnable task, ThreadPoolExecutor loop) {
+            if (loop.isShutdown()) {
+                throw new RejectedExecutionException("Shard is closed");
+            }
+            try {
+                loop.getQueue().put(task);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RejectedExecutionException("Interrupted while waiting for the shard", e);
+            }
+            // The shard may have stopped while the caller waited, leaving the task unserved
+            if (loop.isShutdown() && loop.remove(task)) {
+                throw new RejectedExecutionException("Shard is closed");
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface Command<T> {
+        T apply(Service service);
+    }
+}
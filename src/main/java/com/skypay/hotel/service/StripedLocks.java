@@ -0,0 +1,52 @@
+package com.skypay.hotel.service;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed set of locks shared by keys through hashing, so unrelated rooms or users
+ * rarely contend while the number of lock objects stays bounded.
+ * When several stripes are needed they must be acquired in ascending stripe order.
+ */
+class StripedLocks {
+    private final ReentrantLock[] locks;
+    private final int mask;
+
+    /**
+     * @param stripes the number of stripes (must be a power of two)
+     */
+    StripedLocks(int stripes) {
+        if (stripes <= 0 || Integer.bitCount(stripes) != 1) {
+            throw new IllegalArgumentException("Stripe count must be a positive power of two");
+        }
+        this.locks = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        this.mask = stripes - 1;
+    }
+
+    /**
+     * @param key the room number or user ID
+     * @return the stripe index guarding the key
+     */
+    int stripeFor(int key) {
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    /**
+     * @param stripe a stripe index returned by {@link #stripeFor(int)}
+     * @return the lock of that stripe
+     */
+    ReentrantLock lockAt(int stripe) {
+        return locks[stripe];
+    }
+
+    /**
+     * @param key the room number or user ID
+     * @return the lock guarding the key
+     */
+    ReentrantLock lockFor(int key) {
+        return locks[stripeFor(key)];
+    }
+}
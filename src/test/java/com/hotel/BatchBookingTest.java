@@ -0,0 +1,228 @@
+package com.hotel;
+
+import com.skypay.hotel.cdc.ChangePublisher;
+import com.skypay.hotel.cdc.ChangeType;
+import com.skypay.hotel.cdc.WaitStrategy;
+import com.skypay.hotel.log.EventSink;
+import com.skypay.hotel.model.BatchMode;
+import com.skypay.hotel.model.Booking;
+import com.skypay.hotel.model.BookingRequest;
+import com.skypay.hotel.model.BookingResult;
+import com.skypay.hotel.model.BookingStatus;
+import com.skypay.hotel.model.Room;
+import com.skypay.hotel.model.RoomType;
+import com.skypay.hotel.model.User;
+import com.skypay.hotel.persistence.Journal;
+import com.skypay.hotel.service.MutationListener;
+import com.skypay.hotel.service.Service;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("Batch Booking Tests")
+class BatchBookingTest extends BaseTest {
+
+    private static final LocalDate JULY_1 = LocalDate.of(2026, 7, 1);
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    void setUpRoomsAndUsers() {
+        super.setUp();
+        service.setRoom(101, RoomType.STANDARD, 1000);
+        service.setRoom(102, RoomType.SUITE, 3000);
+        service.setUser(1, 10000);
+        service.setUser(2, 1500);
+        // Existing booking of room 101 on July 10-12
+        service.bookRoom(1, 101, createDate(2026, 6, 10), createDate(2026, 6, 12));
+    }
+
+    @Test
+    @DisplayName("Should commit every bookable request and reject the others in best-effort mode")
+    void shouldCommitBookableRequestsInBestEffortMode() {
+        // Given
+        List<BookingRequest> requests = List.of(
+                request(1, 101, 1, 3),    // ok
+                request(1, 101, 2, 4),    // overlaps the previous request of the batch
+                request(1, 101, 11, 13),  // overlaps the existing booking
+                request(2, 102, 1, 2),    // insufficient balance (3000 > 1500)
+                request(1, 102, 5, 5),    // invalid dates
+                request(9, 102, 1, 2),    // unknown user
+                request(1, 999, 1, 2),    // unknown room
+                request(1, 101, 3, 5),    // back-to-back with the first request: ok
+                request(2, 101, 12, 13)); // back-to-back with the existing booking: ok
+
+        // When
+        List<BookingResult> results = service.bookRooms(requests, BatchMode.BEST_EFFORT);
+
+        // Then
+        assertThat(results).extracting(BookingResult::getStatus).containsExactly(
+                BookingStatus.SUCCESS,
+                BookingStatus.ROOM_NOT_AVAILABLE,
+                BookingStatus.ROOM_NOT_AVAILABLE,
+                BookingStatus.INSUFFICIENT_BALANCE,
+                BookingStatus.INVALID_DATES,
+                BookingStatus.USER_NOT_FOUND,
+                BookingStatus.ROOM_NOT_FOUND,
+                BookingStatus.SUCCESS,
+                BookingStatus.SUCCESS);
+        assertThat(service.getBookings()).hasSize(4);
+        assertThat(balanceOf(1)).isEqualTo(10000 - 2000 - 2000 - 2000);
+        assertThat(balanceOf(2)).isEqualTo(500);
+    }
+
+    @Test
+    @DisplayName("Should commit nothing and refund every payment when one request fails in all-or-nothing mode")
+    void shouldCommitNothingWhenOneRequestFails() {
+        // Given - The last request conflicts with the existing booking
+        List<BookingRequest> requests = List.of(
+                request(1, 102, 1, 2),
+                request(2, 101, 1, 2),
+                request(1, 101, 10, 11));
+
+        // When
+        List<BookingResult> results = service.bookRooms(requests, BatchMode.ALL_OR_NOTHING);
+
+        // Then
+        assertThat(results).extracting(BookingResult::getStatus).containsExactly(
+                BookingStatus.BATCH_ABORTED,
+                BookingStatus.BATCH_ABORTED,
+                BookingStatus.ROOM_NOT_AVAILABLE);
+        assertThat(service.getBookings()).hasSize(1);
+        assertThat(balanceOf(1)).isEqualTo(8000);
+        assertThat(balanceOf(2)).isEqualTo(1500);
+    }
+
+    @Test
+    @DisplayName("Should commit the whole batch in request order in all-or-nothing mode")
+    void shouldCommitWholeBatchInRequestOrder() {
+        // Given
+        List<BookingRequest> requests = List.of(
+                request(1, 102, 1, 2),
+                request(2, 101, 1, 2),
+                request(1, 101, 2, 4));
+
+        // When
+        List<BookingResult> results = service.bookRooms(requests, BatchMode.ALL_OR_NOTHING);
+
+        // Then
+        assertThat(results).allMatch(BookingResult::isSuccess);
+        assertThat(results.get(0).getBooking().getBookingId())
+                .isLessThan(results.get(1).getBooking().getBookingId())
+                .isLessThan(results.get(2).getBooking().getBookingId());
+        assertThat(service.getBookings()).hasSize(4);
+    }
+
+    @Test
+    @DisplayName("Should cancel the bookings already journaled and free the change stream when a commit fails mid-batch")
+    void shouldRollBackReportedCommitsWhenCommitFails() throws IOException {
+        // Given - A journal failing on the third booking of a batch, followed by a change stream
+        Path path = directory.resolve("hotel.journal");
+        List<ChangeType> streamed = Collections.synchronizedList(new ArrayList<>());
+        List<Integer> expectedBalances = new ArrayList<>();
+        int bookingCount;
+        try (Journal journal = Journal.open(path, false);
+             ChangePublisher publisher = ChangePublisher.start(8, WaitStrategy.PARKING,
+                     (event, sequence, endOfBatch) -> streamed.add(event.getType()))) {
+            FailingJournal failing = new FailingJournal(journal, 3);
+            Service journaled = new Service(EventSink.DISCARD, failing.andThen(publisher));
+            journal.recover(journaled.recoveryTarget());
+            journaled.setRoom(101, RoomType.STANDARD, 1000);
+            journaled.setRoom(102, RoomType.SUITE, 3000);
+            journaled.setUser(1, 10000);
+            journaled.setUser(2, 1500);
+            List<BookingRequest> requests = List.of(
+                    request(1, 102, 1, 2),
+                    request(2, 101, 1, 2),
+                    request(1, 101, 2, 4),
+                    request(2, 101, 4, 5));
+
+            // When
+            assertThrows(IllegalStateException.class, () -> journaled.bookRooms(requests, BatchMode.BEST_EFFORT));
+
+            // Then - Nothing is booked, and the stream keeps flowing past a full ring of later changes
+            assertThat(journaled.getBookings()).isEmpty();
+            assertThat(journaled.getUsers()).extracting(User::getBalance).containsExactly(10000, 1500);
+            for (int day = 1; day <= 10; day++) {
+                journaled.bookRoom(1, 101, createDate(2026, 7, day), createDate(2026, 7, day + 1));
+            }
+            journaled.getUsers().forEach(user -> expectedBalances.add(user.getBalance()));
+            bookingCount = journaled.getBookings().size();
+        }
+        assertThat(streamed).hasSize(4 + 10).doesNotContain(ChangeType.BOOKING_CANCELLED);
+
+        // Then - Replaying the journal cancels the two bookings it recorded before the failure
+        Service restored = new Service();
+        try (Journal journal = Journal.open(path, false)) {
+            journal.recover(restored.recoveryTarget());
+        }
+        assertThat(restored.getBookings()).hasSize(bookingCount);
+        assertThat(restored.getUsers()).extracting(User::getBalance).containsExactlyElementsOf(expectedBalances);
+    }
+
+    private static BookingRequest request(int userId, int roomNumber, int checkInDay, int checkOutDay) {
+        return new BookingRequest(userId, roomNumber,
+                JULY_1.plusDays(checkInDay - 1), JULY_1.plusDays(checkOutDay - 1));
+    }
+
+    private int balanceOf(int userId) {
+        return service.getUsers().stream()
+                .filter(user -> user.getUserId() == userId)
+                .mapToInt(User::getBalance)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    /**
+     * Journal that fails to record the Nth booking committed through it
+     */
+    private static final class FailingJournal implements MutationListener {
+        private final Journal journal;
+        private int commitsLeft;
+
+        FailingJournal(Journal journal, int failingCommit) {
+            this.journal = journal;
+            this.commitsLeft = failingCommit;
+        }
+
+        @Override
+        public void roomSaved(Room room) {
+            journal.roomSaved(room);
+        }
+
+        @Override
+        public void userSaved(User user, long balanceStamp) {
+            journal.userSaved(user, balanceStamp);
+        }
+
+        @Override
+        public void bookingCommitted(Booking booking, long balanceStamp) {
+            if (--commitsLeft == 0) {
+                throw new IllegalStateException("disk is full");
+            }
+            journal.bookingCommitted(booking, balanceStamp);
+        }
+
+        @Override
+        public void bookingCancelled(Booking booking, long balanceStamp) {
+            journal.bookingCancelled(booking, balanceStamp);
+        }
+
+        @Override
+        public void mutationCompleted() {
+            journal.mutationCompleted();
+        }
+    }
+}
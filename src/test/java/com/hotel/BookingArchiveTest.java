@@ -0,0 +1,143 @@
+package com.hotel;
+
+import com.skypay.hotel.exception.BookingNotFoundException;
+import com.skypay.hotel.exception.RoomNotAvailableException;
+import com.skypay.hotel.index.ColdBookingTier;
+import com.skypay.hotel.log.EventSink;
+import com.skypay.hotel.log.LogLevel;
+import com.skypay.hotel.model.Booking;
+import com.skypay.hotel.model.BookingStatus;
+import com.skypay.hotel.model.RoomType;
+import com.skypay.hotel.report.ReportFormat;
+import com.skypay.hotel.report.ReportPage;
+import com.skypay.hotel.report.ReportWriter;
+import com.skypay.hotel.service.BookingArchiver;
+import com.skypay.hotel.service.Service;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("Booking Archive Tests")
+class BookingArchiveTest extends BaseTest {
+
+    @Test
+    @DisplayName("Should keep archived stays readable and stop checking them for availability")
+    void shouldServeArchivedStaysFromColdTier(@TempDir Path directory) throws Exception {
+        // Given
+        service.setRoom(1, RoomType.STANDARD, 1000);
+        service.setRoom(2, RoomType.SUITE, 3000);
+        service.setUser(1, 100_000);
+        service.bookRoom(1, 1, LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 4));
+        service.bookRoom(1, 2, LocalDate.of(2026, 5, 1), LocalDate.of(2026, 5, 2));
+        service.bookRoom(1, 1, LocalDate.of(2026, 6, 30), LocalDate.of(2026, 7, 2));
+        service.bookRoom(1, 1, checkInDate, checkOutDate);
+        List<Booking> before = service.getBookings();
+        ColdBookingTier tier = ColdBookingTier.open(directory);
+
+        // When
+        int archived = service.archivePastStays(tier, LocalDate.of(2026, 7, 1));
+
+        // Then
+        assertThat(archived).isEqualTo(2);
+        assertThat(service.getArchivedBookingCount()).isEqualTo(2);
+        assertThat(service.archivePastStays(tier, LocalDate.of(2026, 7, 1))).isZero();
+        assertThat(service.getBookings()).usingRecursiveFieldByFieldElementComparator().containsExactlyElementsOf(before);
+        assertThat(service.view().getBookingsOfRoom(1)).extracting(Booking::getCheckInDate)
+                .containsExactly(LocalDate.of(2026, 3, 1), LocalDate.of(2026, 6, 30), LocalDate.of(2026, 7, 7));
+        assertThat(service.view().getBookingsOfUser(1)).hasSize(4);
+        StringWriter csv = new StringWriter();
+        ReportWriter writer = new ReportWriter(csv, ReportFormat.CSV);
+        service.exportBookings(writer, ReportPage.NEWEST, 10);
+        writer.flush();
+        assertThat(csv.toString().split("\n")).hasSize(5);
+        assertThat(service.checkRevenueAggregates()).isEmpty();
+
+        // Archived stays are final, and their nights can no longer be booked
+        int archivedId = before.get(0).getBookingId();
+        assertThrows(BookingNotFoundException.class, () -> service.cancelBooking(archivedId));
+        assertThat(service.tryBookRoom(1, 1, LocalDate.of(2026, 3, 10), LocalDate.of(2026, 3, 12)).getStatus())
+                .isEqualTo(BookingStatus.ROOM_NOT_AVAILABLE);
+        assertThrows(RoomNotAvailableException.class, () -> service.bookRoom(1, 1, LocalDate.of(2026, 7, 1),
+                LocalDate.of(2026, 7, 3)));
+        service.bookRoom(1, 1, LocalDate.of(2026, 7, 2), LocalDate.of(2026, 7, 3));
+        assertThat(service.cancelBooking(before.get(2).getBookingId()).getCheckInDate()).isEqualTo(LocalDate.of(2026, 6, 30));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.archivePastStays(ColdBookingTier.open(directory.resolve("other")), LocalDate.of(2026, 8, 1)));
+    }
+
+    @Test
+    @DisplayName("Should archive past stays in the background into segment files")
+    void shouldArchiveInBackground(@TempDir Path directory) throws Exception {
+        // Given
+        Service history = new Service();
+        history.setRoom(1, RoomType.JUNIOR, 100);
+        history.setUser(1, 1_000_000);
+        LocalDate today = LocalDate.now();
+        for (int day = 400; day > 0; day -= 2) {
+            history.bookRoom(1, 1, today.minusDays(day), today.minusDays(day - 1));
+        }
+        history.bookRoom(1, 1, today, today.plusDays(1));
+        Files.writeString(directory.resolve("bookings-00000000.cold"), "left by a previous run");
+
+        // When
+        try (BookingArchiver archiver = BookingArchiver.start(history, directory, 1, TimeUnit.HOURS)) {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (history.getArchivedBookingCount() < 200 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+        }
+
+        // Then
+        assertThat(history.getArchivedBookingCount()).isEqualTo(200);
+        assertThat(history.getBookings()).hasSize(201);
+        assertThat(Files.size(directory.resolve("bookings-00000000.cold"))).isGreaterThan(200L * 44);
+        assertThrows(IllegalArgumentException.class, () -> BookingArchiver.start(history, directory, 0, TimeUnit.HOURS));
+    }
+
+    @Test
+    @DisplayName("Should log and count failed background archive runs, and keep trying")
+    void shouldReportFailedArchiveRuns(@TempDir Path directory) throws Exception {
+        // Given - A service already archiving to another tier, which makes every run fail
+        List<String> errors = Collections.synchronizedList(new ArrayList<>());
+        EventSink sink = new EventSink() {
+            @Override
+            public boolean isEnabled(LogLevel level) {
+                return level == LogLevel.ERROR;
+            }
+
+            @Override
+            public void log(LogLevel level, String message) {
+                errors.add(message);
+            }
+        };
+        Service archiving = new Service(sink);
+        archiving.archivePastStays(ColdBookingTier.open(directory.resolve("first")), LocalDate.now());
+
+        // When
+        try (BookingArchiver archiver = BookingArchiver.start(archiving, directory.resolve("second"), 5,
+                TimeUnit.MILLISECONDS)) {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (errors.size() < 2 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+        }
+
+        // Then
+        assertThat(errors).hasSizeGreaterThanOrEqualTo(2);
+        assertThat(errors.get(0)).isEqualTo("Booking archiving failed, retrying at the next run: "
+                + "java.lang.IllegalArgumentException: Bookings are already archived to another tier");
+        assertThat(archiving.getMetrics().getExceptionCount(IllegalArgumentException.class)).isGreaterThanOrEqualTo(2);
+    }
+}
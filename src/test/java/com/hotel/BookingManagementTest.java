@@ -6,16 +6,21 @@ import com.skypay.hotel.exception.RoomNotFoundException;
 import com.skypay.hotel.exception.RoomNotAvailableException;
 import com.skypay.hotel.exception.UserNotFoundException;
 import com.skypay.hotel.model.Booking;
+import com.skypay.hotel.model.BookingResult;
+import com.skypay.hotel.model.BookingStatus;
+import com.skypay.hotel.model.EpochDays;
 import com.skypay.hotel.model.RoomType;
 import com.skypay.hotel.model.User;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.time.LocalDate;
 import java.util.Date;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
@@ -170,4 +175,84 @@ class BookingManagementTest extends BaseTest {
         assertThrows(RuntimeException.class,
                 () -> service.bookRoom(1, 101, checkInDate, null));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should return a successful result from tryBookRoom")
+    void shouldReturnSuccessfulResult() {
+        // When
+        BookingResult result = service.tryBookRoom(1, 101, checkInDate, checkOutDate);
+
+        // Then
+        assertThat(result.isSuccess()).isTrue();
+        assertThat(result.getStatus()).isEqualTo(BookingStatus.SUCCESS);
+        assertThat(result.getBooking()).isEqualTo(service.getBookings().get(0));
+        assertThat(result.getRequiredAmount()).isEqualTo(2000);
+    }
+
+    @Test
+    @DisplayName("Should report rejection reasons from tryBookRoom without throwing")
+    void shouldReportRejectionReasons() {
+        // Given
+        service.setUser(2, 100);
+        service.bookRoom(1, 101, checkInDate, checkOutDate);
+
+        // When & Then
+        assertThat(service.tryBookRoom(1, 101, checkOutDate, checkInDate).getStatus())
+                .isEqualTo(BookingStatus.INVALID_DATES);
+        assertThat(service.tryBookRoom(999, 101, checkInDate, checkOutDate).getStatus())
+                .isEqualTo(BookingStatus.USER_NOT_FOUND);
+        assertThat(service.tryBookRoom(1, 999, checkInDate, checkOutDate).getStatus())
+                .isEqualTo(BookingStatus.ROOM_NOT_FOUND);
+        assertThat(service.tryBookRoom(1, 101, checkInDate, checkOutDate).getStatus())
+                .isEqualTo(BookingStatus.ROOM_NOT_AVAILABLE);
+
+        BookingResult result = service.tryBookRoom(2, 101, createDate(2026, 6, 20), createDate(2026, 6, 21));
+        assertThat(result.getStatus()).isEqualTo(BookingStatus.INSUFFICIENT_BALANCE);
+        assertThat(result.getRequiredAmount()).isEqualTo(1000);
+        assertThat(result.getAvailableBalance()).isEqualTo(100);
+        assertThat(result.getBooking()).isNull();
+
+        assertThat(service.getBookings()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Should throw rejections without capturing a stack trace")
+    void shouldThrowRejectionsWithoutStackTrace() {
+        // Given
+        service.bookRoom(1, 101, checkInDate, checkOutDate);
+
+        // When
+        Exception exception = assertThrows(RoomNotAvailableException.class,
+                () -> service.bookRoom(1, 101, checkInDate, checkOutDate));
+
+        // Then
+        assertThat(exception.getStackTrace()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should book the same stays through the date, LocalDate and epoch-day overloads")
+    void shouldBookThroughEveryDateForm() {
+        // Given
+        LocalDate checkIn = LocalDate.of(2026, 7, 7);
+        service.setRoom(102, RoomType.SUITE, 500);
+        service.setRoom(103, RoomType.SUITE, 500);
+
+        // When
+        service.bookRoom(1, 101, checkInDate, checkOutDate);
+        service.bookRoom(1, 102, checkIn, checkIn.plusDays(2));
+        BookingResult byEpochDay = service.tryBookRoom(1, 103,
+                EpochDays.of(checkIn), EpochDays.of(checkIn) + 2);
+
+        // Then
+        assertThat(service.getBookings()).extracting(Booking::getCheckInDate, Booking::getCheckOutDate)
+                .containsOnly(tuple(checkIn, LocalDate.of(2026, 7, 9)));
+        assertThat(byEpochDay.getBooking().getNumberOfNights()).isEqualTo(2);
+        assertThat(byEpochDay.getBooking().overlaps(EpochDays.of(checkIn) + 1, EpochDays.of(checkIn) + 5)).isTrue();
+        assertThat(byEpochDay.getBooking().overlaps(checkIn.plusDays(2), checkIn.plusDays(3))).isFalse();
+        assertThrows(RoomNotAvailableException.class,
+                () -> service.bookRoom(1, 102, EpochDays.of(checkIn) + 1, EpochDays.of(checkIn) + 3));
+        assertThat(service.tryBookRoom(1, 103, EpochDays.of(checkIn), EpochDays.of(checkIn)).getStatus())
+                .isEqualTo(BookingStatus.INVALID_DATES);
+        assertThat(service.getUsers().get(0).getBalance()).isEqualTo(5000 - 2000 - 1000 - 1000);
+    }
+}
@@ -0,0 +1,285 @@
+package com.hotel;
+
+import com.skypay.hotel.exception.BookingNotFoundException;
+import com.skypay.hotel.log.EventSink;
+import com.skypay.hotel.log.LogLevel;
+import com.skypay.hotel.model.Booking;
+import com.skypay.hotel.model.BookingResult;
+import com.skypay.hotel.model.BookingStatus;
+import com.skypay.hotel.model.Room;
+import com.skypay.hotel.model.RoomType;
+import com.skypay.hotel.model.User;
+import com.skypay.hotel.persistence.DurableStore;
+import com.skypay.hotel.persistence.Journal;
+import com.skypay.hotel.service.BookingCompactor;
+import com.skypay.hotel.service.MutationListener;
+import com.skypay.hotel.service.Service;
+import com.skypay.hotel.service.ServiceView;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("Booking Cancellation Tests")
+class CancellationTest extends BaseTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Should refund the booking and free its nights for a new booking")
+    void shouldRefundAndFreeNights() {
+        // Given
+        service.setRoom(1, RoomType.STANDARD, 1000);
+        service.setUser(1, 5000);
+        service.setUser(2, 5000);
+        service.bookRoom(1, 1, checkInDate, checkOutDate);
+        int bookingId = service.getBookings().get(0).getBookingId();
+
+        // When
+        Booking cancelled = service.cancelBooking(bookingId);
+
+        // Then
+        assertThat(cancelled.getBookingId()).isEqualTo(bookingId);
+        assertThat(service.getUsers().get(0).getBalance()).isEqualTo(5000);
+        assertThat(service.getBookings()).isEmpty();
+        assertThat(service.getRevenueAggregates().getTotalRevenue()).isZero();
+        assertThat(service.findAvailableRooms(RoomType.STANDARD, checkInDate, checkOutDate))
+                .extracting(Room::getRoomNumber).containsExactly(1);
+        assertThat(service.tryBookRoom(2, 1, checkInDate, checkOutDate).isSuccess()).isTrue();
+        assertThat(service.getUsers().get(1).getBalance()).isEqualTo(3000);
+    }
+
+    @Test
+    @DisplayName("Should reject unknown and already cancelled bookings without changing balances")
+    void shouldRejectUnknownAndCancelledBookings() {
+        // Given
+        service.setRoom(1, RoomType.STANDARD, 1000);
+        service.setUser(1, 5000);
+        service.bookRoom(1, 1, checkInDate, checkOutDate);
+        int bookingId = service.getBookings().get(0).getBookingId();
+        service.cancelBooking(bookingId);
+
+        // When / Then
+        assertThrows(BookingNotFoundException.class, () -> service.cancelBooking(bookingId));
+        assertThrows(BookingNotFoundException.class, () -> service.cancelBooking(bookingId + 1000));
+        assertThat(service.getUsers().get(0).getBalance()).isEqualTo(5000);
+        assertThat(service.getCancelledBookingCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should remove tombstones on compaction while views and lookups keep working")
+    void shouldCompactWithoutDisturbingViews() {
+        // Given
+        for (int roomNumber = 1; roomNumber <= 10; roomNumber++) {
+            service.setRoom(roomNumber, RoomType.STANDARD, 100);
+        }
+        service.setUser(1, 10_000_000);
+        service.setUser(2, 10_000_000);
+        Random random = new Random(16);
+        for (int i = 0; i < 40_000; i++) {
+            int day = random.nextInt(3000);
+            service.tryBookRoom(1 + random.nextInt(2), 1 + random.nextInt(10),
+                    createDate(2027, 0, 1 + day), createDate(2027, 0, 2 + day));
+        }
+        List<Booking> booked = service.getBookings();
+        List<Integer> kept = new ArrayList<>();
+        for (Booking booking : booked) {
+            if (booking.getBookingId() % 2 == 0) {
+                service.cancelBooking(booking.getBookingId());
+            } else {
+                kept.add(booking.getBookingId());
+            }
+        }
+        ServiceView before = service.view();
+
+        // When
+        int removed = service.compactBookings();
+
+        // Then
+        assertThat(removed).isEqualTo(booked.size() - kept.size());
+        assertThat(service.getCancelledBookingCount()).isZero();
+        assertThat(service.compactBookings()).isZero();
+        assertThat(before.getBookings()).extracting(Booking::getBookingId).containsExactlyElementsOf(kept);
+        ServiceView after = service.view();
+        assertThat(after.getBookings()).extracting(Booking::getBookingId).containsExactlyElementsOf(kept);
+        assertThat(after.getBookingsOfRoom(3)).extracting(Booking::getBookingId)
+                .containsExactlyElementsOf(before.getBookingsOfRoom(3).stream()
+                        .map(Booking::getBookingId).collect(Collectors.toList()));
+        assertThat(service.checkRevenueAggregates()).isEmpty();
+        int last = kept.get(kept.size() - 1);
+        service.cancelBooking(last);
+        assertThat(service.view().getBookingsOfUser(1)).extracting(Booking::getBookingId).doesNotContain(last);
+    }
+
+    @Test
+    @DisplayName("Should compact in the background")
+    void shouldCompactInBackground() throws InterruptedException {
+        // Given
+        service.setRoom(1, RoomType.STANDARD, 1000);
+        service.setUser(1, 5000);
+        service.bookRoom(1, 1, checkInDate, checkOutDate);
+        service.cancelBooking(service.getBookings().get(0).getBookingId());
+
+        // When
+        try (BookingCompactor compactor = BookingCompactor.start(service, 10, TimeUnit.MILLISECONDS)) {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (service.getCancelledBookingCount() > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+        }
+
+        // Then
+        assertThat(service.getCancelledBookingCount()).isZero();
+        assertThrows(IllegalArgumentException.class, () -> BookingCompactor.start(null, 1, TimeUnit.SECONDS));
+        assertThrows(IllegalArgumentException.class, () -> BookingCompactor.start(service, 0, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Should log and count failed background compactions, and keep trying")
+    void shouldReportFailedCompactions() throws InterruptedException {
+        // Given - A service whose compaction fails
+        List<String> errors = Collections.synchronizedList(new ArrayList<>());
+        EventSink sink = new EventSink() {
+            @Override
+            public boolean isEnabled(LogLevel level) {
+                return level == LogLevel.ERROR;
+            }
+
+            @Override
+            public void log(LogLevel level, String message) {
+                errors.add(message);
+            }
+        };
+        Service failing = new Service(sink) {
+            @Override
+            public int compactBookings() {
+                throw new IllegalStateException("out of memory for a new generation");
+            }
+        };
+        failing.setRoom(1, RoomType.STANDARD, 1000);
+        failing.setUser(1, 5000);
+        failing.bookRoom(1, 1, checkInDate, checkOutDate);
+        failing.cancelBooking(failing.getBookings().get(0).getBookingId());
+
+        // When
+        try (BookingCompactor compactor = BookingCompactor.start(failing, 5, TimeUnit.MILLISECONDS)) {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (errors.size() < 2 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+        }
+
+        // Then
+        assertThat(errors).hasSizeGreaterThanOrEqualTo(2);
+        assertThat(errors.get(0)).isEqualTo("Booking compaction failed, retrying at the next run: "
+                + "java.lang.IllegalStateException: out of memory for a new generation");
+        assertThat(failing.getMetrics().getExceptionCount(IllegalStateException.class)).isGreaterThanOrEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should keep the refund out of reach until the cancellation is reported, and drop it if reporting fails")
+    void shouldNotSpendUnreportedRefund() throws Exception {
+        // Given - A listener failing to report a cancellation while another booking tries to spend the refund
+        BookingResult[] concurrent = new BookingResult[1];
+        Service[] target = new Service[1];
+        MutationListener failingCancellations = new MutationListener() {
+            @Override
+            public void roomSaved(Room room) {
+            }
+
+            @Override
+            public void userSaved(User user, long balanceStamp) {
+            }
+
+            @Override
+            public void bookingCommitted(Booking booking, long balanceStamp) {
+            }
+
+            @Override
+            public void bookingCancelled(Booking booking, long balanceStamp) {
+                Thread spender = new Thread(() -> concurrent[0] = target[0].tryBookRoom(1, 2, checkInDate, checkOutDate));
+                spender.start();
+                try {
+                    spender.join(200);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new IllegalStateException("journal is down");
+            }
+        };
+        Service failing = new Service(EventSink.DISCARD, failingCancellations);
+        target[0] = failing;
+        failing.setRoom(1, RoomType.STANDARD, 1000);
+        failing.setRoom(2, RoomType.STANDARD, 1000);
+        failing.setUser(1, 2000);
+        failing.bookRoom(1, 1, checkInDate, checkOutDate);
+        int bookingId = failing.getBookings().get(0).getBookingId();
+
+        // When
+        assertThrows(IllegalStateException.class, () -> failing.cancelBooking(bookingId));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (concurrent[0] == null && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+
+        // Then - The other booking only saw the balance without the refund
+        assertThat(concurrent[0].getStatus()).isEqualTo(BookingStatus.INSUFFICIENT_BALANCE);
+        assertThat(failing.getUsers().get(0).getBalance()).isZero();
+        assertThat(failing.getBookings()).extracting(Booking::getBookingId).containsExactly(bookingId);
+    }
+
+    @Test
+    @DisplayName("Should replay cancellations from the journal and from snapshots")
+    void shouldRecoverCancellations() throws IOException {
+        // Given
+        Path path = directory.resolve("hotel.journal");
+        try (Journal journal = Journal.open(path, true)) {
+            Service original = new Service(EventSink.DISCARD, journal);
+            journal.recover(original.recoveryTarget());
+            original.setRoom(1, RoomType.STANDARD, 1000);
+            original.setUser(1, 5000);
+            original.bookRoom(1, 1, checkInDate, checkOutDate);
+            original.cancelBooking(original.getBookings().get(0).getBookingId());
+        }
+        try (DurableStore store = DurableStore.open(directory.resolve("store"), true)) {
+            Service original = new Service(EventSink.DISCARD, store.getJournal());
+            store.recover(original.recoveryTarget());
+            original.setRoom(1, RoomType.STANDARD, 1000);
+            original.setUser(1, 5000);
+            original.bookRoom(1, 1, checkInDate, checkOutDate);
+            original.bookRoom(1, 1, checkOutDate, createDate(2026, 6, 10));
+            original.cancelBooking(original.getBookings().get(0).getBookingId());
+            store.snapshot(original);
+            original.cancelBooking(original.getBookings().get(0).getBookingId());
+        }
+
+        // When
+        Service fromJournal = new Service();
+        try (Journal journal = Journal.open(path, true)) {
+            journal.recover(fromJournal.recoveryTarget());
+        }
+        Service fromSnapshot = new Service();
+        try (DurableStore store = DurableStore.open(directory.resolve("store"), true)) {
+            store.recover(fromSnapshot.recoveryTarget());
+        }
+
+        // Then
+        for (Service restored : List.of(fromJournal, fromSnapshot)) {
+            assertThat(restored.getBookings()).isEmpty();
+            assertThat(restored.getUsers()).extracting(User::getBalance).containsExactly(5000);
+            assertThat(restored.tryBookRoom(1, 1, checkInDate, checkOutDate).isSuccess()).isTrue();
+        }
+    }
+}
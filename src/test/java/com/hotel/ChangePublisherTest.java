@@ -0,0 +1,295 @@
+package com.hotel;
+
+import com.skypay.hotel.cdc.ChangeConsumer;
+import com.skypay.hotel.cdc.ChangePublisher;
+import com.skypay.hotel.cdc.WaitStrategy;
+import com.skypay.hotel.log.EventSink;
+import com.skypay.hotel.model.Booking;
+import com.skypay.hotel.model.BookingStatus;
+import com.skypay.hotel.model.Room;
+import com.skypay.hotel.model.RoomType;
+import com.skypay.hotel.model.User;
+import com.skypay.hotel.service.MutationListener;
+import com.skypay.hotel.service.Service;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("Change Publisher Tests")
+class ChangePublisherTest {
+
+    @Test
+    @DisplayName("Should stream every room, user and booking change to each consumer in order")
+    void shouldStreamChanges() {
+        // Given
+        List<String> channelManager = Collections.synchronizedList(new ArrayList<>());
+        List<String> billing = Collections.synchronizedList(new ArrayList<>());
+        List<Boolean> batchEnds = Collections.synchronizedList(new ArrayList<>());
+        List<String> journaled = new ArrayList<>();
+        MutationListener journal = new MutationListener() {
+            @Override
+            public void roomSaved(Room room) {
+                journaled.add("room " + room.getRoomNumber());
+            }
+
+            @Override
+            public void userSaved(User user, long balanceStamp) {
+                journaled.add("user " + user.getUserId());
+            }
+
+            @Override
+            public void bookingCommitted(Booking booking, long balanceStamp) {
+                journaled.add("booking " + booking.getBookingId());
+            }
+
+            @Override
+            public void bookingCancelled(Booking booking, long balanceStamp) {
+                journaled.add("cancel " + booking.getBookingId());
+            }
+        };
+        Booking booking;
+        try (ChangePublisher publisher = ChangePublisher.start(8, WaitStrategy.PARKING,
+                (event, sequence, endOfBatch) -> channelManager.add(sequence + " " + event),
+                (event, sequence, endOfBatch) -> {
+                    billing.add(sequence + " " + event);
+                    batchEnds.add(endOfBatch);
+                })) {
+            Service service = new Service(EventSink.DISCARD, journal.andThen(publisher));
+
+            // When
+            service.setRoom(1, RoomType.SUITE, 2000);
+            service.setUser(1, 5000);
+            service.bookRoom(1, 1, LocalDate.of(2026, 7, 7), LocalDate.of(2026, 7, 9));
+            assertThat(service.tryBookRoom(1, 1, LocalDate.of(2026, 7, 8), LocalDate.of(2026, 7, 9)).getStatus())
+                    .isEqualTo(BookingStatus.ROOM_NOT_AVAILABLE);
+            booking = service.getBookings().get(0);
+            service.cancelBooking(booking.getBookingId());
+            for (int user = 2; user <= 20; user++) {
+                service.setUser(user, user);
+            }
+            assertThat(publisher.getPublishedCount()).isEqualTo(23);
+        }
+
+        // Then - Closing waits for the consumers to read every change
+        assertThat(journaled).hasSize(23);
+        assertThat(billing).containsExactlyElementsOf(channelManager);
+        assertThat(channelManager).hasSize(23);
+        assertThat(channelManager.subList(0, 4)).containsExactly(
+                "0 ChangeEvent{type=ROOM_SAVED, roomNumber=1, roomType=suite, pricePerNight=2000}",
+                "1 ChangeEvent{type=USER_SAVED, userId=1, balance=5000}",
+                "2 ChangeEvent{type=BOOKING_COMMITTED, bookingId=" + booking.getBookingId() +
+                        ", userId=1, roomNumber=1, checkIn=2026-07-07, checkOut=2026-07-09, totalAmount=4000, balance=1000}",
+                "3 ChangeEvent{type=BOOKING_CANCELLED, bookingId=" + booking.getBookingId() +
+                        ", userId=1, roomNumber=1, checkIn=2026-07-07, checkOut=2026-07-09, totalAmount=4000, balance=5000}");
+        assertThat(channelManager.get(22)).isEqualTo("22 ChangeEvent{type=USER_SAVED, userId=20, balance=20}");
+        assertThat(batchEnds.get(batchEnds.size() - 1)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should hold publishers back while the slowest consumer is a ring behind, dropping nothing")
+    void shouldApplyBackpressure() throws Exception {
+        // Given - A consumer stuck on the first event and a ring of four events
+        CountDownLatch release = new CountDownLatch(1);
+        List<Long> slow = Collections.synchronizedList(new ArrayList<>());
+        AtomicLong fast = new AtomicLong();
+        User user = new User(1, 0);
+        ChangePublisher publisher = ChangePublisher.start(4, WaitStrategy.YIELDING,
+                (event, sequence, endOfBatch) -> {
+                    awaitQuietly(release);
+                    slow.add(sequence);
+                },
+                (event, sequence, endOfBatch) -> fast.incrementAndGet());
+
+        // When
+        Thread[] producers = new Thread[4];
+        for (int p = 0; p < producers.length; p++) {
+            producers[p] = new Thread(() -> {
+                for (int i = 0; i < 2_500; i++) {
+                    publisher.userSaved(user, user.getBalanceStamp());
+                    publisher.mutationCompleted();
+                }
+            });
+            producers[p].start();
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (publisher.getBackpressureWaitCount() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+
+        // Then - Publishers wait for the stuck consumer, the fast one gets no further than a ring ahead
+        assertThat(publisher.getBackpressureWaitCount()).isPositive();
+        assertThat(fast.get()).isLessThanOrEqualTo(5);
+        release.countDown();
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        publisher.close();
+        assertThat(fast.get()).isEqualTo(10_000);
+        assertThat(slow).hasSize(10_000);
+        for (int i = 0; i < slow.size(); i++) {
+            assertThat(slow.get(i)).isEqualTo(i);
+        }
+        assertThat(publisher.getConsumerFailureCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should keep delivering when a consumer throws, and reject invalid configurations")
+    void shouldIsolateFailingConsumers() {
+        // Given
+        AtomicLong delivered = new AtomicLong();
+        ChangeConsumer failing = (event, sequence, endOfBatch) -> {
+            throw new IllegalStateException("billing is down");
+        };
+        ChangePublisher publisher = ChangePublisher.start(16, WaitStrategy.BUSY_SPIN, failing,
+                (event, sequence, endOfBatch) -> delivered.incrementAndGet());
+
+        // When
+        Room room = new Room(1, RoomType.STANDARD, 1000);
+        for (int i = 0; i < 100; i++) {
+            publisher.roomSaved(room);
+            publisher.mutationCompleted();
+        }
+        publisher.close();
+        publisher.roomSaved(room);
+
+        // Then
+        assertThat(delivered.get()).isEqualTo(100);
+        assertThat(publisher.getConsumerFailureCount()).isEqualTo(100);
+        assertThat(publisher.getPublishedCount()).isEqualTo(100);
+        assertThrows(IllegalArgumentException.class, () -> ChangePublisher.start(6, WaitStrategy.PARKING, failing));
+        assertThrows(IllegalArgumentException.class, () -> ChangePublisher.start(8, null, failing));
+        assertThrows(IllegalArgumentException.class, () -> ChangePublisher.start(8, WaitStrategy.PARKING));
+        assertThrows(IllegalArgumentException.class, () -> MutationListener.NONE.andThen(null));
+    }
+
+    @Test
+    @DisplayName("Should only deliver changes once the journal ahead has completed them, and drop those it fails")
+    void shouldPublishOnlyCompletedChanges() throws Exception {
+        // Given - A journal whose completion waits for a latch, then fails once
+        CountDownLatch durable = new CountDownLatch(1);
+        boolean[] failCompletion = new boolean[1];
+        List<String> delivered = Collections.synchronizedList(new ArrayList<>());
+        MutationListener journal = new MutationListener() {
+            @Override
+            public void roomSaved(Room room) {
+            }
+
+            @Override
+            public void userSaved(User user, long balanceStamp) {
+            }
+
+            @Override
+            public void bookingCommitted(Booking booking, long balanceStamp) {
+            }
+
+            @Override
+            public void bookingCancelled(Booking booking, long balanceStamp) {
+            }
+
+            @Override
+            public void mutationCompleted() {
+                awaitQuietly(durable);
+                if (failCompletion[0]) {
+                    failCompletion[0] = false;
+                    throw new IllegalStateException("disk is full");
+                }
+            }
+        };
+        try (ChangePublisher publisher = ChangePublisher.start(8, WaitStrategy.PARKING,
+                (event, sequence, endOfBatch) -> delivered.add(sequence + " " + event.getType()))) {
+            Service service = new Service(EventSink.DISCARD, journal.andThen(publisher));
+
+            // When
+            Thread caller = new Thread(() -> service.setRoom(1, RoomType.SUITE, 2000));
+            caller.start();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (publisher.getPublishedCount() == 0 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            Thread.sleep(50);
+
+            // Then - The change is claimed but not delivered until it is durable
+            assertThat(publisher.getPublishedCount()).isEqualTo(1);
+            assertThat(delivered).isEmpty();
+            durable.countDown();
+            caller.join();
+
+            // When - The journal fails to complete a change, then completes the next one
+            failCompletion[0] = true;
+            assertThrows(IllegalStateException.class, () -> service.setUser(1, 5000));
+            service.setUser(2, 7000);
+        }
+
+        // Then - The failed change is skipped
+        assertThat(delivered).containsExactly("0 ROOM_SAVED", "2 USER_SAVED");
+    }
+
+    @Test
+    @DisplayName("Should not fail a call recorded by the first listener when the next one throws")
+    void shouldNotFailAfterFirstListenerAccepted() {
+        // Given
+        List<Integer> recorded = new ArrayList<>();
+        MutationListener first = new MutationListener() {
+            @Override
+            public void roomSaved(Room room) {
+                recorded.add(room.getRoomNumber());
+            }
+
+            @Override
+            public void userSaved(User user, long balanceStamp) {
+            }
+
+            @Override
+            public void bookingCommitted(Booking booking, long balanceStamp) {
+            }
+
+            @Override
+            public void bookingCancelled(Booking booking, long balanceStamp) {
+            }
+        };
+        MutationListener throwing = new MutationListener() {
+            @Override
+            public void roomSaved(Room room) {
+                throw new IllegalStateException("feed is down");
+            }
+
+            @Override
+            public void userSaved(User user, long balanceStamp) {
+            }
+
+            @Override
+            public void bookingCommitted(Booking booking, long balanceStamp) {
+            }
+
+            @Override
+            public void bookingCancelled(Booking booking, long balanceStamp) {
+            }
+        };
+        Service service = new Service(EventSink.DISCARD, first.andThen(throwing));
+
+        // When
+        service.setRoom(1, RoomType.STANDARD, 1000);
+
+        // Then - The room the first listener recorded exists
+        assertThat(recorded).containsExactly(1);
+        assertThat(service.getRooms()).extracting(Room::getRoomNumber).containsExactly(1);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
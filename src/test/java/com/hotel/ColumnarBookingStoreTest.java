@@ -0,0 +1,193 @@
+package com.hotel;
+
+import com.skypay.hotel.index.ColdBookingTier;
+import com.skypay.hotel.index.ColumnarBookingStore;
+import com.skypay.hotel.model.Booking;
+import com.skypay.hotel.model.EpochDays;
+import com.skypay.hotel.model.RoomType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("Columnar Booking Store Tests")
+class ColumnarBookingStoreTest {
+
+    @Test
+    @DisplayName("Should hand out bookings equal to the appended ones across chunks")
+    void shouldRoundTripBookingsAcrossChunks() {
+        // Given
+        ColumnarBookingStore store = new ColumnarBookingStore();
+        List<Booking> expected = new ArrayList<>();
+        Random random = new Random(11);
+        RoomType[] types = RoomType.values();
+
+        // When
+        for (int i = 1; i <= 40_000; i++) {
+            LocalDate checkIn = LocalDate.of(2020, 1, 1).plusDays(random.nextInt(3650));
+            Booking booking = Booking.restore(i, 1 + random.nextInt(1000), 1 + random.nextInt(500),
+                    checkIn, checkIn.plusDays(1 + random.nextInt(14)), random.nextInt(100_000),
+                    LocalDateTime.of(2019, 6, 1, 8, 30, 15, 123_000_000).plusSeconds(i),
+                    random.nextInt(1_000_000), types[random.nextInt(types.length)], 1 + random.nextInt(5000));
+            expected.add(booking);
+            store.add(booking);
+        }
+
+        // Then
+        assertThat(store).hasSize(expected.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertThat(store.get(i)).usingRecursiveComparison().isEqualTo(expected.get(i));
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject null bookings and out-of-range positions")
+    void shouldRejectInvalidAccess() {
+        ColumnarBookingStore store = new ColumnarBookingStore();
+
+        assertThrows(IllegalArgumentException.class, () -> store.add(null));
+        assertThrows(IndexOutOfBoundsException.class, () -> store.get(0));
+    }
+
+    @Test
+    @DisplayName("Should keep every live booking and drop every cancelled one when compacting during changes")
+    void shouldCompactWhileAppendingAndCancelling() throws Exception {
+        // Given
+        ColumnarBookingStore store = new ColumnarBookingStore();
+        Set<Integer> cancelled = ConcurrentHashMap.newKeySet();
+        for (int id = 1; id <= 50_000; id++) {
+            store.add(booking(id));
+        }
+        for (int id = 2; id <= 50_000; id += 2) {
+            store.cancel(id);
+            cancelled.add(id);
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CountDownLatch started = new CountDownLatch(2);
+
+        // When - Compaction races with appends of new IDs and cancellations of old odd IDs
+        Future<?> writer = executor.submit(() -> {
+            started.countDown();
+            for (int id = 50_001; id <= 80_000; id++) {
+                store.add(booking(id));
+                int victim = 1 + 2 * (id % 25_000);
+                if (store.cancel(victim) != null) {
+                    cancelled.add(victim);
+                }
+            }
+        });
+        Future<Integer> compactor = executor.submit(() -> {
+            started.countDown();
+            return store.compact();
+        });
+        writer.get(30, TimeUnit.SECONDS);
+        int removed = compactor.get(30, TimeUnit.SECONDS) + store.compact();
+        executor.shutdown();
+
+        // Then
+        assertThat(removed).isEqualTo(cancelled.size());
+        assertThat(store.getCancelledCount()).isZero();
+        List<Integer> expected = new ArrayList<>();
+        for (int id = 1; id <= 80_000; id++) {
+            if (!cancelled.contains(id)) {
+                expected.add(id);
+            }
+        }
+        assertThat(store.stream().map(Booking::getBookingId).collect(Collectors.toList()))
+                .containsExactlyElementsOf(expected);
+        assertThat(store.findLive(2)).isNull();
+        assertThat(store.findLive(80_000)).isNotNull();
+        assertThat(store.snapshot().ofUser(7)).extracting(Booking::getBookingId)
+                .containsExactlyElementsOf(expected.stream().filter(id -> id % 10 == 6).collect(Collectors.toList()));
+    }
+
+    @Test
+    @DisplayName("Should move every live past stay to the cold tier once while appending and cancelling")
+    void shouldArchiveWhileAppendingAndCancelling(@TempDir Path directory) throws Exception {
+        // Given
+        ColdBookingTier tier = ColdBookingTier.open(directory);
+        int beforeDay = EpochDays.of(2026, 7, 1);
+        ColumnarBookingStore store = new ColumnarBookingStore();
+        Set<Integer> cancelled = ConcurrentHashMap.newKeySet();
+        for (int id = 1; id <= 100_000; id++) {
+            store.add(booking(id));
+        }
+        for (int id = 2; id <= 100_000; id += 4) {
+            store.cancel(id);
+            cancelled.add(id);
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CountDownLatch started = new CountDownLatch(2);
+
+        // When - Archiving races with appends of new IDs and cancellations of old odd IDs
+        Future<?> writer = executor.submit(() -> {
+            started.countDown();
+            for (int id = 100_001; id <= 120_000; id++) {
+                store.add(booking(id));
+                int victim = 1 + 2 * (id % 50_000);
+                if (store.cancel(victim) != null) {
+                    cancelled.add(victim);
+                }
+            }
+        });
+        Future<Integer> archiver = executor.submit(() -> {
+            started.countDown();
+            return store.archive(tier, beforeDay);
+        });
+        writer.get(30, TimeUnit.SECONDS);
+        int archived = archiver.get(30, TimeUnit.SECONDS) + store.archive(tier, beforeDay);
+        executor.shutdown();
+
+        // Then
+        List<Integer> expected = new ArrayList<>();
+        for (int id = 1; id <= 120_000; id++) {
+            if (!cancelled.contains(id)) {
+                expected.add(id);
+            }
+        }
+        List<Booking> bookings = store.snapshot();
+        assertThat(archived).isEqualTo(tier.size()).isEqualTo(store.getArchivedCount())
+                .isEqualTo((int) expected.stream().filter(id -> booking(id).getCheckOutDay() < beforeDay).count());
+        assertThat(store.getCancelledCount()).isZero();
+        assertThat(bookings.stream().map(Booking::getBookingId).sorted().collect(Collectors.toList()))
+                .containsExactlyElementsOf(expected);
+        assertThat(bookings.subList(0, archived)).allMatch(booking -> booking.getCheckOutDay() < beforeDay);
+        assertThat(bookings.subList(archived, bookings.size())).allMatch(booking -> booking.getCheckOutDay() >= beforeDay);
+        for (Booking booking : bookings.subList(0, 1000)) {
+            assertThat(booking).usingRecursiveComparison().isEqualTo(booking(booking.getBookingId()));
+        }
+        assertThat(store.get(0)).usingRecursiveComparison().isEqualTo(bookings.get(0));
+        assertThat(store.isCancelled(0)).isFalse();
+        assertThat(store.findLive(bookings.get(0).getBookingId())).isNull();
+        assertThat(store.cancel(bookings.get(0).getBookingId())).isNull();
+        assertThat(store.snapshot().ofUser(7)).extracting(Booking::getBookingId)
+                .containsExactlyInAnyOrderElementsOf(expected.stream().filter(id -> id % 10 == 6).collect(Collectors.toList()));
+        assertThat(store.snapshot().ofRoom(3)).extracting(Booking::getBookingId)
+                .containsExactlyInAnyOrderElementsOf(expected.stream().filter(id -> id % 50 == 2).collect(Collectors.toList()));
+        assertThrows(IllegalArgumentException.class,
+                () -> store.archive(ColdBookingTier.open(directory.resolve("other")), beforeDay));
+    }
+
+    private static Booking booking(int bookingId) {
+        LocalDate checkIn = LocalDate.of(2026, 1, 1).plusDays(bookingId % 365);
+        return Booking.restore(bookingId, 1 + bookingId % 10, 1 + bookingId % 50, checkIn, checkIn.plusDays(1), 100,
+                LocalDateTime.of(2026, 1, 1, 0, 0).plusSeconds(bookingId), 1000, RoomType.STANDARD, 100);
+    }
+}
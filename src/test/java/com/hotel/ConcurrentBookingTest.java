@@ -0,0 +1,130 @@
+package com.hotel;
+
+import com.skypay.hotel.exception.InsufficientBalanceException;
+import com.skypay.hotel.exception.RoomNotAvailableException;
+import com.skypay.hotel.model.Booking;
+import com.skypay.hotel.model.RoomType;
+import com.skypay.hotel.model.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Concurrent Booking Stress Tests")
+class ConcurrentBookingTest extends BaseTest {
+
+    private static final int THREADS = 2000;
+
+    @Test
+    @DisplayName("Should never commit overlapping bookings when thousands of threads compete for the same rooms")
+    void shouldNeverCommitOverlappingBookings() throws InterruptedException {
+        // Given - Few rooms, many users with plenty of balance
+        int roomCount = 5;
+        int userCount = 200;
+        for (int room = 1; room <= roomCount; room++) {
+            service.setRoom(room, RoomType.STANDARD, 100);
+        }
+        for (int user = 1; user <= userCount; user++) {
+            service.setUser(user, 1_000_000);
+        }
+
+        // When - Every thread books a random short stay in July 2026
+        Queue<Throwable> unexpected = runConcurrently(THREADS, (thread, random) -> {
+            int userId = 1 + random.nextInt(userCount);
+            int roomNumber = 1 + random.nextInt(roomCount);
+            int day = 1 + random.nextInt(28);
+            Date checkIn = createDate(2026, 6, day);
+            Date checkOut = createDate(2026, 6, day + 1 + random.nextInt(3));
+            service.bookRoom(userId, roomNumber, checkIn, checkOut);
+        });
+
+        // Then - No two committed bookings of a room overlap
+        assertThat(unexpected).isEmpty();
+        List<Booking> bookings = service.getBookings();
+        assertThat(bookings).isNotEmpty();
+        Map<Integer, List<Booking>> byRoom = bookings.stream()
+                .collect(Collectors.groupingBy(Booking::getRoomNumber));
+        byRoom.values().forEach(roomBookings -> {
+            for (int i = 0; i < roomBookings.size(); i++) {
+                for (int j = i + 1; j < roomBookings.size(); j++) {
+                    Booking first = roomBookings.get(i);
+                    Booking second = roomBookings.get(j);
+                    assertThat(first.overlaps(second.getCheckInDate(), second.getCheckOutDate()))
+                            .as("%s overlaps %s", first, second)
+                            .isFalse();
+                }
+            }
+        });
+
+        // Money is conserved: every debit matches a committed booking
+        long spent = service.getUsers().stream().mapToLong(user -> 1_000_000L - user.getBalance()).sum();
+        long booked = bookings.stream().mapToLong(Booking::getTotalAmount).sum();
+        assertThat(spent).isEqualTo(booked);
+        assertThat(bookings.stream().map(Booking::getBookingId).distinct().count()).isEqualTo(bookings.size());
+    }
+
+    @Test
+    @DisplayName("Should never overdraw a balance shared by concurrent bookings of different rooms")
+    void shouldNeverOverdrawSharedBalance() throws InterruptedException {
+        // Given - One account that can afford exactly 10 one-night stays
+        for (int room = 1; room <= THREADS; room++) {
+            service.setRoom(room, RoomType.STANDARD, 100);
+        }
+        service.setUser(1, 1000);
+
+        // When - Every thread books its own room for the same user
+        Queue<Throwable> unexpected = runConcurrently(THREADS, (thread, random) ->
+                service.bookRoom(1, thread + 1, checkInDate, createDate(2026, 6, 8)));
+
+        // Then
+        assertThat(unexpected).isEmpty();
+        User user = service.getUsers().get(0);
+        assertThat(user.getBalance()).isZero();
+        assertThat(service.getBookings()).hasSize(10);
+    }
+
+    /**
+     * Starts all threads, releases them at once and collects any failure other than
+     * the expected business rejections.
+     */
+    private Queue<Throwable> runConcurrently(int threadCount, BookingAttempt attempt) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        Queue<Throwable> unexpected = new ConcurrentLinkedQueue<>();
+        List<Thread> threads = new ArrayList<>(threadCount);
+        for (int i = 0; i < threadCount; i++) {
+            int thread = i;
+            threads.add(new Thread(() -> {
+                Random random = new Random(thread);
+                try {
+                    start.await();
+                    attempt.run(thread, random);
+                } catch (RoomNotAvailableException | InsufficientBalanceException expected) {
+                    // Losing the race is a valid outcome
+                } catch (Throwable t) {
+                    unexpected.add(t);
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return unexpected;
+    }
+
+    @FunctionalInterface
+    private interface BookingAttempt {
+        void run(int thread, Random random) throws Exception;
+    }
+}
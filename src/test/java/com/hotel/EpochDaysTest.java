@@ -0,0 +1,35 @@
+package com.hotel;
+
+import com.skypay.hotel.model.EpochDays;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Epoch Day Tests")
+class EpochDaysTest {
+
+    @Test
+    @DisplayName("Should agree with LocalDate on every day across leap years and centuries")
+    void shouldAgreeWithLocalDate() {
+        for (LocalDate date = LocalDate.of(1599, 1, 1); date.isBefore(LocalDate.of(2401, 1, 1)); date = date.plusDays(1)) {
+            int epochDay = EpochDays.of(date.getYear(), date.getMonthValue(), date.getDayOfMonth());
+            assertThat(epochDay).isEqualTo(date.toEpochDay());
+            assertThat(EpochDays.monthIndexOf(epochDay)).isEqualTo(date.getYear() * 12 + date.getMonthValue() - 1);
+        }
+    }
+
+    @Test
+    @DisplayName("Should find the first day of a month from its index")
+    void shouldFindFirstDayOfMonth() {
+        for (YearMonth month = YearMonth.of(1999, 1); month.isBefore(YearMonth.of(2101, 1)); month = month.plusMonths(1)) {
+            int monthIndex = month.getYear() * 12 + month.getMonthValue() - 1;
+            assertThat(EpochDays.toDate(EpochDays.firstDayOfMonth(monthIndex))).isEqualTo(month.atDay(1));
+        }
+        assertThat(EpochDays.of(LocalDate.of(1970, 1, 1))).isZero();
+        assertThat(EpochDays.of(1969, 12, 31)).isEqualTo(-1);
+    }
+}
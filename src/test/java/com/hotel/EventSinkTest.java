@@ -0,0 +1,103 @@
+package com.hotel;
+
+import com.skypay.hotel.log.AsyncEventSink;
+import com.skypay.hotel.log.ConsoleSink;
+import com.skypay.hotel.log.EventSink;
+import com.skypay.hotel.log.LogLevel;
+import com.skypay.hotel.model.RoomType;
+import com.skypay.hotel.service.Service;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Event Sink Tests")
+class EventSinkTest {
+
+    @Test
+    @DisplayName("Should gate messages below the configured level")
+    void shouldGateMessagesBelowThreshold() {
+        EventSink sink = new ConsoleSink(LogLevel.WARN);
+
+        assertThat(sink.isEnabled(LogLevel.INFO)).isFalse();
+        assertThat(sink.isEnabled(LogLevel.WARN)).isTrue();
+        assertThat(sink.isEnabled(LogLevel.ERROR)).isTrue();
+        assertThat(EventSink.DISCARD.isEnabled(LogLevel.ERROR)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should report service operations to the configured sink")
+    void shouldReportServiceOperations() {
+        // Given
+        RecordingSink recording = new RecordingSink();
+        Service service = new Service(recording);
+
+        // When
+        service.setRoom(101, RoomType.STANDARD, 1000);
+        service.setUser(1, 5000);
+
+        // Then
+        assertThat(recording.messages).containsExactly(
+                "Created new room 101 - Type: standard, Price: 1000",
+                "Created new user 1 with balance: 5000");
+    }
+
+    @Test
+    @DisplayName("Should deliver every message in per-producer order once closed")
+    void shouldDeliverAllMessagesInOrder() throws InterruptedException {
+        // Given
+        RecordingSink recording = new RecordingSink();
+        AsyncEventSink sink = AsyncEventSink.start(recording, 1 << 16);
+        int producers = 4;
+        int perProducer = 5_000;
+
+        // When
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    sink.log(LogLevel.INFO, producer + ":" + i);
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        sink.close();
+
+        // Then
+        assertThat(sink.getDroppedCount()).isZero();
+        assertThat(recording.messages).hasSize(producers * perProducer);
+        for (int p = 0; p < producers; p++) {
+            String prefix = p + ":";
+            List<Integer> sequence = recording.messages.stream()
+                    .filter(message -> message.startsWith(prefix))
+                    .map(message -> Integer.parseInt(message.substring(prefix.length())))
+                    .toList();
+            assertThat(sequence).isSorted().hasSize(perProducer);
+        }
+    }
+
+    /**
+     * Collects messages in memory
+     */
+    private static class RecordingSink implements EventSink {
+        final List<String> messages = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public boolean isEnabled(LogLevel level) {
+            return true;
+        }
+
+        @Override
+        public void log(LogLevel level, String message) {
+            messages.add(message);
+        }
+    }
+}
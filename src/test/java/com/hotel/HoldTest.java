@@ -0,0 +1,186 @@
+package com.hotel;
+
+import com.skypay.hotel.exception.HoldNotFoundException;
+import com.skypay.hotel.exception.InsufficientBalanceException;
+import com.skypay.hotel.exception.InvalidBookingDateException;
+import com.skypay.hotel.exception.RoomNotAvailableException;
+import com.skypay.hotel.exception.RoomNotFoundException;
+import com.skypay.hotel.exception.UserNotFoundException;
+import com.skypay.hotel.model.BatchMode;
+import com.skypay.hotel.model.Booking;
+import com.skypay.hotel.model.BookingRequest;
+import com.skypay.hotel.model.BookingStatus;
+import com.skypay.hotel.model.Hold;
+import com.skypay.hotel.model.Room;
+import com.skypay.hotel.model.RoomType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("Room Hold Tests")
+class HoldTest extends BaseTest {
+    private static final LocalDate CHECK_IN = LocalDate.of(2026, 7, 7);
+    private static final LocalDate CHECK_OUT = LocalDate.of(2026, 7, 9);
+    private static final Duration TEN_MINUTES = Duration.ofMinutes(10);
+
+    @Test
+    @DisplayName("Should block held nights until the hold is confirmed or released")
+    void shouldBlockHeldNights() {
+        // Given
+        service.setRoom(1, RoomType.STANDARD, 1000);
+        service.setRoom(2, RoomType.STANDARD, 1000);
+        service.setUser(1, 5000);
+        service.setUser(2, 5000);
+
+        // When
+        Hold hold = service.holdRoom(1, 1, CHECK_IN, CHECK_OUT, TEN_MINUTES);
+
+        // Then - Nobody can book or hold the held nights, and the room is not offered
+        assertThat(service.tryBookRoom(2, 1, LocalDate.of(2026, 7, 8), LocalDate.of(2026, 7, 10)).getStatus())
+                .isEqualTo(BookingStatus.ROOM_NOT_AVAILABLE);
+        assertThrows(RoomNotAvailableException.class, () -> service.holdRoom(2, 1, CHECK_IN, CHECK_OUT, TEN_MINUTES));
+        assertThat(service.bookRooms(List.of(new BookingRequest(2, 1, CHECK_IN, LocalDate.of(2026, 7, 8))),
+                BatchMode.BEST_EFFORT).get(0).getStatus()).isEqualTo(BookingStatus.ROOM_NOT_AVAILABLE);
+        assertThat(service.findAvailableRooms(RoomType.STANDARD, checkInDate, checkOutDate))
+                .extracting(Room::getRoomNumber).containsExactly(2);
+        service.bookRoom(2, 1, CHECK_OUT, LocalDate.of(2026, 7, 10));
+        assertThat(service.getHoldCount()).isEqualTo(1);
+        assertThat(hold.getRemainingTime()).isPositive();
+
+        // When - The payment goes through
+        Booking booking = service.confirmHold(hold.getHoldId());
+
+        // Then
+        assertThat(booking.getUserId()).isEqualTo(1);
+        assertThat(booking.getCheckInDate()).isEqualTo(CHECK_IN);
+        assertThat(booking.getTotalAmount()).isEqualTo(2000);
+        assertThat(service.getUsers().get(0).getBalance()).isEqualTo(3000);
+        assertThat(service.getHoldCount()).isZero();
+        assertThat(service.findAvailableRooms(RoomType.STANDARD, checkInDate, checkOutDate))
+                .extracting(Room::getRoomNumber).containsExactly(2);
+        assertThrows(HoldNotFoundException.class, () -> service.confirmHold(hold.getHoldId()));
+        assertThat(service.releaseHold(hold.getHoldId())).isFalse();
+
+        // When - Another hold is abandoned
+        Hold abandoned = service.holdRoom(2, 2, CHECK_IN, CHECK_OUT, TEN_MINUTES);
+        assertThat(service.releaseHold(abandoned.getHoldId())).isTrue();
+
+        // Then
+        assertThrows(HoldNotFoundException.class, () -> service.confirmHold(abandoned.getHoldId()));
+        assertThat(service.findAvailableRooms(RoomType.STANDARD, checkInDate, checkOutDate))
+                .extracting(Room::getRoomNumber).containsExactly(2);
+        service.bookRoom(2, 2, CHECK_IN, CHECK_OUT);
+        assertThat(service.checkRevenueAggregates()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should free the nights of expired holds, whether or not the wheel has reached them")
+    void shouldExpireHolds() throws Exception {
+        // Given
+        service.setRoom(1, RoomType.SUITE, 1000);
+        service.setRoom(2, RoomType.SUITE, 1000);
+        service.setUser(1, 5000);
+        Hold first = service.holdRoom(1, 1, CHECK_IN, CHECK_OUT, Duration.ofMillis(1));
+        Hold second = service.holdRoom(1, 2, CHECK_IN, CHECK_OUT, Duration.ofMillis(100));
+        Thread.sleep(5);
+
+        // When - The expired hold is in the way of a booking
+        service.bookRoom(1, 1, CHECK_IN, CHECK_OUT);
+
+        // Then
+        assertThrows(HoldNotFoundException.class, () -> service.confirmHold(first.getHoldId()));
+        assertThat(service.getHoldCount()).isEqualTo(1);
+
+        // When - The wheel turns past the second deadline
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        int expired = 0;
+        while (service.getHoldCount() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+            expired += service.expireHolds();
+        }
+
+        // Then - The first hold had already been dropped and is not expired twice
+        assertThat(expired).isEqualTo(1);
+        assertThat(second.getRemainingTime()).isZero();
+        assertThat(service.findAvailableRooms(RoomType.SUITE, checkInDate, checkOutDate))
+                .extracting(Room::getRoomNumber).containsExactly(2);
+        assertThat(service.releaseHold(second.getHoldId())).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should keep the hold when the balance is short, and reject invalid holds")
+    void shouldKeepHoldOnInsufficientBalance() {
+        // Given
+        service.setRoom(1, RoomType.JUNIOR, 1000);
+        service.setUser(1, 1500);
+        Hold hold = service.holdRoom(1, 1, CHECK_IN, CHECK_OUT, TEN_MINUTES);
+
+        // When
+        assertThrows(InsufficientBalanceException.class, () -> service.confirmHold(hold.getHoldId()));
+        service.setUser(1, 2500);
+
+        // Then
+        assertThat(service.confirmHold(hold.getHoldId()).getTotalAmount()).isEqualTo(2000);
+        assertThat(service.getUsers().get(0).getBalance()).isEqualTo(500);
+        assertThrows(InvalidBookingDateException.class, () -> service.holdRoom(1, 1, CHECK_OUT, CHECK_IN, TEN_MINUTES));
+        assertThrows(UserNotFoundException.class, () -> service.holdRoom(9, 1, CHECK_IN, CHECK_OUT, TEN_MINUTES));
+        assertThrows(RoomNotFoundException.class, () -> service.holdRoom(1, 9, CHECK_IN, CHECK_OUT, TEN_MINUTES));
+        assertThrows(IllegalArgumentException.class, () -> service.holdRoom(1, 1, CHECK_IN, CHECK_OUT, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> service.holdRoom(1, 1, CHECK_IN, CHECK_OUT, null));
+        assertThrows(HoldNotFoundException.class, () -> service.confirmHold(-1));
+    }
+
+    @Test
+    @DisplayName("Should grant each night to a single hold under contention")
+    void shouldGrantEachNightOnce() throws Exception {
+        // Given
+        for (int room = 1; room <= 10; room++) {
+            service.setRoom(room, RoomType.STANDARD, 100);
+        }
+        for (int user = 1; user <= 8; user++) {
+            service.setUser(user, 1_000_000);
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // When - Every user tries to hold every night of every room
+        List<Future<Integer>> granted = new ArrayList<>();
+        for (int user = 1; user <= 8; user++) {
+            int userId = user;
+            granted.add(executor.submit(() -> {
+                int count = 0;
+                for (int room = 1; room <= 10; room++) {
+                    for (int night = 0; night < 100; night++) {
+                        try {
+                            service.holdRoom(userId, room, CHECK_IN.plusDays(night), CHECK_IN.plusDays(night + 1),
+                                    TEN_MINUTES);
+                            count++;
+                        } catch (RoomNotAvailableException e) {
+                            // Held by another user first
+                        }
+                    }
+                }
+                return count;
+            }));
+        }
+        int total = 0;
+        for (Future<Integer> future : granted) {
+            total += future.get();
+        }
+        executor.shutdown();
+
+        // Then
+        assertThat(total).isEqualTo(1_000);
+        assertThat(service.getHoldCount()).isEqualTo(1_000);
+    }
+}
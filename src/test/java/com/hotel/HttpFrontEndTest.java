@@ -0,0 +1,190 @@
+package com.hotel;
+
+import com.skypay.hotel.http.HttpFrontEnd;
+import com.skypay.hotel.log.EventSink;
+import com.skypay.hotel.log.LogLevel;
+import com.skypay.hotel.model.Booking;
+import com.skypay.hotel.model.Room;
+import com.skypay.hotel.model.User;
+import com.skypay.hotel.service.MutationListener;
+import com.skypay.hotel.service.Service;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("HTTP Front-End Tests")
+class HttpFrontEndTest extends BaseTest {
+    private HttpFrontEnd frontEnd;
+    private HttpClient client;
+
+    @BeforeEach
+    void startFrontEnd() throws IOException {
+        frontEnd = HttpFrontEnd.start(service, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        client = HttpClient.newHttpClient();
+    }
+
+    @AfterEach
+    void stopFrontEnd() {
+        frontEnd.close();
+    }
+
+    @Test
+    @DisplayName("Should create rooms and users, book, check availability and cancel over HTTP")
+    void shouldServeBookingFlow() throws Exception {
+        // Given
+        assertThat(send("POST", "/rooms", "{\"roomNumber\":1,\"roomType\":\"STANDARD\",\"pricePerNight\":1000}")
+                .statusCode()).isEqualTo(204);
+        assertThat(send("POST", "/rooms", "{ \"roomType\" : \"suite\", \"pricePerNight\" : 3000, \"roomNumber\" : 2 }")
+                .statusCode()).isEqualTo(204);
+        assertThat(send("POST", "/users", "{\"userId\":1,\"balance\":5000,\"note\":{\"tags\":[\"vip\"]}}")
+                .statusCode()).isEqualTo(204);
+
+        // When
+        HttpResponse<String> booked = send("POST", "/bookings",
+                "{\"userId\":1,\"roomNumber\":1,\"checkIn\":\"2026-07-07\",\"checkOut\":\"2026-07-09\"}");
+        HttpResponse<String> conflict = send("POST", "/bookings",
+                "{\"userId\":1,\"roomNumber\":1,\"checkIn\":\"2026-07-08\",\"checkOut\":\"2026-07-10\"}");
+        HttpResponse<String> unknownUser = send("POST", "/bookings",
+                "{\"userId\":9,\"roomNumber\":1,\"checkIn\":\"2026-07-08\",\"checkOut\":\"2026-07-10\"}");
+        HttpResponse<String> available = send("GET",
+                "/availability?roomType=STANDARD&checkIn=2026-07-08&checkOut=2026-07-09", null);
+
+        // Then
+        int bookingId = service.getBookings().get(0).getBookingId();
+        assertThat(booked.statusCode()).isEqualTo(201);
+        assertThat(booked.body()).isEqualTo("{\"bookingId\":" + bookingId + ",\"userId\":1,\"roomNumber\":1,"
+                + "\"checkIn\":\"2026-07-07\",\"checkOut\":\"2026-07-09\",\"nights\":2,\"totalAmount\":2000}");
+        assertThat(conflict.statusCode()).isEqualTo(409);
+        assertThat(conflict.body()).isEqualTo("{\"status\":\"ROOM_NOT_AVAILABLE\"}");
+        assertThat(unknownUser.statusCode()).isEqualTo(404);
+        assertThat(available.body()).isEqualTo("{\"rooms\":[]}");
+        assertThat(service.getUsers()).extracting(User::getBalance).containsExactly(3000);
+
+        HttpResponse<String> cancelled = send("DELETE", "/bookings/" + bookingId, null);
+        assertThat(cancelled.statusCode()).isEqualTo(200);
+        assertThat(send("DELETE", "/bookings/" + bookingId, null).statusCode()).isEqualTo(404);
+        assertThat(send("GET", "/availability?roomType=standard&checkIn=2026-07-08&checkOut=2026-07-09", null)
+                .body()).isEqualTo("{\"rooms\":[1]}");
+        assertThat(send("GET", "/metrics", null).body())
+                .contains("hotel_operation_sampled_latency_seconds_count{operation=\"bookRoom\"} 3\n")
+                .contains("hotel_booking_rejections_total{reason=\"ROOM_NOT_AVAILABLE\"} 1\n");
+    }
+
+    @Test
+    @DisplayName("Should page reports with the next cursor in a header")
+    void shouldPageReports() throws Exception {
+        // Given
+        for (int userId = 1; userId <= 5; userId++) {
+            service.setUser(userId, userId * 100);
+        }
+
+        // When
+        HttpResponse<String> first = send("GET", "/reports/users?format=csv&limit=2", null);
+        String cursor = first.headers().firstValue("X-Next-Cursor").orElseThrow();
+        HttpResponse<String> last = send("GET", "/reports/users?format=csv&limit=10&cursor=" + cursor, null);
+
+        // Then
+        assertThat(first.statusCode()).isEqualTo(200);
+        assertThat(first.headers().firstValue("Content-Type")).hasValue("text/csv; charset=utf-8");
+        assertThat(cursor).isEqualTo("3");
+        assertThat(first.body().split("\n")).hasSize(3);
+        assertThat(first.body().split("\n")[1]).startsWith("5,500,");
+        assertThat(last.body().split("\n")).hasSize(4);
+        assertThat(last.headers().firstValue("X-Next-Cursor")).hasValue("0");
+        assertThat(send("GET", "/reports/rooms", null).body()).isEqualTo("[\n]\n");
+        assertThat(send("GET", "/reports/guests", null).statusCode()).isEqualTo(404);
+    }
+
+    @Test
+    @DisplayName("Should reject malformed requests with a JSON error")
+    void shouldRejectMalformedRequests() throws Exception {
+        HttpResponse<String> truncated = send("POST", "/users", "{\"userId\":1,");
+        assertThat(truncated.statusCode()).isEqualTo(400);
+        assertThat(truncated.body()).startsWith("{\"error\":\"Malformed JSON at offset 12");
+        assertThat(send("POST", "/users", "{\"userId\":1,\"balance\":99999999999}").statusCode()).isEqualTo(400);
+        assertThat(send("POST", "/users", "{\"userId\":-1,\"balance\":10}").body())
+                .isEqualTo("{\"error\":\"User ID must be positive\"}");
+        assertThat(send("POST", "/rooms", "{\"roomNumber\":1,\"roomType\":\"PENTHOUSE\",\"pricePerNight\":10}")
+                .statusCode()).isEqualTo(400);
+        assertThat(send("POST", "/bookings", "{\"userId\":1,\"roomNumber\":1,\"checkIn\":\"2026-02-30\","
+                + "\"checkOut\":\"2026-03-02\"}").statusCode()).isEqualTo(400);
+        assertThat(send("GET", "/availability?roomType=SUITE&checkIn=tomorrow&checkOut=2026-03-02", null)
+                .statusCode()).isEqualTo(400);
+        HttpResponse<String> wrongMethod = send("GET", "/rooms", null);
+        assertThat(wrongMethod.statusCode()).isEqualTo(405);
+        assertThat(wrongMethod.headers().firstValue("Allow")).hasValue("POST");
+        assertThat(send("GET", "/nowhere", null).statusCode()).isEqualTo(404);
+        HttpResponse<String> oversized = send("POST", "/users", "{\"userId\":1,\"note\":\"" + "x".repeat(20_000) + "\"}");
+        assertThat(oversized.statusCode()).isEqualTo(413);
+        assertThat(oversized.body()).isEqualTo("{\"error\":\"Request body exceeds 16384 bytes\"}");
+        assertThat(service.getUsers()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should answer 500 to unexpected failures and log them at ERROR")
+    void shouldLogInternalErrors() throws Exception {
+        // Given - A service whose journal fails
+        List<String> errors = Collections.synchronizedList(new ArrayList<>());
+        EventSink sink = new EventSink() {
+            @Override
+            public boolean isEnabled(LogLevel level) {
+                return level == LogLevel.ERROR;
+            }
+
+            @Override
+            public void log(LogLevel level, String message) {
+                errors.add(message);
+            }
+        };
+        MutationListener failing = new MutationListener() {
+            @Override
+            public void roomSaved(Room room) {
+                throw new IllegalStateException("journal is down");
+            }
+
+            @Override
+            public void userSaved(User user, long balanceStamp) {
+            }
+
+            @Override
+            public void bookingCommitted(Booking booking, long balanceStamp) {
+            }
+
+            @Override
+            public void bookingCancelled(Booking booking, long balanceStamp) {
+            }
+        };
+        frontEnd.close();
+        frontEnd = HttpFrontEnd.start(new Service(sink, failing), new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+
+        // When
+        HttpResponse<String> response = send("POST", "/rooms",
+                "{\"roomNumber\":1,\"roomType\":\"STANDARD\",\"pricePerNight\":1000}");
+
+        // Then
+        assertThat(response.statusCode()).isEqualTo(500);
+        assertThat(response.body()).isEqualTo("{\"error\":\"Internal error\"}");
+        assertThat(errors).contains("Error handling POST /rooms: java.lang.IllegalStateException: journal is down");
+    }
+
+    private HttpResponse<String> send(String method, String path, String body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + frontEnd.getPort() + path))
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,88 @@
+package com.hotel;
+
+import com.skypay.hotel.index.IntHashIndex;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("Primary-Key Index Tests")
+class IntHashIndexTest {
+
+    @Test
+    @DisplayName("Should store, replace and look up values by key")
+    void shouldStoreReplaceAndLookUpValues() {
+        IntHashIndex<String> index = new IntHashIndex<>();
+
+        assertThat(index.put(101, "first")).isNull();
+        assertThat(index.put(101, "second")).isEqualTo("first");
+
+        assertThat(index.get(101)).isEqualTo("second");
+        assertThat(index.get(102)).isNull();
+        assertThat(index.containsKey(101)).isTrue();
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should match HashMap behaviour across resizes")
+    void shouldMatchHashMapAcrossResizes() {
+        // Given
+        IntHashIndex<Integer> index = new IntHashIndex<>();
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(7);
+
+        // When
+        for (int i = 0; i < 50_000; i++) {
+            int key = 1 + random.nextInt(20_000);
+            assertThat(index.put(key, i)).isEqualTo(expected.put(key, i));
+        }
+
+        // Then
+        assertThat(index.size()).isEqualTo(expected.size());
+        for (int key = 1; key <= 20_000; key++) {
+            assertThat(index.get(key)).isEqualTo(expected.get(key));
+        }
+    }
+
+    @Test
+    @DisplayName("Should remove keys without breaking the lookups probing past them")
+    void shouldRemoveKeys() {
+        // Given
+        IntHashIndex<Integer> index = new IntHashIndex<>();
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(19);
+
+        // When - Keys come and go, far more often than the table holds
+        for (int i = 0; i < 100_000; i++) {
+            int key = 1 + random.nextInt(2_000);
+            if (random.nextBoolean()) {
+                assertThat(index.put(key, i)).isEqualTo(expected.put(key, i));
+            } else {
+                assertThat(index.remove(key)).isEqualTo(expected.remove(key));
+            }
+        }
+
+        // Then
+        assertThat(index.size()).isEqualTo(expected.size());
+        for (int key = 1; key <= 2_000; key++) {
+            assertThat(index.get(key)).isEqualTo(expected.get(key));
+            assertThat(index.containsKey(key)).isEqualTo(expected.containsKey(key));
+        }
+        assertThat(index.remove(5_000)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should reject non-positive keys and null values")
+    void shouldRejectInvalidEntries() {
+        IntHashIndex<String> index = new IntHashIndex<>();
+
+        assertThrows(IllegalArgumentException.class, () -> index.put(0, "zero"));
+        assertThrows(IllegalArgumentException.class, () -> index.put(-1, "negative"));
+        assertThrows(IllegalArgumentException.class, () -> index.put(1, null));
+    }
+}
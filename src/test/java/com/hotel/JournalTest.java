@@ -0,0 +1,151 @@
+package com.hotel;
+
+import com.skypay.hotel.log.EventSink;
+import com.skypay.hotel.model.Booking;
+import com.skypay.hotel.model.Room;
+import com.skypay.hotel.model.RoomType;
+import com.skypay.hotel.model.User;
+import com.skypay.hotel.persistence.Journal;
+import com.skypay.hotel.service.Service;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DisplayName("Write-Ahead Journal Tests")
+class JournalTest extends BaseTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Should rebuild rooms, users and bookings with their snapshots after a restart")
+    void shouldRebuildStateAfterRestart() throws IOException {
+        // Given
+        Path path = directory.resolve("hotel.journal");
+        List<Booking> expectedBookings;
+        List<Integer> expectedBalances = new ArrayList<>();
+        try (Journal journal = Journal.open(path, true)) {
+            Service original = new Service(EventSink.DISCARD, journal);
+            assertThat(journal.recover(original.recoveryTarget())).isZero();
+
+            original.setRoom(1, RoomType.STANDARD, 1000);
+            original.setRoom(2, RoomType.JUNIOR, 2000);
+            original.setUser(1, 5000);
+            original.setUser(2, 10000);
+            original.bookRoom(1, 2, checkInDate, checkOutDate);
+            original.setRoom(2, RoomType.SUITE, 10000);
+            original.bookRoom(2, 1, checkInDate, checkOutDate);
+            original.setUser(1, 7000);
+
+            expectedBookings = original.getBookings();
+            original.getUsers().forEach(user -> expectedBalances.add(user.getBalance()));
+        }
+
+        // When
+        Service restored = new Service();
+        try (Journal journal = Journal.open(path, true)) {
+            assertThat(journal.recover(restored.recoveryTarget())).isEqualTo(8);
+        }
+
+        // Then
+        assertThat(restored.getRooms()).extracting(Room::getRoomNumber, Room::getRoomType, Room::getPricePerNight)
+                .containsExactly(
+                        tuple(1, RoomType.STANDARD, 1000),
+                        tuple(2, RoomType.SUITE, 10000));
+        assertThat(restored.getUsers()).extracting(User::getBalance).containsExactlyElementsOf(expectedBalances);
+        assertThat(restored.getBookings()).hasSize(2);
+        for (int i = 0; i < expectedBookings.size(); i++) {
+            assertThat(restored.getBookings().get(i)).usingRecursiveComparison().isEqualTo(expectedBookings.get(i));
+        }
+        assertThat(restored.tryBookRoom(1, 2, checkInDate, checkOutDate).isSuccess()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should discard a torn tail left by a crash and keep appending after it")
+    void shouldDiscardTornTail() throws IOException {
+        // Given
+        Path path = directory.resolve("hotel.journal");
+        try (Journal journal = Journal.open(path, false)) {
+            Service service = new Service(EventSink.DISCARD, journal);
+            journal.recover(service.recoveryTarget());
+            service.setRoom(1, RoomType.STANDARD, 1000);
+            service.setUser(1, 5000);
+        }
+        long validSize = Files.size(path);
+        Files.write(path, new byte[]{0, 0, 0, 54, 3, 1, 2}, StandardOpenOption.APPEND);
+
+        // When
+        try (Journal journal = Journal.open(path, false)) {
+            Service service = new Service(EventSink.DISCARD, journal);
+            assertThat(journal.recover(service.recoveryTarget())).isEqualTo(2);
+            assertThat(Files.size(path)).isEqualTo(validSize);
+            service.bookRoom(1, 1, checkInDate, checkOutDate);
+        }
+
+        // Then
+        Service restored = new Service();
+        try (Journal journal = Journal.open(path, false)) {
+            assertThat(journal.recover(restored.recoveryTarget())).isEqualTo(3);
+        }
+        assertThat(restored.getBookings()).hasSize(1);
+        assertThat(restored.getUsers().get(0).getBalance()).isEqualTo(3000);
+    }
+
+    @Test
+    @DisplayName("Should restore exact balances when concurrent bookings of different rooms share payers")
+    void shouldRestoreBalancesAfterConcurrentBookings() throws Exception {
+        // Given
+        Path path = directory.resolve("hotel.journal");
+        int threads = 8;
+        List<Integer> expectedBalances = new ArrayList<>();
+        try (Journal journal = Journal.open(path, false)) {
+            Service original = new Service(EventSink.DISCARD, journal);
+            journal.recover(original.recoveryTarget());
+            for (int room = 1; room <= threads; room++) {
+                original.setRoom(room, RoomType.STANDARD, 10 + room);
+            }
+            for (int user = 1; user <= 3; user++) {
+                original.setUser(user, 1_000_000);
+            }
+
+            // When - Each thread books its own room, paid by users shared with every other thread
+            List<Thread> workers = new ArrayList<>();
+            for (int t = 1; t <= threads; t++) {
+                int roomNumber = t;
+                workers.add(new Thread(() -> {
+                    Random random = new Random(roomNumber);
+                    for (int day = 1; day < 300; day += 2) {
+                        Date checkIn = createDate(2027, 0, day);
+                        Date checkOut = createDate(2027, 0, day + 1);
+                        original.tryBookRoom(1 + random.nextInt(3), roomNumber, checkIn, checkOut);
+                    }
+                }));
+            }
+            workers.forEach(Thread::start);
+            for (Thread worker : workers) {
+                worker.join();
+            }
+            original.getUsers().forEach(user -> expectedBalances.add(user.getBalance()));
+        }
+
+        // Then
+        Service restored = new Service();
+        try (Journal journal = Journal.open(path, false)) {
+            journal.recover(restored.recoveryTarget());
+        }
+        assertThat(restored.getBookings()).hasSize(threads * 150);
+        assertThat(restored.getUsers()).extracting(User::getBalance).containsExactlyElementsOf(expectedBalances);
+    }
+}
@@ -0,0 +1,103 @@
+package com.hotel;
+
+import com.skypay.hotel.index.OccupancyCalendar;
+import com.skypay.hotel.model.Booking;
+import com.skypay.hotel.model.Room;
+import com.skypay.hotel.model.RoomType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("Occupancy Calendar Tests")
+class OccupancyCalendarTest extends BaseTest {
+
+    @Test
+    @DisplayName("Should find free rooms of a type, treating checkout days as free")
+    void shouldFindFreeRoomsOfType() {
+        // Given
+        service.setRoom(1, RoomType.STANDARD, 1000);
+        service.setRoom(2, RoomType.STANDARD, 1000);
+        service.setRoom(3, RoomType.SUITE, 3000);
+        service.setUser(1, 100_000);
+        service.bookRoom(1, 1, checkInDate, checkOutDate);
+
+        // Then
+        assertThat(service.findAvailableRooms(RoomType.STANDARD, checkInDate, checkOutDate))
+                .extracting(Room::getRoomNumber).containsExactly(2);
+        assertThat(service.findAvailableRooms(RoomType.STANDARD, checkOutDate, createDate(2026, 6, 12)))
+                .extracting(Room::getRoomNumber).containsExactly(1, 2);
+        assertThat(service.findAvailableRooms(RoomType.SUITE, checkInDate, checkOutDate))
+                .extracting(Room::getRoomNumber).containsExactly(3);
+
+        // When - A room changes type
+        service.setRoom(2, RoomType.SUITE, 3000);
+
+        // Then
+        assertThat(service.findAvailableRooms(RoomType.STANDARD, checkInDate, checkOutDate)).isEmpty();
+        assertThat(service.findAvailableRooms(RoomType.SUITE, checkInDate, checkOutDate))
+                .extracting(Room::getRoomNumber).containsExactly(2, 3);
+        assertThrows(IllegalArgumentException.class,
+                () -> service.findAvailableRooms(RoomType.SUITE, checkOutDate, checkInDate));
+    }
+
+    @Test
+    @DisplayName("Should agree with Booking.overlaps on randomized bookings across containers")
+    void shouldAgreeWithOverlapsOnRandomizedBookings() {
+        // Given - Enough rooms to span several bitmap containers
+        int rooms = 9000;
+        RoomType[] types = RoomType.values();
+        for (int roomNumber = 1; roomNumber <= rooms; roomNumber++) {
+            service.setRoom(roomNumber * 3, types[roomNumber % types.length], 1);
+        }
+        service.setUser(1, Integer.MAX_VALUE);
+        Random random = new Random(2026);
+        LocalDate start = LocalDate.of(2027, 1, 1);
+        for (int i = 0; i < 30_000; i++) {
+            int checkIn = random.nextInt(60);
+            service.tryBookRoom(1, 3 * (1 + random.nextInt(rooms)),
+                    toDate(start.plusDays(checkIn)), toDate(start.plusDays(checkIn + 1 + random.nextInt(5))));
+        }
+        List<Booking> bookings = service.getBookings();
+
+        // Then
+        for (int query = 0; query < 20; query++) {
+            RoomType type = types[random.nextInt(types.length)];
+            LocalDate checkIn = start.plusDays(random.nextInt(60));
+            LocalDate checkOut = checkIn.plusDays(1 + random.nextInt(7));
+            List<Integer> booked = bookings.stream()
+                    .filter(booking -> booking.overlaps(checkIn, checkOut))
+                    .map(Booking::getRoomNumber)
+                    .collect(Collectors.toList());
+            List<Integer> expected = service.getRooms().stream()
+                    .filter(room -> room.getRoomType() == type && !booked.contains(room.getRoomNumber()))
+                    .map(Room::getRoomNumber)
+                    .collect(Collectors.toList());
+
+            assertThat(service.findAvailableRooms(type, toDate(checkIn), toDate(checkOut)))
+                    .extracting(Room::getRoomNumber)
+                    .as("%s from %s to %s", type, checkIn, checkOut)
+                    .containsExactlyElementsOf(expected);
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject bookings of rooms that were never registered")
+    void shouldRejectUnregisteredRooms() {
+        OccupancyCalendar calendar = new OccupancyCalendar();
+
+        assertThrows(IllegalArgumentException.class, () -> calendar.occupy(1, 10, 12));
+        assertThat(calendar.findAvailable(RoomType.JUNIOR, 10, 12)).isEmpty();
+    }
+
+    private Date toDate(LocalDate date) {
+        return createDate(date.getYear(), date.getMonthValue() - 1, date.getDayOfMonth());
+    }
+}
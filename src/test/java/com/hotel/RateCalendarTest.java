@@ -0,0 +1,191 @@
+package com.hotel;
+
+import com.skypay.hotel.exception.InsufficientBalanceException;
+import com.skypay.hotel.exception.RoomNotFoundException;
+import com.skypay.hotel.index.RateCalendar;
+import com.skypay.hotel.model.BatchMode;
+import com.skypay.hotel.model.Booking;
+import com.skypay.hotel.model.BookingRequest;
+import com.skypay.hotel.model.BookingResult;
+import com.skypay.hotel.model.BookingStatus;
+import com.skypay.hotel.model.RoomType;
+import com.skypay.hotel.model.StayQuote;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("Rate Calendar Tests")
+class RateCalendarTest extends BaseTest {
+
+    @Test
+    @DisplayName("Should price any stay as the sum of its nightly rates after range updates")
+    void shouldMatchNightByNightSum() {
+        // Given
+        RateCalendar calendar = new RateCalendar();
+        int[] expected = new int[2_000];
+        int origin = -1_000;
+        Random random = new Random(42);
+
+        for (int update = 0; update < 200; update++) {
+            // When - Rates are set, cleared or overwritten over ranges crossing blocks
+            int from = random.nextInt(expected.length - 1);
+            int length = 1 + random.nextInt(Math.min(300, expected.length - from));
+            int[] rates = new int[length];
+            for (int i = 0; i < length; i++) {
+                rates[i] = random.nextInt(4) == 0 ? 0 : 1 + random.nextInt(500);
+            }
+            calendar.setRates(origin + from, rates);
+            System.arraycopy(rates, 0, expected, from, length);
+
+            // Then
+            for (int stay = 0; stay < 20; stay++) {
+                int checkIn = random.nextInt(expected.length - 1);
+                int checkOut = checkIn + 1 + random.nextInt(expected.length - checkIn - 1);
+                long sum = 0;
+                int[] nightly = new int[checkOut - checkIn];
+                for (int day = checkIn; day < checkOut; day++) {
+                    nightly[day - checkIn] = expected[day] != 0 ? expected[day] : 100;
+                    sum += nightly[day - checkIn];
+                }
+                assertThat(calendar.price(origin + checkIn, origin + checkOut, 100)).isEqualTo(sum);
+                assertThat(calendar.nightlyRates(origin + checkIn, origin + checkOut, 100)).containsExactly(nightly);
+            }
+        }
+
+        // Nights outside the rated range are charged the default rate
+        assertThat(calendar.price(origin - 500, origin - 490, 70)).isEqualTo(700);
+        assertThat(calendar.price(origin + 5_000, origin + 5_003, 70)).isEqualTo(210);
+        assertThrows(IllegalArgumentException.class, () -> calendar.setRates(0, new int[]{10, -1}));
+        assertThrows(IllegalArgumentException.class, () -> calendar.setRate(5, 5, 10));
+        assertThrows(IllegalArgumentException.class, () -> calendar.setRates(0, null));
+    }
+
+    @Test
+    @DisplayName("Should charge bookings the rates of the room or of its type")
+    void shouldChargeNightlyRates() {
+        // Given
+        service.setRoom(1, RoomType.STANDARD, 1000);
+        service.setRoom(2, RoomType.STANDARD, 1000);
+        service.setRoom(3, RoomType.SUITE, 3000);
+        service.setUser(1, 100_000);
+        LocalDate friday = LocalDate.of(2026, 7, 10);
+        service.setRoomTypeRates(RoomType.STANDARD, friday, new int[]{1500, 1800});
+        service.setRoomRates(2, friday.plusDays(1), new int[]{2500});
+
+        // When
+        StayQuote quote = service.quote(1, friday.minusDays(1), friday.plusDays(3));
+        service.bookRoom(1, 1, friday.minusDays(1), friday.plusDays(3));
+        service.bookRoom(1, 2, friday.minusDays(1), friday.plusDays(3));
+        service.bookRoom(1, 3, friday, friday.plusDays(2));
+
+        // Then - Room 2 has rates of its own, so those of its type no longer apply to it
+        assertThat(quote.getNightlyRates()).containsExactly(1000, 1500, 1800, 1000);
+        assertThat(quote.getTotalAmount()).isEqualTo(5300);
+        assertThat(quote.getAverageRatePerNight()).isEqualTo(1325);
+        List<Booking> bookings = service.getBookings();
+        assertThat(bookings).extracting(Booking::getTotalAmount).containsExactly(5300, 5500, 6000);
+        assertThat(bookings.get(0).getRoomPricePerNightAtBooking()).isEqualTo(1000);
+        assertThat(bookings.get(0).getAverageRatePerNight()).isEqualTo(1325);
+        assertThat(service.getUsers().get(0).getBalance()).isEqualTo(100_000 - 16_800);
+        assertThat(service.checkRevenueAggregates()).isEmpty();
+
+        // When - Rates change after booking
+        service.setRoomTypeRates(RoomType.STANDARD, friday, new int[]{0, 0});
+
+        // Then - Bookings keep the amount they were charged
+        assertThat(service.quote(1, friday.minusDays(1), friday.plusDays(3)).getTotalAmount()).isEqualTo(4000);
+        assertThat(service.getBookings().get(0).getTotalAmount()).isEqualTo(5300);
+        assertThat(service.cancelBooking(bookings.get(0).getBookingId()).getTotalAmount()).isEqualTo(5300);
+        assertThat(service.getUsers().get(0).getBalance()).isEqualTo(100_000 - 11_500);
+    }
+
+    @Test
+    @DisplayName("Should keep the room's price on bookings charged uneven nightly rates")
+    void shouldKeepRoomPriceWithUnevenRates() {
+        // Given
+        service.setRoom(1, RoomType.JUNIOR, 900);
+        service.setUser(1, 10_000);
+        LocalDate checkIn = LocalDate.of(2026, 7, 10);
+        service.setRoomRates(1, checkIn, new int[]{1000, 1001, 1000});
+
+        // When
+        service.bookRoom(1, 1, checkIn, checkIn.plusDays(3));
+
+        // Then - The price is the one the room had, not an average nobody was charged
+        Booking booking = service.getBookings().get(0);
+        assertThat(booking.getTotalAmount()).isEqualTo(3001);
+        assertThat(booking.getRoomPricePerNightAtBooking()).isEqualTo(900);
+        assertThat(booking.getAverageRatePerNight()).isEqualTo(1000);
+        assertThat(service.getUsers().get(0).getBalance()).isEqualTo(10_000 - 3001);
+    }
+
+    @Test
+    @DisplayName("Should require the rated amount in batches and when the balance is short")
+    void shouldRequireRatedAmount() {
+        // Given
+        service.setRoom(1, RoomType.JUNIOR, 500);
+        service.setRoom(2, RoomType.JUNIOR, 500);
+        service.setUser(1, 1_900);
+        service.setRoomTypeRates(RoomType.JUNIOR, LocalDate.of(2026, 7, 7), new int[]{400, 400, 400, 400, 400, 400, 400});
+
+        // When
+        BookingResult refused = service.tryBookRoom(1, 1, LocalDate.of(2026, 7, 5), LocalDate.of(2026, 7, 10));
+        List<BookingResult> results = service.bookRooms(List.of(
+                new BookingRequest(1, 1, LocalDate.of(2026, 7, 7), LocalDate.of(2026, 7, 9)),
+                new BookingRequest(1, 2, LocalDate.of(2026, 7, 6), LocalDate.of(2026, 7, 8))), BatchMode.BEST_EFFORT);
+
+        // Then
+        assertThat(refused.getStatus()).isEqualTo(BookingStatus.INSUFFICIENT_BALANCE);
+        assertThat(refused.getRequiredAmount()).isEqualTo(2_200);
+        assertThat(results).extracting(BookingResult::getStatus).containsExactly(BookingStatus.SUCCESS, BookingStatus.SUCCESS);
+        assertThat(results).extracting(result -> result.getBooking().getTotalAmount()).containsExactly(800, 900);
+        assertThat(service.getUsers().get(0).getBalance()).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("Should reject quotes and rates for unknown rooms or invalid stays")
+    void shouldRejectInvalidQuotes() {
+        // Given
+        service.setRoom(1, RoomType.STANDARD, 1000);
+
+        // Then
+        assertThrows(RoomNotFoundException.class, () -> service.quote(9, LocalDate.of(2026, 7, 7), LocalDate.of(2026, 7, 9)));
+        assertThrows(RoomNotFoundException.class, () -> service.setRoomRates(9, LocalDate.of(2026, 7, 7), new int[]{100}));
+        assertThrows(IllegalArgumentException.class, () -> service.quote(1, LocalDate.of(2026, 7, 9), LocalDate.of(2026, 7, 7)));
+        assertThrows(IllegalArgumentException.class, () -> service.quote(1, null, LocalDate.of(2026, 7, 9)));
+        assertThrows(IllegalArgumentException.class, () -> service.setRoomTypeRates(null, LocalDate.of(2026, 7, 7), new int[]{100}));
+        assertThrows(IllegalArgumentException.class, () -> service.setRoomRates(1, LocalDate.of(2026, 7, 7), new int[]{-5}));
+    }
+
+    @Test
+    @DisplayName("Should reject bookings, holds and quotes of stays costing more than the largest balance")
+    void shouldRejectOverflowingTotals() {
+        // Given - Two nights at the highest price overflow an int
+        service.setRoom(1, RoomType.SUITE, Integer.MAX_VALUE);
+        service.setUser(1, Integer.MAX_VALUE);
+        LocalDate checkIn = LocalDate.of(2026, 7, 7);
+        LocalDate checkOut = LocalDate.of(2026, 7, 9);
+
+        // When
+        BookingResult single = service.tryBookRoom(1, 1, checkIn, checkOut);
+        List<BookingResult> batch = service.bookRooms(List.of(new BookingRequest(1, 1, checkIn, checkOut)),
+                BatchMode.BEST_EFFORT);
+        int holdId = service.holdRoom(1, 1, checkIn, checkOut, Duration.ofMinutes(5)).getHoldId();
+
+        // Then
+        assertThat(single.getStatus()).isEqualTo(BookingStatus.AMOUNT_TOO_LARGE);
+        assertThat(batch).extracting(BookingResult::getStatus).containsExactly(BookingStatus.AMOUNT_TOO_LARGE);
+        assertThrows(InsufficientBalanceException.class, () -> service.confirmHold(holdId));
+        assertThrows(IllegalArgumentException.class, () -> service.quote(1, checkIn, checkOut));
+        assertThat(service.getBookings()).isEmpty();
+        assertThat(service.getUsers().get(0).getBalance()).isEqualTo(Integer.MAX_VALUE);
+        assertThat(service.quote(1, checkIn, checkIn.plusDays(1)).getTotalAmount()).isEqualTo(Integer.MAX_VALUE);
+    }
+}
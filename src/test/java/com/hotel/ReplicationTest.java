@@ -0,0 +1,242 @@
+package com.hotel;
+
+import com.skypay.hotel.log.EventSink;
+import com.skypay.hotel.model.RoomType;
+import com.skypay.hotel.persistence.ReplicationFollower;
+import com.skypay.hotel.persistence.ReplicationLeader;
+import com.skypay.hotel.service.Service;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("Leader/Follower Replication Tests")
+class ReplicationTest extends BaseTest {
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    @Test
+    @DisplayName("Should copy the leader's state to a new follower, then stream every change to it")
+    void shouldReplicateStateAndChanges() throws Exception {
+        // Given - A leader with state from before the follower connects
+        ReplicationLeader leader = ReplicationLeader.create(1 << 20);
+        Service primary = new Service(EventSink.DISCARD, leader);
+        primary.setRoom(1, RoomType.STANDARD, 1000);
+        primary.setRoom(2, RoomType.SUITE, 3000);
+        primary.setUser(1, 50000);
+        primary.bookRoom(1, 1, checkInDate, checkOutDate);
+        leader.start(primary, loopback(0));
+
+        try (ReplicationFollower follower = ReplicationFollower.start(loopback(leader.getPort()), EventSink.DISCARD)) {
+            assertThat(follower.awaitPosition(leader.getPosition(), TIMEOUT)).isTrue();
+
+            // When
+            primary.setRoom(2, RoomType.JUNIOR, 2500);
+            primary.setUser(2, 9000);
+            primary.bookRoom(2, 2, checkInDate, checkOutDate);
+            primary.bookRoom(1, 1, checkOutDate, createDate(2026, 6, 12));
+            primary.cancelBooking(primary.getBookings().get(0).getBookingId());
+            assertThat(follower.awaitPosition(leader.getPosition(), TIMEOUT)).isTrue();
+
+            // Then
+            assertSameState(follower.getService(), primary);
+            assertThat(follower.getService().getRooms().get(1).getRoomType()).isEqualTo(RoomType.JUNIOR);
+            assertThat(follower.getService().getBookings()).hasSize(2);
+            assertThat(follower.getLagBytes()).isZero();
+            assertThat(follower.getSnapshotCount()).isEqualTo(1);
+            assertThat(leader.getSnapshotCount()).isEqualTo(1);
+            assertThat(leader.getFollowerCount()).isEqualTo(1);
+            awaitAcknowledged(leader);
+        } finally {
+            leader.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Should catch up from the leader's log after a lost connection, or from a copy once the log moved on")
+    void shouldCatchUpAfterReconnecting() throws Exception {
+        // Given - A follower behind a link that can be cut, and a log of a few dozen changes
+        ReplicationLeader leader = ReplicationLeader.create(4096);
+        Service primary = new Service(EventSink.DISCARD, leader);
+        primary.setRoom(1, RoomType.STANDARD, 1000);
+        primary.setRoom(2, RoomType.SUITE, 3000);
+        primary.setUser(1, 1_000_000);
+        leader.start(primary, loopback(0));
+
+        try (Link link = new Link(loopback(leader.getPort()));
+             ReplicationFollower follower = ReplicationFollower.start(link.getAddress(), EventSink.DISCARD)) {
+            primary.bookRoom(1, 1, checkInDate, checkOutDate);
+            assertThat(follower.awaitPosition(leader.getPosition(), TIMEOUT)).isTrue();
+
+            // When - A short outage, within what the log holds
+            link.cut(true);
+            primary.bookRoom(1, 2, checkInDate, checkOutDate);
+            primary.setUser(2, 700);
+            link.cut(false);
+
+            // Then
+            assertThat(follower.awaitPosition(leader.getPosition(), TIMEOUT)).isTrue();
+            assertSameState(follower.getService(), primary);
+            assertThat(follower.getConnectionCount()).isGreaterThanOrEqualTo(2);
+            assertThat(follower.getSnapshotCount()).isEqualTo(1);
+
+            // When - A long outage: the log moves past the follower, and a booking it holds is cancelled
+            link.cut(true);
+            primary.cancelBooking(primary.getBookings().get(0).getBookingId());
+            for (int i = 0; i < 200; i++) {
+                primary.setUser(3, i);
+            }
+            Service before = follower.getService();
+            link.cut(false);
+
+            // Then - The follower loads a new copy of the state, which drops the cancelled booking
+            assertThat(follower.awaitPosition(leader.getPosition(), TIMEOUT)).isTrue();
+            assertThat(follower.getSnapshotCount()).isEqualTo(2);
+            assertThat(follower.getService()).isNotSameAs(before);
+            assertThat(before.getBookings()).hasSize(2);
+            assertSameState(follower.getService(), primary);
+            assertThat(follower.getService().getBookings()).hasSize(1);
+        } finally {
+            leader.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject invalid configurations")
+    void shouldRejectInvalidConfigurations() throws IOException {
+        assertThrows(IllegalArgumentException.class, () -> ReplicationLeader.create(1024));
+        ReplicationLeader leader = ReplicationLeader.create(4096);
+        assertThrows(IllegalArgumentException.class, () -> leader.start(null, loopback(0)));
+        assertThrows(IllegalArgumentException.class, () -> leader.start(service, null));
+        leader.start(service, loopback(0));
+        assertThrows(IllegalStateException.class, () -> leader.start(service, loopback(0)));
+        leader.close();
+        assertThrows(IllegalArgumentException.class, () -> ReplicationFollower.start(null, EventSink.DISCARD));
+        assertThrows(IllegalArgumentException.class, () -> ReplicationFollower.start(loopback(1), null));
+    }
+
+    private static InetSocketAddress loopback(int port) {
+        return new InetSocketAddress(InetAddress.getLoopbackAddress(), port);
+    }
+
+    private static void assertSameState(Service replica, Service primary) {
+        assertThat(describe(replica)).containsExactlyElementsOf(describe(primary));
+    }
+
+    private static List<String> describe(Service service) {
+        List<String> state = new ArrayList<>();
+        service.getRooms().forEach(room -> state.add("room " + room.getRoomNumber() + " " + room.getRoomType() +
+                " " + room.getPricePerNight()));
+        service.getUsers().forEach(user -> state.add("user " + user.getUserId() + " " + user.getBalance()));
+        service.getBookings().forEach(booking -> state.add("booking " + booking.getBookingId() + " " +
+                booking.getUserId() + " " + booking.getRoomNumber() + " " + booking.getTotalAmount()));
+        return state;
+    }
+
+    private static void awaitAcknowledged(ReplicationLeader leader) throws InterruptedException {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (leader.getMaxLagBytes() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertThat(leader.getMaxLagBytes()).isZero();
+    }
+
+    /**
+     * Loopback TCP relay standing in for the network between a follower and its leader
+     */
+    private static final class Link implements AutoCloseable {
+        private final ServerSocket server;
+        private final InetSocketAddress target;
+        private final List<Socket> sockets = Collections.synchronizedList(new ArrayList<>());
+        private volatile boolean down;
+
+        Link(InetSocketAddress target) throws IOException {
+            this.server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+            this.target = target;
+            Thread acceptor = new Thread(this::accept, "test-link");
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        InetSocketAddress getAddress() {
+            return loopback(server.getLocalPort());
+        }
+
+        /**
+         * Drops the open connections, and refuses new ones while down
+         */
+        void cut(boolean down) {
+            this.down = down;
+            synchronized (sockets) {
+                for (Socket socket : sockets) {
+                    closeQuietly(socket);
+                }
+                sockets.clear();
+            }
+        }
+
+        private void accept() {
+            while (!server.isClosed()) {
+                try {
+                    Socket client = server.accept();
+                    if (down) {
+                        client.close();
+                        continue;
+                    }
+                    Socket upstream = new Socket(target.getAddress(), target.getPort());
+                    sockets.add(client);
+                    sockets.add(upstream);
+                    relay(client, upstream);
+                    relay(upstream, client);
+                } catch (IOException e) {
+                    // Closed
+                }
+            }
+        }
+
+        private static void relay(Socket from, Socket to) {
+            Thread thread = new Thread(() -> {
+                byte[] buffer = new byte[8192];
+                try (InputStream in = from.getInputStream(); OutputStream out = to.getOutputStream()) {
+                    int read;
+                    while ((read = in.read(buffer)) > 0) {
+                        out.write(buffer, 0, read);
+                    }
+                } catch (IOException e) {
+                    // Cut
+                } finally {
+                    closeQuietly(from);
+                    closeQuietly(to);
+                }
+            }, "test-link-relay");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        private static void closeQuietly(Socket socket) {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // Already closed
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            server.close();
+            cut(true);
+        }
+    }
+}
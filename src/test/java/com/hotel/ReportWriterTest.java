@@ -0,0 +1,167 @@
+package com.hotel;
+
+import com.skypay.hotel.index.ColdBookingTier;
+import com.skypay.hotel.model.Booking;
+import com.skypay.hotel.model.RoomType;
+import com.skypay.hotel.model.User;
+import com.skypay.hotel.report.ReportFormat;
+import com.skypay.hotel.report.ReportPage;
+import com.skypay.hotel.report.ReportWriter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("Report Writer Tests")
+class ReportWriterTest extends BaseTest {
+
+    @Test
+    @DisplayName("Should print users exactly as the formatted console report did, newest first")
+    void shouldPrintUsersLikeFormattedReport() {
+        // Given
+        service.setUser(1, 5000);
+        service.setUser(22, 10000);
+        service.setUser(333, 123456789);
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
+        StringBuilder expected = new StringBuilder(String.format("%n%s%n%s%n%s%n",
+                "=".repeat(60), "ALL USERS DATA (Latest to Oldest)", "=".repeat(60)));
+        List<User> users = service.getUsers();
+        for (int i = users.size() - 1; i >= 0; i--) {
+            User user = users.get(i);
+            expected.append(String.format("User ID: %-3d | Balance: %-8d | Created: %s%n",
+                    user.getUserId(), user.getBalance(), user.getCreatedAt().format(formatter)));
+        }
+        expected.append("=".repeat(60)).append(System.lineSeparator());
+
+        // When
+        ByteArrayOutputStream captured = new ByteArrayOutputStream();
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(captured, true, StandardCharsets.UTF_8));
+        try {
+            service.printAllUsers();
+        } finally {
+            System.setOut(console);
+        }
+
+        // Then
+        assertThat(captured.toString(StandardCharsets.UTF_8)).isEqualTo(expected.toString());
+    }
+
+    @Test
+    @DisplayName("Should page bookings newest first from a cursor that survives new bookings")
+    void shouldPageBookingsFromCursor() throws IOException {
+        // Given
+        service.setRoom(1, RoomType.STANDARD, 1000);
+        service.setUser(1, 100_000);
+        for (int day = 1; day <= 5; day++) {
+            service.bookRoom(1, 1, createDate(2026, 7, day * 2), createDate(2026, 7, day * 2 + 1));
+        }
+        List<Booking> bookings = service.getBookings();
+
+        // When
+        StringWriter firstPage = new StringWriter();
+        ReportWriter writer = new ReportWriter(firstPage, ReportFormat.CSV);
+        ReportPage first = service.exportBookings(writer, ReportPage.NEWEST, 2);
+        writer.flush();
+        service.bookRoom(1, 1, createDate(2026, 8, 1), createDate(2026, 8, 2));
+        StringWriter secondPage = new StringWriter();
+        ReportWriter second = new ReportWriter(secondPage, ReportFormat.CSV);
+        ReportPage next = service.exportBookings(second, first.getNextCursor(), 2);
+        ReportPage last = service.exportBookings(second, next.getNextCursor(), 2);
+        second.flush();
+
+        // Then
+        assertThat(first.getRowCount()).isEqualTo(2);
+        assertThat(first.getNextCursor()).isEqualTo(bookings.get(3).getBookingId());
+        assertThat(next.getRowCount()).isEqualTo(2);
+        assertThat(last.getRowCount()).isEqualTo(1);
+        assertThat(last.hasMore()).isFalse();
+        String[] lines = firstPage.toString().split("\n");
+        assertThat(lines[0]).startsWith("bookingId,userId,roomNumber,checkIn,checkOut");
+        assertThat(lines[1]).startsWith(bookings.get(4).getBookingId() + ",1,1,2026-08-10,2026-08-11,1,STANDARD,1000,1000,");
+        assertThat(lines[2]).startsWith(bookings.get(3).getBookingId() + ",");
+        assertThat(secondPage.toString().split("\n"))
+                .filteredOn(line -> !line.startsWith("bookingId"))
+                .extracting(line -> Integer.parseInt(line.substring(0, line.indexOf(','))))
+                .containsExactly(bookings.get(2).getBookingId(), bookings.get(1).getBookingId(),
+                        bookings.get(0).getBookingId());
+    }
+
+    @Test
+    @DisplayName("Should write rooms as a JSON array and validate paging arguments")
+    void shouldWriteRoomsAsJson() throws IOException {
+        // Given
+        service.setRoom(7, RoomType.SUITE, 3000);
+        service.setRoom(8, RoomType.JUNIOR, 2000);
+        StringWriter json = new StringWriter();
+        ReportWriter writer = new ReportWriter(json, ReportFormat.JSON);
+
+        // When
+        ReportPage page = service.exportRooms(writer, ReportPage.NEWEST, 10);
+        service.exportRooms(writer, page.getNextCursor(), 10);
+        writer.flush();
+
+        // Then
+        String room8 = "{\"roomNumber\":8,\"roomType\":\"JUNIOR\",\"pricePerNight\":2000,\"createdAt\":\"";
+        String room7 = "{\"roomNumber\":7,\"roomType\":\"SUITE\",\"pricePerNight\":3000,\"createdAt\":\"";
+        assertThat(json.toString()).matches("(?s)\\[\n  \\Q" + room8 + "\\E[0-9T:-]{19}\"},\n  \\Q" + room7
+                + "\\E[0-9T:-]{19}\"}\n]\n\\[\n]\n");
+        assertThrows(IllegalArgumentException.class, () -> service.exportRooms(writer, -1, 10));
+        assertThrows(IllegalArgumentException.class, () -> service.exportRooms(writer, ReportPage.NEWEST, 0));
+        assertThrows(IllegalArgumentException.class, () -> service.exportRooms(null, ReportPage.NEWEST, 10));
+    }
+
+    @Test
+    @DisplayName("Should neither skip nor repeat bookings when pages are interleaved with compaction and archiving")
+    void shouldPageBookingsAcrossCompactionAndArchiving(@TempDir Path directory) throws IOException {
+        // Given
+        service.setRoom(1, RoomType.STANDARD, 1000);
+        service.setUser(1, 100_000);
+        for (int day = 1; day <= 8; day++) {
+            service.bookRoom(1, 1, createDate(2026, 2, day * 2), createDate(2026, 2, day * 2 + 1));
+        }
+        List<Booking> bookings = service.getBookings();
+        List<Integer> paged = new ArrayList<>();
+
+        // When - A cancellation and a compaction, then an archive run, between pages
+        ReportPage page = exportBookingIds(ReportPage.NEWEST, paged);
+        service.cancelBooking(bookings.get(7).getBookingId());
+        service.cancelBooking(bookings.get(2).getBookingId());
+        service.compactBookings();
+        page = exportBookingIds(page.getNextCursor(), paged);
+        service.archivePastStays(ColdBookingTier.open(directory), LocalDate.of(2026, 3, 10));
+        while (page.hasMore()) {
+            page = exportBookingIds(page.getNextCursor(), paged);
+        }
+
+        // Then
+        assertThat(paged).containsExactly(bookings.get(7).getBookingId(), bookings.get(6).getBookingId(),
+                bookings.get(5).getBookingId(), bookings.get(4).getBookingId(), bookings.get(3).getBookingId(),
+                bookings.get(1).getBookingId(), bookings.get(0).getBookingId());
+        assertThat(service.getArchivedBookingCount()).isPositive();
+    }
+
+    private ReportPage exportBookingIds(int cursor, List<Integer> ids) throws IOException {
+        StringWriter csv = new StringWriter();
+        ReportWriter writer = new ReportWriter(csv, ReportFormat.CSV);
+        ReportPage page = service.exportBookings(writer, cursor, 2);
+        writer.flush();
+        Arrays.stream(csv.toString().split("\n")).skip(1)
+                .forEach(line -> ids.add(Integer.parseInt(line.substring(0, line.indexOf(',')))));
+        return page;
+    }
+}
@@ -0,0 +1,77 @@
+package com.hotel;
+
+import com.skypay.hotel.model.Booking;
+import com.skypay.hotel.model.RoomType;
+import com.skypay.hotel.report.RevenueAggregates;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@DisplayName("Revenue Aggregates Tests")
+class RevenueAggregatesTest extends BaseTest {
+
+    @Test
+    @DisplayName("Should attribute revenue by room type, room and stay month")
+    void shouldAttributeRevenue() {
+        // Given
+        service.setRoom(1, RoomType.STANDARD, 1000);
+        service.setRoom(2, RoomType.SUITE, 3000);
+        service.setUser(1, 100_000);
+
+        // When - The suite stay spans June and July
+        service.bookRoom(1, 1, checkInDate, checkOutDate);
+        service.bookRoom(1, 2, createDate(2026, 5, 29), createDate(2026, 6, 3));
+        service.setRoom(1, RoomType.SUITE, 5000);
+
+        // Then
+        RevenueAggregates aggregates = service.getRevenueAggregates();
+        assertThat(aggregates.getTotalRevenue()).isEqualTo(2000 + 12000);
+        assertThat(aggregates.getBookingCount()).isEqualTo(2);
+        assertThat(aggregates.getRevenue(RoomType.STANDARD)).isEqualTo(2000);
+        assertThat(aggregates.getRevenue(RoomType.SUITE)).isEqualTo(12000);
+        assertThat(aggregates.getRoomRevenue(2)).isEqualTo(12000);
+        assertThat(aggregates.getMonthRevenue(YearMonth.of(2026, 6))).isEqualTo(6000);
+        assertThat(aggregates.getMonthRevenue(YearMonth.of(2026, 7))).isEqualTo(2000 + 6000);
+        assertThat(aggregates.getBookedNights(YearMonth.of(2026, 7))).isEqualTo(4);
+        assertThat(aggregates.getOccupancyRate(YearMonth.of(2026, 7))).isCloseTo(4.0 / 62, within(1e-9));
+        assertThat(service.checkRevenueAggregates()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should match a rebuild after random bookings and reverse removed bookings exactly")
+    void shouldMatchRebuildAndReverseRemovals() {
+        // Given
+        RevenueAggregates aggregates = new RevenueAggregates();
+        RevenueAggregates empty = RevenueAggregates.rebuild(List.of(), 0);
+        Random random = new Random(13);
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 1; i <= 5000; i++) {
+            LocalDate checkIn = LocalDate.of(2027, 1, 1).plusDays(random.nextInt(400));
+            int nights = 1 + random.nextInt(40);
+            Booking booking = Booking.restore(i, 1, 1 + random.nextInt(50), checkIn, checkIn.plusDays(nights),
+                    1 + random.nextInt(100_000), LocalDateTime.of(2026, 1, 1, 0, 0), 0,
+                    RoomType.values()[random.nextInt(3)], 100);
+            bookings.add(booking);
+            aggregates.add(booking);
+        }
+
+        // Then
+        assertThat(aggregates.differences(RevenueAggregates.rebuild(bookings, 0))).isEmpty();
+        assertThat(aggregates.differences(empty)).isNotEmpty();
+
+        // When
+        bookings.forEach(aggregates::remove);
+
+        // Then
+        assertThat(aggregates.differences(empty)).isEmpty();
+    }
+}
@@ -0,0 +1,158 @@
+package com.hotel;
+
+import com.skypay.hotel.exception.InsufficientBalanceException;
+import com.skypay.hotel.exception.RoomNotAvailableException;
+import com.skypay.hotel.log.EventSink;
+import com.skypay.hotel.metrics.LatencyHistogram;
+import com.skypay.hotel.metrics.LatencySummary;
+import com.skypay.hotel.metrics.Operation;
+import com.skypay.hotel.metrics.ServiceMetrics;
+import com.skypay.hotel.model.BookingStatus;
+import com.skypay.hotel.model.RoomType;
+import com.skypay.hotel.service.MutationListener;
+import com.skypay.hotel.service.Service;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.TabularData;
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("Service Metrics Tests")
+class ServiceMetricsTest extends BaseTest {
+
+    @Test
+    @DisplayName("Should report percentiles within the bucket precision of the recorded values")
+    void shouldReportPercentilesWithinPrecision() {
+        // Given
+        LatencyHistogram histogram = new LatencyHistogram();
+        Random random = new Random(18);
+        long[] values = new long[100_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (long) Math.exp(random.nextDouble() * 25);
+            histogram.record(values[i]);
+        }
+        histogram.record(-5);
+        java.util.Arrays.sort(values);
+
+        // When
+        LatencySummary summary = histogram.summarize();
+
+        // Then
+        assertThat(summary.getCount()).isEqualTo(values.length + 1);
+        assertThat((double) summary.getP50Nanos()).isCloseTo(values[values.length / 2], within(values[values.length / 2] * 0.04));
+        assertThat((double) summary.getP99Nanos()).isCloseTo(values[(int) (values.length * 0.99)],
+                within(values[(int) (values.length * 0.99)] * 0.04));
+        assertThat(summary.getMaxNanos()).isBetween(values[values.length - 1], (long) (values[values.length - 1] * 1.04));
+        assertThat(new LatencyHistogram().summarize().getCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should count operations, booking outcomes by room type and exceptions by type")
+    void shouldCountOutcomes() {
+        // Given
+        service.setRoom(1, RoomType.STANDARD, 1000);
+        service.setRoom(2, RoomType.SUITE, 3000);
+        service.setUser(1, 5000);
+
+        // When
+        service.bookRoom(1, 1, checkInDate, checkOutDate);
+        service.bookRoom(1, 2, createDate(2026, 7, 1), createDate(2026, 7, 2));
+        assertThrows(RoomNotAvailableException.class, () -> service.bookRoom(1, 1, checkInDate, checkOutDate));
+        assertThrows(InsufficientBalanceException.class,
+                () -> service.bookRoom(1, 2, createDate(2026, 8, 1), createDate(2026, 8, 5)));
+        service.tryBookRoom(1, 1, checkInDate, checkOutDate);
+        assertThrows(IllegalArgumentException.class, () -> service.setUser(-1, 10));
+
+        // Then
+        ServiceMetrics metrics = service.getMetrics();
+        assertThat(metrics.getLatency(Operation.SET_ROOM).getCount()).isEqualTo(2);
+        assertThat(metrics.getLatency(Operation.SET_USER).getCount()).isEqualTo(2);
+        assertThat(metrics.getLatency(Operation.BOOK_ROOM).getCount()).isEqualTo(5);
+        assertThat(metrics.getBookingCount(RoomType.STANDARD)).isEqualTo(1);
+        assertThat(metrics.getBookingCount(RoomType.SUITE)).isEqualTo(1);
+        assertThat(metrics.getRejectionCount(BookingStatus.ROOM_NOT_AVAILABLE)).isEqualTo(2);
+        assertThat(metrics.getRejectionCount(BookingStatus.INSUFFICIENT_BALANCE)).isEqualTo(1);
+        assertThat(metrics.getExceptionCount(RoomNotAvailableException.class)).isEqualTo(1);
+        assertThat(metrics.getExceptionCount(InsufficientBalanceException.class)).isEqualTo(1);
+        assertThat(metrics.getExceptionCount(IllegalArgumentException.class)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should publish the figures over JMX and as Prometheus text")
+    void shouldPublishOverJmxAndText() throws Exception {
+        // Given
+        service.setRoom(1, RoomType.JUNIOR, 2000);
+        service.setUser(1, 5000);
+        service.bookRoom(1, 1, checkInDate, checkOutDate);
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+        // When
+        ObjectName name = service.getMetrics().registerMBean("metrics-test");
+        try {
+            TabularData latencies = (TabularData) server.getAttribute(name, "SampledLatencies");
+            TabularData bookings = (TabularData) server.getAttribute(name, "BookingsByRoomType");
+
+            // Then
+            CompositeData bookRoom = latencies.get(new Object[]{"bookRoom"});
+            assertThat(((CompositeData) bookRoom.get("value")).get("count")).isEqualTo(1L);
+            assertThat(bookings.get(new Object[]{"JUNIOR"}).get("value")).isEqualTo(1L);
+            assertThat(server.getAttribute(name, "LatencySampleInterval")).isEqualTo(16);
+        } finally {
+            server.unregisterMBean(name);
+        }
+        StringBuilder text = new StringBuilder();
+        service.getMetrics().writeText(text);
+        assertThat(text.toString())
+                .contains("# TYPE hotel_operation_sampled_latency_seconds summary\n")
+                .contains("hotel_operation_sampled_latency_seconds_count{operation=\"bookRoom\"} 1\n")
+                .contains("hotel_operation_sampled_latency_seconds_sum{operation=\"bookRoom\"} ")
+                .contains("hotel_operation_sampled_latency_seconds{operation=\"setRoom\",quantile=\"0.99\"} ")
+                .contains("hotel_booking_rejections_total{reason=\"ROOM_NOT_AVAILABLE\"} 0\n")
+                .contains("hotel_bookings_total{room_type=\"JUNIOR\"} 1\n");
+    }
+
+    @Test
+    @DisplayName("Should count every call but time only a sample of them")
+    void shouldCountEveryCallAndSampleLatencies() {
+        // Given
+        ServiceMetrics metrics = new ServiceMetrics();
+        int timed = 0;
+
+        // When
+        for (int i = 0; i < 16_000; i++) {
+            long start = metrics.startTimer();
+            if (start != Long.MIN_VALUE) {
+                timed++;
+            }
+            metrics.record(Operation.BOOK_ROOM, start);
+        }
+
+        // Then - About one call in 16 is timed, and the total covers every call
+        LatencySummary summary = metrics.getLatency(Operation.BOOK_ROOM);
+        assertThat(summary.getCount()).isEqualTo(16_000);
+        assertThat(timed).isBetween(700, 1300);
+        assertThat(summary.getTotalNanos()).isGreaterThanOrEqualTo(summary.getMeanNanos() * 15_000);
+        assertThat(metrics.getLatency(Operation.SET_ROOM).getCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should record nothing when metrics are disabled")
+    void shouldRecordNothingWhenDisabled() {
+        Service unmeasured = new Service(EventSink.DISCARD, MutationListener.NONE, ServiceMetrics.DISABLED);
+        unmeasured.setRoom(1, RoomType.STANDARD, 1000);
+        unmeasured.setUser(1, 5000);
+        unmeasured.bookRoom(1, 1, checkInDate, checkOutDate);
+
+        assertThat(ServiceMetrics.DISABLED.getLatency(Operation.BOOK_ROOM).getCount()).isZero();
+        assertThat(ServiceMetrics.DISABLED.getBookingCount(RoomType.STANDARD)).isZero();
+        assertThrows(IllegalArgumentException.class, () -> new Service(EventSink.DISCARD, MutationListener.NONE, null));
+    }
+}
@@ -0,0 +1,110 @@
+package com.hotel;
+
+import com.skypay.hotel.model.Booking;
+import com.skypay.hotel.model.Room;
+import com.skypay.hotel.model.RoomType;
+import com.skypay.hotel.model.User;
+import com.skypay.hotel.service.ServiceView;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("Service View Tests")
+class ServiceViewTest extends BaseTest {
+
+    @Test
+    @DisplayName("Should freeze the lists at the time of the view and reject changes")
+    void shouldFreezeListsAtViewTime() {
+        // Given
+        service.setRoom(1, RoomType.STANDARD, 1000);
+        service.setUser(1, 10_000);
+        service.bookRoom(1, 1, checkInDate, checkOutDate);
+        ServiceView view = service.view();
+
+        // When
+        service.setRoom(2, RoomType.SUITE, 3000);
+        service.setUser(2, 10_000);
+        service.bookRoom(1, 1, checkOutDate, createDate(2026, 6, 12));
+        service.setUser(1, 500);
+
+        // Then - Membership is frozen, live entities show their current state
+        assertThat(view.getRooms()).extracting(Room::getRoomNumber).containsExactly(1);
+        assertThat(view.getUsers()).extracting(User::getBalance).containsExactly(500);
+        assertThat(view.getBookings()).hasSize(1);
+        assertThat(view.getBookingsOfUser(1)).hasSize(1);
+        assertThat(view.getBookingsOfRoom(1)).hasSize(1);
+        assertThat(service.view().getBookingsOfRoom(1)).hasSize(2);
+        assertThat(view.getBookingsOfRoom(2)).isEmpty();
+        assertThrows(UnsupportedOperationException.class, () -> view.getRooms().add(null));
+        assertThrows(UnsupportedOperationException.class, () -> view.getBookings().remove(0));
+    }
+
+    @Test
+    @DisplayName("Should list the bookings of a user or a room like a filter over all bookings")
+    void shouldListBookingsOfUserAndRoom() {
+        // Given
+        for (int roomNumber = 1; roomNumber <= 20; roomNumber++) {
+            service.setRoom(roomNumber, RoomType.STANDARD, 100);
+        }
+        for (int userId = 1; userId <= 10; userId++) {
+            service.setUser(userId, 1_000_000);
+        }
+        Random random = new Random(15);
+        for (int i = 0; i < 2000; i++) {
+            int day = random.nextInt(300);
+            service.tryBookRoom(1 + random.nextInt(10), 1 + random.nextInt(20),
+                    createDate(2027, 0, 1 + day), createDate(2027, 0, 2 + day + random.nextInt(3)));
+        }
+
+        // When
+        ServiceView view = service.view();
+        List<Booking> all = service.getBookings();
+
+        // Then
+        for (int userId = 1; userId <= 10; userId++) {
+            int user = userId;
+            assertThat(view.getBookingsOfUser(userId)).extracting(Booking::getBookingId)
+                    .containsExactlyElementsOf(all.stream().filter(booking -> booking.getUserId() == user)
+                            .map(Booking::getBookingId).collect(Collectors.toList()));
+        }
+        for (int roomNumber = 1; roomNumber <= 20; roomNumber++) {
+            int room = roomNumber;
+            assertThat(view.getBookingsOfRoom(roomNumber)).extracting(Booking::getBookingId)
+                    .containsExactlyElementsOf(all.stream().filter(booking -> booking.getRoomNumber() == room)
+                            .map(Booking::getBookingId).collect(Collectors.toList()));
+        }
+        assertThat(view.getBookingsOfUser(99)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should list the users created after a given time")
+    void shouldListUsersCreatedAfterTime() {
+        // Given
+        LocalDateTime firstCreatedAt = LocalDateTime.of(2026, 1, 1, 10, 0);
+        try (MockedStatic<LocalDateTime> mockedLocalDateTime = Mockito.mockStatic(LocalDateTime.class)) {
+            for (int userId = 1; userId <= 5; userId++) {
+                mockedLocalDateTime.when(LocalDateTime::now).thenReturn(firstCreatedAt.plusHours(userId - 1));
+                service.setUser(userId, 1000);
+            }
+        }
+        ServiceView view = service.view();
+
+        // Then
+        assertThat(view.getUsersCreatedAfter(LocalDateTime.of(2026, 1, 1, 12, 0)))
+                .extracting(User::getUserId).containsExactly(4, 5);
+        assertThat(view.getUsersCreatedAfter(LocalDateTime.of(2026, 1, 1, 12, 30)))
+                .extracting(User::getUserId).containsExactly(4, 5);
+        assertThat(view.getUsersCreatedAfter(LocalDateTime.of(2025, 1, 1, 0, 0))).hasSize(5);
+        assertThat(view.getUsersCreatedAfter(LocalDateTime.of(2027, 1, 1, 0, 0))).isEmpty();
+        assertThrows(IllegalArgumentException.class, () -> view.getUsersCreatedAfter(null));
+    }
+}
@@ -0,0 +1,224 @@
+package com.hotel;
+
+import com.skypay.hotel.exception.RoomNotAvailableException;
+import com.skypay.hotel.log.EventSink;
+import com.skypay.hotel.log.LogLevel;
+import com.skypay.hotel.metrics.Operation;
+import com.skypay.hotel.model.BookingResult;
+import com.skypay.hotel.model.BookingStatus;
+import com.skypay.hotel.model.Room;
+import com.skypay.hotel.model.RoomType;
+import com.skypay.hotel.model.User;
+import com.skypay.hotel.service.ShardedService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("Sharded Service Tests")
+class ShardedServiceTest extends BaseTest {
+    private ShardedService hotels;
+
+    @BeforeEach
+    void startShards() {
+        hotels = ShardedService.start(4, 2);
+    }
+
+    @AfterEach
+    void stopShards() {
+        hotels.close();
+    }
+
+    @Test
+    @DisplayName("Should book each room in the shard that owns it")
+    void shouldBookInOwningShard() {
+        // Given
+        for (int roomNumber = 1; roomNumber <= 8; roomNumber++) {
+            hotels.setRoom(roomNumber, roomNumber % 2 == 0 ? RoomType.SUITE : RoomType.STANDARD, 1000);
+        }
+        hotels.setUser(1, 10000);
+
+        // When
+        hotels.bookRoom(1, 3, checkInDate, checkOutDate);
+        hotels.bookRoom(1, 6, checkInDate, checkOutDate);
+        BookingResult unknownRoom = hotels.tryBookRoom(1, 9, checkInDate, checkOutDate);
+
+        // Then
+        assertThrows(RoomNotAvailableException.class, () -> hotels.bookRoom(1, 3, checkInDate, checkOutDate));
+        assertThat(unknownRoom.getStatus()).isEqualTo(BookingStatus.ROOM_NOT_FOUND);
+        assertThat(hotels.getMetrics(hotels.shardOf(3)).getBookingCount(RoomType.STANDARD)).isEqualTo(1);
+        assertThat(hotels.getMetrics(hotels.shardOf(6)).getBookingCount(RoomType.SUITE)).isEqualTo(1);
+        assertThat(hotels.getMetrics(hotels.shardOf(6)).getLatency(Operation.BOOK_ROOM).getCount()).isEqualTo(1);
+        assertThat(hotels.getRooms()).hasSize(8);
+        assertThat(hotels.getBookings()).extracting(b -> b.getRoomNumber()).containsExactlyInAnyOrder(3, 6);
+        assertThat(hotels.getUsers()).extracting(User::getBalance).containsExactly(6000);
+        assertThat(hotels.findAvailableRooms(RoomType.SUITE, checkInDate, checkOutDate))
+                .extracting(Room::getRoomNumber).containsExactlyInAnyOrder(2, 4, 8);
+    }
+
+    @Test
+    @DisplayName("Should never overdraw a user booking rooms in every shard at once")
+    void shouldNotOverdrawAcrossShards() {
+        // Given
+        for (int roomNumber = 1; roomNumber <= 40; roomNumber++) {
+            hotels.setRoom(roomNumber, RoomType.STANDARD, 1000);
+        }
+        hotels.setUser(1, 2000 * 7);
+
+        // When
+        List<CompletableFuture<BookingResult>> results = new ArrayList<>();
+        for (int roomNumber = 1; roomNumber <= 40; roomNumber++) {
+            results.add(hotels.tryBookRoomAsync(1, roomNumber, checkInDate, checkOutDate));
+        }
+
+        // Then
+        assertThat(results).extracting(CompletableFuture::join).extracting(BookingResult::getStatus)
+                .containsOnly(BookingStatus.SUCCESS, BookingStatus.INSUFFICIENT_BALANCE)
+                .filteredOn(status -> status == BookingStatus.SUCCESS).hasSize(7);
+        assertThat(hotels.getUsers()).extracting(User::getBalance).containsExactly(0);
+        assertThat(hotels.getBookings()).hasSize(7);
+    }
+
+    @Test
+    @DisplayName("Should update the shared account and reject requests once closed")
+    void shouldShareAccountAndRejectWhenClosed() {
+        // Given
+        hotels.setRoom(5, RoomType.JUNIOR, 1500);
+        hotels.setUser(1, 1000);
+        assertThat(hotels.tryBookRoom(1, 5, checkInDate, checkOutDate).getStatus())
+                .isEqualTo(BookingStatus.INSUFFICIENT_BALANCE);
+
+        // When
+        hotels.setUser(1, 3000);
+        BookingResult booked = hotels.tryBookRoom(1, 5, checkInDate, checkOutDate);
+        hotels.close();
+
+        // Then
+        assertThat(booked.isSuccess()).isTrue();
+        assertThat(hotels.getUsers()).extracting(User::getBalance).containsExactly(0);
+        assertThrows(IllegalArgumentException.class, () -> ShardedService.start(0, 10));
+        assertThrows(RejectedExecutionException.class, () -> hotels.tryBookRoom(1, 5, checkInDate, checkOutDate));
+    }
+
+    @Test
+    @DisplayName("Should register users created at once by many callers, and record balance updates in one shard")
+    void shouldRegisterAndUpdateUsersThroughShards() throws InterruptedException {
+        // Given
+        List<String> messages = Collections.synchronizedList(new ArrayList<>());
+        EventSink sink = new EventSink() {
+            @Override
+            public boolean isEnabled(LogLevel level) {
+                return level == LogLevel.INFO;
+            }
+
+            @Override
+            public void log(LogLevel level, String message) {
+                messages.add(message);
+            }
+        };
+        try (ShardedService logged = ShardedService.start(4, 2, sink)) {
+            logged.setRoom(6, RoomType.SUITE, 1000);
+
+            // When - Four callers create the same twenty users at once
+            List<Thread> callers = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                callers.add(new Thread(() -> {
+                    for (int userId = 1; userId <= 20; userId++) {
+                        logged.setUser(userId, 5000);
+                    }
+                }));
+            }
+            callers.forEach(Thread::start);
+            for (Thread caller : callers) {
+                caller.join();
+            }
+            messages.clear();
+            logged.setUser(7, 2000);
+
+            // Then
+            assertThat(logged.getUsers()).extracting(User::getUserId).doesNotHaveDuplicates().hasSize(20);
+            assertThat(messages).containsExactly("Updated user 7 balance to: 2000");
+            assertThat(logged.getMetrics(3).getLatency(Operation.SET_USER).getCount()).isEqualTo(20 + 3 * 5 + 1);
+            assertThat(logged.getMetrics(0).getLatency(Operation.SET_USER).getCount()).isEqualTo(20 + 3 * 5);
+            assertThat(logged.tryBookRoom(7, 6, checkInDate, checkOutDate).isSuccess()).isTrue();
+            assertThat(logged.getUsers()).filteredOn(user -> user.getUserId() == 7)
+                    .extracting(User::getBalance).containsExactly(0);
+        }
+    }
+
+    @Test
+    @DisplayName("Should unregister a new user from every shard when one shard cannot take it")
+    void shouldRollBackPartialRegistration() throws Exception {
+        // Given - Shard 1 stuck creating room 3, with its one-request queue full
+        CountDownLatch stuck = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> messages = Collections.synchronizedList(new ArrayList<>());
+        EventSink sink = new EventSink() {
+            @Override
+            public boolean isEnabled(LogLevel level) {
+                return level == LogLevel.INFO;
+            }
+
+            @Override
+            public void log(LogLevel level, String message) {
+                messages.add(message);
+                if (message.startsWith("Created new room 3 ")) {
+                    stuck.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+        };
+        try (ShardedService blocked = ShardedService.start(2, 1, sink)) {
+            blocked.setRoom(1, RoomType.STANDARD, 1000);
+            blocked.setRoom(2, RoomType.STANDARD, 1000);
+            Thread roomCreator = new Thread(() -> blocked.setRoom(3, RoomType.STANDARD, 1000));
+            roomCreator.start();
+            stuck.await();
+            CompletableFuture<BookingResult> queued = blocked.tryBookRoomAsync(5, 1, checkInDate, checkOutDate);
+
+            // When - Registering a user gets through shard 0, then gives up waiting for shard 1
+            RuntimeException[] failure = new RuntimeException[1];
+            Thread userCreator = new Thread(() -> {
+                try {
+                    blocked.setUser(5, 5000);
+                } catch (RuntimeException e) {
+                    failure[0] = e;
+                }
+            });
+            userCreator.start();
+            while (userCreator.getState() != Thread.State.WAITING) {
+                Thread.sleep(1);
+            }
+            userCreator.interrupt();
+            userCreator.join();
+            release.countDown();
+            roomCreator.join();
+
+            // Then - The user is bookable in no shard, and can be created again
+            assertThat(failure[0]).isInstanceOf(RejectedExecutionException.class);
+            assertThat(messages).contains("Registered user 5 with balance: 5000", "Unregistered user 5");
+            assertThat(queued.join().getStatus()).isEqualTo(BookingStatus.USER_NOT_FOUND);
+            assertThat(blocked.tryBookRoom(5, 2, checkInDate, checkOutDate).getStatus())
+                    .isEqualTo(BookingStatus.USER_NOT_FOUND);
+            assertThat(blocked.getUsers()).isEmpty();
+            blocked.setUser(5, 5000);
+            assertThat(blocked.tryBookRoom(5, 2, checkInDate, checkOutDate).isSuccess()).isTrue();
+            assertThat(blocked.tryBookRoom(5, 1, checkInDate, checkOutDate).isSuccess()).isTrue();
+            assertThat(blocked.getUsers()).extracting(User::getBalance).containsExactly(1000);
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.hotel;
+
+import com.skypay.hotel.log.EventSink;
+import com.skypay.hotel.log.LogLevel;
+import com.skypay.hotel.model.Booking;
+import com.skypay.hotel.model.RoomType;
+import com.skypay.hotel.model.User;
+import com.skypay.hotel.persistence.DurableStore;
+import com.skypay.hotel.service.MutationListener;
+import com.skypay.hotel.service.Service;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Snapshot and Journal Truncation Tests")
+class SnapshotTest extends BaseTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Should restore from the latest snapshot plus the journal tail and drop covered segments")
+    void shouldRestoreFromSnapshotAndTail() throws IOException {
+        // Given
+        List<Booking> expectedBookings;
+        List<Integer> expectedBalances = new ArrayList<>();
+        try (DurableStore store = DurableStore.open(directory, true)) {
+            Service original = new Service(EventSink.DISCARD, store.getJournal());
+            store.recover(original.recoveryTarget());
+            original.setRoom(1, RoomType.STANDARD, 1000);
+            original.setRoom(2, RoomType.JUNIOR, 2000);
+            original.setUser(1, 50000);
+            original.bookRoom(1, 1, checkInDate, checkOutDate);
+            store.snapshot(original);
+
+            original.setRoom(2, RoomType.SUITE, 3000);
+            original.bookRoom(1, 2, checkInDate, checkOutDate);
+            assertThat(store.snapshot(original)).isEqualTo(5);
+            original.setUser(2, 7000);
+
+            expectedBookings = original.getBookings();
+            original.getUsers().forEach(user -> expectedBalances.add(user.getBalance()));
+        }
+        assertThat(fileNames()).containsExactly("journal-000000003.log", "snapshot-000000003.snap");
+
+        // When
+        Service restored = new Service();
+        try (DurableStore store = DurableStore.open(directory, true)) {
+            assertThat(store.recover(restored.recoveryTarget())).isEqualTo(6);
+        }
+
+        // Then
+        assertThat(restored.getRooms().get(1).getRoomType()).isEqualTo(RoomType.SUITE);
+        assertThat(restored.getUsers()).extracting(User::getBalance).containsExactlyElementsOf(expectedBalances);
+        assertThat(restored.getBookings()).hasSize(2);
+        for (int i = 0; i < expectedBookings.size(); i++) {
+            assertThat(restored.getBookings().get(i)).usingRecursiveComparison().isEqualTo(expectedBookings.get(i));
+        }
+        assertThat(restored.tryBookRoom(1, 2, checkInDate, checkOutDate).isSuccess()).isFalse();
+        assertThat(Booking.getNextBookingId()).isGreaterThan(expectedBookings.get(1).getBookingId());
+    }
+
+    @Test
+    @DisplayName("Should not lose or duplicate bookings made while a snapshot is written")
+    void shouldKeepBookingsMadeDuringSnapshot() throws Exception {
+        // Given
+        int threads = 4;
+        List<Integer> expectedBalances = new ArrayList<>();
+        try (DurableStore store = DurableStore.open(directory, false)) {
+            Service original = new Service(EventSink.DISCARD, store.getJournal());
+            store.recover(original.recoveryTarget());
+            for (int room = 1; room <= threads; room++) {
+                original.setRoom(room, RoomType.STANDARD, 10);
+            }
+            original.setUser(1, 1_000_000);
+
+            // When - Snapshots are taken while every thread keeps booking its own room
+            List<Thread> workers = new ArrayList<>();
+            for (int t = 1; t <= threads; t++) {
+                int roomNumber = t;
+                workers.add(new Thread(() -> {
+                    for (int day = 1; day < 600; day += 2) {
+                        Date checkIn = createDate(2027, 0, day);
+                        Date checkOut = createDate(2027, 0, day + 1);
+                        original.bookRoom(1, roomNumber, checkIn, checkOut);
+                    }
+                }));
+            }
+            workers.forEach(Thread::start);
+            for (int i = 0; i < 5; i++) {
+                store.snapshot(original);
+            }
+            for (Thread worker : workers) {
+                worker.join();
+            }
+            original.getUsers().forEach(user -> expectedBalances.add(user.getBalance()));
+        }
+
+        // Then
+        Service restored = new Service();
+        try (DurableStore store = DurableStore.open(directory, false)) {
+            store.recover(restored.recoveryTarget());
+        }
+        assertThat(restored.getBookings()).hasSize(threads * 300)
+                .extracting(Booking::getBookingId).doesNotHaveDuplicates();
+        assertThat(restored.getUsers()).extracting(User::getBalance).containsExactlyElementsOf(expectedBalances);
+    }
+
+    @Test
+    @DisplayName("Should recover from snapshots taken while new rooms and users are created and booked")
+    void shouldRecoverSnapshotsTakenWhileCatalogsGrow() throws Exception {
+        // Given
+        int threads = 4;
+        int perThread = 2_000;
+        try (DurableStore store = DurableStore.open(directory, false)) {
+            Service original = new Service(EventSink.DISCARD, store.getJournal());
+            store.recover(original.recoveryTarget());
+
+            // When - Every thread creates a room and a user and books it at once, while snapshots are taken
+            List<Thread> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int first = 1 + t * perThread;
+                workers.add(new Thread(() -> {
+                    for (int id = first; id < first + perThread; id++) {
+                        original.setRoom(id, RoomType.STANDARD, 10);
+                        original.setUser(id, 100);
+                        original.bookRoom(id, id, checkInDate, checkOutDate);
+                    }
+                }));
+            }
+            workers.forEach(Thread::start);
+            while (workers.stream().anyMatch(Thread::isAlive)) {
+                store.snapshot(original);
+            }
+            for (Thread worker : workers) {
+                worker.join();
+            }
+        }
+
+        // Then - Every exported booking finds its room and user in the snapshot
+        Service restored = new Service();
+        try (DurableStore store = DurableStore.open(directory, false)) {
+            store.recover(restored.recoveryTarget());
+        }
+        assertThat(restored.getRooms()).hasSize(threads * perThread);
+        assertThat(restored.getUsers()).hasSize(threads * perThread);
+        assertThat(restored.getBookings()).hasSize(threads * perThread);
+    }
+
+    @Test
+    @DisplayName("Should log and count failed background snapshots, and keep trying")
+    void shouldReportFailedBackgroundSnapshots() throws Exception {
+        // Given - A service that cannot export its state
+        List<String> errors = Collections.synchronizedList(new ArrayList<>());
+        EventSink sink = new EventSink() {
+            @Override
+            public boolean isEnabled(LogLevel level) {
+                return level == LogLevel.ERROR;
+            }
+
+            @Override
+            public void log(LogLevel level, String message) {
+                errors.add(message);
+            }
+        };
+        try (DurableStore store = DurableStore.open(directory, false)) {
+            Service failing = new Service(sink, store.getJournal()) {
+                @Override
+                public void exportState(MutationListener target) {
+                    throw new IllegalStateException("state is unavailable");
+                }
+            };
+            store.recover(failing.recoveryTarget());
+            failing.setRoom(1, RoomType.STANDARD, 1000);
+
+            // When
+            store.startSnapshots(failing, 5, TimeUnit.MILLISECONDS);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (errors.size() < 2 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+
+            // Then
+            assertThat(errors).hasSizeGreaterThanOrEqualTo(2);
+            assertThat(errors.get(0)).isEqualTo(
+                    "Snapshot failed, retrying at the next interval: java.lang.IllegalStateException: state is unavailable");
+            assertThat(failing.getMetrics().getExceptionCount(IllegalStateException.class)).isGreaterThanOrEqualTo(2);
+        }
+    }
+
+    private List<String> fileNames() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString()).sorted().toList();
+        }
+    }
+}
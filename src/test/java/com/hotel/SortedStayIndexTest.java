@@ -0,0 +1,105 @@
+package com.hotel;
+
+import com.skypay.hotel.index.SortedStayIndex;
+import com.skypay.hotel.model.Booking;
+import com.skypay.hotel.model.EpochDays;
+import com.skypay.hotel.model.Room;
+import com.skypay.hotel.model.RoomType;
+import com.skypay.hotel.model.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Sorted Stay Index Tests")
+class SortedStayIndexTest {
+
+    private static final LocalDate START = LocalDate.of(2026, 1, 1);
+
+    private final User user = new User(1, 1_000_000);
+    private final SortedStayIndex index = new SortedStayIndex();
+
+    @Test
+    @DisplayName("Should allow back-to-back stays sharing the checkout/checkin day")
+    void shouldAllowBackToBackStays() {
+        // Given
+        Room room = new Room(101, RoomType.STANDARD, 100);
+        index.add(new Booking(user, room, START.plusDays(5), START.plusDays(8)));
+
+        // Then
+        assertThat(index.isAvailable(101, START.plusDays(8), START.plusDays(10))).isTrue();
+        assertThat(index.isAvailable(101, START.plusDays(2), START.plusDays(5))).isTrue();
+        assertThat(index.isAvailable(101, START.plusDays(7), START.plusDays(9))).isFalse();
+        assertThat(index.isAvailable(101, START.plusDays(4), START.plusDays(6))).isFalse();
+        assertThat(index.isAvailable(101, START.plusDays(6), START.plusDays(7))).isFalse();
+        assertThat(index.isAvailable(101, START.plusDays(1), START.plusDays(20))).isFalse();
+        assertThat(index.isAvailable(102, START.plusDays(5), START.plusDays(8))).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should forget only the stays checked out before the given day")
+    void shouldForgetPastStays() {
+        // Given
+        Room room = new Room(101, RoomType.STANDARD, 100);
+        index.add(new Booking(user, room, START.plusDays(1), START.plusDays(3)));
+        index.add(new Booking(user, room, START.plusDays(3), START.plusDays(5)));
+        index.add(new Booking(user, room, START.plusDays(5), START.plusDays(8)));
+
+        // When
+        index.removeCheckedOutBefore(101, EpochDays.of(START.plusDays(5)));
+        index.removeCheckedOutBefore(102, EpochDays.of(START.plusDays(5)));
+
+        // Then
+        assertThat(index.isAvailable(101, START.plusDays(1), START.plusDays(3))).isTrue();
+        assertThat(index.isAvailable(101, START.plusDays(4), START.plusDays(5))).isFalse();
+        assertThat(index.isAvailable(101, START.plusDays(7), START.plusDays(9))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should agree with Booking.overlaps on randomized stays")
+    void shouldAgreeWithOverlapsOnRandomizedStays() {
+        // Given
+        List<Room> rooms = List.of(
+                new Room(1, RoomType.STANDARD, 100),
+                new Room(2, RoomType.JUNIOR, 200),
+                new Room(3, RoomType.SUITE, 300));
+        List<Booking> committed = new ArrayList<>();
+        Random random = new Random(2026);
+
+        // When - Dense random requests over a short horizon so conflicts and boundaries are frequent
+        for (int i = 0; i < 20_000; i++) {
+            Room room = rooms.get(random.nextInt(rooms.size()));
+            LocalDate checkIn = START.plusDays(random.nextInt(365));
+            LocalDate checkOut = checkIn.plusDays(1 + random.nextInt(6));
+
+            boolean expected = committed.stream()
+                    .filter(booking -> booking.getRoomNumber() == room.getRoomNumber())
+                    .noneMatch(booking -> booking.overlaps(checkIn, checkOut));
+
+            // Then
+            assertThat(index.isAvailable(room.getRoomNumber(), checkIn, checkOut))
+                    .as("room %d from %s to %s", room.getRoomNumber(), checkIn, checkOut)
+                    .isEqualTo(expected);
+
+            if (expected) {
+                Booking booking = new Booking(user, room, checkIn, checkOut);
+                committed.add(booking);
+                index.add(booking);
+            } else if (random.nextInt(4) == 0) {
+                // Cancel a conflicting stay now and then so removals are exercised too
+                Booking cancelled = committed.stream()
+                        .filter(booking -> booking.getRoomNumber() == room.getRoomNumber())
+                        .filter(booking -> booking.overlaps(checkIn, checkOut))
+                        .findFirst().orElseThrow();
+                committed.remove(cancelled);
+                index.remove(cancelled);
+            }
+        }
+        assertThat(committed).isNotEmpty();
+    }
+}
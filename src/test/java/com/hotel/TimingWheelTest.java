@@ -0,0 +1,87 @@
+package com.hotel;
+
+import com.skypay.hotel.index.TimingWheel;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("Timing Wheel Tests")
+class TimingWheelTest {
+    private static final long TICK = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Test
+    @DisplayName("Should expire every value within a tick after its deadline, over many turns")
+    void shouldExpireAtDeadlines() {
+        // Given - 64 buckets of 10 ms, and deadlines spread over ten turns
+        long start = 1_000_000_000L;
+        TimingWheel<Long> wheel = new TimingWheel<>(10, TimeUnit.MILLISECONDS, 50, start);
+        Random random = new Random(7);
+        Set<Long> pending = new HashSet<>();
+        for (int i = 0; i < 20_000; i++) {
+            long deadline = start + (long) (random.nextDouble() * 640 * TICK * 10);
+            if (pending.add(deadline)) {
+                wheel.schedule(deadline, deadline);
+            }
+        }
+
+        // When - Time moves on by irregular steps, some longer than a turn
+        long now = start;
+        while (!pending.isEmpty()) {
+            now += random.nextInt(8) == 0 ? 700 * TICK : random.nextInt(3 * (int) TICK);
+            long current = now;
+            List<Long> expired = new ArrayList<>();
+            int count = wheel.advance(current, expired::add);
+
+            // Then - Never early, and never later than the tick holding the deadline
+            assertThat(count).isEqualTo(expired.size());
+            assertThat(expired).allMatch(deadline -> deadline <= current);
+            assertThat(pending.containsAll(expired)).isTrue();
+            expired.forEach(pending::remove);
+            assertThat(pending).allMatch(deadline -> deadline > current - TICK);
+        }
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should expire values scheduled from many threads, and past deadlines on the next tick")
+    void shouldAcceptConcurrentSchedules() throws Exception {
+        // Given
+        TimingWheel<Integer> wheel = new TimingWheel<>(1, TimeUnit.SECONDS, 8, 0);
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            int first = t * 10_000;
+            threads[t] = new Thread(() -> {
+                for (int value = first; value < first + 10_000; value++) {
+                    wheel.schedule(value, TimeUnit.SECONDS.toNanos(value % 20));
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // When
+        List<Integer> expired = new ArrayList<>();
+        assertThat(wheel.advance(TimeUnit.MILLISECONDS.toNanos(999), expired::add)).isZero();
+        int first = wheel.advance(TimeUnit.SECONDS.toNanos(1), expired::add);
+        int rest = wheel.advance(TimeUnit.SECONDS.toNanos(30), expired::add);
+
+        // Then
+        assertThat(first).isEqualTo(4_000);
+        assertThat(rest).isEqualTo(36_000);
+        assertThat(new HashSet<>(expired)).hasSize(40_000);
+        assertThrows(IllegalArgumentException.class, () -> wheel.schedule(null, 0));
+        assertThrows(IllegalArgumentException.class, () -> new TimingWheel<>(0, TimeUnit.SECONDS, 8, 0));
+        assertThrows(IllegalArgumentException.class, () -> new TimingWheel<>(1, TimeUnit.SECONDS, 0, 0));
+    }
+}
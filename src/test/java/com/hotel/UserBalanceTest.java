@@ -0,0 +1,102 @@
+package com.hotel;
+
+import com.skypay.hotel.model.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("Atomic User Balance Tests")
+class UserBalanceTest {
+
+    @Test
+    @DisplayName("Should deduct atomically and report the balance before the deduction")
+    void shouldDeductAndReportPreviousBalance() {
+        User user = new User(1, 5000);
+
+        assertThat(user.tryDeductBalance(2000)).isEqualTo(5000);
+        assertThat(user.getBalance()).isEqualTo(3000);
+        assertThat(user.tryDeductBalance(3001)).isEqualTo(User.INSUFFICIENT_BALANCE);
+        assertThat(user.getBalance()).isEqualTo(3000);
+    }
+
+    @Test
+    @DisplayName("Should refund a previous deduction")
+    void shouldRefundPreviousDeduction() {
+        User user = new User(1, 5000);
+        user.deductBalance(2000);
+
+        user.refundBalance(2000);
+
+        assertThat(user.getBalance()).isEqualTo(5000);
+        assertThrows(IllegalArgumentException.class, () -> user.refundBalance(-1));
+        assertThrows(IllegalArgumentException.class, () -> user.refundBalance(Integer.MAX_VALUE));
+    }
+
+    @Test
+    @DisplayName("Should never overdraw a hot account debited by many threads")
+    void shouldNeverOverdrawHotAccount() throws InterruptedException {
+        // Given - Enough balance for exactly 10_000 debits
+        User account = new User(1, 10_000 * 7);
+        AtomicInteger successfulDebits = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+
+        // When - 64 threads each try 500 debits
+        for (int t = 0; t < 64; t++) {
+            threads.add(new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < 500; i++) {
+                    if (account.tryDeductBalance(7) != User.INSUFFICIENT_BALANCE) {
+                        successfulDebits.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // Then
+        assertThat(successfulDebits.get()).isEqualTo(10_000);
+        assertThat(account.getBalance()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should park debits behind a pending change, then apply them to the changed balance")
+    void shouldParkBehindPendingChange() throws InterruptedException {
+        // Given - A balance change pending while it is reported
+        User user = new User(1, 5000);
+        long changed = user.beginBalanceChange(8000);
+        int[] balanceBefore = new int[1];
+        Thread debit = new Thread(() -> balanceBefore[0] = user.tryDeductBalance(1000));
+
+        // When
+        debit.start();
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (debit.getState() != Thread.State.TIMED_WAITING && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+
+        // Then - The debit waits parked rather than spinning, and sees the completed change
+        assertThat(debit.getState()).isEqualTo(Thread.State.TIMED_WAITING);
+        assertThat(user.getBalance()).isEqualTo(5000);
+        user.completeBalanceChange(changed);
+        debit.join();
+        assertThat(balanceBefore[0]).isEqualTo(8000);
+        assertThat(user.getBalance()).isEqualTo(7000);
+    }
+}
@@ -1,11 +1,17 @@
 package com.hotel;
 
+import com.skypay.hotel.log.EventSink;
+import com.skypay.hotel.model.Booking;
+import com.skypay.hotel.model.Room;
 import com.skypay.hotel.model.User;
+import com.skypay.hotel.service.MutationListener;
+import com.skypay.hotel.service.Service;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -80,4 +86,45 @@ class UserManagementTest extends BaseTest {
         User user = service.getUsers().get(0);
         assertThat(user.getBalance()).isEqualTo(0);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should report a new balance before it is visible, and keep the old one if reporting fails")
+    void shouldReportBalanceBeforeApplyingIt() {
+        // Given
+        List<Integer> visibleWhileReported = new ArrayList<>();
+        boolean[] failing = new boolean[1];
+        MutationListener journal = new MutationListener() {
+            @Override
+            public void roomSaved(Room room) {
+            }
+
+            @Override
+            public void userSaved(User user, long balanceStamp) {
+                visibleWhileReported.add(user.getBalance());
+                if (failing[0]) {
+                    throw new IllegalStateException("journal is down");
+                }
+            }
+
+            @Override
+            public void bookingCommitted(Booking booking, long balanceStamp) {
+            }
+
+            @Override
+            public void bookingCancelled(Booking booking, long balanceStamp) {
+            }
+        };
+        Service journaled = new Service(EventSink.DISCARD, journal);
+        journaled.setUser(1, 5000);
+        journaled.setUser(1, 7000);
+
+        // When
+        failing[0] = true;
+        assertThrows(IllegalStateException.class, () -> journaled.setUser(1, 9000));
+
+        // Then
+        assertThat(visibleWhileReported).containsExactly(5000, 5000, 7000);
+        assertThat(journaled.getUsers().get(0).getBalance()).isEqualTo(7000);
+        assertThat(journaled.getUsers().get(0).tryDeductBalance(7000)).isEqualTo(7000);
+    }
+}